@@ -0,0 +1,108 @@
+package com.oneeats.benchmark.image;
+
+import com.oneeats.shared.infrastructure.service.ImageResizingService;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cout de production d'une vignette a partir d'une photo de telephone:
+ * - ancien chemin: decodage pleine resolution, une seule passe bilineaire, JPEG a la qualite par defaut d'ImageIO,
+ * - ImageResizingService: decodage sous-echantillonne, divisions par deux successives, JPEG a JPEG_QUALITY.
+ *
+ * Allocation par operation: lancer avec -prof gc (gc.alloc.rate.norm).
+ * Taille de sortie par image: compteur auxiliaire outputBytes (moyenne par operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx1g"})
+public class ImageResizingBenchmark {
+
+    @Param({"1600x1200", "4000x3000"})
+    String sourceSize;
+
+    @Param({"150", "800"})
+    int targetSize;
+
+    private byte[] sourceJpeg;
+    private ImageResizingService service;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Output {
+        public long outputBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            outputBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        String[] dimensions = sourceSize.split("x");
+        BufferedImage photo = photo(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(photo, "jpg", encoded);
+        sourceJpeg = encoded.toByteArray();
+        service = new ImageResizingService();
+    }
+
+    /**
+     * Degrades et motifs fins: un aplat se compresse trop bien pour etre representatif
+     */
+    private static BufferedImage photo(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setPaint(new GradientPaint(0, 0, new Color(200, 80, 40), width, height, new Color(40, 120, 200)));
+        g2d.fillRect(0, 0, width, height);
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            g2d.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g2d.drawLine(random.nextInt(width), random.nextInt(height), random.nextInt(width), random.nextInt(height));
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public byte[] legacySinglePass(Output output) throws Exception {
+        BufferedImage original = ImageIO.read(new ByteArrayInputStream(sourceJpeg));
+        double scale = Math.min(1.0, Math.min((double) targetSize / original.getWidth(), (double) targetSize / original.getHeight()));
+        int width = Math.max(1, (int) (original.getWidth() * scale));
+        int height = Math.max(1, (int) (original.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = resized.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, width, height);
+        g2d.drawImage(original, 0, 0, width, height, null);
+        g2d.dispose();
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(resized, "jpg", encoded);
+        byte[] result = encoded.toByteArray();
+        output.outputBytes += result.length;
+        return result;
+    }
+
+    @Benchmark
+    public byte[] subsampledMultiStep(Output output) throws Exception {
+        BufferedImage decoded = service.decode(new ByteArrayInputStream(sourceJpeg), targetSize, targetSize);
+        BufferedImage resized = service.scaleToFit(decoded, targetSize, targetSize);
+        byte[] result = service.encode(resized, "jpg");
+        output.outputBytes += result.length;
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.oneeats.benchmark.image;
+
+import com.oneeats.shared.infrastructure.service.ImageHotCache;
+import com.oneeats.shared.infrastructure.service.ImageHotCache.CachedImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cout de service d'une image par /uploads:
+ * - ancienne boucle de copie 8 Ko a travers un StreamingOutput (+ Files.exists),
+ * - envoi zero-copie (FileChannel.transferTo, equivalent du sendFile de Vert.x) apres resolution en cache,
+ * - vignette chaude servie depuis la memoire.
+ *
+ * Le puits est /dev/null (Linux): seul le cote lecture/copie est mesure, pas le reseau.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageServingBenchmark {
+
+    @Param({"16384", "524288"})
+    int fileSize;
+
+    private Path directory;
+    private Path image;
+    private FileChannel sink;
+    private OutputStream sinkStream;
+    private ImageHotCache hotCache;
+    private ImageHotCache metadataOnlyCache;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("oneeats-images");
+        image = directory.resolve("0b7e2f4a-1c2d-4e5f-8a9b-0c1d2e3f4a5b_small.jpg");
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        Files.write(image, content);
+
+        sink = FileChannel.open(Paths.get("/dev/null"), StandardOpenOption.WRITE);
+        sinkStream = Channels.newOutputStream(sink);
+        hotCache = new ImageHotCache(64L * 1024 * 1024, 1024 * 1024, 1000, Duration.ofMinutes(10), 2, new SimpleMeterRegistry());
+        // Aucun contenu admis en memoire: metadonnees seulement, envoi depuis le disque
+        metadataOnlyCache = new ImageHotCache(0, 0, 1000, Duration.ofMinutes(10), 2, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        sink.close();
+        Files.deleteIfExists(image);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long legacyStreamingCopy() throws Exception {
+        if (!Files.exists(image)) {
+            throw new IllegalStateException("missing");
+        }
+        long total = 0;
+        try (InputStream input = Files.newInputStream(image)) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                sinkStream.write(buffer, 0, bytesRead);
+                total += bytesRead;
+            }
+            sinkStream.flush();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long zeroCopyTransfer() throws Exception {
+        CachedImage cached = metadataOnlyCache.lookup(image);
+        try (FileChannel source = FileChannel.open(cached.path(), StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < cached.length()) {
+                position += source.transferTo(position, cached.length() - position, sink);
+            }
+            return position;
+        }
+    }
+
+    @Benchmark
+    public long hotCacheFromMemory() throws Exception {
+        CachedImage cached = hotCache.lookup(image);
+        if (!cached.inMemory()) {
+            cached = hotCache.lookup(image);
+        }
+        return sink.write(ByteBuffer.wrap(cached.bytes()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.oneeats.benchmark.menu;
+
+import com.oneeats.menu.domain.model.MenuItem;
+import com.oneeats.menu.domain.model.MenuItemChoice;
+import com.oneeats.menu.domain.model.MenuItemOption;
+import com.oneeats.menu.domain.model.MenuItemOptionType;
+import com.oneeats.menu.domain.model.MenuPriceTable;
+import com.oneeats.menu.domain.vo.Price;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valorisation d'un panier de 50 lignes (3 choix par ligne) sur un menu de 120 articles a 4 options de 6 choix:
+ * - parcours des options et choix de chaque article avec {@code List.contains} sur les ids en texte
+ *   (ancien {@code MenuItem.calculateTotalPrice}),
+ * - grille tarifaire compilee ({@link MenuPriceTable}): recherche par id de l'article puis de chaque choix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartPricingBenchmark {
+
+    private static final int MENU_ITEMS = 120;
+    private static final int CART_LINES = 50;
+
+    private record Line(UUID menuItemId, List<UUID> choiceIds, List<String> choiceIdStrings) {}
+
+    private Map<UUID, MenuItem> menu;
+    private MenuPriceTable priceTable;
+    private List<Line> cart;
+
+    @Setup
+    public void setUp() {
+        UUID restaurantId = UUID.randomUUID();
+        menu = new HashMap<>();
+        List<MenuItem> items = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < MENU_ITEMS; i++) {
+            MenuItem item = MenuItem.create(restaurantId, "Plat " + i, null, Price.of(8 + i % 12), "PLAT");
+            List<MenuItemOption> options = new ArrayList<>();
+            for (int o = 0; o < 4; o++) {
+                MenuItemOption option = new MenuItemOption("Option " + o, null, MenuItemOptionType.EXTRA, false, 0, o);
+                for (int c = 0; c < 6; c++) {
+                    MenuItemChoice choice = MenuItemChoice.create("Choix " + c, Price.of(0.5 * c));
+                    choice.setId(UUID.randomUUID());
+                    option.addChoice(choice);
+                }
+                options.add(option);
+            }
+            item.updateOptions(options);
+            items.add(item);
+            menu.put(item.getId(), item);
+        }
+        priceTable = MenuPriceTable.compile(restaurantId, items);
+
+        cart = new ArrayList<>();
+        for (int l = 0; l < CART_LINES; l++) {
+            MenuItem item = items.get(random.nextInt(items.size()));
+            List<UUID> choiceIds = new ArrayList<>();
+            for (int s = 0; s < 3; s++) {
+                List<MenuItemChoice> choices = item.getOptions().get(s).getChoices();
+                choiceIds.add(choices.get(random.nextInt(choices.size())).getId());
+            }
+            cart.add(new Line(item.getId(), choiceIds, choiceIds.stream().map(UUID::toString).toList()));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal scanOptions() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Line line : cart) {
+            MenuItem item = menu.get(line.menuItemId());
+            Price price = item.getPrice();
+            for (MenuItemOption option : item.getOptions()) {
+                for (MenuItemChoice choice : option.getChoices()) {
+                    if (line.choiceIdStrings().contains(choice.getId().toString())) {
+                        price = price.add(choice.getAdditionalPrice());
+                    }
+                }
+            }
+            total = total.add(price.getAmount());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal compiledPriceTable() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Line line : cart) {
+            total = total.add(priceTable.price(line.menuItemId(), line.choiceIds()).unitPrice());
+        }
+        return total;
+    }
+}
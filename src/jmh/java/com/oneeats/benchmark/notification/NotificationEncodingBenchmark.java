@@ -0,0 +1,55 @@
+package com.oneeats.benchmark.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.infrastructure.websocket.NotificationFrame;
+import com.oneeats.notification.infrastructure.websocket.NotificationFrameEncoder;
+import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cout d'encodage d'une notification pour 1 000 destinataires:
+ * serialisation par envoi (ancien comportement) vs trame encodee une fois et partagee.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationEncodingBenchmark {
+
+    @Param({"1000"})
+    int recipients;
+
+    private ObjectMapper objectMapper;
+    private NotificationFrameEncoder encoder;
+    private WebSocketNotificationService.NewOrderNotification notification;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        encoder = new NotificationFrameEncoder(objectMapper);
+        notification = new WebSocketNotificationService.NewOrderNotification(
+            "new_order", UUID.randomUUID(), "ORD-0042", "Jeanne Dupont", 27.80, System.currentTimeMillis()
+        );
+    }
+
+    @Benchmark
+    public void serializePerRecipient(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < recipients; i++) {
+            blackhole.consume(objectMapper.writeValueAsString(notification));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnceAndReuseFrame(Blackhole blackhole) throws Exception {
+        NotificationFrame frame = encoder.encode(notification.type, notification);
+        for (int i = 0; i < recipients; i++) {
+            blackhole.consume(frame.text());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.oneeats.benchmark.notification;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifications de statut de commande ecrites par seconde (H2 en memoire, base de test), 500 evenements
+ * par operation, chacun avec sa trace d'idempotence et sa ligne d'historique:
+ * - une transaction par evenement, deux insertions unitaires (livraison evenement par evenement),
+ * - une transaction par lot du relais ({@code oneeats.outbox.batch-size} = 100), insertions regroupees par
+ *   table ({@code hibernate.order_inserts}) et envoyees par 50 ({@code statement-batch-size}).
+ * Les ecarts reels sont plus grands sur PostgreSQL (aller-retour reseau et fsync par commit).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationInsertBenchmark {
+
+    private static final int EVENTS = 500;
+    private static final int RELAY_BATCH_SIZE = 100;
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final String CONSUMER = "order-status-changed-notification";
+
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications " +
+        "(id, created_at, updated_at, recipient_id, type, title, message, status, scheduled_at, sent_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PROCESSED = "INSERT INTO outbox_processed_events " +
+        "(event_id, consumer, processed_at) VALUES (?, ?, ?)";
+
+    private Connection connection;
+    private UUID[] recipients;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:notifications;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS notifications (id UUID PRIMARY KEY, created_at TIMESTAMP, " +
+                "updated_at TIMESTAMP, recipient_id UUID NOT NULL, type VARCHAR(50) NOT NULL, title VARCHAR(200) NOT NULL, " +
+                "message TEXT NOT NULL, status VARCHAR(20) NOT NULL, scheduled_at TIMESTAMP, sent_at TIMESTAMP)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_notifications_recipient_inbox " +
+                "ON notifications(recipient_id, status, created_at)");
+            statement.execute("CREATE TABLE IF NOT EXISTS outbox_processed_events (event_id UUID NOT NULL, " +
+                "consumer VARCHAR(100) NOT NULL, processed_at TIMESTAMP NOT NULL, PRIMARY KEY (event_id, consumer))");
+        }
+        recipients = new UUID[1_000];
+        for (int i = 0; i < recipients.length; i++) {
+            recipients[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE notifications");
+            statement.execute("TRUNCATE TABLE outbox_processed_events");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void transactionPerEvent() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement processed = connection.prepareStatement(INSERT_PROCESSED);
+             PreparedStatement notification = connection.prepareStatement(INSERT_NOTIFICATION)) {
+            for (int i = 0; i < EVENTS; i++) {
+                bindProcessed(processed);
+                processed.executeUpdate();
+                bindNotification(notification, i);
+                notification.executeUpdate();
+                connection.commit();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void transactionPerRelayBatch() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement processed = connection.prepareStatement(INSERT_PROCESSED);
+             PreparedStatement notification = connection.prepareStatement(INSERT_NOTIFICATION)) {
+            for (int start = 0; start < EVENTS; start += RELAY_BATCH_SIZE) {
+                int end = Math.min(start + RELAY_BATCH_SIZE, EVENTS);
+                for (int i = start; i < end; i++) {
+                    bindProcessed(processed);
+                    processed.addBatch();
+                    if ((i - start + 1) % JDBC_BATCH_SIZE == 0) {
+                        processed.executeBatch();
+                    }
+                }
+                processed.executeBatch();
+                for (int i = start; i < end; i++) {
+                    bindNotification(notification, i);
+                    notification.addBatch();
+                    if ((i - start + 1) % JDBC_BATCH_SIZE == 0) {
+                        notification.executeBatch();
+                    }
+                }
+                notification.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private void bindProcessed(PreparedStatement insert) throws SQLException {
+        insert.setObject(1, UUID.randomUUID());
+        insert.setString(2, CONSUMER);
+        insert.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void bindNotification(PreparedStatement insert, int i) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert.setObject(1, UUID.randomUUID());
+        insert.setTimestamp(2, now);
+        insert.setTimestamp(3, now);
+        insert.setObject(4, recipients[i % recipients.length]);
+        insert.setString(5, "ORDER_STATUS_UPDATE");
+        insert.setString(6, "Commande prete");
+        insert.setString(7, "Votre commande est prete a etre recuperee !");
+        insert.setString(8, "SENT");
+        insert.setTimestamp(9, now);
+        insert.setTimestamp(10, now);
+    }
+}
@@ -0,0 +1,97 @@
+package com.oneeats.benchmark.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.security.infrastructure.cache.PrincipalCache;
+import com.oneeats.security.infrastructure.cache.ResolvedPrincipal;
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surcout d'authentification par requete pour un bearer token mobile:
+ * - verification: signature RS256 du jeton et lecture des claims (travail refait a chaque requete sans cache),
+ *   puis identite metier par sujet ({@link PrincipalCache}),
+ * - cache: hash SHA-256 du jeton, identite verifiee et identite metier attachee ({@link VerifiedTokenCache}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerAuthenticationBenchmark {
+
+    private static final String SUBJECT = "3f1c2a9e-5b7d-4e8f-9a0b-1c2d3e4f5a6b";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private KeyPair keyPair;
+    private String rawToken;
+    private PrincipalCache principalCache;
+    private VerifiedTokenCache tokenCache;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"bench\"}".getBytes(StandardCharsets.UTF_8));
+        // Charge utile de taille comparable a un access token Keycloak
+        String payload = encoder.encodeToString(("{\"exp\":" + exp + ",\"iat\":" + (exp - 300) + ",\"jti\":\"" + UUID.randomUUID()
+            + "\",\"iss\":\"http://localhost:8580/realms/oneeats\",\"aud\":\"account\",\"sub\":\"" + SUBJECT
+            + "\",\"typ\":\"Bearer\",\"azp\":\"oneeats-mobile\",\"session_state\":\"" + UUID.randomUUID()
+            + "\",\"realm_access\":{\"roles\":[\"user\",\"offline_access\",\"uma_authorization\"]},"
+            + "\"scope\":\"openid profile email\",\"email_verified\":true,\"name\":\"Jean Dupont\","
+            + "\"preferred_username\":\"jean.dupont@oneeats.fr\",\"given_name\":\"Jean\",\"family_name\":\"Dupont\","
+            + "\"email\":\"jean.dupont@oneeats.fr\"}").getBytes(StandardCharsets.UTF_8));
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        rawToken = header + "." + payload + "." + encoder.encodeToString(signer.sign());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(Duration.ofHours(1), 10_000, meterRegistry);
+        tokenCache = new VerifiedTokenCache(10_000, principalCache, meterRegistry);
+
+        ResolvedPrincipal principal = new ResolvedPrincipal(UUID.randomUUID(), SUBJECT, Map.of());
+        principalCache.put(SUBJECT, principal, principalCache.generation());
+        tokenCache.put(rawToken, QuarkusSecurityIdentity.builder()
+            .setPrincipal(() -> SUBJECT)
+            .addRole("user")
+            .build(), exp);
+        tokenCache.attach(tokenCache.get(rawToken), principal, principalCache.generation());
+    }
+
+    @Benchmark
+    public ResolvedPrincipal verifySignature() throws Exception {
+        int lastDot = rawToken.lastIndexOf('.');
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(rawToken.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+        if (!verifier.verify(Base64.getUrlDecoder().decode(rawToken.substring(lastDot + 1)))) {
+            throw new IllegalStateException("Invalid signature");
+        }
+        String payload = rawToken.substring(rawToken.indexOf('.') + 1, lastDot);
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        return principalCache.get(claims.path("sub").asText());
+    }
+
+    @Benchmark
+    public ResolvedPrincipal verifiedTokenCache() {
+        return tokenCache.principal(tokenCache.get(rawToken));
+    }
+}
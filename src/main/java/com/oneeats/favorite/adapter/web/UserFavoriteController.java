@@ -9,12 +9,14 @@ import com.oneeats.security.application.AuthService;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Path("/api/users/{userId}/favorites")
 @Produces(MediaType.APPLICATION_JSON)
@@ -48,15 +50,13 @@ public class UserFavoriteController {
         try {
             // Utiliser l'ID de base de données de l'utilisateur courant
             // (pas l'ID de l'URL qui peut etre le Keycloak ID)
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId); // Fallback sur userId si admin accede aux favoris d'un autre
 
             List<UserFavorite> favorites = favoriteService.getUserFavorites(dbUserId);
 
-            List<UserFavoriteDTO> favoriteDTOs = favorites.stream()
-                    .map(mapper::toDTO)
-                    .collect(Collectors.toList());
+            // Restaurants resolus en une requete pour toute la liste
+            List<UserFavoriteDTO> favoriteDTOs = mapper.toDTOs(favorites);
 
             return Response.ok(favoriteDTOs).build();
         } catch (IllegalArgumentException e) {
@@ -71,6 +71,61 @@ public class UserFavoriteController {
         }
     }
 
+    /**
+     * GET /api/users/{userId}/favorites/ids
+     * Identifiants des restaurants favoris, pour marquer toute une liste de restaurants en un appel.
+     * ETag sur le contenu: If-None-Match donne 304 tant que les favoris n'ont pas change.
+     */
+    @GET
+    @Path("/ids")
+    public Response getFavoriteRestaurantIds(@PathParam("userId") UUID userId, @Context Request request) {
+        // Verifier que l'utilisateur accede a ses propres favoris
+        if (!authService.hasRole(Roles.ADMIN) && !authService.isCurrentUser(userId)) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity(new ErrorResponse("Acces refuse"))
+                    .build();
+        }
+
+        try {
+            // Utiliser l'ID de base de données
+            UUID dbUserId = authService.getCurrentUserId()
+                    .orElse(userId);
+
+            List<UUID> restaurantIds = favoriteService.getFavoriteRestaurantIds(dbUserId);
+            EntityTag entityTag = new EntityTag(etag(restaurantIds));
+
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+            if (notModified != null) {
+                return withRevalidation(notModified, entityTag).build();
+            }
+            return withRevalidation(Response.ok(new FavoriteIdsResponse(restaurantIds)), entityTag).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(new ErrorResponse("Internal server error"))
+                    .build();
+        }
+    }
+
+    /**
+     * Empreinte de la liste triee des identifiants
+     */
+    static String etag(List<UUID> restaurantIds) {
+        long hash = 1125899906842597L;
+        for (UUID id : restaurantIds) {
+            hash = 31 * hash + id.getMostSignificantBits();
+            hash = 31 * hash + id.getLeastSignificantBits();
+        }
+        return restaurantIds.size() + "-" + Long.toHexString(hash);
+    }
+
+    private Response.ResponseBuilder withRevalidation(Response.ResponseBuilder builder, EntityTag entityTag) {
+        // Propre a l'utilisateur, toujours revalide (304 sans corps si inchange)
+        return builder
+                .tag(entityTag)
+                .header("Cache-Control", "private, no-cache")
+                .header("Vary", "Authorization");
+    }
+
     /**
      * POST /api/users/{userId}/favorites/{restaurantId}
      * Ajoute un restaurant aux favoris
@@ -88,8 +143,7 @@ public class UserFavoriteController {
 
         try {
             // Utiliser l'ID de base de données
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId);
 
             UserFavorite favorite = favoriteService.addFavorite(dbUserId, restaurantId);
@@ -130,8 +184,7 @@ public class UserFavoriteController {
 
         try {
             // Utiliser l'ID de base de données
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId);
 
             favoriteService.removeFavorite(dbUserId, restaurantId);
@@ -165,8 +218,7 @@ public class UserFavoriteController {
 
         try {
             // Utiliser l'ID de base de données
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId);
 
             boolean isFavorite = favoriteService.isFavorite(dbUserId, restaurantId);
@@ -195,8 +247,7 @@ public class UserFavoriteController {
 
         try {
             // Utiliser l'ID de base de données
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId);
 
             boolean added = favoriteService.toggleFavorite(dbUserId, restaurantId);
@@ -229,8 +280,7 @@ public class UserFavoriteController {
 
         try {
             // Utiliser l'ID de base de données
-            UUID dbUserId = authService.getCurrentUser()
-                    .map(user -> user.getId())
+            UUID dbUserId = authService.getCurrentUserId()
                     .orElse(userId);
 
             long count = favoriteService.countUserFavorites(dbUserId);
@@ -247,4 +297,5 @@ public class UserFavoriteController {
     record FavoriteResponse(boolean isFavorite, String message, UserFavoriteDTO favorite) {}
     record FavoriteStatusResponse(boolean isFavorite) {}
     record FavoriteCountResponse(long count) {}
+    record FavoriteIdsResponse(List<UUID> restaurantIds) {}
 }
\ No newline at end of file
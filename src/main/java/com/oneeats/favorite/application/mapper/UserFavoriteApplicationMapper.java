@@ -7,7 +7,12 @@ import com.oneeats.restaurant.domain.repository.IRestaurantRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class UserFavoriteApplicationMapper {
@@ -21,11 +26,28 @@ public class UserFavoriteApplicationMapper {
         }
 
         // Récupérer les vraies données du restaurant depuis la base de données
-        Optional<Restaurant> restaurantOpt = restaurantRepository.findById(favorite.getRestaurantId());
+        return toDTO(favorite, restaurantRepository.findById(favorite.getRestaurantId()).orElse(null));
+    }
 
-        if (restaurantOpt.isPresent()) {
-            Restaurant restaurant = restaurantOpt.get();
+    /**
+     * Favoris d'une liste, restaurants charges en une seule requete
+     */
+    public List<UserFavoriteDTO> toDTOs(List<UserFavorite> favorites) {
+        if (favorites.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> restaurantIds = favorites.stream()
+            .map(UserFavorite::getRestaurantId)
+            .collect(Collectors.toSet());
+        Map<UUID, Restaurant> restaurants = restaurantRepository.findAllById(restaurantIds).stream()
+            .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return favorites.stream()
+            .map(favorite -> toDTO(favorite, restaurants.get(favorite.getRestaurantId())))
+            .collect(Collectors.toList());
+    }
 
+    private UserFavoriteDTO toDTO(UserFavorite favorite, Restaurant restaurant) {
+        if (restaurant != null) {
             return new UserFavoriteDTO(
                 favorite.getId(),
                 favorite.getUserId(),
@@ -58,4 +80,4 @@ public class UserFavoriteApplicationMapper {
             );
         }
     }
-}
\ No newline at end of file
+}
@@ -71,6 +71,13 @@ public class UserFavoriteService {
         return favoriteRepository.findByUserId(userId);
     }
 
+    /**
+     * Identifiants des restaurants favoris d'un utilisateur (tries), sans charger les favoris ni les restaurants
+     */
+    public List<UUID> getFavoriteRestaurantIds(UUID userId) {
+        return favoriteRepository.findRestaurantIdsByUserId(userId);
+    }
+
     /**
      * Vérifie si un restaurant est dans les favoris d'un utilisateur
      */
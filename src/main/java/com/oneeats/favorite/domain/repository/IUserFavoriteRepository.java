@@ -23,6 +23,11 @@ public interface IUserFavoriteRepository {
      */
     List<UserFavorite> findByUserId(UUID userId);
 
+    /**
+     * Identifiants des restaurants favoris d'un utilisateur, tries
+     */
+    List<UUID> findRestaurantIdsByUserId(UUID userId);
+
     /**
      * Trouve un favori spécifique par utilisateur et restaurant
      */
@@ -45,6 +45,13 @@ public class UserFavoriteEntity extends PanacheEntityBase {
         return list("userId", userId);
     }
 
+    public static java.util.List<UUID> findRestaurantIdsByUserId(UUID userId) {
+        return getEntityManager()
+                .createQuery("select f.restaurantId from UserFavoriteEntity f where f.userId = ?1 order by f.restaurantId", UUID.class)
+                .setParameter(1, userId)
+                .getResultList();
+    }
+
     public static long countByUserId(UUID userId) {
         return count("userId", userId);
     }
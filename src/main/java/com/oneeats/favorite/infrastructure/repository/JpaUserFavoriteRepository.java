@@ -41,6 +41,11 @@ public class JpaUserFavoriteRepository implements IUserFavoriteRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UUID> findRestaurantIdsByUserId(UUID userId) {
+        return UserFavoriteEntity.findRestaurantIdsByUserId(userId);
+    }
+
     @Override
     public Optional<UserFavorite> findByUserIdAndRestaurantId(UUID userId, UUID restaurantId) {
         UserFavoriteEntity entity = UserFavoriteEntity.findByUserAndRestaurant(userId, restaurantId);
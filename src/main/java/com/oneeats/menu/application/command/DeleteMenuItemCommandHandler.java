@@ -1,7 +1,9 @@
 package com.oneeats.menu.application.command;
 
+import com.oneeats.menu.domain.model.MenuItem;
 import com.oneeats.menu.domain.repository.IMenuItemRepository;
 import com.oneeats.shared.domain.exception.EntityNotFoundException;
+import com.oneeats.shared.infrastructure.service.FileStorageService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -11,13 +13,17 @@ public class DeleteMenuItemCommandHandler {
     
     @Inject
     IMenuItemRepository menuItemRepository;
+
+    @Inject
+    FileStorageService fileStorageService;
     
     @Transactional
     public void handle(DeleteMenuItemCommand command) {
-        if (!menuItemRepository.existsById(command.id())) {
-            throw new EntityNotFoundException("MenuItem", command.id());
-        }
-        
+        MenuItem menuItem = menuItemRepository.findById(command.id())
+            .orElseThrow(() -> new EntityNotFoundException("MenuItem", command.id()));
+
+        // L'image est supprimee par le GC des images une fois sans reference
+        fileStorageService.releaseImage(menuItem.getImageUrl());
         menuItemRepository.deleteById(command.id());
     }
 }
\ No newline at end of file
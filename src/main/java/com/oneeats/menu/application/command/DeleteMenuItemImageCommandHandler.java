@@ -28,11 +28,11 @@ public class DeleteMenuItemImageCommandHandler {
         MenuItem menuItem = menuItemRepository.findById(command.menuItemId())
             .orElseThrow(() -> new EntityNotFoundException("Menu item not found"));
 
-        // Delete image file if exists and it's a local file (not external URL)
+        // Release image if exists and it's a local file (not external URL): files are removed by the image GC
         if (menuItem.getImageUrl() != null &&
             !menuItem.getImageUrl().startsWith("http://") &&
             !menuItem.getImageUrl().startsWith("https://")) {
-            fileStorageService.deleteFile(menuItem.getImageUrl());
+            fileStorageService.releaseImage(menuItem.getImageUrl());
         }
 
         // Clear image URL
@@ -31,18 +31,17 @@ public class UploadMenuItemImageCommandHandler {
             .orElseThrow(() -> new EntityNotFoundException("Menu item not found"));
 
         try {
-            // Delete old image if exists and it's a local file (not external URL)
+            // Release old image if exists and it's a local file (not external URL): files are removed by the image GC
             if (menuItem.getImageUrl() != null &&
                 !menuItem.getImageUrl().startsWith("http://") &&
                 !menuItem.getImageUrl().startsWith("https://")) {
-                fileStorageService.deleteFile(menuItem.getImageUrl());
+                fileStorageService.releaseImage(menuItem.getImageUrl());
             }
 
             // Save new image
             String imageUrl = fileStorageService.saveMenuItemImage(
                 command.inputStream(),
-                command.filename(),
-                command.fileSize()
+                command.filename()
             );
 
             // Update menu item
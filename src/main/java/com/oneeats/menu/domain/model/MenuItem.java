@@ -9,7 +9,9 @@ import com.oneeats.menu.domain.event.MenuItemAvailabilityChangedEvent;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -205,10 +207,11 @@ public class MenuItem extends BaseEntity {
      */
     public Price calculateTotalPrice(List<String> selectedChoiceIds) {
         Price total = this.price;
+        Set<String> selected = new HashSet<>(selectedChoiceIds);
         
         for (MenuItemOption option : options) {
             for (MenuItemChoice choice : option.getChoices()) {
-                if (selectedChoiceIds.contains(choice.getId().toString())) {
+                if (selected.contains(choice.getId().toString())) {
                     total = total.add(choice.getAdditionalPrice());
                 }
             }
@@ -0,0 +1,128 @@
+package com.oneeats.menu.domain.model;
+
+import com.oneeats.menu.domain.vo.PreparationTime;
+import com.oneeats.shared.domain.exception.ValidationException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Grille tarifaire compilee du menu d'un restaurant, immuable.
+ *
+ * Article → prix de base, disponibilite et temps de preparation, choix → supplement, option et disponibilite,
+ * indexes par id: le prix d'une ligne de panier se calcule sans parcourir les options ni les choix de l'article.
+ * Source de verite du prix a la prise de commande (les prix envoyes par le client sont ignores).
+ */
+public final class MenuPriceTable {
+
+    /**
+     * Ligne valorisee: nom, prix unitaire (base + supplements) et temps de preparation au moment de la commande
+     */
+    public record PricedItem(UUID menuItemId, String name, BigDecimal unitPrice, int preparationMinutes) {}
+
+    private record ItemPrice(String name, BigDecimal basePrice, boolean orderable, int preparationMinutes,
+                             List<OptionRule> options) {}
+
+    private record OptionRule(String name, boolean required, int maxChoices) {}
+
+    private record ChoicePrice(UUID menuItemId, int optionIndex, BigDecimal surcharge, boolean available) {}
+
+    private final UUID restaurantId;
+    private final Map<UUID, ItemPrice> items;
+    private final Map<UUID, ChoicePrice> choices;
+
+    private MenuPriceTable(UUID restaurantId, Map<UUID, ItemPrice> items, Map<UUID, ChoicePrice> choices) {
+        this.restaurantId = restaurantId;
+        this.items = items;
+        this.choices = choices;
+    }
+
+    /**
+     * Compile les articles d'un restaurant (options et choix charges)
+     */
+    public static MenuPriceTable compile(UUID restaurantId, Collection<MenuItem> menuItems) {
+        Map<UUID, ItemPrice> items = new HashMap<>(menuItems.size() * 2);
+        Map<UUID, ChoicePrice> choices = new HashMap<>();
+        for (MenuItem menuItem : menuItems) {
+            List<MenuItemOption> options = menuItem.getOptions();
+            OptionRule[] rules = new OptionRule[options.size()];
+            for (int i = 0; i < rules.length; i++) {
+                MenuItemOption option = options.get(i);
+                rules[i] = new OptionRule(option.getName(), option.getIsRequired(), option.getMaxChoices());
+                for (MenuItemChoice choice : option.getChoices()) {
+                    if (choice.getId() == null) {
+                        continue;
+                    }
+                    choices.put(choice.getId(), new ChoicePrice(menuItem.getId(), i,
+                        choice.getAdditionalPrice().getAmount(), choice.getIsAvailable()));
+                }
+            }
+            PreparationTime preparationTime = menuItem.getTotalPreparationTime();
+            items.put(menuItem.getId(), new ItemPrice(menuItem.getName().getValue(), menuItem.getPrice().getAmount(),
+                menuItem.canBeOrdered(), preparationTime != null ? preparationTime.getMinutes() : 0, List.of(rules)));
+        }
+        return new MenuPriceTable(restaurantId, Map.copyOf(items), Map.copyOf(choices));
+    }
+
+    /**
+     * Valorise et valide un article avec ses choix: article du restaurant et commandable, choix de cet article
+     * et disponibles, options obligatoires renseignees, nombre maximal de choix par option respecte.
+     */
+    public PricedItem price(UUID menuItemId, Collection<UUID> choiceIds) {
+        ItemPrice item = items.get(menuItemId);
+        if (item == null) {
+            throw new ValidationException("Menu item " + menuItemId + " does not belong to restaurant " + restaurantId);
+        }
+        if (!item.orderable()) {
+            throw new ValidationException("Menu item '" + item.name() + "' is not available");
+        }
+
+        BigDecimal unitPrice = item.basePrice();
+        int[] selected = new int[item.options().size()];
+        if (choiceIds != null) {
+            for (UUID choiceId : choiceIds) {
+                ChoicePrice choice = choices.get(choiceId);
+                if (choice == null || !choice.menuItemId().equals(menuItemId)) {
+                    throw new ValidationException("Invalid choice ID: " + choiceId);
+                }
+                if (!choice.available()) {
+                    throw new ValidationException("Choice " + choiceId + " of '" + item.name() + "' is not available");
+                }
+                selected[choice.optionIndex()]++;
+                unitPrice = unitPrice.add(choice.surcharge());
+            }
+        }
+
+        for (int i = 0; i < selected.length; i++) {
+            OptionRule rule = item.options().get(i);
+            if (rule.required() && selected[i] == 0) {
+                throw new ValidationException("Option '" + rule.name() + "' is required");
+            }
+            // 0: nombre de choix illimite
+            if (rule.maxChoices() > 0 && selected[i] > rule.maxChoices()) {
+                throw new ValidationException("Option '" + rule.name() + "' allows maximum " + rule.maxChoices() + " choices");
+            }
+        }
+        return new PricedItem(menuItemId, item.name(), unitPrice, item.preparationMinutes());
+    }
+
+    /**
+     * Temps de preparation d'un article en minutes, 0 si inconnu (article retire du menu ou sans temps)
+     */
+    public int preparationMinutes(UUID menuItemId) {
+        ItemPrice item = items.get(menuItemId);
+        return item != null ? item.preparationMinutes() : 0;
+    }
+
+    public UUID getRestaurantId() {
+        return restaurantId;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
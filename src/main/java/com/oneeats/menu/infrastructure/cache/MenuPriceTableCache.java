@@ -0,0 +1,130 @@
+package com.oneeats.menu.infrastructure.cache;
+
+import com.oneeats.menu.domain.model.MenuPriceTable;
+import com.oneeats.menu.domain.repository.IMenuItemRepository;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grilles tarifaires compilees, par restaurant.
+ *
+ * Compilee au premier besoin depuis le menu (articles, options et choix en une requete), puis partagee.
+ * Toute ecriture d'article du restaurant invalide sa grille, immediatement puis a la fin de la transaction;
+ * une compilation commencee avant une invalidation n'est pas mise en cache (generation).
+ * Le TTL borne l'obsolescence des modifications faites par un autre noeud.
+ * Nombre de restaurants borne (LRU): une nouvelle grille evince la moins recemment utilisee, en O(1).
+ */
+@ApplicationScoped
+public class MenuPriceTableCache {
+
+    @ConfigProperty(name = "oneeats.menu.price-table.ttl", defaultValue = "5m")
+    Duration ttl;
+
+    @ConfigProperty(name = "oneeats.menu.price-table.max-restaurants", defaultValue = "2000")
+    int maxRestaurants;
+
+    @Inject
+    IMenuItemRepository menuItemRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final LinkedHashMap<UUID, Entry> tables = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > maxRestaurants;
+        }
+    };
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    public MenuPriceTableCache() {
+    }
+
+    public MenuPriceTableCache(IMenuItemRepository menuItemRepository, Duration ttl, int maxRestaurants,
+                               MeterRegistry meterRegistry) {
+        this.menuItemRepository = menuItemRepository;
+        this.ttl = ttl;
+        this.maxRestaurants = maxRestaurants;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("oneeats.menu.price-table", "result", "hit");
+        misses = meterRegistry.counter("oneeats.menu.price-table", "result", "miss");
+        meterRegistry.gauge("oneeats.menu.price-table.size", this, MenuPriceTableCache::size);
+    }
+
+    /**
+     * Grille du restaurant, compilee si absente ou expiree
+     */
+    public MenuPriceTable get(UUID restaurantId) {
+        Entry entry;
+        synchronized (tables) {
+            entry = tables.get(restaurantId);
+        }
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            hits.increment();
+            return entry.table;
+        }
+        misses.increment();
+
+        long compiledAtGeneration = generation.get();
+        MenuPriceTable table = MenuPriceTable.compile(restaurantId, menuItemRepository.findByRestaurantId(restaurantId));
+        put(restaurantId, table, compiledAtGeneration);
+        return table;
+    }
+
+    private void put(UUID restaurantId, MenuPriceTable table, long compiledAtGeneration) {
+        Entry entry = new Entry(table, System.nanoTime() + ttl.toNanos());
+        synchronized (tables) {
+            // Invalidation concurrente: le menu lu peut etre anterieur a la modification
+            if (generation.get() == compiledAtGeneration) {
+                tables.put(restaurantId, entry);
+            }
+        }
+    }
+
+    /**
+     * Menu du restaurant modifie
+     */
+    public void invalidate(UUID restaurantId) {
+        evict(restaurantId);
+        // Une commande concurrente peut recompiler l'etat anterieur avant le commit: on invalide a nouveau apres
+        AfterCommit.afterCompletion(transactionRegistry, () -> evict(restaurantId));
+    }
+
+    public int size() {
+        synchronized (tables) {
+            return tables.size();
+        }
+    }
+
+    private void evict(UUID restaurantId) {
+        generation.incrementAndGet();
+        synchronized (tables) {
+            tables.remove(restaurantId);
+        }
+    }
+
+    private record Entry(MenuPriceTable table, long expiresAt) {}
+}
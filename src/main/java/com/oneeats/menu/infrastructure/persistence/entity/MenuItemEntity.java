@@ -17,7 +17,8 @@ import java.util.UUID;
 @Table(name = "menu_item", indexes = {
     @Index(name = "idx_menu_item_restaurant_id", columnList = "restaurant_id"),
     @Index(name = "idx_menu_item_category", columnList = "category"),
-    @Index(name = "idx_menu_item_available", columnList = "is_available")
+    @Index(name = "idx_menu_item_available", columnList = "is_available"),
+    @Index(name = "idx_menu_item_image_url", columnList = "image_url")
 })
 public class MenuItemEntity {
     
@@ -3,6 +3,7 @@ package com.oneeats.menu.infrastructure.persistence.repository;
 import com.oneeats.menu.domain.model.MenuItem;
 import com.oneeats.menu.domain.repository.IMenuItemRepository;
 import com.oneeats.menu.domain.vo.Category;
+import com.oneeats.menu.infrastructure.cache.MenuPriceTableCache;
 import com.oneeats.menu.infrastructure.persistence.entity.MenuItemEntity;
 import com.oneeats.menu.infrastructure.persistence.mapper.MenuItemPersistenceMapper;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -28,6 +29,9 @@ public class MenuItemRepositoryImpl implements IMenuItemRepository {
     
     @Inject
     MenuItemPersistenceMapper mapper;
+
+    @Inject
+    MenuPriceTableCache priceTableCache;
     
     @Override
     public MenuItem save(MenuItem menuItem) {
@@ -50,6 +54,7 @@ public class MenuItemRepositoryImpl implements IMenuItemRepository {
         }
         
         entityManager.flush();
+        priceTableCache.invalidate(entity.getRestaurantId());
         return mapper.toDomain(entity);
     }
     
@@ -73,6 +78,7 @@ public class MenuItemRepositoryImpl implements IMenuItemRepository {
         MenuItemEntity entity = entityManager.find(MenuItemEntity.class, id);
         if (entity != null) {
             entityManager.remove(entity);
+            priceTableCache.invalidate(entity.getRestaurantId());
         }
     }
     
@@ -239,6 +245,12 @@ public class MenuItemRepositoryImpl implements IMenuItemRepository {
     
     @Override
     public boolean deleteByIdSafe(UUID id) {
+        entityManager.createQuery(
+            "SELECT mi.restaurantId FROM MenuItemEntity mi WHERE mi.id = :id", UUID.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .ifPresent(priceTableCache::invalidate);
         int deletedCount = entityManager.createQuery(
             "DELETE FROM MenuItemEntity mi WHERE mi.id = :id")
             .setParameter("id", id)
@@ -317,5 +329,6 @@ public class MenuItemRepositoryImpl implements IMenuItemRepository {
             "DELETE FROM MenuItemEntity mi WHERE mi.restaurantId = :restaurantId")
             .setParameter("restaurantId", restaurantId)
             .executeUpdate();
+        priceTableCache.invalidate(restaurantId);
     }
 }
\ No newline at end of file
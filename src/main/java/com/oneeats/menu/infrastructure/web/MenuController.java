@@ -21,6 +21,7 @@ import com.oneeats.menu.application.dto.MenuItemDTO;
 import com.oneeats.security.Roles;
 import com.oneeats.security.application.AuthService;
 import com.oneeats.shared.domain.exception.EntityNotFoundException;
+import com.oneeats.shared.infrastructure.image.ImageDerivativePipeline;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
@@ -30,11 +31,13 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.UUID;
 
@@ -230,7 +233,7 @@ public class MenuController {
     @RolesAllowed({Roles.RESTAURANT, Roles.ADMIN})
     public Response uploadMenuItemImage(
         @PathParam("id") UUID id,
-        @FormParam("file") InputStream fileStream,
+        @RestForm("file") FileUpload file,
         @FormParam("filename") String filename
     ) {
         // Verifier l'acces au restaurant (sauf admin)
@@ -247,7 +250,7 @@ public class MenuController {
         }
 
         try {
-            if (fileStream == null) {
+            if (file == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
                     .entity("File is required")
                     .build();
@@ -257,24 +260,27 @@ public class MenuController {
                     .entity("Filename is required")
                     .build();
             }
-
-            // Read file into byte array for size validation
-            byte[] fileBytes = fileStream.readAllBytes();
-            if (fileBytes.length == 0) {
+            if (file.size() == 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Empty file")
                     .build();
             }
 
-            ByteArrayInputStream byteStream = new ByteArrayInputStream(fileBytes);
-            UploadMenuItemImageCommand command = new UploadMenuItemImageCommand(
-                id,
-                byteStream,
-                filename,
-                fileBytes.length
-            );
-            MenuItemDTO menuItem = uploadMenuItemImageCommandHandler.handle(command);
-            return Response.ok(menuItem).build();
+            // Le fichier a ete ecrit sur disque pendant la reception: il est relu en flux, sans copie en memoire
+            MenuItemDTO menuItem;
+            try (InputStream fileStream = Files.newInputStream(file.uploadedFile())) {
+                UploadMenuItemImageCommand command = new UploadMenuItemImageCommand(
+                    id,
+                    fileStream,
+                    filename,
+                    file.size()
+                );
+                menuItem = uploadMenuItemImageCommandHandler.handle(command);
+            }
+            // Les tailles (large, medium, small) sont generees en arriere-plan
+            return Response.ok(menuItem)
+                .header(ImageDerivativePipeline.STATUS_HEADER, ImageDerivativePipeline.STATUS_PENDING)
+                .build();
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                 .entity(e.getMessage())
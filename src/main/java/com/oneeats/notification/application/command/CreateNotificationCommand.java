@@ -4,11 +4,21 @@ import com.oneeats.notification.domain.model.NotificationType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * @param scheduledAt envoi au plus tot (immediat si absent)
+ */
 public record CreateNotificationCommand(
     @NotNull UUID recipientId,
     @NotNull NotificationType type,
     @NotBlank String title,
-    @NotBlank String message
-) {}
\ No newline at end of file
+    @NotBlank String message,
+    LocalDateTime scheduledAt
+) {
+
+    public CreateNotificationCommand(UUID recipientId, NotificationType type, String title, String message) {
+        this(recipientId, type, title, message, null);
+    }
+}
@@ -5,10 +5,14 @@ import com.oneeats.notification.application.mapper.NotificationApplicationMapper
 import com.oneeats.notification.domain.model.Notification;
 import com.oneeats.notification.domain.repository.INotificationRepository;
 import com.oneeats.notification.domain.service.NotificationDomainService;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import com.oneeats.notification.infrastructure.delivery.ScheduledNotificationDispatcher;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+
 @ApplicationScoped
 public class CreateNotificationCommandHandler {
 
@@ -21,21 +25,50 @@ public class CreateNotificationCommandHandler {
     @Inject
     NotificationApplicationMapper mapper;
 
+    @Inject
+    ScheduledNotificationDispatcher scheduledNotificationDispatcher;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    /**
+     * Enregistre la notification; elle est envoyee (WebSocket et push) a {@code scheduledAt}, ou des le commit
+     */
     @Transactional
     public NotificationDTO handle(CreateNotificationCommand command) {
+        Notification notification = create(command);
+        Notification savedNotification = notificationRepository.save(notification);
+        scheduledNotificationDispatcher.schedule(savedNotification.getScheduledAt());
+        return mapper.toDTO(savedNotification);
+    }
+
+    /**
+     * Enregistre une notification deja envoyee par l'appelant (historique), sans nouvel envoi.
+     * Ecrite dans la transaction de l'appelant: un gestionnaire de l'outbox la valide avec sa trace
+     * d'idempotence (ni doublon apres un rollback, ni perte apres un commit). Le relais livrant un lot
+     * d'evenements par transaction, les lignes d'un lot partent ensemble en lots JDBC.
+     */
+    @Transactional
+    public NotificationDTO handleDelivered(CreateNotificationCommand command) {
+        Notification notification = create(command);
+        notification.markAsSent();
+        Notification savedNotification = notificationRepository.save(notification);
+        unreadCounter.adjust(savedNotification.getRecipientId(), 1);
+        return mapper.toDTO(savedNotification);
+    }
+
+    private Notification create(CreateNotificationCommand command) {
         notificationDomainService.validateNotificationCreation(
-            command.title(), 
+            command.title(),
             command.message()
         );
 
-        Notification notification = Notification.create(
+        return Notification.schedule(
             command.recipientId(),
             command.type(),
             command.title(),
-            command.message()
+            command.message(),
+            command.scheduledAt() != null ? command.scheduledAt() : LocalDateTime.now()
         );
-
-        Notification savedNotification = notificationRepository.save(notification);
-        return mapper.toDTO(savedNotification);
     }
-}
\ No newline at end of file
+}
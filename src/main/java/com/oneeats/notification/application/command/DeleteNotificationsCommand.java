@@ -0,0 +1,13 @@
+package com.oneeats.notification.application.command;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DeleteNotificationsCommand(
+    @NotNull UUID recipientId,
+    @NotEmpty @Size(max = 500) List<UUID> notificationIds
+) {}
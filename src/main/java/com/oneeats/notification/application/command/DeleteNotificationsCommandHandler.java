@@ -0,0 +1,33 @@
+package com.oneeats.notification.application.command;
+
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+
+@ApplicationScoped
+public class DeleteNotificationsCommandHandler {
+
+    @Inject
+    INotificationRepository notificationRepository;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    /**
+     * Une seule requete DELETE; seules les notifications du destinataire sont supprimees
+     *
+     * @return nombre de notifications supprimees
+     */
+    @Transactional
+    public int handle(@Valid DeleteNotificationsCommand command) {
+        int deleted = notificationRepository.deleteByRecipientId(command.recipientId(), command.notificationIds());
+        if (deleted > 0) {
+            // Part des non lues inconnue: compteur relu en base
+            unreadCounter.invalidate(command.recipientId());
+        }
+        return deleted;
+    }
+}
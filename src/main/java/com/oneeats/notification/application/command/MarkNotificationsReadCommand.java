@@ -0,0 +1,15 @@
+package com.oneeats.notification.application.command;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param notificationIds notifications a marquer lues (toutes les non lues si absent)
+ */
+public record MarkNotificationsReadCommand(
+    @NotNull UUID recipientId,
+    @Size(max = 500) List<UUID> notificationIds
+) {}
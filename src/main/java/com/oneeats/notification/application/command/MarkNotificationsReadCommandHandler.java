@@ -0,0 +1,32 @@
+package com.oneeats.notification.application.command;
+
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+
+@ApplicationScoped
+public class MarkNotificationsReadCommandHandler {
+
+    @Inject
+    INotificationRepository notificationRepository;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    /**
+     * Une seule requete UPDATE, quel que soit le nombre de notifications
+     *
+     * @return nombre de notifications marquees lues
+     */
+    @Transactional
+    public int handle(@Valid MarkNotificationsReadCommand command) {
+        int updated = notificationRepository.markAsRead(command.recipientId(), command.notificationIds());
+        if (updated > 0) {
+            unreadCounter.adjust(command.recipientId(), -updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,12 @@
+package com.oneeats.notification.application.dto;
+
+import java.util.List;
+
+/**
+ * @param nextCursor a repasser pour la page suivante, null sur la derniere page
+ */
+public record NotificationInboxDTO(
+    List<NotificationDTO> items,
+    String nextCursor,
+    long unreadCount
+) {}
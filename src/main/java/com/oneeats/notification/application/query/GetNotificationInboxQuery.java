@@ -0,0 +1,17 @@
+package com.oneeats.notification.application.query;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Page de la boite de reception d'un utilisateur
+ *
+ * @param cursor curseur {@code nextCursor} de la page precedente (premiere page si absent)
+ */
+public record GetNotificationInboxQuery(
+    @NotNull UUID recipientId,
+    String cursor,
+    Integer limit,
+    boolean unreadOnly
+) {}
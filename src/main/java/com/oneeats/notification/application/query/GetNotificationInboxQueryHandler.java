@@ -0,0 +1,60 @@
+package com.oneeats.notification.application.query;
+
+import com.oneeats.notification.application.dto.NotificationDTO;
+import com.oneeats.notification.application.dto.NotificationInboxDTO;
+import com.oneeats.notification.application.mapper.NotificationApplicationMapper;
+import com.oneeats.notification.domain.model.Notification;
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class GetNotificationInboxQueryHandler {
+
+    @Inject
+    INotificationRepository notificationRepository;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    @Inject
+    NotificationApplicationMapper mapper;
+
+    @ConfigProperty(name = "oneeats.api.pagination.default-page-size", defaultValue = "20")
+    int defaultPageSize;
+
+    @ConfigProperty(name = "oneeats.api.pagination.max-page-size", defaultValue = "100")
+    int maxPageSize;
+
+    public NotificationInboxDTO handle(GetNotificationInboxQuery query) {
+        int limit = query.limit() == null || query.limit() <= 0
+            ? defaultPageSize
+            : Math.min(query.limit(), maxPageSize);
+        NotificationCursor cursor = NotificationCursor.decode(query.cursor());
+
+        // Une ligne de plus pour savoir s'il existe une page suivante
+        List<Notification> page = notificationRepository.findInboxPage(query.recipientId(), query.unreadOnly(),
+            cursor != null ? cursor.createdAt() : null, cursor != null ? cursor.id() : null, limit + 1);
+
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            Notification last = page.get(limit - 1);
+            nextCursor = new NotificationCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<NotificationDTO> items = page.stream()
+            .map(mapper::toDTO)
+            .collect(Collectors.toList());
+        return new NotificationInboxDTO(items, nextCursor, unreadCounter.get(query.recipientId()));
+    }
+
+    public long countUnread(UUID recipientId) {
+        return unreadCounter.get(recipientId);
+    }
+}
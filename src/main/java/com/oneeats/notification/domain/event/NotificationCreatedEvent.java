@@ -8,16 +8,25 @@ import java.util.UUID;
 
 public class NotificationCreatedEvent implements IDomainEvent {
     
+    private final UUID eventId;
     private final UUID notificationId;
     private final UUID recipientId;
     private final NotificationType type;
     private final LocalDateTime occurredOn;
 
     public NotificationCreatedEvent(UUID notificationId, UUID recipientId, NotificationType type) {
+        this(UUID.randomUUID(), notificationId, recipientId, type, LocalDateTime.now());
+    }
+
+    /**
+     * Reconstitution d'un evenement persiste (outbox): conserve son identifiant et sa date.
+     */
+    public NotificationCreatedEvent(UUID eventId, UUID notificationId, UUID recipientId, NotificationType type, LocalDateTime occurredOn) {
+        this.eventId = eventId;
         this.notificationId = notificationId;
         this.recipientId = recipientId;
         this.type = type;
-        this.occurredOn = LocalDateTime.now();
+        this.occurredOn = occurredOn;
     }
 
     @Override
@@ -25,6 +34,10 @@ public class NotificationCreatedEvent implements IDomainEvent {
         return occurredOn;
     }
 
+    public UUID getEventId() {
+        return eventId;
+    }
+
     public UUID getNotificationId() {
         return notificationId;
     }
@@ -36,4 +49,4 @@ public class NotificationCreatedEvent implements IDomainEvent {
     public NotificationType getType() {
         return type;
     }
-}
\ No newline at end of file
+}
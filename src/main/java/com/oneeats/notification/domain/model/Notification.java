@@ -29,7 +29,31 @@ public class Notification extends BaseEntity {
         this.scheduledAt = scheduledAt;
     }
 
+    /**
+     * Reconstitution depuis la persistance (dates conservees)
+     */
+    public Notification(UUID id, UUID recipientId, NotificationType type, String title, String message,
+                        NotificationStatus status, LocalDateTime scheduledAt, LocalDateTime sentAt,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        super(id, createdAt, updatedAt);
+        this.recipientId = recipientId;
+        this.type = type;
+        this.title = title;
+        this.message = message;
+        this.status = status;
+        this.scheduledAt = scheduledAt;
+        this.sentAt = sentAt;
+    }
+
     public static Notification create(UUID recipientId, NotificationType type, String title, String message) {
+        return schedule(recipientId, type, title, message, LocalDateTime.now());
+    }
+
+    /**
+     * Notification a envoyer au plus tot a {@code scheduledAt} (PENDING jusqu'a son envoi)
+     */
+    public static Notification schedule(UUID recipientId, NotificationType type, String title, String message,
+                                        LocalDateTime scheduledAt) {
         Notification notification = new Notification(
             UUID.randomUUID(),
             recipientId,
@@ -37,7 +61,7 @@ public class Notification extends BaseEntity {
             title,
             message,
             NotificationStatus.PENDING,
-            LocalDateTime.now()
+            scheduledAt
         );
         
         notification.addDomainEvent(new NotificationCreatedEvent(
@@ -4,7 +4,10 @@ import com.oneeats.notification.domain.model.Notification;
 import com.oneeats.notification.domain.model.NotificationStatus;
 import com.oneeats.notification.domain.model.NotificationType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,4 +28,35 @@ public interface INotificationRepository {
     void delete(Notification notification);
     
     long countUnreadByRecipientId(UUID recipientId);
+
+    /**
+     * Non lues par destinataire (absents: aucune)
+     */
+    Map<UUID, Long> countUnreadByRecipientIds(Collection<UUID> recipientIds);
+
+    /**
+     * Page de la boite de reception (notifications envoyees), de la plus recente a la plus ancienne,
+     * strictement apres le curseur {@code (beforeCreatedAt, beforeId)} s'il est fourni
+     */
+    List<Notification> findInboxPage(UUID recipientId, boolean unreadOnly, LocalDateTime beforeCreatedAt,
+                                     UUID beforeId, int limit);
+
+    /**
+     * Passe a READ les notifications non lues du destinataire ({@code ids} null: toutes)
+     *
+     * @return nombre de notifications marquees
+     */
+    int markAsRead(UUID recipientId, Collection<UUID> ids);
+
+    /**
+     * @return nombre de notifications supprimees
+     */
+    int deleteByRecipientId(UUID recipientId, Collection<UUID> ids);
+
+    /**
+     * Supprime au plus {@code limit} notifications envoyees, lues ou en echec (pas les envois a venir) creees avant {@code threshold}
+     *
+     * @return nombre de notifications supprimees
+     */
+    int deleteSentBefore(LocalDateTime threshold, int limit);
 }
\ No newline at end of file
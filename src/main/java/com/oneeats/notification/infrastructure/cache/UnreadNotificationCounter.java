@@ -0,0 +1,224 @@
+package com.oneeats.notification.infrastructure.cache;
+
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur de notifications non lues par utilisateur, en memoire (badge de l'application).
+ *
+ * - Charge par un COUNT au premier acces, puis tenu a jour par les envois et lectures de ce noeud,
+ *   appliques apres le commit.
+ * - Rapprochement periodique avec la base, par lots d'utilisateurs (une requete groupee par lot):
+ *   corrige les changements faits par un autre noeud. Une entree modifiee localement pendant la lecture
+ *   n'est pas ecrasee (version), elle sera rapprochee au passage suivant.
+ * - Nombre d'utilisateurs borne (LRU): un nouvel utilisateur evince le moins recemment utilise, en O(1);
+ *   les entrees inutilisees depuis {@code idle-ttl} sont retirees en partant des plus anciennes.
+ * - Metriques: {@code oneeats.notifications.unread-counter{result=hit|miss}},
+ *   {@code oneeats.notifications.unread-counter.corrected}, {@code oneeats.notifications.unread-counter.size}.
+ */
+@ApplicationScoped
+public class UnreadNotificationCounter {
+
+    private static final Logger LOG = Logger.getLogger(UnreadNotificationCounter.class);
+
+    @Inject
+    INotificationRepository notificationRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "oneeats.notification.unread-counter.max-users", defaultValue = "50000")
+    int maxUsers;
+
+    @ConfigProperty(name = "oneeats.notification.unread-counter.idle-ttl", defaultValue = "30m")
+    Duration idleTtl;
+
+    @ConfigProperty(name = "oneeats.notification.unread-counter.reconcile-batch-size", defaultValue = "500")
+    int reconcileBatchSize;
+
+    // Ordre d'acces: lectures et changements locaux
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Changements recus pour des utilisateurs absents: un chargement concurrent ne doit pas etre mis en cache
+    private final AtomicLong missedChanges = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter corrected;
+
+    private static final class Entry {
+        final AtomicLong count;
+        final AtomicLong version = new AtomicLong();
+        // Protege par le verrou de entries
+        long lastAccess = System.nanoTime();
+
+        Entry(long count) {
+            this.count = new AtomicLong(count);
+        }
+    }
+
+    public UnreadNotificationCounter() {
+    }
+
+    public UnreadNotificationCounter(INotificationRepository notificationRepository, int maxUsers, Duration idleTtl,
+                                     int reconcileBatchSize, MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.maxUsers = maxUsers;
+        this.idleTtl = idleTtl;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("oneeats.notifications.unread-counter", "result", "hit");
+        misses = meterRegistry.counter("oneeats.notifications.unread-counter", "result", "miss");
+        corrected = meterRegistry.counter("oneeats.notifications.unread-counter.corrected");
+        meterRegistry.gauge("oneeats.notifications.unread-counter.size", this, UnreadNotificationCounter::size);
+    }
+
+    public long get(UUID recipientId) {
+        Entry entry = touch(recipientId);
+        if (entry != null) {
+            hits.increment();
+            return Math.max(0, entry.count.get());
+        }
+
+        misses.increment();
+        long loadedAt = missedChanges.get();
+        long count = notificationRepository.countUnreadByRecipientId(recipientId);
+        synchronized (entries) {
+            if (missedChanges.get() == loadedAt) {
+                entries.putIfAbsent(recipientId, new Entry(count));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Notifications envoyees ({@code delta} > 0) ou lues ({@code delta} < 0); dans une transaction, apres son commit
+     */
+    public void adjust(UUID recipientId, long delta) {
+        AfterCommit.run(transactionRegistry, () -> {
+            Entry entry = touch(recipientId);
+            if (entry == null) {
+                missedChanges.incrementAndGet();
+                return;
+            }
+            entry.version.incrementAndGet();
+            entry.count.addAndGet(delta);
+        });
+    }
+
+    /**
+     * Nombre inconnu (suppression): relu en base au prochain acces
+     */
+    public void invalidate(UUID recipientId) {
+        evict(recipientId);
+        AfterCommit.run(transactionRegistry, () -> evict(recipientId));
+    }
+
+    public void invalidateAll() {
+        missedChanges.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Retire les entrees inutilisees et rapproche les autres de la base
+     */
+    @Scheduled(every = "${oneeats.notification.unread-counter.reconcile-every:60s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void reconcile() {
+        long idleBefore = System.nanoTime() - idleTtl.toNanos();
+        List<Map.Entry<UUID, Entry>> tracked = new ArrayList<>();
+        synchronized (entries) {
+            // Des moins recemment utilisees aux plus recentes: arret a la premiere entree active
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (eldest.hasNext() && eldest.next().lastAccess - idleBefore < 0) {
+                eldest.remove();
+            }
+            // Copie par iteration: une lecture par cle changerait l'ordre d'acces
+            entries.forEach((recipientId, entry) -> tracked.add(Map.entry(recipientId, entry)));
+        }
+        for (int from = 0; from < tracked.size(); from += reconcileBatchSize) {
+            List<Map.Entry<UUID, Entry>> batch = tracked.subList(from, Math.min(tracked.size(), from + reconcileBatchSize));
+            try {
+                reconcile(batch);
+            } catch (Exception e) {
+                LOG.warnf("Unread counter reconciliation failed for %d users: %s", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void reconcile(List<Map.Entry<UUID, Entry>> batch) {
+        Map<UUID, Long> versions = new HashMap<>();
+        batch.forEach(tracked -> versions.put(tracked.getKey(), tracked.getValue().version.get()));
+        Map<UUID, Long> counts = notificationRepository.countUnreadByRecipientIds(versions.keySet());
+        for (Map.Entry<UUID, Entry> tracked : batch) {
+            Entry entry = tracked.getValue();
+            long version = versions.get(tracked.getKey());
+            if (entry.version.get() != version) {
+                continue;
+            }
+            long actual = counts.getOrDefault(tracked.getKey(), 0L);
+            if (entry.count.get() != actual && entry.version.compareAndSet(version, version + 1)) {
+                entry.count.set(actual);
+                corrected.increment();
+            }
+        }
+    }
+
+    private Entry touch(UUID recipientId) {
+        synchronized (entries) {
+            Entry entry = entries.get(recipientId);
+            if (entry != null) {
+                entry.lastAccess = System.nanoTime();
+            }
+            return entry;
+        }
+    }
+
+    private void evict(UUID recipientId) {
+        missedChanges.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(recipientId);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+
+import java.util.UUID;
+
+/**
+ * Notification deja encodee, transmise d'un noeud a un autre pour livraison aux sessions locales.
+ *
+ * @param recipientType type de destinataire (utilisateur ou restaurant)
+ * @param recipientId   identifiant du destinataire
+ * @param originNodeId  noeud emetteur
+ * @param seq           sequence attribuee par le noeud emetteur, reprise dans le tampon de rejeu du noeud receveur
+ * @param type          type de notification (ex: "new_order")
+ * @param text          trame JSON (sequencee) a envoyer telle quelle
+ */
+public record ClusterNotification(RecipientType recipientType, UUID recipientId, String originNodeId,
+                                  long seq, String type, String text) {
+}
@@ -0,0 +1,46 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import com.oneeats.notification.infrastructure.websocket.NotificationFrame;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer;
+import com.oneeats.notification.infrastructure.websocket.NotificationWebSocket;
+import com.oneeats.notification.infrastructure.websocket.RestaurantWebSocket;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.logging.Logger;
+
+/**
+ * Relie les endpoints WebSocket locaux au bus cluster:
+ * declare la presence des sessions locales et livre aux sessions locales les notifications des autres noeuds,
+ * apres les avoir memorisees (sequence d'origine) dans le tampon de rejeu local.
+ */
+@ApplicationScoped
+public class ClusterNotificationBridge {
+
+    private static final Logger LOGGER = Logger.getLogger(ClusterNotificationBridge.class.getName());
+
+    @Inject
+    ClusterNotificationBus clusterBus;
+
+    @Inject
+    NotificationReplayBuffer replayBuffer;
+
+    void onStart(@Observes StartupEvent event) {
+        NotificationWebSocket.setPresenceListener(clusterBus);
+        RestaurantWebSocket.setPresenceListener(clusterBus);
+        clusterBus.subscribe(this::deliverLocally);
+    }
+
+    void deliverLocally(ClusterNotification notification) {
+        LOGGER.fine("Cluster notification from node " + notification.originNodeId() +
+                   " for " + notification.recipientType() + " " + notification.recipientId());
+        replayBuffer.appendReplicated(notification.recipientType(), notification.recipientId(), notification.seq(),
+            new NotificationFrame(notification.type(), notification.text()));
+        switch (notification.recipientType()) {
+            case USER -> NotificationWebSocket.sendNotificationToUser(notification.recipientId(), notification.text());
+            case RESTAURANT -> RestaurantWebSocket.sendNotificationToRestaurant(notification.recipientId(), notification.text());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import com.oneeats.notification.infrastructure.websocket.SessionPresenceListener;
+
+import java.util.function.Consumer;
+
+/**
+ * Couche pub/sub inter-noeuds pour les notifications WebSocket.
+ *
+ * Chaque noeud declare les destinataires dont il detient des sessions ({@link SessionPresenceListener});
+ * {@link #publish(ClusterNotification)} n'achemine une notification qu'aux autres noeuds
+ * qui detiennent des sessions pour ce destinataire.
+ *
+ * Implementations: {@link InMemoryClusterNotificationBus} (par defaut, mono-noeud et tests)
+ * et {@link PostgresClusterNotificationBus} (LISTEN/NOTIFY sur la datasource existante).
+ */
+public interface ClusterNotificationBus extends SessionPresenceListener {
+
+    /**
+     * Identifiant unique de ce noeud.
+     */
+    String nodeId();
+
+    /**
+     * Achemine la notification vers les autres noeuds qui detiennent des sessions du destinataire.
+     */
+    void publish(ClusterNotification notification);
+
+    /**
+     * Enregistre le consommateur des notifications recues des autres noeuds.
+     */
+    void subscribe(Consumer<ClusterNotification> consumer);
+}
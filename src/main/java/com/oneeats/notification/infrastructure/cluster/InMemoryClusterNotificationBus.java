@@ -0,0 +1,91 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+import io.quarkus.arc.DefaultBean;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Bus de notifications en memoire.
+ * Par defaut, un seul noeud: aucune notification ne quitte la JVM.
+ * Plusieurs instances partageant un meme {@link Hub} simulent un cluster (tests).
+ */
+@ApplicationScoped
+@DefaultBean
+public class InMemoryClusterNotificationBus implements ClusterNotificationBus {
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryClusterNotificationBus.class.getName());
+
+    private final Hub hub;
+    private final String nodeId;
+
+    public InMemoryClusterNotificationBus() {
+        this(new Hub(), UUID.randomUUID().toString());
+    }
+
+    public InMemoryClusterNotificationBus(Hub hub, String nodeId) {
+        this.hub = hub;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ClusterNotification notification) {
+        Set<String> nodes = hub.presence.get(new RecipientKey(notification.recipientType(), notification.recipientId()));
+        if (nodes == null) {
+            return;
+        }
+        for (String target : nodes) {
+            if (target.equals(nodeId)) {
+                continue;
+            }
+            Consumer<ClusterNotification> consumer = hub.consumers.get(target);
+            if (consumer != null) {
+                try {
+                    consumer.accept(notification);
+                } catch (Exception e) {
+                    LOGGER.severe("Error delivering cluster notification to node " + target + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterNotification> consumer) {
+        hub.consumers.put(nodeId, consumer);
+    }
+
+    @Override
+    public void recipientConnected(RecipientType type, UUID recipientId) {
+        hub.presence.computeIfAbsent(new RecipientKey(type, recipientId), k -> ConcurrentHashMap.newKeySet()).add(nodeId);
+    }
+
+    @Override
+    public void recipientDisconnected(RecipientType type, UUID recipientId) {
+        hub.presence.computeIfPresent(new RecipientKey(type, recipientId), (key, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    /**
+     * Etat partage entre les noeuds simules: abonnes par noeud et presence des destinataires.
+     */
+    public static final class Hub {
+        private final Map<String, Consumer<ClusterNotification>> consumers = new ConcurrentHashMap<>();
+        private final Map<RecipientKey, Set<String>> presence = new ConcurrentHashMap<>();
+    }
+
+    private record RecipientKey(RecipientType type, UUID id) {
+    }
+}
@@ -0,0 +1,255 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Bus de notifications inter-noeuds base sur PostgreSQL LISTEN/NOTIFY.
+ *
+ * - Chaque noeud ecoute son propre canal ({@code oneeats_ws_<nodeId>}) sur une connexion dediee.
+ * - La table {@code websocket_node_presence} indique quels noeuds detiennent des sessions pour
+ *   quel destinataire; une notification n'est envoyee (pg_notify) qu'a ces noeuds.
+ * - La presence est rafraichie periodiquement: les lignes d'un noeud arrete brutalement expirent.
+ *   La table est declaree par {@link WebSocketNodePresenceEntity}.
+ *
+ * Active avec {@code oneeats.notification.cluster.transport=postgres} (propriete de build).
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "oneeats.notification.cluster.transport", stringValue = "postgres")
+public class PostgresClusterNotificationBus implements ClusterNotificationBus {
+
+    private static final Logger LOGGER = Logger.getLogger(PostgresClusterNotificationBus.class.getName());
+
+    // Limite de PostgreSQL pour la charge utile de NOTIFY
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String CHANNEL_PREFIX = "oneeats_ws_";
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.notification.cluster.presence-ttl", defaultValue = "2m")
+    Duration presenceTtl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final String channel = CHANNEL_PREFIX + nodeId.replace("-", "");
+
+    // Ecritures de presence hors des threads WebSocket
+    private final ExecutorService presenceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ws-cluster-presence");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Consumer<ClusterNotification> consumer = notification -> { };
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    private Counter publishedCounter;
+    private Counter receivedCounter;
+    private Counter failedCounter;
+
+    void onStart(@Observes StartupEvent event) {
+        publishedCounter = meterRegistry.counter("oneeats.notification.cluster.published");
+        receivedCounter = meterRegistry.counter("oneeats.notification.cluster.received");
+        failedCounter = meterRegistry.counter("oneeats.notification.cluster.failed");
+
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "ws-cluster-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        LOGGER.info("🌐 WebSocket cluster node started: " + nodeId + " (channel " + channel + ")");
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        presenceExecutor.shutdown();
+        try {
+            presenceExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        execute("DELETE FROM websocket_node_presence WHERE node_id = ?", nodeId);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ClusterNotification notification) {
+        List<String> targets = nodesHoldingSessions(notification.recipientType(), notification.recipientId());
+        if (targets.isEmpty()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(notification);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                LOGGER.warning("Cluster notification too large for NOTIFY, not forwarded: " + payload.length() + " chars");
+                failedCounter.increment();
+                return;
+            }
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                for (String target : targets) {
+                    statement.setString(1, CHANNEL_PREFIX + target.replace("-", ""));
+                    statement.setString(2, payload);
+                    statement.execute();
+                    publishedCounter.increment();
+                }
+            }
+        } catch (Exception e) {
+            failedCounter.increment();
+            LOGGER.severe("Error publishing cluster notification: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterNotification> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void recipientConnected(RecipientType type, UUID recipientId) {
+        presenceExecutor.execute(() -> execute(
+            "INSERT INTO websocket_node_presence (node_id, recipient_type, recipient_id, refreshed_at) " +
+            "VALUES (?, ?, ?, now()) " +
+            "ON CONFLICT (node_id, recipient_type, recipient_id) DO UPDATE SET refreshed_at = now()",
+            nodeId, type.name(), recipientId));
+    }
+
+    @Override
+    public void recipientDisconnected(RecipientType type, UUID recipientId) {
+        presenceExecutor.execute(() -> execute(
+            "DELETE FROM websocket_node_presence WHERE node_id = ? AND recipient_type = ? AND recipient_id = ?",
+            nodeId, type.name(), recipientId));
+    }
+
+    /**
+     * Maintient la presence de ce noeud et purge celle des noeuds disparus.
+     */
+    @Scheduled(every = "${oneeats.notification.cluster.presence-refresh-every:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshPresence() {
+        if (!running) {
+            return;
+        }
+        execute("UPDATE websocket_node_presence SET refreshed_at = now() WHERE node_id = ?", nodeId);
+        execute("DELETE FROM websocket_node_presence WHERE refreshed_at < now() - make_interval(secs => ?)",
+            (double) presenceTtl.toSeconds());
+    }
+
+    private List<String> nodesHoldingSessions(RecipientType type, UUID recipientId) {
+        List<String> nodes = new ArrayList<>();
+        String sql = "SELECT node_id FROM websocket_node_presence " +
+                     "WHERE recipient_type = ? AND recipient_id = ? AND node_id <> ? " +
+                     "AND refreshed_at >= now() - make_interval(secs => ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, type.name());
+            statement.setObject(2, recipientId);
+            statement.setString(3, nodeId);
+            statement.setDouble(4, presenceTtl.toSeconds());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    nodes.add(resultSet.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error resolving WebSocket presence for " + type + " " + recipientId + ": " + e.getMessage());
+        }
+        return nodes;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                LOGGER.severe("Cluster listener connection lost, retrying in 2s: " + e.getMessage());
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            ClusterNotification notification = objectMapper.readValue(payload, ClusterNotification.class);
+            receivedCounter.increment();
+            consumer.accept(notification);
+        } catch (Exception e) {
+            failedCounter.increment();
+            LOGGER.severe("Error dispatching cluster notification: " + e.getMessage());
+        }
+    }
+
+    private void execute(String sql, Object... parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.execute();
+        } catch (SQLException e) {
+            LOGGER.severe("WebSocket cluster SQL error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.oneeats.notification.infrastructure.cluster;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Noeud backend detenant des sessions WebSocket ouvertes pour un utilisateur ou un restaurant.
+ * Lue et ecrite en JDBC par {@link PostgresClusterNotificationBus}; l'entite declare la table et son index.
+ */
+@Entity
+@Table(name = "websocket_node_presence", indexes = {
+    @Index(name = "idx_websocket_presence_recipient", columnList = "recipient_type, recipient_id")
+})
+@IdClass(WebSocketNodePresenceEntity.Key.class)
+public class WebSocketNodePresenceEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "node_id", length = 36)
+    private String nodeId;
+
+    @Id
+    @Column(name = "recipient_type", length = 20)
+    private String recipientType;
+
+    @Id
+    @Column(name = "recipient_id")
+    private UUID recipientId;
+
+    // Rafraichi periodiquement par le noeud; les lignes expirees sont purgees
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    public WebSocketNodePresenceEntity() {}
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getRecipientType() {
+        return recipientType;
+    }
+
+    public UUID getRecipientId() {
+        return recipientId;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public static class Key implements Serializable {
+        private String nodeId;
+        private String recipientType;
+        private UUID recipientId;
+
+        public Key() {}
+
+        public Key(String nodeId, String recipientType, UUID recipientId) {
+            this.nodeId = nodeId;
+            this.recipientType = recipientType;
+            this.recipientId = recipientId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(nodeId, key.nodeId) && Objects.equals(recipientType, key.recipientType)
+                && Objects.equals(recipientId, key.recipientId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, recipientType, recipientId);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.oneeats.notification.infrastructure.delivery;
+
+import org.jboss.logging.Logger;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Echeances d'envoi connues de ce noeud, en memoire (file de priorite par instant).
+ *
+ * - Un seul thread dort jusqu'a la prochaine echeance: pas de scrutation de la base entre deux envois.
+ * - Echeances arrivees ensemble (meme instant, ou deja passees) regroupees en un seul reveil.
+ * - File bornee: au-dela, l'echeance est refusee et sera retrouvee par le balayage periodique.
+ */
+public class DeliveryTimer {
+
+    private static final Logger LOG = Logger.getLogger(DeliveryTimer.class);
+
+    private final int capacity;
+    private final LongConsumer onDue;
+    private final PriorityQueue<Long> dueTimes = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param onDue appele hors verrou avec l'echeance la plus recente atteinte (epoch millis)
+     */
+    public DeliveryTimer(int capacity, LongConsumer onDue) {
+        this.capacity = capacity;
+        this.onDue = onDue;
+    }
+
+    public void start(String name) {
+        running = true;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return false si la file est pleine
+     */
+    public boolean schedule(long dueAtMillis) {
+        lock.lock();
+        try {
+            if (dueTimes.size() >= capacity) {
+                return false;
+            }
+            dueTimes.add(dueAtMillis);
+            // Reveil uniquement si la nouvelle echeance precede celle attendue
+            if (dueTimes.peek() == dueAtMillis) {
+                changed.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return dueTimes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            long reached;
+            try {
+                reached = awaitDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                onDue.accept(reached);
+            } catch (RuntimeException e) {
+                LOG.errorf(e, "Scheduled delivery failed");
+            }
+        }
+    }
+
+    /**
+     * Attend la premiere echeance puis retire toutes celles atteintes
+     */
+    private long awaitDue() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                Long head = dueTimes.peek();
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+                long delay = head - System.currentTimeMillis();
+                if (delay > 0) {
+                    changed.await(delay, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                long reached = head;
+                while (!dueTimes.isEmpty() && dueTimes.peek() <= now) {
+                    reached = dueTimes.poll();
+                }
+                return reached;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.oneeats.notification.infrastructure.delivery;
+
+import com.oneeats.notification.domain.model.NotificationStatus;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import com.oneeats.notification.infrastructure.entity.NotificationEntity;
+import com.oneeats.notification.infrastructure.push.PushDispatcher;
+import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
+import com.oneeats.shared.infrastructure.backfill.DataBackfills;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoi des notifications a leur date {@code scheduled_at} (WebSocket et push), puis passage a SENT.
+ *
+ * - Les echeances connues sont gardees en memoire ({@link DeliveryTimer}): la base n'est interrogee qu'a une
+ *   echeance, pas en continu. Une notification creee sur ce noeud est planifiee apres le commit.
+ * - Un balayage periodique charge les echeances proches (creees par un autre noeud, ou avant un redemarrage)
+ *   et rattrape les notifications en retard.
+ * - Reservation par lots avec {@code FOR UPDATE SKIP LOCKED}: les noeuds reveilles a la meme echeance se
+ *   partagent les lignes sans les envoyer deux fois. L'envoi a lieu dans la transaction de reservation
+ *   (au moins une fois: un echec du commit renvoie le lot).
+ * - Metriques: {@code oneeats.notifications.delivery.lag} (sent_at - scheduled_at),
+ *   {@code oneeats.notifications.delivery.sent}, {@code oneeats.notifications.delivery.overdue}
+ *   (retard de la plus ancienne notification echue non envoyee, en secondes, au dernier balayage),
+ *   {@code oneeats.notifications.delivery.scheduled} (echeances en memoire).
+ * - Avant ce moteur, les notifications etaient envoyees a la creation et restaient PENDING: au premier
+ *   demarrage, elles sont marquees SENT avant le lancement du minuteur pour ne pas etre renvoyees.
+ */
+@ApplicationScoped
+public class ScheduledNotificationDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(ScheduledNotificationDispatcher.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    WebSocketNotificationService webSocketNotificationService;
+
+    @Inject
+    PushDispatcher pushDispatcher;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    DataBackfills dataBackfills;
+
+    @ConfigProperty(name = "oneeats.notification.delivery.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.notification.delivery.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "oneeats.notification.delivery.horizon", defaultValue = "2m")
+    Duration horizon;
+
+    @ConfigProperty(name = "oneeats.notification.delivery.max-scheduled", defaultValue = "50000")
+    int maxScheduled;
+
+    private DeliveryTimer timer;
+    private final AtomicLong overdueSeconds = new AtomicLong();
+
+    private Timer lag;
+    private Counter sent;
+
+    @PostConstruct
+    void init() {
+        timer = new DeliveryTimer(maxScheduled, reached -> deliverDue());
+        lag = Timer.builder("oneeats.notifications.delivery.lag")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        sent = meterRegistry.counter("oneeats.notifications.delivery.sent");
+        meterRegistry.gauge("oneeats.notifications.delivery.overdue", overdueSeconds);
+        meterRegistry.gauge("oneeats.notifications.delivery.scheduled", this, dispatcher -> dispatcher.timer.size());
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            // Echec: demarrage interrompu plutot que renvoi de tout l'historique
+            dataBackfills.runOnce("notifications-legacy-pending-sent", this::markLegacyPendingSent);
+            timer.start("notification-delivery");
+        }
+    }
+
+    /**
+     * Notifications PENDING creees avant le deploiement (deja envoyees par l'ancien code): passees a SENT
+     */
+    private int markLegacyPendingSent(LocalDateTime deployedAt) {
+        return entityManager.createNativeQuery(
+                "UPDATE notifications SET status = 'SENT', sent_at = COALESCE(sent_at, created_at) " +
+                "WHERE status = 'PENDING' AND created_at < ?1")
+            .setParameter(1, deployedAt)
+            .executeUpdate();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        timer.stop();
+    }
+
+    /**
+     * Planifie l'envoi d'une notification PENDING; dans une transaction, apres son commit
+     */
+    public void schedule(LocalDateTime scheduledAt) {
+        long dueAt = toMillis(scheduledAt);
+        AfterCommit.run(transactionRegistry, () -> timer.schedule(dueAt));
+    }
+
+    /**
+     * Charge les echeances de l'horizon et mesure le retard des notifications echues
+     */
+    @Scheduled(every = "${oneeats.notification.delivery.sweep-every:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<LocalDateTime> upcoming = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                    "select n.scheduledAt from NotificationEntity n where n.status = ?1 and n.scheduledAt <= ?2 " +
+                    "order by n.scheduledAt", LocalDateTime.class)
+                .setParameter(1, NotificationStatus.PENDING)
+                .setParameter(2, now.plus(horizon))
+                .setMaxResults(batchSize)
+                .getResultList());
+
+            overdueSeconds.set(upcoming.isEmpty() || upcoming.get(0).isAfter(now)
+                ? 0 : Duration.between(upcoming.get(0), now).toSeconds());
+            LocalDateTime previous = null;
+            for (LocalDateTime scheduledAt : upcoming) {
+                if (!scheduledAt.equals(previous)) {
+                    timer.schedule(toMillis(scheduledAt));
+                }
+                previous = scheduledAt;
+            }
+        } catch (Exception e) {
+            LOG.errorf("Notification delivery sweep failed: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Envoie les notifications echues, lot par lot
+     *
+     * @return nombre de notifications envoyees
+     */
+    public int deliverDue() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = QuarkusTransaction.requiringNew().call(this::deliverBatch);
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int deliverBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationEntity> batch = entityManager.createNativeQuery(
+                "SELECT * FROM notifications WHERE status = 'PENDING' AND scheduled_at <= ?1 " +
+                "ORDER BY scheduled_at LIMIT ?2 FOR UPDATE SKIP LOCKED", NotificationEntity.class)
+            .setParameter(1, now)
+            .setParameter(2, batchSize)
+            .getResultList();
+
+        Map<UUID, Integer> perRecipient = new HashMap<>();
+        for (NotificationEntity notification : batch) {
+            webSocketNotificationService.sendNotification(notification.getRecipientId(),
+                notification.getType().name(), notification.getTitle(), notification.getMessage());
+            pushDispatcher.enqueue(notification.getRecipientId(), notification.getTitle(), notification.getMessage(),
+                Map.of("type", "system", "notificationId", notification.getId().toString()));
+
+            LocalDateTime sentAt = LocalDateTime.now();
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setSentAt(sentAt);
+            notification.setUpdatedAt(sentAt);
+            lag.record(Math.max(0, Duration.between(notification.getScheduledAt(), sentAt).toMillis()), TimeUnit.MILLISECONDS);
+            perRecipient.merge(notification.getRecipientId(), 1, Integer::sum);
+        }
+        perRecipient.forEach(unreadCounter::adjust);
+        sent.increment(batch.size());
+        if (!batch.isEmpty()) {
+            LOG.debugf("Delivered %d scheduled notifications", batch.size());
+        }
+        return batch.size();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_pending_schedule", columnList = "status, scheduled_at"),
+    @Index(name = "idx_notifications_recipient_inbox", columnList = "recipient_id, status, created_at"),
+    @Index(name = "idx_notifications_created_at", columnList = "created_at")
+})
 public class NotificationEntity extends PanacheEntityBase {
 
     @Id
@@ -15,7 +15,10 @@ public class NotificationInfrastructureMapper {
             entity.getTitle(),
             entity.getMessage(),
             entity.getStatus(),
-            entity.getScheduledAt()
+            entity.getScheduledAt(),
+            entity.getSentAt(),
+            entity.getCreatedAt(),
+            entity.getUpdatedAt()
         );
     }
 
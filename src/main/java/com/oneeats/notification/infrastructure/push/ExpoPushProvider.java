@@ -0,0 +1,207 @@
+package com.oneeats.notification.infrastructure.push;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.shared.infrastructure.http.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client de l'API Expo Push ({@code POST /--/api/v2/push/send}), lots de 100 messages.
+ *
+ * - Un ticket par message: {@code DeviceNotRegistered} → token invalide, {@code MessageRateExceeded} → a retenter.
+ * - 429 et 5xx: le lot entier est a retenter; les 5xx et erreurs reseau alimentent le disjoncteur.
+ * - Metriques: {@code oneeats.push.requests{outcome}} (duree des appels), {@code oneeats.push.rejected}.
+ */
+@ApplicationScoped
+public class ExpoPushProvider implements PushProvider {
+
+    private static final Logger LOG = Logger.getLogger(ExpoPushProvider.class);
+
+    // Limite de l'API Expo
+    private static final int MAX_BATCH_SIZE = 100;
+
+    @ConfigProperty(name = "oneeats.push.expo.url", defaultValue = "https://exp.host/--/api/v2/push/send")
+    String url;
+
+    @ConfigProperty(name = "oneeats.push.expo.access-token")
+    Optional<String> accessToken;
+
+    @ConfigProperty(name = "oneeats.push.expo.request-timeout", defaultValue = "10s")
+    Duration requestTimeout;
+
+    @ConfigProperty(name = "oneeats.push.expo.circuit-breaker.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @ConfigProperty(name = "oneeats.push.expo.circuit-breaker.open-duration", defaultValue = "30s")
+    Duration openDuration;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * Lot refuse sans resultat par message: a retenter
+     */
+    public static class PushUnavailableException extends RuntimeException {
+        public PushUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    public ExpoPushProvider() {
+    }
+
+    public ExpoPushProvider(String url, Optional<String> accessToken, Duration requestTimeout, int failureThreshold,
+                            Duration openDuration, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.url = url;
+        this.accessToken = accessToken;
+        this.requestTimeout = requestTimeout;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .build();
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public boolean accepts(String token) {
+        return (token.startsWith("ExponentPushToken[") || token.startsWith("ExpoPushToken[")) && token.endsWith("]");
+    }
+
+    @Override
+    public CompletableFuture<List<PushOutcome>> send(List<PushMessage> batch) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("oneeats.push.rejected").increment();
+            return CompletableFuture.failedFuture(new PushUnavailableException("Expo push unavailable (circuit open)"));
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(toJson(batch)));
+        accessToken.filter(token -> !token.isBlank())
+            .ifPresent(token -> request.header("Authorization", "Bearer " + token));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+            .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((response, error) -> {
+                String outcome;
+                if (error != null || response.statusCode() >= 500) {
+                    circuitBreaker.onFailure();
+                    outcome = error != null ? "error" : response.statusCode() / 100 + "xx";
+                } else {
+                    circuitBreaker.onSuccess();
+                    outcome = response.statusCode() / 100 + "xx";
+                }
+                sample.stop(meterRegistry.timer("oneeats.push.requests", "outcome", outcome));
+            })
+            .thenApply(response -> outcomes(batch, response));
+    }
+
+    private List<PushOutcome> outcomes(List<PushMessage> batch, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) {
+            throw new PushUnavailableException("Expo push responded " + status);
+        }
+        List<PushOutcome> outcomes = new ArrayList<>(batch.size());
+        if (status != 200) {
+            // Requete refusee en bloc (format, authentification): aucun message ne passera tel quel
+            LOG.warnf("Expo push rejected a batch of %d messages: %d %s", batch.size(), status, response.body());
+            batch.forEach(message -> outcomes.add(PushOutcome.FAILED));
+            return outcomes;
+        }
+
+        JsonNode tickets;
+        try {
+            tickets = objectMapper.readTree(response.body()).path("data");
+        } catch (Exception e) {
+            throw new PushUnavailableException("Invalid Expo push response");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            JsonNode ticket = tickets.path(i);
+            if (ticket.isMissingNode()) {
+                outcomes.add(PushOutcome.RETRY);
+                continue;
+            }
+            if ("ok".equals(ticket.path("status").asText())) {
+                outcomes.add(PushOutcome.DELIVERED);
+                continue;
+            }
+            String error = ticket.path("details").path("error").asText("");
+            switch (error) {
+                case "DeviceNotRegistered" -> outcomes.add(PushOutcome.INVALID_TOKEN);
+                case "MessageRateExceeded" -> outcomes.add(PushOutcome.RETRY);
+                default -> {
+                    LOG.debugf("Expo push ticket error %s: %s", error, ticket.path("message").asText());
+                    outcomes.add(PushOutcome.FAILED);
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    private String toJson(List<PushMessage> batch) {
+        List<Map<String, Object>> messages = new ArrayList<>(batch.size());
+        for (PushMessage message : batch) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("to", message.to());
+            json.put("title", message.title());
+            json.put("body", message.body());
+            json.put("sound", "default");
+            json.put("priority", "high");
+            if (message.data() != null && !message.data().isEmpty()) {
+                json.put("data", message.data());
+            }
+            messages.add(json);
+        }
+        try {
+            return objectMapper.writeValueAsString(messages);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize push batch", e);
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+}
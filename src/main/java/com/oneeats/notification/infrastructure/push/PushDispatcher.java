@@ -0,0 +1,288 @@
+package com.oneeats.notification.infrastructure.push;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envoi des notifications push par lots.
+ *
+ * - {@link #enqueue} ne bloque pas: file bornee en memoire, le surplus est compte et abandonne
+ *   (la notification reste en base et sur le WebSocket).
+ * - A chaque passage: tokens des destinataires lus en une requete, envoi en lots de la taille du fournisseur,
+ *   lots envoyes en parallele.
+ * - Lot ou message refuse temporairement: nouvel essai avec backoff exponentiel, jusqu'a {@code max-attempts}.
+ * - Tokens invalides (desinscrits, ou refuses par {@link PushProvider#accepts}) retires des utilisateurs
+ *   en une requete par passage.
+ * - Metriques: {@code oneeats.push.messages{result}} (delivered, invalid_token, retried, failed, no_token, dropped),
+ *   {@code oneeats.push.queue}, {@code oneeats.push.tokens.pruned}.
+ */
+@ApplicationScoped
+public class PushDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(PushDispatcher.class);
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+
+    @Inject
+    PushProvider provider;
+
+    @Inject
+    PushTokenRepository tokenRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.push.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.push.queue-capacity", defaultValue = "10000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "oneeats.push.max-per-flush", defaultValue = "2000")
+    int maxPerFlush;
+
+    @ConfigProperty(name = "oneeats.push.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "oneeats.push.retry-delay", defaultValue = "2s")
+    Duration retryDelay;
+
+    private BlockingQueue<PendingPush> queue;
+    private final PriorityBlockingQueue<PendingPush> retries =
+        new PriorityBlockingQueue<>(64, Comparator.comparingLong(PendingPush::dueAtMillis));
+
+    private Counter delivered;
+    private Counter invalidToken;
+    private Counter retried;
+    private Counter failed;
+    private Counter noToken;
+    private Counter dropped;
+    private Counter pruned;
+
+    /**
+     * Notification en attente; {@code token} est resolu au premier passage puis conserve pour les nouveaux essais
+     */
+    private record PendingPush(UUID userId, String token, String title, String body, Map<String, String> data,
+                               int attempt, long dueAtMillis) {
+
+        PendingPush withToken(String resolved) {
+            return new PendingPush(userId, resolved, title, body, data, attempt, dueAtMillis);
+        }
+
+        PendingPush retryAt(long at) {
+            return new PendingPush(userId, token, title, body, data, attempt + 1, at);
+        }
+
+        PushMessage message() {
+            return new PushMessage(userId, token, title, body, data);
+        }
+    }
+
+    public PushDispatcher() {
+    }
+
+    public PushDispatcher(PushProvider provider, PushTokenRepository tokenRepository, int queueCapacity,
+                          int maxPerFlush, int maxAttempts, Duration retryDelay, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.tokenRepository = tokenRepository;
+        this.enabled = true;
+        this.queueCapacity = queueCapacity;
+        this.maxPerFlush = maxPerFlush;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        delivered = meterRegistry.counter("oneeats.push.messages", "result", "delivered");
+        invalidToken = meterRegistry.counter("oneeats.push.messages", "result", "invalid_token");
+        retried = meterRegistry.counter("oneeats.push.messages", "result", "retried");
+        failed = meterRegistry.counter("oneeats.push.messages", "result", "failed");
+        noToken = meterRegistry.counter("oneeats.push.messages", "result", "no_token");
+        dropped = meterRegistry.counter("oneeats.push.messages", "result", "dropped");
+        pruned = meterRegistry.counter("oneeats.push.tokens.pruned");
+        meterRegistry.gauge("oneeats.push.queue", this, dispatcher -> dispatcher.pending());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        // Derniers messages prets; les nouveaux essais en attente sont abandonnes
+        flush();
+    }
+
+    /**
+     * Met en file une notification push pour l'utilisateur (sans effet s'il n'a pas de token)
+     *
+     * @return false si la file est pleine ou l'envoi push desactive
+     */
+    public boolean enqueue(UUID userId, String title, String body, Map<String, String> data) {
+        if (!enabled) {
+            return false;
+        }
+        if (!queue.offer(new PendingPush(userId, null, title, body, data, 0, 0))) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public int pending() {
+        return queue.size() + retries.size();
+    }
+
+    /**
+     * Envoie les notifications en file et les nouveaux essais arrives a echeance
+     */
+    @Scheduled(every = "${oneeats.push.flush-every:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void flush() {
+        List<PendingPush> ready = new ArrayList<>();
+        queue.drainTo(ready, maxPerFlush);
+        long now = System.currentTimeMillis();
+        while (ready.size() < maxPerFlush) {
+            PendingPush retry = retries.poll();
+            if (retry == null) {
+                break;
+            }
+            if (retry.dueAtMillis() > now) {
+                retries.add(retry);
+                break;
+            }
+            ready.add(retry);
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        List<PendingPush> sendable = resolveTokens(ready);
+        Set<String> invalidTokens = ConcurrentHashMap.newKeySet();
+        List<PendingPush> valid = new ArrayList<>(sendable.size());
+        for (PendingPush push : sendable) {
+            if (provider.accepts(push.token())) {
+                valid.add(push);
+            } else {
+                invalidToken.increment();
+                invalidTokens.add(push.token());
+            }
+        }
+
+        int batchSize = provider.maxBatchSize();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<PendingPush> batch = valid.subList(from, Math.min(valid.size(), from + batchSize));
+            sends.add(send(batch, invalidTokens));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            LOG.warnf("Push batches did not complete: %s", e.getMessage());
+        }
+
+        if (!invalidTokens.isEmpty()) {
+            prune(invalidTokens);
+        }
+    }
+
+    private List<PendingPush> resolveTokens(List<PendingPush> ready) {
+        Set<UUID> unresolved = new HashSet<>();
+        for (PendingPush push : ready) {
+            if (push.token() == null) {
+                unresolved.add(push.userId());
+            }
+        }
+        Map<UUID, String> tokens;
+        try {
+            tokens = unresolved.isEmpty() ? Map.of() : tokenRepository.findTokens(unresolved);
+        } catch (Exception e) {
+            LOG.warnf("Failed to load push tokens for %d users: %s", unresolved.size(), e.getMessage());
+            ready.stream().filter(push -> push.token() == null).forEach(this::reschedule);
+            return ready.stream().filter(push -> push.token() != null).toList();
+        }
+
+        List<PendingPush> sendable = new ArrayList<>(ready.size());
+        for (PendingPush push : ready) {
+            if (push.token() != null) {
+                sendable.add(push);
+            } else if (tokens.containsKey(push.userId())) {
+                sendable.add(push.withToken(tokens.get(push.userId())));
+            } else {
+                noToken.increment();
+            }
+        }
+        return sendable;
+    }
+
+    private CompletableFuture<Void> send(List<PendingPush> batch, Set<String> invalidTokens) {
+        List<PushMessage> messages = batch.stream().map(PendingPush::message).toList();
+        CompletableFuture<List<PushOutcome>> sent;
+        try {
+            sent = provider.send(messages);
+        } catch (Exception e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.handle((outcomes, error) -> {
+            if (error != null) {
+                LOG.debugf("Push batch of %d messages failed: %s", batch.size(), error.getMessage());
+                batch.forEach(this::reschedule);
+                return null;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                PendingPush push = batch.get(i);
+                switch (outcomes.get(i)) {
+                    case DELIVERED -> delivered.increment();
+                    case INVALID_TOKEN -> {
+                        invalidToken.increment();
+                        invalidTokens.add(push.token());
+                    }
+                    case RETRY -> reschedule(push);
+                    case FAILED -> failed.increment();
+                }
+            }
+            return null;
+        });
+    }
+
+    private void reschedule(PendingPush push) {
+        if (push.attempt() + 1 >= maxAttempts) {
+            failed.increment();
+            return;
+        }
+        long delay = retryDelay.toMillis() << Math.min(push.attempt(), 20);
+        retries.add(push.retryAt(System.currentTimeMillis() + Math.min(delay, MAX_RETRY_DELAY.toMillis())));
+        retried.increment();
+    }
+
+    private void prune(Set<String> tokens) {
+        try {
+            int updated = tokenRepository.clearTokens(tokens);
+            pruned.increment(updated);
+            LOG.infof("Pruned %d invalid push tokens", updated);
+        } catch (Exception e) {
+            LOG.warnf("Failed to prune %d invalid push tokens: %s", tokens.size(), e.getMessage());
+        }
+    }
+}
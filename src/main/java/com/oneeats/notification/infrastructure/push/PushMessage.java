@@ -0,0 +1,9 @@
+package com.oneeats.notification.infrastructure.push;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Notification push a destination d'un appareil ({@code to}: token push de l'utilisateur)
+ */
+public record PushMessage(UUID userId, String to, String title, String body, Map<String, String> data) {}
@@ -0,0 +1,15 @@
+package com.oneeats.notification.infrastructure.push;
+
+/**
+ * Resultat de l'envoi d'un message au fournisseur push
+ */
+public enum PushOutcome {
+    /** Accepte par le fournisseur */
+    DELIVERED,
+    /** Token inconnu ou desinscrit: a retirer de l'utilisateur */
+    INVALID_TOKEN,
+    /** Refus temporaire (limite de debit, indisponibilite): a retenter */
+    RETRY,
+    /** Refus definitif du message */
+    FAILED
+}
@@ -0,0 +1,28 @@
+package com.oneeats.notification.infrastructure.push;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fournisseur de notifications push (Expo, FCM...)
+ */
+public interface PushProvider {
+
+    /**
+     * Nombre maximal de messages par appel
+     */
+    int maxBatchSize();
+
+    /**
+     * Token au format de ce fournisseur (les autres sont retires sans envoi)
+     */
+    boolean accepts(String token);
+
+    /**
+     * Envoie un lot d'au plus {@link #maxBatchSize()} messages.
+     *
+     * @return un resultat par message, dans l'ordre du lot; en echec si le lot entier doit etre retente
+     *         (reseau, limite de debit, fournisseur indisponible)
+     */
+    CompletableFuture<List<PushOutcome>> send(List<PushMessage> batch);
+}
@@ -0,0 +1,59 @@
+package com.oneeats.notification.infrastructure.push;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tokens push des utilisateurs ({@code user_account.push_token}), lus et purges par lots
+ */
+@ApplicationScoped
+public class PushTokenRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Token push de chaque utilisateur qui en a un, en une requete
+     */
+    @Transactional
+    public Map<UUID, String> findTokens(Collection<UUID> userIds) {
+        Map<UUID, String> tokens = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return tokens;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT u.id, u.pushToken FROM UserEntity u WHERE u.id IN :ids AND u.pushToken IS NOT NULL", Object[].class)
+            .setParameter("ids", userIds)
+            .getResultList();
+        for (Object[] row : rows) {
+            tokens.put((UUID) row[0], (String) row[1]);
+        }
+        return tokens;
+    }
+
+    /**
+     * Retire les tokens refuses par le fournisseur, en une requete
+     *
+     * @return nombre d'utilisateurs modifies
+     */
+    @Transactional
+    public int clearTokens(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery(
+                "UPDATE UserEntity u SET u.pushToken = null, u.pushTokenUpdatedAt = :now WHERE u.pushToken IN :tokens")
+            .setParameter("now", LocalDateTime.now())
+            .setParameter("tokens", tokens)
+            .executeUpdate();
+    }
+}
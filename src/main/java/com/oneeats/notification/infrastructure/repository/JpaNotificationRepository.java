@@ -6,11 +6,17 @@ import com.oneeats.notification.domain.model.NotificationType;
 import com.oneeats.notification.domain.repository.INotificationRepository;
 import com.oneeats.notification.infrastructure.entity.NotificationEntity;
 import com.oneeats.notification.infrastructure.mapper.NotificationInfrastructureMapper;
-import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import com.oneeats.shared.infrastructure.outbox.OutboxWriter;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -21,6 +27,12 @@ public class JpaNotificationRepository implements INotificationRepository {
     @Inject
     NotificationInfrastructureMapper mapper;
 
+    @Inject
+    OutboxWriter outboxWriter;
+
+    @Inject
+    EntityManager entityManager;
+
     @Override
     public Optional<Notification> findById(UUID id) {
         return NotificationEntity.find("id", id)
@@ -59,7 +71,10 @@ public class JpaNotificationRepository implements INotificationRepository {
     @Override
     public Notification save(Notification notification) {
         NotificationEntity entity = mapper.toEntity(notification);
-        entity.persistAndFlush();
+        // Identifiant et dates fixes par le domaine: insertion au commit, dans le lot JDBC de la transaction
+        entity.persist();
+        outboxWriter.append("Notification", entity.getId(), notification.getDomainEvents());
+        notification.clearDomainEvents();
         return mapper.toDomain(entity);
     }
 
@@ -70,6 +85,76 @@ public class JpaNotificationRepository implements INotificationRepository {
 
     @Override
     public long countUnreadByRecipientId(UUID recipientId) {
-        return NotificationEntity.count("recipientId = ?1 and status = ?2", recipientId, NotificationStatus.PENDING);
+        // PENDING: pas encore envoyee (envoi differe), donc pas encore visible du destinataire
+        return NotificationEntity.count("recipientId = ?1 and status = ?2", recipientId, NotificationStatus.SENT);
+    }
+
+    @Override
+    public Map<UUID, Long> countUnreadByRecipientIds(Collection<UUID> recipientIds) {
+        if (recipientIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Long> counts = new HashMap<>();
+        entityManager.createQuery(
+                "select n.recipientId, count(n) from NotificationEntity n " +
+                "where n.recipientId in ?1 and n.status = ?2 group by n.recipientId", Object[].class)
+            .setParameter(1, recipientIds)
+            .setParameter(2, NotificationStatus.SENT)
+            .getResultList()
+            .forEach(row -> counts.put((UUID) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    @Override
+    public List<Notification> findInboxPage(UUID recipientId, boolean unreadOnly, LocalDateTime beforeCreatedAt,
+                                            UUID beforeId, int limit) {
+        List<NotificationStatus> statuses = unreadOnly
+            ? List.of(NotificationStatus.SENT)
+            : List.of(NotificationStatus.SENT, NotificationStatus.READ);
+        PanacheQuery<NotificationEntity> query;
+        if (beforeCreatedAt == null) {
+            query = NotificationEntity.find("recipientId = ?1 and status in ?2 order by createdAt desc, id desc",
+                recipientId, statuses);
+        } else {
+            // Pagination par curseur: pas de OFFSET, la page suivante part de la derniere ligne lue
+            query = NotificationEntity.find("recipientId = ?1 and status in ?2 " +
+                    "and (createdAt < ?3 or (createdAt = ?3 and id < ?4)) order by createdAt desc, id desc",
+                recipientId, statuses, beforeCreatedAt, beforeId);
+        }
+        return query.range(0, limit - 1).list().stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int markAsRead(UUID recipientId, Collection<UUID> ids) {
+        if (ids == null) {
+            return NotificationEntity.update("status = ?1, updatedAt = ?2 where recipientId = ?3 and status = ?4",
+                NotificationStatus.READ, LocalDateTime.now(), recipientId, NotificationStatus.SENT);
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return NotificationEntity.update("status = ?1, updatedAt = ?2 where recipientId = ?3 and status = ?4 and id in ?5",
+            NotificationStatus.READ, LocalDateTime.now(), recipientId, NotificationStatus.SENT, ids);
+    }
+
+    @Override
+    public int deleteByRecipientId(UUID recipientId, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return (int) NotificationEntity.delete("recipientId = ?1 and id in ?2", recipientId, ids);
+    }
+
+    @Override
+    public int deleteSentBefore(LocalDateTime threshold, int limit) {
+        // DELETE ... LIMIT n'existe pas en PostgreSQL: lot choisi par sous-requete
+        return entityManager.createNativeQuery(
+                "DELETE FROM notifications WHERE id IN (" +
+                "SELECT id FROM notifications WHERE status IN ('SENT', 'READ', 'FAILED') AND created_at < ?1 LIMIT ?2)")
+            .setParameter(1, threshold)
+            .setParameter(2, limit)
+            .executeUpdate();
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.oneeats.notification.infrastructure.retention;
+
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Purge des notifications plus anciennes que la retention (hors envois a venir).
+ *
+ * Suppression par lots, une transaction courte par lot: pas de verrou long ni de gros journal de transaction.
+ * Le nombre de lots par passage est borne; le reste est repris au passage suivant.
+ */
+@ApplicationScoped
+public class NotificationRetentionJob {
+
+    private static final Logger LOG = Logger.getLogger(NotificationRetentionJob.class);
+
+    @Inject
+    INotificationRepository notificationRepository;
+
+    @Inject
+    UnreadNotificationCounter unreadCounter;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.notification.retention.max-age", defaultValue = "2160h")
+    Duration maxAge;
+
+    @ConfigProperty(name = "oneeats.notification.retention.chunk-size", defaultValue = "1000")
+    int chunkSize;
+
+    @ConfigProperty(name = "oneeats.notification.retention.max-chunks", defaultValue = "100")
+    int maxChunks;
+
+    @Scheduled(every = "${oneeats.notification.retention.cleanup-every:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void cleanup() {
+        LocalDateTime threshold = LocalDateTime.now().minus(maxAge);
+        long total = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                int deleted = QuarkusTransaction.requiringNew().call(
+                    () -> notificationRepository.deleteSentBefore(threshold, chunkSize));
+                total += deleted;
+                if (deleted < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            LOG.errorf("Notification retention cleanup failed after %d deletions: %s", total, e.getMessage());
+        }
+
+        if (total > 0) {
+            // Des non lues anciennes ont pu etre supprimees: compteurs relus en base
+            unreadCounter.invalidateAll();
+            meterRegistry.counter("oneeats.notifications.retention.deleted").increment(total);
+            LOG.infof("🧹 Notification retention: %d notification(s) older than %s removed", total, maxAge);
+        }
+    }
+}
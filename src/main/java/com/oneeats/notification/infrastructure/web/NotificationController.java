@@ -2,13 +2,23 @@ package com.oneeats.notification.infrastructure.web;
 
 import com.oneeats.notification.application.command.CreateNotificationCommand;
 import com.oneeats.notification.application.command.CreateNotificationCommandHandler;
+import com.oneeats.notification.application.command.DeleteNotificationsCommand;
+import com.oneeats.notification.application.command.DeleteNotificationsCommandHandler;
+import com.oneeats.notification.application.command.MarkNotificationsReadCommand;
+import com.oneeats.notification.application.command.MarkNotificationsReadCommandHandler;
 import com.oneeats.notification.application.dto.NotificationDTO;
+import com.oneeats.notification.application.query.GetNotificationInboxQuery;
+import com.oneeats.notification.application.query.GetNotificationInboxQueryHandler;
+import com.oneeats.security.Roles;
+import com.oneeats.security.application.AuthService;
+import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
+import java.util.List;
 import java.util.UUID;
 
 @Path("/api/notifications")
@@ -19,16 +29,89 @@ public class NotificationController {
     @Inject
     CreateNotificationCommandHandler createNotificationCommandHandler;
 
+    @Inject
+    GetNotificationInboxQueryHandler inboxQueryHandler;
+
+    @Inject
+    MarkNotificationsReadCommandHandler markReadCommandHandler;
+
+    @Inject
+    DeleteNotificationsCommandHandler deleteCommandHandler;
+
+    @Inject
+    AuthService authService;
+
     @POST
     public Response createNotification(@Valid CreateNotificationCommand command) {
         NotificationDTO notification = createNotificationCommandHandler.handle(command);
         return Response.status(Response.Status.CREATED).entity(notification).build();
     }
 
+    /**
+     * GET /api/notifications/inbox?cursor=&limit=&unreadOnly=
+     * Boite de reception de l'utilisateur courant, de la plus recente a la plus ancienne.
+     * Pagination par curseur: repasser {@code nextCursor} pour la page suivante.
+     */
+    @GET
+    @Path("/inbox")
+    @RolesAllowed({Roles.USER, Roles.ADMIN})
+    public Response getInbox(@QueryParam("cursor") String cursor,
+                             @QueryParam("limit") Integer limit,
+                             @QueryParam("unreadOnly") @DefaultValue("false") boolean unreadOnly) {
+        UUID userId = authService.requireCurrentUser().getId();
+        return Response.ok(inboxQueryHandler.handle(new GetNotificationInboxQuery(userId, cursor, limit, unreadOnly))).build();
+    }
+
+    /**
+     * GET /api/notifications/unread-count
+     * Badge de l'application (compteur en memoire, sans COUNT a chaque appel)
+     */
+    @GET
+    @Path("/unread-count")
+    @RolesAllowed({Roles.USER, Roles.ADMIN})
+    public Response getUnreadCount() {
+        UUID userId = authService.requireCurrentUser().getId();
+        return Response.ok(new UnreadCountResponse(inboxQueryHandler.countUnread(userId))).build();
+    }
+
+    /**
+     * POST /api/notifications/read
+     * Marque lues les notifications indiquees, ou toutes si {@code notificationIds} est absent
+     */
+    @POST
+    @Path("/read")
+    @RolesAllowed({Roles.USER, Roles.ADMIN})
+    public Response markAsRead(NotificationIdsRequest request) {
+        UUID userId = authService.requireCurrentUser().getId();
+        List<UUID> ids = request != null ? request.notificationIds() : null;
+        int updated = markReadCommandHandler.handle(new MarkNotificationsReadCommand(userId, ids));
+        return Response.ok(new BulkUpdateResponse(updated, inboxQueryHandler.countUnread(userId))).build();
+    }
+
+    /**
+     * POST /api/notifications/delete
+     * Supprime les notifications indiquees de l'utilisateur courant
+     */
+    @POST
+    @Path("/delete")
+    @RolesAllowed({Roles.USER, Roles.ADMIN})
+    public Response deleteNotifications(NotificationIdsRequest request) {
+        UUID userId = authService.requireCurrentUser().getId();
+        List<UUID> ids = request != null && request.notificationIds() != null ? request.notificationIds() : List.of();
+        int deleted = deleteCommandHandler.handle(new DeleteNotificationsCommand(userId, ids));
+        return Response.ok(new BulkUpdateResponse(deleted, inboxQueryHandler.countUnread(userId))).build();
+    }
+
     @GET
     @Path("/{id}")
     public Response getNotificationById(@PathParam("id") UUID id) {
         // TODO: Implement GetNotificationQuery and Handler
         return Response.ok().build();
     }
-}
\ No newline at end of file
+
+    public record NotificationIdsRequest(List<UUID> notificationIds) {}
+
+    public record UnreadCountResponse(long unreadCount) {}
+
+    public record BulkUpdateResponse(int updated, long unreadCount) {}
+}
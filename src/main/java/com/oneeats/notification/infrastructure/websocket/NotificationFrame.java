@@ -0,0 +1,28 @@
+package com.oneeats.notification.infrastructure.websocket;
+
+/**
+ * Trame WebSocket immuable, serialisee une seule fois par evenement.
+ * La meme instance est envoyee a toutes les sessions destinataires (restaurant ou utilisateur).
+ *
+ * @param type type de notification (ex: "new_order", "order_status_update")
+ * @param text contenu JSON pret a etre envoye
+ */
+public record NotificationFrame(String type, String text) {
+
+    public NotificationFrame {
+        if (type == null || text == null) {
+            throw new IllegalArgumentException("Frame type and text are required");
+        }
+    }
+
+    /**
+     * Copie de la trame avec le champ "seq" insere en tete de l'objet JSON, sans re-serialisation.
+     */
+    public NotificationFrame withSequence(long seq) {
+        if (text.length() < 2 || text.charAt(0) != '{') {
+            return this;
+        }
+        String separator = text.charAt(1) == '}' ? "" : ",";
+        return new NotificationFrame(type, "{\"seq\":" + seq + separator + text.substring(1));
+    }
+}
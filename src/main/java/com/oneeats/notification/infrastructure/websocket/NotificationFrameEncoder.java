@@ -0,0 +1,26 @@
+package com.oneeats.notification.infrastructure.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Couche d'encodage des notifications WebSocket.
+ * Chaque evenement est serialise exactement une fois en {@link NotificationFrame},
+ * puis la trame est reutilisee pour toutes les sessions du destinataire.
+ */
+@ApplicationScoped
+public class NotificationFrameEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public NotificationFrameEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public NotificationFrame encode(String type, Object payload) throws JsonProcessingException {
+        return new NotificationFrame(type, objectMapper.writeValueAsString(payload));
+    }
+}
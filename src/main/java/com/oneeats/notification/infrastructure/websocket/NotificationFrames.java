@@ -0,0 +1,70 @@
+package com.oneeats.notification.infrastructure.websocket;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Trames constantes (ou quasi constantes) utilisees par les endpoints WebSocket.
+ * Evite les concatenations a chaque heartbeat et echappe le contenu renvoye par l'echo.
+ */
+public final class NotificationFrames {
+
+    public static final String USER_CONNECTED =
+        "{\"type\":\"connected\",\"message\":\"WebSocket connected successfully\"}";
+
+    private static final String HEARTBEAT_PREFIX = "{\"type\":\"heartbeat\",\"timestamp\":";
+    private static final String ECHO_PREFIX = "{\"type\":\"echo\",\"message\":\"";
+    private static final String REPLAY_GAP_PREFIX = "{\"type\":\"replay_gap\",\"lastSeq\":";
+    private static final String RESTAURANT_CONNECTED_PREFIX = "{\"type\":\"connected\",\"restaurantId\":\"";
+    private static final String RESTAURANT_CONNECTED_SUFFIX = "\",\"message\":\"Restaurant WebSocket connected successfully\"}";
+
+    // Dernier heartbeat calcule: partage entre toutes les sessions pour une meme milliseconde
+    private static volatile Heartbeat lastHeartbeat = new Heartbeat(0L, HEARTBEAT_PREFIX + "0}");
+
+    private NotificationFrames() {
+    }
+
+    public static String heartbeat() {
+        return heartbeat(System.currentTimeMillis());
+    }
+
+    public static String heartbeat(long timestamp) {
+        Heartbeat cached = lastHeartbeat;
+        if (cached.timestamp() == timestamp) {
+            return cached.text();
+        }
+        Heartbeat fresh = new Heartbeat(timestamp, HEARTBEAT_PREFIX + timestamp + "}");
+        lastHeartbeat = fresh;
+        return fresh.text();
+    }
+
+    public static String restaurantConnected(String restaurantId) {
+        return RESTAURANT_CONNECTED_PREFIX + restaurantId + RESTAURANT_CONNECTED_SUFFIX;
+    }
+
+    /**
+     * Signale au client que des notifications ont ete evincees du tampon de rejeu:
+     * il doit se resynchroniser via l'API REST.
+     */
+    public static String replayGap(long lastSeq) {
+        return REPLAY_GAP_PREFIX + lastSeq + "}";
+    }
+
+    /**
+     * Echo du message recu, echappe pour ne jamais produire de JSON invalide ou injecte.
+     */
+    public static String echo(String message) {
+        char[] escaped = JsonStringEncoder.getInstance().quoteAsString(message == null ? "" : message);
+        return new StringBuilder(ECHO_PREFIX.length() + escaped.length + 2)
+            .append(ECHO_PREFIX)
+            .append(escaped)
+            .append("\"}")
+            .toString();
+    }
+
+    public static boolean isHeartbeat(String message) {
+        return message != null && message.contains("\"type\":\"heartbeat\"");
+    }
+
+    private record Heartbeat(long timestamp, String text) {
+    }
+}
@@ -0,0 +1,314 @@
+package com.oneeats.notification.infrastructure.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.websocket.Session;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Tampon de rejeu des notifications WebSocket.
+ * Conserve, par destinataire (utilisateur ou restaurant), un anneau borne des dernieres trames
+ * avec des numeros de sequence strictement croissants. Un client qui se reconnecte avec
+ * {@code ?since=<seq>} recoit uniquement les trames manquees.
+ *
+ * La sequence est globale et initialisee a partir de l'horloge au demarrage, elle reste donc
+ * croissante apres une eviction du destinataire ou un redemarrage du serveur.
+ *
+ * En cluster, les trames recues d'un autre noeud sont memorisees avec la sequence du noeud emetteur
+ * ({@link #appendReplicated}), et la sequence locale avance au-dela: un client qui se reconnecte sur un noeud
+ * ou il avait deja une session rejoue aussi les trames emises ailleurs. Un noeud qui n'avait aucune session
+ * du destinataire n'a rien recu: le client y est signale en rupture et se resynchronise via REST.
+ *
+ * Limites memoire: nombre de trames par destinataire, nombre de destinataires (LRU) et age maximum.
+ */
+@ApplicationScoped
+public class NotificationReplayBuffer {
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationReplayBuffer.class.getName());
+
+    public enum RecipientType { USER, RESTAURANT }
+
+    @ConfigProperty(name = "oneeats.notification.replay.capacity-per-recipient", defaultValue = "100")
+    int capacityPerRecipient;
+
+    @ConfigProperty(name = "oneeats.notification.replay.max-recipients", defaultValue = "10000")
+    int maxRecipients;
+
+    @ConfigProperty(name = "oneeats.notification.replay.max-age", defaultValue = "30m")
+    Duration maxAge;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // Ordre d'acces pour evincer le destinataire le moins recemment utilise
+    private final Map<RecipientKey, Ring> rings = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong bufferedFrames = new AtomicLong();
+    // Protegee par le verrou de rings
+    private long sequence = System.currentTimeMillis() * 1_000L;
+    private Counter appendedCounter;
+    private Counter replayedCounter;
+    private Counter evictedCapacityCounter;
+    private Counter evictedRecipientCounter;
+    private Counter evictedExpiredCounter;
+    private Counter gapCounter;
+    private Counter outOfOrderCounter;
+
+    public NotificationReplayBuffer() {
+    }
+
+    public NotificationReplayBuffer(int capacityPerRecipient, int maxRecipients, Duration maxAge, MeterRegistry meterRegistry) {
+        this.capacityPerRecipient = capacityPerRecipient;
+        this.maxRecipients = maxRecipients;
+        this.maxAge = maxAge;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        appendedCounter = meterRegistry.counter("oneeats.notification.replay.appended");
+        replayedCounter = meterRegistry.counter("oneeats.notification.replay.replayed");
+        evictedCapacityCounter = meterRegistry.counter("oneeats.notification.replay.evicted", "reason", "capacity");
+        evictedRecipientCounter = meterRegistry.counter("oneeats.notification.replay.evicted", "reason", "recipients");
+        evictedExpiredCounter = meterRegistry.counter("oneeats.notification.replay.evicted", "reason", "expired");
+        gapCounter = meterRegistry.counter("oneeats.notification.replay.gaps");
+        outOfOrderCounter = meterRegistry.counter("oneeats.notification.replay.out-of-order");
+        Gauge.builder("oneeats.notification.replay.frames", bufferedFrames, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("oneeats.notification.replay.recipients", this, NotificationReplayBuffer::recipientCount).register(meterRegistry);
+    }
+
+    /**
+     * Attribue le prochain numero de sequence du destinataire, memorise la trame et la retourne sequencee.
+     */
+    public SequencedFrame append(RecipientType type, UUID recipientId, NotificationFrame frame) {
+        long now = System.currentTimeMillis();
+        RecipientKey key = new RecipientKey(type, recipientId);
+        SequencedFrame sequenced;
+        synchronized (rings) {
+            Ring ring = rings.computeIfAbsent(key, k -> new Ring(capacityPerRecipient, sequence));
+            long seq = ++sequence;
+            sequenced = new SequencedFrame(seq, now, frame.withSequence(seq));
+            ring.append(sequenced);
+            evictOldestRecipientsIfNeeded();
+        }
+        appendedCounter.increment();
+        return sequenced;
+    }
+
+    /**
+     * Memorise une trame deja sequencee par un autre noeud, avec sa sequence d'origine.
+     * Une trame qui n'est pas posterieure a la derniere du destinataire (horloges des noeuds decalees)
+     * n'est pas conservee: elle reste livree aux sessions ouvertes.
+     *
+     * @param frame trame contenant deja le champ "seq"
+     * @return faux si la trame n'a pas ete conservee
+     */
+    public boolean appendReplicated(RecipientType type, UUID recipientId, long seq, NotificationFrame frame) {
+        long now = System.currentTimeMillis();
+        RecipientKey key = new RecipientKey(type, recipientId);
+        synchronized (rings) {
+            // Les trames locales suivantes restent posterieures a celle-ci
+            sequence = Math.max(sequence, seq);
+            Ring ring = rings.computeIfAbsent(key, k -> new Ring(capacityPerRecipient, seq - 1));
+            if (seq <= ring.lastSeq) {
+                outOfOrderCounter.increment();
+                return false;
+            }
+            ring.append(new SequencedFrame(seq, now, frame));
+            evictOldestRecipientsIfNeeded();
+        }
+        appendedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Retourne les trames de sequence strictement superieure a {@code since}.
+     * {@link Replay#gap()} indique que des trames plus anciennes ont ete evincees: le client doit se resynchroniser via REST.
+     */
+    public Replay replaySince(RecipientType type, UUID recipientId, long since) {
+        long expiredBefore = System.currentTimeMillis() - maxAge.toMillis();
+        Replay replay;
+        synchronized (rings) {
+            Ring ring = rings.get(new RecipientKey(type, recipientId));
+            if (ring == null) {
+                // Destinataire inconnu ou evince: seul un client sans historique n'a rien manque
+                boolean gap = since > 0;
+                if (gap) {
+                    gapCounter.increment();
+                }
+                return new Replay(Collections.emptyList(), gap, since);
+            }
+            ring.expire(expiredBefore);
+            replay = ring.since(since);
+        }
+        replayedCounter.increment(replay.frames().size());
+        if (replay.gap()) {
+            gapCounter.increment();
+        }
+        return replay;
+    }
+
+    /**
+     * Rejoue sur une session qui vient de s'ouvrir les trames posterieures a {@code since}.
+     */
+    public void replayTo(Session session, RecipientType type, UUID recipientId, long since) {
+        Replay replay = replaySince(type, recipientId, since);
+        if (replay.gap()) {
+            session.getAsyncRemote().sendText(NotificationFrames.replayGap(replay.lastSeq()));
+        }
+        for (SequencedFrame sequenced : replay.frames()) {
+            session.getAsyncRemote().sendText(sequenced.frame().text());
+        }
+        LOGGER.info("🔁 Replayed " + replay.frames().size() + " notification(s) to " + type + " " + recipientId +
+                   " since seq " + since + (replay.gap() ? " (gap detected)" : ""));
+    }
+
+    /**
+     * Parametre {@code ?since=<seq>} de la connexion. Absent a la premiere connexion:
+     * le client charge alors son etat via REST et rien n'est rejoue.
+     */
+    static OptionalLong sinceParameter(Session session) {
+        Map<String, List<String>> parameters = session.getRequestParameterMap();
+        List<String> values = parameters == null ? null : parameters.get("since");
+        if (values == null || values.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(values.get(0)));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid since parameter: " + values.get(0));
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Purge les trames expirees de tous les destinataires.
+     * Les anneaux vides sont conserves (quelques octets) pour garder la trace des sequences perdues.
+     */
+    @Scheduled(every = "${oneeats.notification.replay.expire-every:60s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void expire() {
+        long expiredBefore = System.currentTimeMillis() - maxAge.toMillis();
+        synchronized (rings) {
+            rings.values().forEach(ring -> ring.expire(expiredBefore));
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+            recipientCount(),
+            bufferedFrames.get(),
+            (long) appendedCounter.count(),
+            (long) evictedCapacityCounter.count(),
+            (long) evictedRecipientCounter.count(),
+            (long) evictedExpiredCounter.count(),
+            (long) gapCounter.count()
+        );
+    }
+
+    private int recipientCount() {
+        synchronized (rings) {
+            return rings.size();
+        }
+    }
+
+    private void evictOldestRecipientsIfNeeded() {
+        Iterator<Map.Entry<RecipientKey, Ring>> iterator = rings.entrySet().iterator();
+        while (rings.size() > maxRecipients && iterator.hasNext()) {
+            Ring evicted = iterator.next().getValue();
+            iterator.remove();
+            bufferedFrames.addAndGet(-evicted.size);
+            evictedRecipientCounter.increment(evicted.size);
+        }
+    }
+
+    public record SequencedFrame(long seq, long createdAt, NotificationFrame frame) {
+    }
+
+    /**
+     * @param frames  trames manquees, dans l'ordre croissant de sequence
+     * @param gap     vrai si des trames posterieures a {@code since} ne sont plus disponibles
+     * @param lastSeq derniere sequence attribuee au destinataire
+     */
+    public record Replay(List<SequencedFrame> frames, boolean gap, long lastSeq) {
+    }
+
+    public record Stats(int recipients, long bufferedFrames, long appended,
+                        long evictedByCapacity, long evictedByRecipientLimit, long evictedByAge, long gaps) {
+    }
+
+    private record RecipientKey(RecipientType type, UUID id) {
+    }
+
+    /**
+     * Anneau borne d'un destinataire. Acces protege par le verrou de {@code rings}.
+     */
+    private final class Ring {
+        private final SequencedFrame[] slots;
+        private int head;
+        private int size;
+        private long lastSeq;
+        // Plus haute sequence qui n'est plus (ou n'a jamais ete) conservee dans cet anneau
+        private long droppedUpTo;
+
+        Ring(int capacity, long createdAtSeq) {
+            this.slots = new SequencedFrame[Math.max(1, capacity)];
+            this.droppedUpTo = createdAtSeq;
+            this.lastSeq = createdAtSeq;
+        }
+
+        void append(SequencedFrame sequenced) {
+            lastSeq = sequenced.seq();
+            int tail = (head + size) % slots.length;
+            if (size == slots.length) {
+                droppedUpTo = slots[head].seq();
+                head = (head + 1) % slots.length;
+                evictedCapacityCounter.increment();
+            } else {
+                size++;
+                bufferedFrames.incrementAndGet();
+            }
+            slots[tail] = sequenced;
+        }
+
+        Replay since(long since) {
+            boolean gap = since < droppedUpTo;
+            List<SequencedFrame> frames = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                SequencedFrame candidate = slots[(head + i) % slots.length];
+                if (candidate.seq() > since) {
+                    frames.add(candidate);
+                }
+            }
+            return new Replay(frames, gap, lastSeq);
+        }
+
+        void expire(long expiredBefore) {
+            while (size > 0 && slots[head].createdAt() < expiredBefore) {
+                droppedUpTo = slots[head].seq();
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+                size--;
+                bufferedFrames.decrementAndGet();
+                evictedExpiredCounter.increment();
+            }
+        }
+    }
+}
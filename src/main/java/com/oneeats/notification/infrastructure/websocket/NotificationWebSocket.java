@@ -1,12 +1,14 @@
 package com.oneeats.notification.infrastructure.websocket;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.websocket.*;
 import jakarta.websocket.server.PathParam;
 import jakarta.websocket.server.ServerEndpoint;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
@@ -20,18 +22,31 @@ public class NotificationWebSocket {
     // Map to store user sessions
     private static final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
 
+    // Informe la couche cluster des utilisateurs connectes sur ce noeud
+    private static volatile SessionPresenceListener presenceListener = SessionPresenceListener.NONE;
+
+    @Inject
+    NotificationReplayBuffer replayBuffer;
+
     @OnOpen
     public void onOpen(Session session, @PathParam("userId") String userId) {
         try {
             UUID userUuid = UUID.fromString(userId);
             sessions.put(userUuid, session);
+            presenceListener.recipientConnected(NotificationReplayBuffer.RecipientType.USER, userUuid);
             LOGGER.info("🔌 WebSocket connection OPENED for user: " + userId +
                        " - Session ID: " + session.getId() +
                        " - Total active sessions: " + sessions.size());
 
             // Send connection confirmation
-            session.getAsyncRemote().sendText("{\"type\":\"connected\",\"message\":\"WebSocket connected successfully\"}");
+            session.getAsyncRemote().sendText(NotificationFrames.USER_CONNECTED);
             LOGGER.info("✅ Confirmation message sent to user: " + userId);
+
+            // Rejouer les notifications manquees (?since=<seq>)
+            OptionalLong since = NotificationReplayBuffer.sinceParameter(session);
+            if (since.isPresent()) {
+                replayBuffer.replayTo(session, NotificationReplayBuffer.RecipientType.USER, userUuid, since.getAsLong());
+            }
         } catch (IllegalArgumentException e) {
             LOGGER.warning("Invalid userId format: " + userId);
             try {
@@ -46,7 +61,9 @@ public class NotificationWebSocket {
     public void onClose(Session session, @PathParam("userId") String userId, CloseReason closeReason) {
         try {
             UUID userUuid = UUID.fromString(userId);
-            sessions.remove(userUuid);
+            if (sessions.remove(userUuid) != null) {
+                presenceListener.recipientDisconnected(NotificationReplayBuffer.RecipientType.USER, userUuid);
+            }
             LOGGER.warning("❌ WebSocket connection CLOSED for user: " + userId +
                           " - Session ID: " + session.getId() +
                           " - Reason: " + closeReason.getReasonPhrase() +
@@ -65,7 +82,9 @@ public class NotificationWebSocket {
                      " - Stack trace: ");
         try {
             UUID userUuid = UUID.fromString(userId);
-            sessions.remove(userUuid);
+            if (sessions.remove(userUuid) != null) {
+                presenceListener.recipientDisconnected(NotificationReplayBuffer.RecipientType.USER, userUuid);
+            }
         } catch (IllegalArgumentException e) {
             LOGGER.warning("Invalid userId format on error: " + userId);
         }
@@ -81,13 +100,13 @@ public class NotificationWebSocket {
 
             if (session != null && session.isOpen()) {
                 // Parse le message pour détecter les heartbeats
-                if (message.contains("\"type\":\"heartbeat\"")) {
+                if (NotificationFrames.isHeartbeat(message)) {
                     LOGGER.info("💓 Heartbeat received from user: " + userId);
                     // Répondre au heartbeat
-                    session.getAsyncRemote().sendText("{\"type\":\"heartbeat\",\"timestamp\":" + System.currentTimeMillis() + "}");
+                    session.getAsyncRemote().sendText(NotificationFrames.heartbeat());
                 } else {
-                    // Echo back other messages
-                    session.getAsyncRemote().sendText("{\"type\":\"echo\",\"message\":\"" + message + "\"}");
+                    // Echo back other messages (contenu echappe)
+                    session.getAsyncRemote().sendText(NotificationFrames.echo(message));
                 }
             }
         } catch (IllegalArgumentException e) {
@@ -116,6 +135,20 @@ public class NotificationWebSocket {
         }
     }
 
+    /**
+     * Send a pre-encoded frame to a specific user
+     */
+    public static void sendFrameToUser(UUID userId, NotificationFrame frame) {
+        sendNotificationToUser(userId, frame.text());
+    }
+
+    /**
+     * Register the listener notified when users connect to / disconnect from this node
+     */
+    public static void setPresenceListener(SessionPresenceListener listener) {
+        presenceListener = listener != null ? listener : SessionPresenceListener.NONE;
+    }
+
     /**
      * Get the number of active connections
      */
@@ -1,12 +1,14 @@
 package com.oneeats.notification.infrastructure.websocket;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.websocket.*;
 import jakarta.websocket.server.PathParam;
 import jakarta.websocket.server.ServerEndpoint;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,7 +19,7 @@ import java.util.logging.Logger;
  * WebSocket endpoint pour les restaurants.
  * Permet de recevoir les notifications de nouvelles commandes et changements de statut en temps reel.
  *
- * URL: /ws/restaurant/{restaurantId}
+ * URL: /ws/restaurant/{restaurantId}[?since=<seq>]
  */
 @ServerEndpoint("/ws/restaurant/{restaurantId}")
 @ApplicationScoped
@@ -28,6 +30,12 @@ public class RestaurantWebSocket {
     // Map pour stocker les sessions par restaurant (un restaurant peut avoir plusieurs sessions - plusieurs onglets/appareils)
     private static final Map<UUID, Set<Session>> restaurantSessions = new ConcurrentHashMap<>();
 
+    // Informe la couche cluster des restaurants connectes sur ce noeud
+    private static volatile SessionPresenceListener presenceListener = SessionPresenceListener.NONE;
+
+    @Inject
+    NotificationReplayBuffer replayBuffer;
+
     @OnOpen
     public void onOpen(Session session, @PathParam("restaurantId") String restaurantId) {
         try {
@@ -35,6 +43,7 @@ public class RestaurantWebSocket {
 
             // Ajouter la session au set de sessions du restaurant
             restaurantSessions.computeIfAbsent(restaurantUuid, k -> new CopyOnWriteArraySet<>()).add(session);
+            presenceListener.recipientConnected(NotificationReplayBuffer.RecipientType.RESTAURANT, restaurantUuid);
 
             int totalSessions = restaurantSessions.values().stream().mapToInt(Set::size).sum();
             LOGGER.info("🍽️ Restaurant WebSocket OPENED for restaurant: " + restaurantId +
@@ -43,7 +52,13 @@ public class RestaurantWebSocket {
                        " - Total restaurant sessions: " + totalSessions);
 
             // Envoyer confirmation de connexion
-            session.getAsyncRemote().sendText("{\"type\":\"connected\",\"restaurantId\":\"" + restaurantId + "\",\"message\":\"Restaurant WebSocket connected successfully\"}");
+            session.getAsyncRemote().sendText(NotificationFrames.restaurantConnected(restaurantUuid.toString()));
+
+            // Rejouer les notifications manquees pendant la deconnexion (?since=<seq>)
+            OptionalLong since = NotificationReplayBuffer.sinceParameter(session);
+            if (since.isPresent()) {
+                replayBuffer.replayTo(session, NotificationReplayBuffer.RecipientType.RESTAURANT, restaurantUuid, since.getAsLong());
+            }
 
         } catch (IllegalArgumentException e) {
             LOGGER.warning("Invalid restaurantId format: " + restaurantId);
@@ -64,8 +79,8 @@ public class RestaurantWebSocket {
             if (sessions != null) {
                 sessions.remove(session);
                 // Nettoyer si plus de sessions pour ce restaurant
-                if (sessions.isEmpty()) {
-                    restaurantSessions.remove(restaurantUuid);
+                if (sessions.isEmpty() && restaurantSessions.remove(restaurantUuid, sessions)) {
+                    presenceListener.recipientDisconnected(NotificationReplayBuffer.RecipientType.RESTAURANT, restaurantUuid);
                 }
             }
 
@@ -88,8 +103,8 @@ public class RestaurantWebSocket {
             Set<Session> sessions = restaurantSessions.get(restaurantUuid);
             if (sessions != null) {
                 sessions.remove(session);
-                if (sessions.isEmpty()) {
-                    restaurantSessions.remove(restaurantUuid);
+                if (sessions.isEmpty() && restaurantSessions.remove(restaurantUuid, sessions)) {
+                    presenceListener.recipientDisconnected(NotificationReplayBuffer.RecipientType.RESTAURANT, restaurantUuid);
                 }
             }
         } catch (IllegalArgumentException e) {
@@ -104,12 +119,12 @@ public class RestaurantWebSocket {
         try {
             if (session.isOpen()) {
                 // Repondre aux heartbeats
-                if (message.contains("\"type\":\"heartbeat\"")) {
+                if (NotificationFrames.isHeartbeat(message)) {
                     LOGGER.info("💓 Heartbeat received from restaurant: " + restaurantId);
-                    session.getAsyncRemote().sendText("{\"type\":\"heartbeat\",\"timestamp\":" + System.currentTimeMillis() + "}");
+                    session.getAsyncRemote().sendText(NotificationFrames.heartbeat());
                 } else {
-                    // Echo pour autres messages
-                    session.getAsyncRemote().sendText("{\"type\":\"echo\",\"message\":\"" + message + "\"}");
+                    // Echo pour autres messages (contenu echappe)
+                    session.getAsyncRemote().sendText(NotificationFrames.echo(message));
                 }
             }
         } catch (Exception e) {
@@ -144,6 +159,21 @@ public class RestaurantWebSocket {
         }
     }
 
+    /**
+     * Envoyer une trame pre-encodee a toutes les sessions d'un restaurant.
+     * La meme chaine est partagee par toutes les sessions, sans re-serialisation.
+     */
+    public static void sendFrameToRestaurant(UUID restaurantId, NotificationFrame frame) {
+        sendNotificationToRestaurant(restaurantId, frame.text());
+    }
+
+    /**
+     * Enregistrer l'ecouteur informe des connexions/deconnexions des restaurants sur ce noeud
+     */
+    public static void setPresenceListener(SessionPresenceListener listener) {
+        presenceListener = listener != null ? listener : SessionPresenceListener.NONE;
+    }
+
     /**
      * Verifier si un restaurant a des sessions actives
      */
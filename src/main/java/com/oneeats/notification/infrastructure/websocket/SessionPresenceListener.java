@@ -0,0 +1,32 @@
+package com.oneeats.notification.infrastructure.websocket;
+
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+
+import java.util.UUID;
+
+/**
+ * Ecoute l'ouverture et la fermeture des sessions WebSocket locales.
+ * Permet a la couche cluster de savoir quel noeud detient les sessions d'un destinataire.
+ */
+public interface SessionPresenceListener {
+
+    SessionPresenceListener NONE = new SessionPresenceListener() {
+        @Override
+        public void recipientConnected(RecipientType type, UUID recipientId) {
+        }
+
+        @Override
+        public void recipientDisconnected(RecipientType type, UUID recipientId) {
+        }
+    };
+
+    /**
+     * Une session vient de s'ouvrir pour le destinataire sur ce noeud (appel idempotent).
+     */
+    void recipientConnected(RecipientType type, UUID recipientId);
+
+    /**
+     * La derniere session du destinataire sur ce noeud vient de se fermer.
+     */
+    void recipientDisconnected(RecipientType type, UUID recipientId);
+}
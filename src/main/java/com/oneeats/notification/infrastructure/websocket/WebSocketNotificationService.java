@@ -1,10 +1,15 @@
 package com.oneeats.notification.infrastructure.websocket;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.infrastructure.cluster.ClusterNotification;
+import com.oneeats.notification.infrastructure.cluster.ClusterNotificationBus;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.SequencedFrame;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -14,17 +19,19 @@ public class WebSocketNotificationService {
     private static final Logger LOGGER = Logger.getLogger(WebSocketNotificationService.class.getName());
 
     @Inject
-    ObjectMapper objectMapper;
+    NotificationFrameEncoder frameEncoder;
+
+    @Inject
+    NotificationReplayBuffer replayBuffer;
+
+    @Inject
+    ClusterNotificationBus clusterBus;
 
     /**
      * Send order status notification via WebSocket
+     * (buffered for replay when the user is offline)
      */
     public void sendOrderStatusNotification(UUID userId, UUID orderId, String orderStatus, String title, String message) {
-        if (!NotificationWebSocket.isUserConnected(userId)) {
-            LOGGER.info("User " + userId + " is not connected via WebSocket, skipping real-time notification");
-            return;
-        }
-
         try {
             OrderStatusNotification notification = new OrderStatusNotification(
                 "order_status_update",
@@ -35,10 +42,8 @@ public class WebSocketNotificationService {
                 System.currentTimeMillis()
             );
 
-            String jsonNotification = objectMapper.writeValueAsString(notification);
-            NotificationWebSocket.sendNotificationToUser(userId, jsonNotification);
-
-            LOGGER.info("Order status notification sent via WebSocket to user: " + userId);
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToUser(userId, frame);
         } catch (JsonProcessingException e) {
             LOGGER.severe("Error serializing notification to JSON: " + e.getMessage());
         }
@@ -46,13 +51,9 @@ public class WebSocketNotificationService {
 
     /**
      * Send general notification via WebSocket
+     * (buffered for replay when the user is offline)
      */
     public void sendNotification(UUID userId, String type, String title, String message) {
-        if (!NotificationWebSocket.isUserConnected(userId)) {
-            LOGGER.info("User " + userId + " is not connected via WebSocket, skipping real-time notification");
-            return;
-        }
-
         try {
             GeneralNotification notification = new GeneralNotification(
                 type,
@@ -61,26 +62,40 @@ public class WebSocketNotificationService {
                 System.currentTimeMillis()
             );
 
-            String jsonNotification = objectMapper.writeValueAsString(notification);
-            NotificationWebSocket.sendNotificationToUser(userId, jsonNotification);
-
-            LOGGER.info("General notification sent via WebSocket to user: " + userId);
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToUser(userId, frame);
         } catch (JsonProcessingException e) {
             LOGGER.severe("Error serializing notification to JSON: " + e.getMessage());
         }
     }
 
+    /**
+     * Envoyer au client la nouvelle heure de retrait estimee de sa commande
+     * (conservee pour rejeu si le client est deconnecte)
+     */
+    public void sendPickupEtaToUser(UUID userId, UUID orderId, LocalDateTime estimatedPickupTime) {
+        try {
+            PickupEtaNotification notification = new PickupEtaNotification(
+                "order_eta_update",
+                orderId,
+                estimatedPickupTime,
+                System.currentTimeMillis()
+            );
+
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToUser(userId, frame);
+        } catch (JsonProcessingException e) {
+            LOGGER.severe("Error serializing pickup ETA notification: " + e.getMessage());
+        }
+    }
+
     // ==================== RESTAURANT NOTIFICATIONS ====================
 
     /**
      * Envoyer une notification de nouvelle commande au restaurant
+     * (conservee pour rejeu si le restaurant est deconnecte)
      */
     public void sendNewOrderToRestaurant(UUID restaurantId, UUID orderId, String orderNumber, String customerName, double totalAmount) {
-        if (!RestaurantWebSocket.isRestaurantConnected(restaurantId)) {
-            LOGGER.info("Restaurant " + restaurantId + " is not connected via WebSocket");
-            return;
-        }
-
         try {
             NewOrderNotification notification = new NewOrderNotification(
                 "new_order",
@@ -91,10 +106,8 @@ public class WebSocketNotificationService {
                 System.currentTimeMillis()
             );
 
-            String jsonNotification = objectMapper.writeValueAsString(notification);
-            RestaurantWebSocket.sendNotificationToRestaurant(restaurantId, jsonNotification);
-
-            LOGGER.info("🍽️ New order notification sent to restaurant: " + restaurantId);
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToRestaurant(restaurantId, frame);
         } catch (JsonProcessingException e) {
             LOGGER.severe("Error serializing new order notification: " + e.getMessage());
         }
@@ -102,13 +115,9 @@ public class WebSocketNotificationService {
 
     /**
      * Envoyer une notification de changement de statut au restaurant
+     * (conservee pour rejeu si le restaurant est deconnecte)
      */
     public void sendOrderStatusToRestaurant(UUID restaurantId, UUID orderId, String orderNumber, String previousStatus, String newStatus) {
-        if (!RestaurantWebSocket.isRestaurantConnected(restaurantId)) {
-            LOGGER.info("Restaurant " + restaurantId + " is not connected via WebSocket");
-            return;
-        }
-
         try {
             RestaurantOrderStatusNotification notification = new RestaurantOrderStatusNotification(
                 "order_status_changed",
@@ -119,15 +128,64 @@ public class WebSocketNotificationService {
                 System.currentTimeMillis()
             );
 
-            String jsonNotification = objectMapper.writeValueAsString(notification);
-            RestaurantWebSocket.sendNotificationToRestaurant(restaurantId, jsonNotification);
-
-            LOGGER.info("🍽️ Order status notification sent to restaurant: " + restaurantId);
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToRestaurant(restaurantId, frame);
         } catch (JsonProcessingException e) {
             LOGGER.severe("Error serializing order status notification: " + e.getMessage());
         }
     }
 
+    /**
+     * Envoyer au restaurant les heures de retrait estimees qui ont change, en une trame
+     * (conservee pour rejeu si le restaurant est deconnecte)
+     */
+    public void sendPickupEtasToRestaurant(UUID restaurantId, List<PickupEtaNotification> etas) {
+        try {
+            RestaurantPickupEtaNotification notification = new RestaurantPickupEtaNotification(
+                "order_eta_update",
+                etas,
+                System.currentTimeMillis()
+            );
+
+            NotificationFrame frame = frameEncoder.encode(notification.type, notification);
+            deliverToRestaurant(restaurantId, frame);
+        } catch (JsonProcessingException e) {
+            LOGGER.severe("Error serializing pickup ETA notification: " + e.getMessage());
+        }
+    }
+
+    // ==================== DELIVERY ====================
+
+    /**
+     * Sequence et memorise la trame, l'envoie aux sessions locales puis aux autres noeuds
+     * qui detiennent des sessions de l'utilisateur.
+     */
+    private void deliverToUser(UUID userId, NotificationFrame frame) {
+        SequencedFrame sequenced = replayBuffer.append(RecipientType.USER, userId, frame);
+        if (NotificationWebSocket.isUserConnected(userId)) {
+            NotificationWebSocket.sendFrameToUser(userId, sequenced.frame());
+            LOGGER.info("Notification " + frame.type() + " sent via WebSocket to user: " + userId);
+        } else {
+            LOGGER.info("User " + userId + " is not connected to this node, " + frame.type() +
+                       " buffered for replay (seq=" + sequenced.seq() + ")");
+        }
+        clusterBus.publish(new ClusterNotification(RecipientType.USER, userId, clusterBus.nodeId(),
+            sequenced.seq(), frame.type(), sequenced.frame().text()));
+    }
+
+    private void deliverToRestaurant(UUID restaurantId, NotificationFrame frame) {
+        SequencedFrame sequenced = replayBuffer.append(RecipientType.RESTAURANT, restaurantId, frame);
+        if (RestaurantWebSocket.isRestaurantConnected(restaurantId)) {
+            RestaurantWebSocket.sendFrameToRestaurant(restaurantId, sequenced.frame());
+            LOGGER.info("🍽️ Notification " + frame.type() + " sent to restaurant: " + restaurantId);
+        } else {
+            LOGGER.info("Restaurant " + restaurantId + " is not connected to this node, " + frame.type() +
+                       " buffered for replay (seq=" + sequenced.seq() + ")");
+        }
+        clusterBus.publish(new ClusterNotification(RecipientType.RESTAURANT, restaurantId, clusterBus.nodeId(),
+            sequenced.seq(), frame.type(), sequenced.frame().text()));
+    }
+
     // ==================== NOTIFICATION CLASSES ====================
 
     /**
@@ -252,4 +310,45 @@ public class WebSocketNotificationService {
         public long getTimestamp() { return timestamp; }
         public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
     }
-}
\ No newline at end of file
+
+    /**
+     * Heure de retrait estimee d'une commande
+     */
+    public static class PickupEtaNotification {
+        public String type;
+        public UUID orderId;
+        public LocalDateTime estimatedPickupTime;
+        public long timestamp;
+
+        public PickupEtaNotification(String type, UUID orderId, LocalDateTime estimatedPickupTime, long timestamp) {
+            this.type = type;
+            this.orderId = orderId;
+            this.estimatedPickupTime = estimatedPickupTime;
+            this.timestamp = timestamp;
+        }
+
+        public String getType() { return type; }
+        public UUID getOrderId() { return orderId; }
+        public LocalDateTime getEstimatedPickupTime() { return estimatedPickupTime; }
+        public long getTimestamp() { return timestamp; }
+    }
+
+    /**
+     * Heures de retrait estimees des commandes d'un restaurant
+     */
+    public static class RestaurantPickupEtaNotification {
+        public String type;
+        public List<PickupEtaNotification> orders;
+        public long timestamp;
+
+        public RestaurantPickupEtaNotification(String type, List<PickupEtaNotification> orders, long timestamp) {
+            this.type = type;
+            this.orders = orders;
+            this.timestamp = timestamp;
+        }
+
+        public String getType() { return type; }
+        public List<PickupEtaNotification> getOrders() { return orders; }
+        public long getTimestamp() { return timestamp; }
+    }
+}
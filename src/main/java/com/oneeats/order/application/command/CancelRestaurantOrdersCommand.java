@@ -0,0 +1,8 @@
+package com.oneeats.order.application.command;
+
+import java.util.UUID;
+
+/**
+ * Annulation de toutes les commandes actives d'un restaurant (blocage par un administrateur)
+ */
+public record CancelRestaurantOrdersCommand(UUID restaurantId, String reason) {}
@@ -0,0 +1,84 @@
+package com.oneeats.order.application.command;
+
+import com.oneeats.order.application.dto.OrderCancellationProgressDTO;
+import com.oneeats.order.domain.model.CancelledOrder;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Annulation groupee des commandes actives d'un restaurant.
+ *
+ * - Lots de {@code chunk-size} commandes, une transaction courte par lot: une requete UPDATE, verrous
+ *   relaches au commit de chaque lot, aucune transaction a la mesure du nombre de commandes.
+ * - Chaque lot ecrit ses OrderStatusChangedEvent dans l'outbox: notifications client envoyees par le relais.
+ * - Un lot en echec arrete l'annulation; les lots deja valides restent annules, le reste reste actif.
+ * - Avancement consultable pendant et apres l'annulation (memoire du noeud, dernier passage par restaurant).
+ */
+@ApplicationScoped
+public class CancelRestaurantOrdersCommandHandler {
+
+    private static final Logger LOG = Logger.getLogger(CancelRestaurantOrdersCommandHandler.class);
+
+    @Inject
+    IOrderRepository orderRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.business.order.bulk-cancel.chunk-size", defaultValue = "200")
+    int chunkSize;
+
+    private final Map<UUID, OrderCancellationProgressDTO> progress = new ConcurrentHashMap<>();
+
+    /**
+     * Doit etre appele hors transaction: chaque lot est valide separement
+     *
+     * @return identifiants des commandes annulees
+     */
+    public List<UUID> handle(CancelRestaurantOrdersCommand command) {
+        UUID restaurantId = command.restaurantId();
+        progress.put(restaurantId, OrderCancellationProgressDTO.started(restaurantId));
+        Timer chunkTimer = meterRegistry.timer("oneeats.orders.bulk-cancel.chunk");
+
+        List<UUID> cancelledIds = new ArrayList<>();
+        boolean failed = false;
+        try {
+            List<CancelledOrder> chunk;
+            do {
+                chunk = chunkTimer.record(() -> QuarkusTransaction.requiringNew().call(
+                    () -> orderRepository.cancelActiveChunk(restaurantId, command.reason(), chunkSize)));
+                chunk.forEach(order -> cancelledIds.add(order.orderId()));
+                int cancelled = chunk.size();
+                progress.computeIfPresent(restaurantId, (id, current) -> current.chunkDone(cancelled));
+                LOG.debugf("Restaurant %s: %d order(s) cancelled so far", restaurantId, cancelledIds.size());
+            } while (chunk.size() == chunkSize);
+        } catch (Exception e) {
+            failed = true;
+            LOG.errorf("Bulk cancellation for restaurant %s stopped after %d order(s): %s",
+                restaurantId, cancelledIds.size(), e.getMessage());
+        }
+
+        boolean failure = failed;
+        progress.computeIfPresent(restaurantId, (id, current) -> current.finish(failure));
+        meterRegistry.counter("oneeats.orders.bulk-cancel.cancelled").increment(cancelledIds.size());
+        LOG.infof("🚫 Restaurant %s: %d active order(s) cancelled", restaurantId, cancelledIds.size());
+        return cancelledIds;
+    }
+
+    public Optional<OrderCancellationProgressDTO> progress(UUID restaurantId) {
+        return Optional.ofNullable(progress.get(restaurantId));
+    }
+}
@@ -2,21 +2,54 @@ package com.oneeats.order.application.command;
 
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Commande client. Les prix ({@code totalAmount}, {@code unitPrice}) et noms envoyes sont indicatifs:
+ * la commande est valorisee cote serveur depuis la grille tarifaire du restaurant.
+ */
 public record CreateOrderCommand(
     @NotNull UUID userId,
     @NotNull UUID restaurantId,
-    @NotNull BigDecimal totalAmount,
+    BigDecimal totalAmount,
     String specialInstructions,
     @NotNull List<OrderItemCommand> items
-) {}
+) {
+
+    /**
+     * Empreinte SHA-256 de la commande (restaurant, instructions, articles, quantites et choix), hors champs
+     * indicatifs: une cle d'idempotence rejouee avec une autre commande est refusee
+     */
+    public String fingerprint() {
+        StringBuilder canonical = new StringBuilder()
+            .append(userId).append('|').append(restaurantId).append('|')
+            .append(specialInstructions).append('|');
+        if (items != null) {
+            for (OrderItemCommand item : items) {
+                List<UUID> choiceIds = item.choiceIds() == null ? List.of() : item.choiceIds().stream().sorted().toList();
+                canonical.append(item.menuItemId()).append(':').append(item.quantity()).append(':')
+                    .append(choiceIds).append(':').append(item.specialNotes()).append(';');
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
 
 record OrderItemCommand(
     @NotNull UUID menuItemId,
-    @NotNull String menuItemName,
-    @NotNull BigDecimal unitPrice,
+    String menuItemName,
+    BigDecimal unitPrice,
     @NotNull Integer quantity,
-    String specialNotes
-) {}
\ No newline at end of file
+    String specialNotes,
+    List<UUID> choiceIds
+) {}
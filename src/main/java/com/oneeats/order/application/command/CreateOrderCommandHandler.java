@@ -1,21 +1,39 @@
 package com.oneeats.order.application.command;
 
+import com.oneeats.menu.domain.model.MenuPriceTable;
+import com.oneeats.menu.domain.model.MenuPriceTable.PricedItem;
+import com.oneeats.menu.infrastructure.cache.MenuPriceTableCache;
 import com.oneeats.order.application.dto.OrderDTO;
 import com.oneeats.order.application.mapper.OrderApplicationMapper;
 import com.oneeats.order.domain.model.Order;
 import com.oneeats.order.domain.model.OrderItem;
 import com.oneeats.order.domain.repository.IOrderRepository;
 import com.oneeats.order.domain.service.OrderDomainService;
+import com.oneeats.order.infrastructure.eta.PickupEtaEstimator;
+import com.oneeats.order.infrastructure.idempotency.OrderIdempotencyStore;
+import com.oneeats.order.infrastructure.idempotency.OrderIdempotencyStore.StoredKey;
+import com.oneeats.shared.domain.exception.EntityNotFoundException;
+import com.oneeats.shared.domain.exception.ValidationException;
 import com.oneeats.shared.domain.vo.Money;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
 
 @ApplicationScoped
 public class CreateOrderCommandHandler {
 
+    private static final Logger LOG = Logger.getLogger(CreateOrderCommandHandler.class);
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
     @Inject
     IOrderRepository orderRepository;
 
@@ -25,36 +43,98 @@ public class CreateOrderCommandHandler {
     @Inject
     OrderApplicationMapper mapper;
 
+    @Inject
+    MenuPriceTableCache priceTableCache;
+
+    @Inject
+    PickupEtaEstimator etaEstimator;
+
+    @Inject
+    OrderIdempotencyStore idempotencyStore;
+
+    @ConfigProperty(name = "oneeats.business.order.max-items-per-order", defaultValue = "50")
+    int maxItemsPerOrder;
+
     @Transactional
     public OrderDTO handle(CreateOrderCommand command) {
+        return intake(command);
+    }
+
+    /**
+     * Prise de commande avec cle d'idempotence: la cle est reservee dans la transaction de la commande.
+     * Cle deja utilisee (requete rejouee, ou requete identique validee entre-temps sur un autre noeud):
+     * la commande d'origine est renvoyee sans nouvelle prise de commande.
+     */
+    @Transactional
+    public CreateOrderResult handle(CreateOrderCommand command, String idempotencyKey, String requestHash) {
+        if (!idempotencyStore.claim(command.userId(), idempotencyKey, requestHash)) {
+            return new CreateOrderResult(original(command.userId(), idempotencyKey, requestHash), true);
+        }
+        OrderDTO order = intake(command);
+        idempotencyStore.complete(command.userId(), idempotencyKey, order.id());
+        return new CreateOrderResult(order, false);
+    }
+
+    private OrderDTO original(UUID userId, String idempotencyKey, String requestHash) {
+        // Cle et commande sont validees ensemble: sans commande, la cle a ete purgee ou n'est pas encore visible
+        StoredKey stored = idempotencyStore.find(userId, idempotencyKey)
+            .filter(key -> key.orderId() != null)
+            .orElseThrow(() -> IdempotencyKeyConflictException.inFlight(idempotencyKey));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw IdempotencyKeyConflictException.reused(idempotencyKey);
+        }
+        return orderRepository.findById(stored.orderId())
+            .map(mapper::toDTO)
+            .orElseThrow(() -> new EntityNotFoundException("Order", stored.orderId()));
+    }
+
+    private OrderDTO intake(CreateOrderCommand command) {
+        if (command.items().isEmpty()) {
+            throw new ValidationException("Order must contain at least one item");
+        }
+        if (command.items().size() > maxItemsPerOrder) {
+            throw new ValidationException("Order cannot contain more than " + maxItemsPerOrder + " items");
+        }
+
         String orderNumber = orderDomainService.generateOrderNumber();
         
         orderDomainService.validateOrderCreation(orderNumber);
 
-        Money totalAmount = new Money(command.totalAmount(), Currency.getInstance("EUR"));
-        
         Order order = Order.create(
             orderNumber,
             command.userId(),
             command.restaurantId(),
-            totalAmount,
+            new Money(BigDecimal.ZERO, EUR),
             command.specialInstructions()
         );
 
-        // Add items to order
+        // Prix et noms issus de la grille tarifaire, jamais du client
+        MenuPriceTable priceTable = priceTableCache.get(command.restaurantId());
+        List<Integer> preparationMinutes = new ArrayList<>(command.items().size());
         for (var itemCommand : command.items()) {
-            Money itemPrice = new Money(itemCommand.unitPrice(), Currency.getInstance("EUR"));
+            PricedItem priced = priceTable.price(itemCommand.menuItemId(), itemCommand.choiceIds());
+            preparationMinutes.add(priced.preparationMinutes());
             OrderItem item = OrderItem.create(
                 itemCommand.menuItemId(),
-                itemCommand.menuItemName(),
-                itemPrice,
+                priced.name(),
+                new Money(priced.unitPrice(), EUR),
                 itemCommand.quantity(),
                 itemCommand.specialNotes()
             );
             order.addItem(item);
         }
 
+        BigDecimal total = order.getTotalAmount().getAmount();
+        if (command.totalAmount() != null && command.totalAmount().compareTo(total) != 0) {
+            LOG.debugf("Order %s: client total %s replaced by server total %s", orderNumber, command.totalAmount(), total);
+        }
+
+        // Heure de retrait estimee selon la file de cuisine du restaurant
+        int nominalMinutes = etaEstimator.nominalMinutes(preparationMinutes);
+        order.setEstimatedPickupTime(etaEstimator.estimate(command.restaurantId(), nominalMinutes));
+
         Order savedOrder = orderRepository.save(order);
+        etaEstimator.track(savedOrder, nominalMinutes);
         return mapper.toDTO(savedOrder);
     }
-}
\ No newline at end of file
+}
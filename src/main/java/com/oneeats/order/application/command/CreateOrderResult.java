@@ -0,0 +1,8 @@
+package com.oneeats.order.application.command;
+
+import com.oneeats.order.application.dto.OrderDTO;
+
+/**
+ * Resultat d'une prise de commande; {@code replayed} si la commande existait deja (cle d'idempotence rejouee)
+ */
+public record CreateOrderResult(OrderDTO order, boolean replayed) {}
@@ -0,0 +1,32 @@
+package com.oneeats.order.application.command;
+
+/**
+ * Idempotency-Key deja prise: requete d'origine encore en cours (409, a rejouer plus tard)
+ * ou cle deja utilisee pour une autre commande (422, nouvelle cle necessaire).
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean inFlight;
+
+    private IdempotencyKeyConflictException(String message, boolean inFlight) {
+        super(message);
+        this.inFlight = inFlight;
+    }
+
+    public static IdempotencyKeyConflictException inFlight(String idempotencyKey) {
+        return new IdempotencyKeyConflictException(
+            "An order with Idempotency-Key " + idempotencyKey + " is still being processed, retry later", true);
+    }
+
+    public static IdempotencyKeyConflictException reused(String idempotencyKey) {
+        return new IdempotencyKeyConflictException(
+            "Idempotency-Key " + idempotencyKey + " was already used for a different order", false);
+    }
+
+    /**
+     * Vrai si la requete d'origine est encore en cours
+     */
+    public boolean inFlight() {
+        return inFlight;
+    }
+}
@@ -5,7 +5,6 @@ import com.oneeats.order.application.mapper.OrderApplicationMapper;
 import com.oneeats.order.domain.model.Order;
 import com.oneeats.order.domain.repository.IOrderRepository;
 import com.oneeats.shared.domain.exception.EntityNotFoundException;
-import com.oneeats.shared.domain.event.DomainEventPublisher;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -22,9 +21,6 @@ public class UpdateOrderStatusCommandHandler {
 
     @Inject
     OrderApplicationMapper mapper;
-
-    @Inject
-    DomainEventPublisher domainEventPublisher;
     
     @Transactional
     public OrderDTO handle(UpdateOrderStatusCommand command) {
@@ -36,15 +32,8 @@ public class UpdateOrderStatusCommandHandler {
         // Mettre à jour le statut
         order.updateStatus(command.getNewStatus());
 
-        // Publier les événements domaine AVANT de sauvegarder
-        LOGGER.info("🔔 Nombre d'événements à publier: " + order.getDomainEvents().size());
-        order.getDomainEvents().forEach(event -> {
-            LOGGER.info("🚀 Publication de l'événement: " + event.getClass().getSimpleName());
-            domainEventPublisher.publish(event);
-        });
-        order.clearDomainEvents();
-
-        // Sauvegarder
+        // Sauvegarder (les événements domaine sont écrits dans l'outbox et relayés après le commit)
+        LOGGER.fine("Événements écrits dans l'outbox: " + order.getDomainEvents().size());
         Order updatedOrder = orderRepository.save(order);
 
         return mapper.toDTO(updatedOrder);
@@ -0,0 +1,31 @@
+package com.oneeats.order.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Avancement d'une annulation groupee des commandes d'un restaurant
+ */
+public record OrderCancellationProgressDTO(
+    UUID restaurantId,
+    long cancelledCount,
+    int chunks,
+    boolean finished,
+    boolean failed,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt
+) {
+    public static OrderCancellationProgressDTO started(UUID restaurantId) {
+        return new OrderCancellationProgressDTO(restaurantId, 0, 0, false, false, LocalDateTime.now(), null);
+    }
+
+    public OrderCancellationProgressDTO chunkDone(int cancelled) {
+        return new OrderCancellationProgressDTO(restaurantId, cancelledCount + cancelled, chunks + 1,
+            false, false, startedAt, null);
+    }
+
+    public OrderCancellationProgressDTO finish(boolean failed) {
+        return new OrderCancellationProgressDTO(restaurantId, cancelledCount, chunks,
+            true, failed, startedAt, LocalDateTime.now());
+    }
+}
@@ -1,6 +1,7 @@
 package com.oneeats.order.application.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 /**
  * DTO pour les statistiques de commandes
@@ -14,6 +15,10 @@ public class OrderStatsDTO {
     private Long readyOrders;
     private Long completedOrders;
     private BigDecimal averageOrderValue;
+    private LocalDate date;
+    private Long confirmedOrders;
+    private Long cancelledOrders;
+    private Double averagePickupMinutes;  // De la prise de commande au retrait, commandes retirees
     
     public OrderStatsDTO() {}
     
@@ -50,4 +55,16 @@ public class OrderStatsDTO {
     
     public BigDecimal getAverageOrderValue() { return averageOrderValue; }
     public void setAverageOrderValue(BigDecimal averageOrderValue) { this.averageOrderValue = averageOrderValue; }
-}
\ No newline at end of file
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Long getConfirmedOrders() { return confirmedOrders; }
+    public void setConfirmedOrders(Long confirmedOrders) { this.confirmedOrders = confirmedOrders; }
+
+    public Long getCancelledOrders() { return cancelledOrders; }
+    public void setCancelledOrders(Long cancelledOrders) { this.cancelledOrders = cancelledOrders; }
+
+    public Double getAveragePickupMinutes() { return averagePickupMinutes; }
+    public void setAveragePickupMinutes(Double averagePickupMinutes) { this.averagePickupMinutes = averagePickupMinutes; }
+}
@@ -3,9 +3,10 @@ package com.oneeats.order.application.event;
 import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
 import com.oneeats.order.domain.event.OrderCreatedEvent;
 import com.oneeats.order.infrastructure.repository.JpaOrderRepository;
+import com.oneeats.shared.infrastructure.outbox.OutboxIdempotencyGuard;
 import com.oneeats.user.infrastructure.repository.JpaUserRepository;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -20,9 +21,15 @@ public class OrderCreatedEventHandler {
 
     private static final Logger LOGGER = Logger.getLogger(OrderCreatedEventHandler.class.getName());
 
+    // Cle d'idempotence de ce gestionnaire (livraison au moins une fois par l'outbox)
+    private static final String CONSUMER = "order-created-restaurant-notification";
+
     @Inject
     WebSocketNotificationService webSocketNotificationService;
 
+    @Inject
+    OutboxIdempotencyGuard idempotencyGuard;
+
     @Inject
     JpaOrderRepository orderRepository;
 
@@ -30,7 +37,12 @@ public class OrderCreatedEventHandler {
     JpaUserRepository userRepository;
 
     @Transactional
-    public void handle(@Observes OrderCreatedEvent event) {
+    public void handle(@ObservesAsync OrderCreatedEvent event) {
+        if (!idempotencyGuard.firstDelivery(event.getEventId(), CONSUMER)) {
+            LOGGER.info("⏭️ OrderCreatedEvent " + event.getEventId() + " already handled, skipping");
+            return;
+        }
+
         LOGGER.info("🆕 Handling OrderCreatedEvent for order: " + event.getOrderId() +
                    " - Order Number: " + event.getOrderNumber() +
                    " - Restaurant: " + event.getRestaurantId() +
@@ -3,29 +3,58 @@ package com.oneeats.order.application.event;
 import com.oneeats.notification.application.command.CreateNotificationCommand;
 import com.oneeats.notification.application.command.CreateNotificationCommandHandler;
 import com.oneeats.notification.domain.model.NotificationType;
+import com.oneeats.notification.infrastructure.push.PushDispatcher;
 import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
 import com.oneeats.order.domain.event.OrderStatusChangedEvent;
 import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.shared.infrastructure.outbox.OutboxIdempotencyGuard;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
 import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 
+import java.util.Map;
 import java.util.logging.Logger;
 
+/**
+ * Gestionnaire d'evenements pour les changements de statut de commande.
+ * Livre par le relais de l'outbox apres le commit de la mise a jour (au moins une fois, dedoublonne
+ * par identifiant d'evenement): cree la notification en base, puis, une fois la transaction validee, notifie
+ * client et restaurant via WebSocket et met en file une notification push pour le client (appareil sans
+ * WebSocket ouvert). Un lot du relais annule puis relivre evenement par evenement n'envoie donc rien deux fois.
+ */
 @ApplicationScoped
 public class OrderStatusChangedEventHandler {
 
     private static final Logger LOGGER = Logger.getLogger(OrderStatusChangedEventHandler.class.getName());
 
+    // Cle d'idempotence de ce gestionnaire (livraison au moins une fois par l'outbox)
+    private static final String CONSUMER = "order-status-changed-notification";
+
     @Inject
     CreateNotificationCommandHandler createNotificationCommandHandler;
 
     @Inject
     WebSocketNotificationService webSocketNotificationService;
 
+    @Inject
+    OutboxIdempotencyGuard idempotencyGuard;
+
+    @Inject
+    PushDispatcher pushDispatcher;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
     @Transactional
-    public void handle(@Observes OrderStatusChangedEvent event) {
+    public void handle(@ObservesAsync OrderStatusChangedEvent event) {
+        if (!idempotencyGuard.firstDelivery(event.getEventId(), CONSUMER)) {
+            LOGGER.info("⏭️ OrderStatusChangedEvent " + event.getEventId() + " already handled, skipping");
+            return;
+        }
+
         LOGGER.info("🔔 Handling OrderStatusChangedEvent for order: " + event.getOrderId() +
                    " - User: " + event.getUserId() +
                    " - Restaurant: " + event.getRestaurantId() +
@@ -44,31 +73,10 @@ public class OrderStatusChangedEventHandler {
             );
 
             try {
-                // Save notification to database
-                createNotificationCommandHandler.handle(notificationCommand);
+                // Historique en base: envoyee apres le commit, le moteur d'envoi differe l'ignore
+                createNotificationCommandHandler.handleDelivered(notificationCommand);
                 LOGGER.info("✅ Database notification created successfully for order: " + event.getOrderId());
-
-                // Send real-time notification via WebSocket to USER (client mobile)
-                LOGGER.info("📡 Sending WebSocket notification to user: " + event.getUserId());
-                webSocketNotificationService.sendOrderStatusNotification(
-                    event.getUserId(),
-                    event.getOrderId(),
-                    event.getNewStatus().toString(),
-                    title,
-                    message
-                );
-
-                // Send real-time notification via WebSocket to RESTAURANT (dashboard)
-                LOGGER.info("🍽️ Sending WebSocket notification to restaurant: " + event.getRestaurantId());
-                webSocketNotificationService.sendOrderStatusToRestaurant(
-                    event.getRestaurantId(),
-                    event.getOrderId(),
-                    getOrderNumber(event.getOrderId()),
-                    event.getPreviousStatus().toString(),
-                    event.getNewStatus().toString()
-                );
-
-                LOGGER.info("🚀 WebSocket notifications sent for order: " + event.getOrderId());
+                AfterCommit.run(transactionRegistry, () -> notifyClients(event, title, message));
             } catch (Exception e) {
                 LOGGER.severe("❌ Failed to process notification for order: " + event.getOrderId() +
                              " - Error: " + e.getMessage());
@@ -79,6 +87,42 @@ public class OrderStatusChangedEventHandler {
         }
     }
 
+    private void notifyClients(OrderStatusChangedEvent event, String title, String message) {
+        try {
+            // Send real-time notification via WebSocket to USER (client mobile)
+            LOGGER.info("📡 Sending WebSocket notification to user: " + event.getUserId());
+            webSocketNotificationService.sendOrderStatusNotification(
+                event.getUserId(),
+                event.getOrderId(),
+                event.getNewStatus().toString(),
+                title,
+                message
+            );
+
+            // Send real-time notification via WebSocket to RESTAURANT (dashboard)
+            LOGGER.info("🍽️ Sending WebSocket notification to restaurant: " + event.getRestaurantId());
+            webSocketNotificationService.sendOrderStatusToRestaurant(
+                event.getRestaurantId(),
+                event.getOrderId(),
+                getOrderNumber(event.getOrderId()),
+                event.getPreviousStatus().toString(),
+                event.getNewStatus().toString()
+            );
+
+            LOGGER.info("🚀 WebSocket notifications sent for order: " + event.getOrderId());
+
+            // Push mobile, envoye par lots hors de ce gestionnaire
+            pushDispatcher.enqueue(event.getUserId(), title, message, Map.of(
+                "type", "order_status",
+                "orderId", event.getOrderId().toString(),
+                "status", event.getNewStatus().toString()
+            ));
+        } catch (Exception e) {
+            LOGGER.severe("❌ Failed to send notifications for order: " + event.getOrderId() +
+                         " - Error: " + e.getMessage());
+        }
+    }
+
     private String getOrderNumber(java.util.UUID orderId) {
         // Pour simplifier, on retourne l'ID comme numero de commande
         // Dans une implementation complete, on irait chercher le orderNumber en BDD
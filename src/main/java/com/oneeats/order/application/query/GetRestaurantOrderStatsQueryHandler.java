@@ -0,0 +1,58 @@
+package com.oneeats.order.application.query;
+
+import com.oneeats.order.application.dto.OrderStatsDTO;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.model.RestaurantDayOrderStats;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import com.oneeats.order.infrastructure.readmodel.RestaurantOrderStatsReadModel;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Statistiques journalieres d'un restaurant: jour courant en memoire, jours precedents agreges en SQL
+ */
+@ApplicationScoped
+public class GetRestaurantOrderStatsQueryHandler {
+
+    @Inject
+    RestaurantOrderStatsReadModel readModel;
+
+    @Inject
+    IOrderRepository orderRepository;
+
+    public OrderStatsDTO handle(GetRestaurantOrderStatsQuery query) {
+        LocalDate date = query.getDate() != null ? query.getDate() : LocalDate.now();
+        RestaurantDayOrderStats stats = readModel.get(query.getRestaurantId(), date)
+            .orElseGet(() -> orderRepository.aggregateDailyStats(query.getRestaurantId(), date));
+        return toDTO(stats);
+    }
+
+    private OrderStatsDTO toDTO(RestaurantDayOrderStats stats) {
+        BigDecimal revenue = stats.revenue().setScale(2, RoundingMode.HALF_UP);
+        long billedOrders = stats.totalOrders() - stats.orders(OrderStatus.CANCELLED);
+        BigDecimal averageOrderValue = billedOrders > 0
+            ? revenue.divide(BigDecimal.valueOf(billedOrders), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO.setScale(2);
+
+        OrderStatsDTO dto = new OrderStatsDTO(
+            stats.totalOrders(),
+            revenue,
+            stats.orders(OrderStatus.PENDING),
+            stats.orders(OrderStatus.PREPARING),
+            stats.orders(OrderStatus.READY),
+            stats.orders(OrderStatus.COMPLETED),
+            averageOrderValue
+        );
+        dto.setDate(stats.date());
+        dto.setConfirmedOrders(stats.orders(OrderStatus.CONFIRMED));
+        dto.setCancelledOrders(stats.orders(OrderStatus.CANCELLED));
+        dto.setAveragePickupMinutes(stats.pickedUpOrders() > 0
+            ? stats.totalPickupSeconds() / 60.0 / stats.pickedUpOrders()
+            : null);
+        return dto;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.UUID;
 
 public class OrderCreatedEvent implements IDomainEvent {
     
+    private final UUID eventId;
     private final UUID orderId;
     private final String orderNumber;
     private final UUID userId;
@@ -14,11 +15,19 @@ public class OrderCreatedEvent implements IDomainEvent {
     private final LocalDateTime occurredOn;
 
     public OrderCreatedEvent(UUID orderId, String orderNumber, UUID userId, UUID restaurantId) {
+        this(UUID.randomUUID(), orderId, orderNumber, userId, restaurantId, LocalDateTime.now());
+    }
+
+    /**
+     * Reconstitution d'un evenement persiste (outbox): conserve son identifiant et sa date.
+     */
+    public OrderCreatedEvent(UUID eventId, UUID orderId, String orderNumber, UUID userId, UUID restaurantId, LocalDateTime occurredOn) {
+        this.eventId = eventId;
         this.orderId = orderId;
         this.orderNumber = orderNumber;
         this.userId = userId;
         this.restaurantId = restaurantId;
-        this.occurredOn = LocalDateTime.now();
+        this.occurredOn = occurredOn;
     }
 
     @Override
@@ -26,6 +35,10 @@ public class OrderCreatedEvent implements IDomainEvent {
         return occurredOn;
     }
 
+    public UUID getEventId() {
+        return eventId;
+    }
+
     public UUID getOrderId() {
         return orderId;
     }
@@ -41,4 +54,4 @@ public class OrderCreatedEvent implements IDomainEvent {
     public UUID getRestaurantId() {
         return restaurantId;
     }
-}
\ No newline at end of file
+}
@@ -8,6 +8,7 @@ import java.util.UUID;
 
 public class OrderStatusChangedEvent implements IDomainEvent {
 
+    private final UUID eventId;
     private final UUID orderId;
     private final UUID userId;
     private final UUID restaurantId;
@@ -16,12 +17,21 @@ public class OrderStatusChangedEvent implements IDomainEvent {
     private final LocalDateTime occurredOn;
 
     public OrderStatusChangedEvent(UUID orderId, UUID userId, UUID restaurantId, OrderStatus previousStatus, OrderStatus newStatus) {
+        this(UUID.randomUUID(), orderId, userId, restaurantId, previousStatus, newStatus, LocalDateTime.now());
+    }
+
+    /**
+     * Reconstitution d'un evenement persiste (outbox): conserve son identifiant et sa date.
+     */
+    public OrderStatusChangedEvent(UUID eventId, UUID orderId, UUID userId, UUID restaurantId,
+                                   OrderStatus previousStatus, OrderStatus newStatus, LocalDateTime occurredOn) {
+        this.eventId = eventId;
         this.orderId = orderId;
         this.userId = userId;
         this.restaurantId = restaurantId;
         this.previousStatus = previousStatus;
         this.newStatus = newStatus;
-        this.occurredOn = LocalDateTime.now();
+        this.occurredOn = occurredOn;
     }
 
     @Override
@@ -29,6 +39,10 @@ public class OrderStatusChangedEvent implements IDomainEvent {
         return occurredOn;
     }
 
+    public UUID getEventId() {
+        return eventId;
+    }
+
     public UUID getOrderId() {
         return orderId;
     }
@@ -48,4 +62,4 @@ public class OrderStatusChangedEvent implements IDomainEvent {
     public UUID getRestaurantId() {
         return restaurantId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.oneeats.order.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Commande annulee par une annulation groupee (blocage du restaurant), avec son statut precedent
+ */
+public record CancelledOrder(UUID orderId, UUID userId, OrderStatus previousStatus) {}
@@ -224,6 +224,10 @@ public class Order extends BaseEntity {
         this.cancelledAt = cancelledAt;
     }
 
+    public void setActualPickupTime(LocalDateTime actualPickupTime) {
+        this.actualPickupTime = actualPickupTime;
+    }
+
     // Méthodes métier
     
     /**
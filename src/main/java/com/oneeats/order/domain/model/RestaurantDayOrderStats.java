@@ -0,0 +1,43 @@
+package com.oneeats.order.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Statistiques des commandes passees un jour donne dans un restaurant, par statut courant.
+ * Le temps de retrait va de la prise de commande au retrait (commandes COMPLETED).
+ */
+public record RestaurantDayOrderStats(
+    UUID restaurantId,
+    LocalDate date,
+    Map<OrderStatus, Long> ordersByStatus,
+    Map<OrderStatus, BigDecimal> amountByStatus,
+    long pickedUpOrders,
+    long totalPickupSeconds
+) {
+    public static RestaurantDayOrderStats empty(UUID restaurantId, LocalDate date) {
+        return new RestaurantDayOrderStats(restaurantId, date, new EnumMap<>(OrderStatus.class),
+            new EnumMap<>(OrderStatus.class), 0, 0);
+    }
+
+    public long orders(OrderStatus status) {
+        return ordersByStatus.getOrDefault(status, 0L);
+    }
+
+    public long totalOrders() {
+        return ordersByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Chiffre d'affaires des commandes non annulees
+     */
+    public BigDecimal revenue() {
+        return amountByStatus.entrySet().stream()
+            .filter(entry -> entry.getKey() != OrderStatus.CANCELLED)
+            .map(Map.Entry::getValue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -1,8 +1,11 @@
 package com.oneeats.order.domain.repository;
 
+import com.oneeats.order.domain.model.CancelledOrder;
 import com.oneeats.order.domain.model.Order;
 import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.model.RestaurantDayOrderStats;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +26,28 @@ public interface IOrderRepository {
 
     List<Order> findActiveByRestaurantId(UUID restaurantId);
 
+    /**
+     * Commandes actives de tous les restaurants, lignes chargees
+     */
+    List<Order> findAllActive();
+
+    long countActiveByRestaurantId(UUID restaurantId);
+
+    /**
+     * Annule au plus {@code limit} commandes actives du restaurant en une requete UPDATE (lignes verrouillees
+     * jusqu'au commit de la transaction appelante) et ecrit leurs OrderStatusChangedEvent dans l'outbox.
+     *
+     * @return commandes annulees, vide quand il n'en reste plus
+     */
+    List<CancelledOrder> cancelActiveChunk(UUID restaurantId, String reason, int limit);
+
+    /**
+     * Agregation SQL des commandes passees ce jour-la, tous restaurants confondus
+     */
+    List<RestaurantDayOrderStats> aggregateDailyStats(LocalDate date);
+
+    RestaurantDayOrderStats aggregateDailyStats(UUID restaurantId, LocalDate date);
+
     Order save(Order order);
     
     void delete(Order order);
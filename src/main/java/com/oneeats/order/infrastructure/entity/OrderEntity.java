@@ -11,7 +11,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_restaurant_status", columnList = "restaurant_id, status, created_at"),
+    @Index(name = "idx_orders_created_at", columnList = "created_at"),
+    @Index(name = "idx_orders_restaurant_created_at", columnList = "restaurant_id, created_at")
+})
 public class OrderEntity extends PanacheEntityBase {
 
     @Id
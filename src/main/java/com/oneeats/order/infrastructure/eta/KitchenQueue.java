@@ -0,0 +1,245 @@
+package com.oneeats.order.infrastructure.eta;
+
+import com.oneeats.order.domain.model.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * File de cuisine d'un restaurant: commandes actives et estimation de leur heure de mise a disposition.
+ *
+ * - {@code capacity} commandes preparees en parallele; les commandes en attente (PENDING, CONFIRMED) prennent
+ *   le premier poste libre dans l'ordre d'arrivee, apres les commandes en preparation.
+ * - Duree estimee d'une commande = temps de preparation du menu x facteur appris du restaurant. Le facteur est
+ *   une moyenne exponentielle des rapports duree reelle (PREPARING → READY) / temps du menu.
+ * - Recalcul en O(n log capacity) pour n commandes actives.
+ * - Rapprochement avec la base en place: les commandes ajoutees, modifiees ou retirees localement apres la
+ *   lecture gardent leur etat local, le facteur appris est conserve.
+ *
+ * Non synchronisee: l'appelant verrouille la file.
+ */
+public class KitchenQueue {
+
+    // Rapport duree reelle / temps du menu retenu pour l'apprentissage (valeurs aberrantes ecartees)
+    private static final double MIN_RATIO = 0.25;
+    private static final double MAX_RATIO = 4.0;
+
+    /**
+     * Estimation d'une commande; {@code userId} pour notifier le client
+     */
+    public record Eta(UUID orderId, UUID userId, LocalDateTime estimatedReadyAt) {}
+
+    /**
+     * Commande active lue en base (rapprochement)
+     */
+    public record Snapshot(UUID orderId, UUID userId, LocalDateTime queuedAt, int nominalMinutes, OrderStatus status,
+                           LocalDateTime published) {}
+
+    private static final class ActiveOrder {
+        final UUID orderId;
+        final UUID userId;
+        final LocalDateTime queuedAt;
+        final int nominalMinutes;
+        OrderStatus status;
+        LocalDateTime startedAt;
+        LocalDateTime readyAt;
+        LocalDateTime lastPublished;
+        LocalDateTime estimate;
+        // Numero de la derniere modification locale
+        long changedAt;
+
+        ActiveOrder(UUID orderId, UUID userId, LocalDateTime queuedAt, int nominalMinutes, OrderStatus status) {
+            this.orderId = orderId;
+            this.userId = userId;
+            this.queuedAt = queuedAt;
+            this.nominalMinutes = nominalMinutes;
+            this.status = status;
+        }
+    }
+
+    private static final Comparator<ActiveOrder> KITCHEN_ORDER = Comparator
+        .comparing((ActiveOrder order) -> order.status != OrderStatus.PREPARING)
+        .thenComparing(order -> order.queuedAt);
+
+    private final int capacity;
+    private final double learningRate;
+    private final Map<UUID, ActiveOrder> orders = new HashMap<>();
+    // Commandes retirees localement depuis le dernier rapprochement, avec le numero de la modification
+    private final Map<UUID, Long> removed = new HashMap<>();
+    private long mutations;
+    private double factor = 1.0;
+
+    public KitchenQueue(int capacity, double learningRate) {
+        this.capacity = Math.max(1, capacity);
+        this.learningRate = learningRate;
+    }
+
+    public boolean contains(UUID orderId) {
+        return orders.containsKey(orderId);
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public double factor() {
+        return factor;
+    }
+
+    /**
+     * Numero de la derniere modification locale, a relever avant de lire la base pour {@link #reconcile}
+     */
+    public long mutations() {
+        return mutations;
+    }
+
+    /**
+     * Heure de mise a disposition d'une nouvelle commande placee en fin de file
+     */
+    public LocalDateTime estimate(int nominalMinutes, LocalDateTime now) {
+        PriorityQueue<LocalDateTime> stations = schedule(now);
+        return stations.poll().plus(duration(nominalMinutes));
+    }
+
+    /**
+     * Ajoute une commande active; {@code published} = estimation deja communiquee au client
+     */
+    public void add(UUID orderId, UUID userId, LocalDateTime queuedAt, int nominalMinutes, OrderStatus status,
+                    LocalDateTime published) {
+        ActiveOrder order = new ActiveOrder(orderId, userId, queuedAt, nominalMinutes, status);
+        order.lastPublished = published;
+        order.changedAt = ++mutations;
+        orders.put(orderId, order);
+        removed.remove(orderId);
+    }
+
+    /**
+     * Applique un changement de statut; une commande READY apprend sa duree reelle, une commande terminee
+     * ou annulee quitte la file.
+     *
+     * @return ecart en minutes entre l'estimation et la mise a disposition reelle, ou -1
+     */
+    public double transition(UUID orderId, OrderStatus newStatus, LocalDateTime at) {
+        ActiveOrder order = orders.get(orderId);
+        if (order == null) {
+            return -1;
+        }
+        order.changedAt = ++mutations;
+        switch (newStatus) {
+            case COMPLETED, CANCELLED -> {
+                orders.remove(orderId);
+                removed.put(orderId, order.changedAt);
+                return -1;
+            }
+            case PREPARING -> order.startedAt = at;
+            case READY -> {
+                order.readyAt = at;
+                if (order.startedAt != null && order.nominalMinutes > 0) {
+                    double ratio = Duration.between(order.startedAt, at).toSeconds() / (order.nominalMinutes * 60.0);
+                    ratio = Math.min(MAX_RATIO, Math.max(MIN_RATIO, ratio));
+                    factor = learningRate * ratio + (1 - learningRate) * factor;
+                }
+            }
+            default -> {
+            }
+        }
+        order.status = newStatus;
+        return order.estimate != null && newStatus == OrderStatus.READY
+            ? Math.abs(Duration.between(order.estimate, at).toSeconds()) / 60.0
+            : -1;
+    }
+
+    /**
+     * Recalcule toutes les estimations
+     *
+     * @return commandes dont l'estimation s'ecarte d'au moins {@code threshold} de la derniere communiquee
+     */
+    public List<Eta> recompute(LocalDateTime now, Duration threshold) {
+        schedule(now);
+        List<Eta> changed = new ArrayList<>();
+        for (ActiveOrder order : orders.values()) {
+            if (order.lastPublished == null
+                || Duration.between(order.lastPublished, order.estimate).abs().compareTo(threshold) >= 0) {
+                order.lastPublished = order.estimate;
+                changed.add(new Eta(order.orderId, order.userId, order.estimate));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Recalcule les estimations sans les considerer communiquees (reconstruction: rien n'est envoye)
+     */
+    public void refresh(LocalDateTime now) {
+        schedule(now);
+    }
+
+    /**
+     * Rapproche la file des commandes actives lues en base apres {@code since} ({@link #mutations()}):
+     * les commandes inconnues sont ajoutees, celles absentes de la base retirees et les statuts repris,
+     * sauf pour les commandes modifiees localement depuis. Debuts de preparation, estimations communiquees
+     * et facteur appris sont conserves.
+     */
+    public void reconcile(Collection<Snapshot> active, long since) {
+        Set<UUID> inDatabase = new HashSet<>();
+        for (Snapshot snapshot : active) {
+            inDatabase.add(snapshot.orderId());
+            ActiveOrder order = orders.get(snapshot.orderId());
+            if (order == null) {
+                Long removedAt = removed.get(snapshot.orderId());
+                if (removedAt == null || removedAt <= since) {
+                    ActiveOrder added = new ActiveOrder(snapshot.orderId(), snapshot.userId(), snapshot.queuedAt(),
+                        snapshot.nominalMinutes(), snapshot.status());
+                    added.lastPublished = snapshot.published();
+                    orders.put(snapshot.orderId(), added);
+                }
+            } else if (order.changedAt <= since) {
+                order.status = snapshot.status();
+            }
+        }
+        orders.values().removeIf(order -> order.changedAt <= since && !inDatabase.contains(order.orderId));
+        removed.clear();
+    }
+
+    /**
+     * Place les commandes sur les postes; renvoie l'heure de liberation de chaque poste
+     */
+    private PriorityQueue<LocalDateTime> schedule(LocalDateTime now) {
+        PriorityQueue<LocalDateTime> stations = new PriorityQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            stations.add(now);
+        }
+        List<ActiveOrder> queue = new ArrayList<>(orders.values());
+        queue.sort(KITCHEN_ORDER);
+        for (ActiveOrder order : queue) {
+            if (order.status == OrderStatus.READY) {
+                order.estimate = order.readyAt != null ? order.readyAt : now;
+                continue;
+            }
+            LocalDateTime start = stations.poll();
+            if (order.status == OrderStatus.PREPARING && order.startedAt != null) {
+                // Deja commencee: fin prevue, jamais avant maintenant
+                LocalDateTime end = order.startedAt.plus(duration(order.nominalMinutes));
+                order.estimate = end.isAfter(now) ? end : now;
+            } else {
+                order.estimate = start.plus(duration(order.nominalMinutes));
+            }
+            stations.add(order.estimate.isAfter(start) ? order.estimate : start);
+        }
+        return stations;
+    }
+
+    private Duration duration(int nominalMinutes) {
+        return Duration.ofSeconds(Math.round(nominalMinutes * 60 * factor));
+    }
+}
@@ -0,0 +1,283 @@
+package com.oneeats.order.infrastructure.eta;
+
+import com.oneeats.menu.domain.model.MenuPriceTable;
+import com.oneeats.menu.infrastructure.cache.MenuPriceTableCache;
+import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
+import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService.PickupEtaNotification;
+import com.oneeats.order.domain.event.OrderStatusChangedEvent;
+import com.oneeats.order.domain.model.Order;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import com.oneeats.order.infrastructure.eta.KitchenQueue.Eta;
+import com.oneeats.order.infrastructure.eta.KitchenQueue.Snapshot;
+import com.oneeats.shared.infrastructure.outbox.OutboxIdempotencyGuard;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimation de l'heure de retrait des commandes, par restaurant ({@link KitchenQueue}).
+ *
+ * - A la prise de commande: temps du menu (article le plus long de la commande), file du restaurant
+ *   et facteur appris donnent {@code estimatedPickupTime}.
+ * - Changements de statut livres par le relais de l'outbox a ce noeud (dedoublonnes par identifiant
+ *   d'evenement), appliques apres le commit du lot: la file est recalculee et les estimations
+ *   qui bougent d'au moins {@code push-threshold} sont envoyees au client et au restaurant (WebSocket),
+ *   hors du thread de la requete.
+ * - Rapprochement periodique avec les commandes actives en base (evenements relayes par un autre noeud),
+ *   en place et sous le verrou de la file: les changements locaux posterieurs a la lecture, le facteur appris
+ *   et les debuts de preparation connus sont conserves.
+ * - Metriques: {@code oneeats.orders.eta.recompute} (duree), {@code oneeats.orders.eta.error} (ecart en minutes
+ *   entre l'estimation et la mise a disposition reelle), {@code oneeats.orders.eta.pushed}.
+ */
+@ApplicationScoped
+public class PickupEtaEstimator {
+
+    private static final Logger LOG = Logger.getLogger(PickupEtaEstimator.class);
+
+    // Cle d'idempotence de la projection (livraison au moins une fois par l'outbox)
+    private static final String CONSUMER = "order-status-changed-eta";
+
+    @Inject
+    IOrderRepository orderRepository;
+
+    @Inject
+    MenuPriceTableCache priceTableCache;
+
+    @Inject
+    WebSocketNotificationService webSocketNotificationService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    OutboxIdempotencyGuard idempotencyGuard;
+
+    @ConfigProperty(name = "oneeats.business.order.eta.kitchen-capacity", defaultValue = "3")
+    int kitchenCapacity;
+
+    @ConfigProperty(name = "oneeats.business.order.eta.learning-rate", defaultValue = "0.2")
+    double learningRate;
+
+    @ConfigProperty(name = "oneeats.business.order.eta.push-threshold", defaultValue = "2m")
+    Duration pushThreshold;
+
+    @ConfigProperty(name = "oneeats.business.order.default-preparation-time-minutes", defaultValue = "20")
+    int defaultPreparationMinutes;
+
+    @ConfigProperty(name = "oneeats.business.order.max-preparation-time-minutes", defaultValue = "120")
+    int maxPreparationMinutes;
+
+    private final Map<UUID, KitchenQueue> queues = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor publisher;
+    private Timer recomputeTimer;
+    private DistributionSummary error;
+
+    @PostConstruct
+    void init() {
+        // Envois au mieux: une estimation perdue file pleine est remplacee par la suivante
+        publisher = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000),
+            runnable -> {
+                Thread thread = new Thread(runnable, "pickup-eta-publisher");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+        publisher.allowCoreThreadTimeOut(true);
+        recomputeTimer = meterRegistry.timer("oneeats.orders.eta.recompute");
+        error = DistributionSummary.builder("oneeats.orders.eta.error")
+            .baseUnit("minutes")
+            .publishPercentiles(0.5, 0.9)
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdownNow();
+    }
+
+    @ActivateRequestContext
+    void onStart(@Observes StartupEvent event) {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            LOG.warnf("Pickup ETA queues not built at startup: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Temps de preparation d'une commande: l'article le plus long (articles prepares en parallele),
+     * temps par defaut si aucun n'est connu
+     */
+    public int nominalMinutes(Collection<Integer> itemMinutes) {
+        int minutes = itemMinutes.stream().mapToInt(Integer::intValue).max().orElse(0);
+        return Math.min(maxPreparationMinutes, minutes > 0 ? minutes : defaultPreparationMinutes);
+    }
+
+    /**
+     * Heure de retrait estimee d'une nouvelle commande
+     */
+    public LocalDateTime estimate(UUID restaurantId, int nominalMinutes) {
+        KitchenQueue queue = queue(restaurantId);
+        synchronized (queue) {
+            return queue.estimate(nominalMinutes, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Nouvelle commande; dans une transaction, apres son commit
+     */
+    public void track(Order order, int nominalMinutes) {
+        AfterCommit.run(transactionRegistry, () -> {
+            KitchenQueue queue = queue(order.getRestaurantId());
+            synchronized (queue) {
+                queue.add(order.getId(), order.getUserId(), order.getCreatedAt(), nominalMinutes, order.getStatus(),
+                    order.getEstimatedPickupTime());
+            }
+        });
+    }
+
+    /**
+     * Changement de statut, y compris les annulations en lot (un evenement par commande)
+     */
+    @Transactional
+    void onStatusChanged(@ObservesAsync OrderStatusChangedEvent event) {
+        if (!idempotencyGuard.firstDelivery(event.getEventId(), CONSUMER)) {
+            return;
+        }
+        statusChanged(event.getRestaurantId(), event.getOrderId(), event.getNewStatus());
+    }
+
+    /**
+     * Changement de statut; dans une transaction, apres son commit
+     */
+    public void statusChanged(UUID restaurantId, UUID orderId, OrderStatus newStatus) {
+        AfterCommit.run(transactionRegistry, () -> apply(restaurantId, Map.of(orderId, newStatus)));
+    }
+
+    /**
+     * Reconstruit les files depuis les commandes actives en base
+     */
+    @Scheduled(every = "${oneeats.business.order.eta.reconcile-every:60s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void reconcile() {
+        // Releve avant la lecture: les changements locaux posterieurs l'emportent sur la base
+        Map<UUID, Long> since = new HashMap<>();
+        queues.forEach((restaurantId, queue) -> {
+            synchronized (queue) {
+                since.put(restaurantId, queue.mutations());
+            }
+        });
+        Map<UUID, List<Order>> active = new HashMap<>();
+        for (Order order : orderRepository.findAllActive()) {
+            active.computeIfAbsent(order.getRestaurantId(), id -> new ArrayList<>()).add(order);
+        }
+
+        // Restaurant sans commande active: file videe, facteur appris conserve
+        queues.keySet().forEach(restaurantId -> active.putIfAbsent(restaurantId, List.of()));
+        active.forEach((restaurantId, orders) -> {
+            MenuPriceTable priceTable = orders.isEmpty() ? null : priceTable(restaurantId);
+            List<Snapshot> snapshots = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                int nominal = nominalMinutes(order.getItems().stream()
+                    .map(item -> priceTable != null ? priceTable.preparationMinutes(item.getMenuItemId()) : 0)
+                    .toList());
+                snapshots.add(new Snapshot(order.getId(), order.getUserId(), order.getCreatedAt(), nominal,
+                    order.getStatus(), order.getEstimatedPickupTime()));
+            }
+            KitchenQueue queue = queue(restaurantId);
+            synchronized (queue) {
+                // File creee apres le releve: tout son contenu est local
+                queue.reconcile(snapshots, since.getOrDefault(restaurantId, 0L));
+                // Pas d'envoi: chaque noeud reconstruit les memes files, seuls les changements locaux sont publies.
+                // Les dernieres estimations communiquees restent la reference des prochains envois.
+                queue.refresh(LocalDateTime.now());
+            }
+        });
+    }
+
+    public int size() {
+        return queues.values().stream().mapToInt(KitchenQueue::size).sum();
+    }
+
+    private void apply(UUID restaurantId, Map<UUID, OrderStatus> changes) {
+        KitchenQueue queue = queues.get(restaurantId);
+        if (queue == null) {
+            return;
+        }
+        List<Eta> changed;
+        synchronized (queue) {
+            LocalDateTime now = LocalDateTime.now();
+            changes.forEach((orderId, status) -> {
+                double minutes = queue.transition(orderId, status, now);
+                if (minutes >= 0) {
+                    error.record(minutes);
+                }
+            });
+            changed = recomputeTimer.record(() -> queue.recompute(now, pushThreshold));
+        }
+        if (!changed.isEmpty()) {
+            publisher.execute(() -> publish(restaurantId, changed));
+        }
+    }
+
+    private void publish(UUID restaurantId, List<Eta> changed) {
+        try {
+            List<PickupEtaNotification> etas = changed.stream()
+                .map(eta -> new PickupEtaNotification("order_eta_update", eta.orderId(), eta.estimatedReadyAt(),
+                    System.currentTimeMillis()))
+                .toList();
+            webSocketNotificationService.sendPickupEtasToRestaurant(restaurantId, etas);
+            for (Eta eta : changed) {
+                webSocketNotificationService.sendPickupEtaToUser(eta.userId(), eta.orderId(), eta.estimatedReadyAt());
+            }
+            meterRegistry.counter("oneeats.orders.eta.pushed").increment(changed.size());
+        } catch (Exception e) {
+            LOG.warnf("Pickup ETA update for restaurant %s not sent: %s", restaurantId, e.getMessage());
+        }
+    }
+
+    private KitchenQueue queue(UUID restaurantId) {
+        return queues.computeIfAbsent(restaurantId, id -> new KitchenQueue(kitchenCapacity, learningRate));
+    }
+
+    private MenuPriceTable priceTable(UUID restaurantId) {
+        try {
+            return priceTableCache.get(restaurantId);
+        } catch (Exception e) {
+            LOG.debugf("No price table for restaurant %s, default preparation time used: %s", restaurantId, e.getMessage());
+            return null;
+        }
+    }
+}
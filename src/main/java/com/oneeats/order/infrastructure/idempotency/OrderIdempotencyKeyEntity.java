@@ -0,0 +1,85 @@
+package com.oneeats.order.infrastructure.idempotency;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Cle d'idempotence d'une prise de commande (en-tete {@code Idempotency-Key}), par client.
+ * Inseree dans la transaction de la commande: un rollback libere la cle pour une nouvelle tentative.
+ */
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+    @Index(name = "idx_order_idempotency_keys_created_at", columnList = "created_at")
+})
+@IdClass(OrderIdempotencyKeyEntity.Key.class)
+public class OrderIdempotencyKeyEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Empreinte de la requete d'origine: cle reutilisee pour une autre commande refusee
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OrderIdempotencyKeyEntity() {}
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public static class Key implements Serializable {
+        private UUID userId;
+        private String idempotencyKey;
+
+        public Key() {}
+
+        public Key(UUID userId, String idempotencyKey) {
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(idempotencyKey, key.idempotencyKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, idempotencyKey);
+        }
+    }
+}
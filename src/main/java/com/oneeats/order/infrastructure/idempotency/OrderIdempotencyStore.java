@@ -0,0 +1,101 @@
+package com.oneeats.order.infrastructure.idempotency;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cles d'idempotence des prises de commande, en base (partagees entre les noeuds).
+ *
+ * La cle est reservee au debut de la transaction de la commande ({@code ON CONFLICT DO NOTHING}): une requete
+ * identique sur un autre noeud attend le commit ou le rollback de la premiere, puis relit la commande creee.
+ * Cles purgees apres {@code ttl}, par lots.
+ */
+@ApplicationScoped
+public class OrderIdempotencyStore {
+
+    private static final Logger LOG = Logger.getLogger(OrderIdempotencyStore.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "oneeats.business.order.idempotency.ttl", defaultValue = "24h")
+    Duration ttl;
+
+    @ConfigProperty(name = "oneeats.business.order.idempotency.cleanup-chunk-size", defaultValue = "1000")
+    int cleanupChunkSize;
+
+    /**
+     * Cle enregistree: empreinte de la requete d'origine et commande creee
+     */
+    public record StoredKey(String requestHash, UUID orderId) {}
+
+    /**
+     * Reserve la cle pour ce client.
+     *
+     * @return true si la cle est nouvelle, false si elle a deja ete utilisee
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public boolean claim(UUID userId, String idempotencyKey, String requestHash) {
+        int inserted = entityManager.createNativeQuery(
+                "INSERT INTO order_idempotency_keys (user_id, idempotency_key, request_hash, created_at) " +
+                "VALUES (?1, ?2, ?3, ?4) ON CONFLICT (user_id, idempotency_key) DO NOTHING")
+            .setParameter(1, userId)
+            .setParameter(2, idempotencyKey)
+            .setParameter(3, requestHash)
+            .setParameter(4, LocalDateTime.now())
+            .executeUpdate();
+        return inserted == 1;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void complete(UUID userId, String idempotencyKey, UUID orderId) {
+        entityManager.createQuery("update OrderIdempotencyKeyEntity k set k.orderId = ?1 " +
+                "where k.userId = ?2 and k.idempotencyKey = ?3")
+            .setParameter(1, orderId)
+            .setParameter(2, userId)
+            .setParameter(3, idempotencyKey)
+            .executeUpdate();
+    }
+
+    public Optional<StoredKey> find(UUID userId, String idempotencyKey) {
+        return Optional.ofNullable(entityManager.find(OrderIdempotencyKeyEntity.class,
+                new OrderIdempotencyKeyEntity.Key(userId, idempotencyKey)))
+            .map(key -> new StoredKey(key.getRequestHash(), key.getOrderId()));
+    }
+
+    @Scheduled(every = "${oneeats.business.order.idempotency.cleanup-every:1h}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void cleanup() {
+        LocalDateTime threshold = LocalDateTime.now().minus(ttl);
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                // DELETE ... LIMIT n'existe pas en PostgreSQL: lot choisi par sous-requete
+                deleted = QuarkusTransaction.requiringNew().call(() -> entityManager.createNativeQuery(
+                        "DELETE FROM order_idempotency_keys WHERE (user_id, idempotency_key) IN (" +
+                        "SELECT user_id, idempotency_key FROM order_idempotency_keys WHERE created_at < ?1 LIMIT ?2)")
+                    .setParameter(1, threshold)
+                    .setParameter(2, cleanupChunkSize)
+                    .executeUpdate());
+                total += deleted;
+            } while (deleted == cleanupChunkSize);
+        } catch (Exception e) {
+            LOG.errorf("Order idempotency key cleanup failed after %d deletions: %s", total, e.getMessage());
+        }
+        if (total > 0) {
+            LOG.infof("🧹 %d order idempotency key(s) older than %s removed", total, ttl);
+        }
+    }
+}
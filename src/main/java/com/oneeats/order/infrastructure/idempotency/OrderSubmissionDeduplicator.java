@@ -0,0 +1,202 @@
+package com.oneeats.order.infrastructure.idempotency;
+
+import com.oneeats.order.application.command.CreateOrderCommand;
+import com.oneeats.order.application.command.CreateOrderCommandHandler;
+import com.oneeats.order.application.command.CreateOrderResult;
+import com.oneeats.order.application.command.IdempotencyKeyConflictException;
+import com.oneeats.order.application.dto.OrderDTO;
+import com.oneeats.shared.domain.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prises de commande avec en-tete {@code Idempotency-Key} (requetes rejouees par les mobiles sur reseau instable).
+ *
+ * - Cache borne (LRU, {@code max-entries}, {@code ttl}) des reponses recentes par client et cle: une requete
+ *   rejouee renvoie la commande d'origine sans transaction ni nouvelle prise de commande.
+ * - Requetes identiques simultanees sur ce noeud regroupees: une seule prise de commande, les autres attendent
+ *   son resultat (au plus {@code wait-timeout}).
+ * - Au-dela (cle sortie du cache, autre noeud): cle reservee en base dans la transaction de la commande
+ *   ({@link OrderIdempotencyStore}).
+ * - Requete d'origine encore en cours au-dela de {@code wait-timeout}, ou cle reutilisee pour une autre commande:
+ *   {@link IdempotencyKeyConflictException} (409 / 422).
+ * - Metriques: {@code oneeats.orders.idempotency{result=new|cache|coalesced|stored}}.
+ */
+@ApplicationScoped
+public class OrderSubmissionDeduplicator {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    /**
+     * Prise de commande reservant la cle en base
+     */
+    @FunctionalInterface
+    public interface Intake {
+        CreateOrderResult submit(CreateOrderCommand command, String idempotencyKey, String requestHash);
+    }
+
+    @Inject
+    CreateOrderCommandHandler createOrderCommandHandler;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.business.order.idempotency.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "oneeats.business.order.idempotency.ttl", defaultValue = "24h")
+    Duration ttl;
+
+    @ConfigProperty(name = "oneeats.business.order.idempotency.wait-timeout", defaultValue = "30s")
+    Duration waitTimeout;
+
+    private record Key(UUID userId, String idempotencyKey) {}
+
+    private record Completed(String requestHash, OrderDTO order, long expiresAt) {}
+
+    private record Flight(String requestHash, CompletableFuture<OrderDTO> result) {}
+
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private Map<Key, Completed> completed;
+    private Intake intake;
+
+    private Counter created;
+    private Counter cached;
+    private Counter coalesced;
+    private Counter stored;
+
+    public OrderSubmissionDeduplicator() {
+    }
+
+    public OrderSubmissionDeduplicator(Intake intake, int maxEntries, Duration ttl, Duration waitTimeout,
+                                       MeterRegistry meterRegistry) {
+        this.intake = intake;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        if (intake == null) {
+            intake = createOrderCommandHandler::handle;
+        }
+        completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Completed> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        created = meterRegistry.counter("oneeats.orders.idempotency", "result", "new");
+        cached = meterRegistry.counter("oneeats.orders.idempotency", "result", "cache");
+        coalesced = meterRegistry.counter("oneeats.orders.idempotency", "result", "coalesced");
+        stored = meterRegistry.counter("oneeats.orders.idempotency", "result", "stored");
+    }
+
+    /**
+     * Prend la commande une seule fois par client et cle
+     */
+    public CreateOrderResult submit(CreateOrderCommand command, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(command.userId(), idempotencyKey);
+        String requestHash = command.fingerprint();
+
+        OrderDTO replay = cachedOrder(key, requestHash);
+        if (replay != null) {
+            cached.increment();
+            return new CreateOrderResult(replay, true);
+        }
+
+        Flight flight = new Flight(requestHash, new CompletableFuture<>());
+        Flight leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            checkSameRequest(leader.requestHash(), requestHash, idempotencyKey);
+            OrderDTO order = await(leader, idempotencyKey);
+            coalesced.increment();
+            return new CreateOrderResult(order, true);
+        }
+
+        try {
+            // Terminee entre la lecture du cache et la reservation
+            replay = cachedOrder(key, requestHash);
+            CreateOrderResult result = replay != null
+                ? new CreateOrderResult(replay, true)
+                : intake.submit(command, idempotencyKey, requestHash);
+            (replay != null ? cached : result.replayed() ? stored : created).increment();
+            synchronized (completed) {
+                completed.put(key, new Completed(requestHash, result.order(), System.nanoTime() + ttl.toNanos()));
+            }
+            flight.result().complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            flight.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int size() {
+        synchronized (completed) {
+            return completed.size();
+        }
+    }
+
+    private OrderDTO cachedOrder(Key key, String requestHash) {
+        Completed entry;
+        synchronized (completed) {
+            entry = completed.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                completed.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        checkSameRequest(entry.requestHash(), requestHash, key.idempotencyKey());
+        return entry.order();
+    }
+
+    private OrderDTO await(Flight leader, String idempotencyKey) {
+        try {
+            return leader.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Meme erreur que la requete d'origine (validation, restaurant ferme...)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw IdempotencyKeyConflictException.inFlight(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order submission", e);
+        }
+    }
+
+    private static void checkSameRequest(String expected, String actual, String idempotencyKey) {
+        if (!expected.equals(actual)) {
+            throw IdempotencyKeyConflictException.reused(idempotencyKey);
+        }
+    }
+}
@@ -41,6 +41,13 @@ public class OrderInfrastructureMapper {
         order.setCancellationReason(entity.getCancellationReason());
         order.setCancelledAt(entity.getCancelledAt());
 
+        // Dates persistees (statistiques et temps de retrait calcules a partir de la prise de commande)
+        if (entity.getCreatedAt() != null) {
+            order.setCreatedAt(entity.getCreatedAt());
+        }
+        order.setEstimatedPickupTime(entity.getEstimatedPickupTime());
+        order.setActualPickupTime(entity.getActualPickupTime());
+
         return order;
     }
 
@@ -0,0 +1,304 @@
+package com.oneeats.order.infrastructure.readmodel;
+
+import com.oneeats.order.domain.event.OrderCreatedEvent;
+import com.oneeats.order.domain.event.OrderStatusChangedEvent;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.model.RestaurantDayOrderStats;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import com.oneeats.shared.infrastructure.outbox.OutboxIdempotencyGuard;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Statistiques du jour par restaurant, en memoire (tableau de bord restaurant).
+ *
+ * - Construites au demarrage par une agregation SQL des commandes du jour, puis tenues a jour par les
+ *   evenements de creation et de changement de statut livres par le relais de l'outbox a ce noeud
+ *   (dedoublonnes par identifiant d'evenement), appliques apres le commit du lot.
+ * - Rapprochement periodique avec la base (une requete groupee): corrige les evenements relayes par un autre
+ *   noeud. Un restaurant modifie localement pendant la lecture n'est pas ecrase (version).
+ * - Changement de jour: compteurs remis a zero. Les jours precedents sont agreges en SQL par l'appelant,
+ *   comme le jour courant tant que la construction n'a pas abouti.
+ * - Metriques: {@code oneeats.orders.stats.read-model{result=hit|miss}}, {@code oneeats.orders.stats.read-model.corrected}.
+ */
+@ApplicationScoped
+public class RestaurantOrderStatsReadModel {
+
+    private static final Logger LOG = Logger.getLogger(RestaurantOrderStatsReadModel.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    // Cles d'idempotence de la projection (livraison au moins une fois par l'outbox)
+    private static final String CREATED_CONSUMER = "order-created-stats";
+    private static final String STATUS_CONSUMER = "order-status-changed-stats";
+
+    @Inject
+    IOrderRepository orderRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    OutboxIdempotencyGuard idempotencyGuard;
+
+    private volatile Day day = new Day(LocalDate.now(), new ConcurrentHashMap<>(), false);
+
+    // Changements recus pendant une construction: le resultat ne doit pas etre installe
+    private final AtomicLong changes = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter corrected;
+
+    private record Day(LocalDate date, Map<UUID, Counters> restaurants, boolean loaded) {}
+
+    private static final class Counters {
+        final AtomicLongArray orders = new AtomicLongArray(STATUSES.length);
+        final AtomicLongArray amountCents = new AtomicLongArray(STATUSES.length);
+        final AtomicLong pickedUpOrders = new AtomicLong();
+        final AtomicLong pickupSeconds = new AtomicLong();
+        final AtomicLong version = new AtomicLong();
+
+        void set(RestaurantDayOrderStats stats) {
+            for (OrderStatus status : STATUSES) {
+                orders.set(status.ordinal(), stats.orders(status));
+                amountCents.set(status.ordinal(), cents(stats.amountByStatus().getOrDefault(status, BigDecimal.ZERO)));
+            }
+            pickedUpOrders.set(stats.pickedUpOrders());
+            pickupSeconds.set(stats.totalPickupSeconds());
+        }
+
+        boolean matches(RestaurantDayOrderStats stats) {
+            for (OrderStatus status : STATUSES) {
+                if (orders.get(status.ordinal()) != stats.orders(status)
+                    || amountCents.get(status.ordinal()) != cents(stats.amountByStatus().getOrDefault(status, BigDecimal.ZERO))) {
+                    return false;
+                }
+            }
+            return pickedUpOrders.get() == stats.pickedUpOrders() && pickupSeconds.get() == stats.totalPickupSeconds();
+        }
+
+        RestaurantDayOrderStats snapshot(UUID restaurantId, LocalDate date) {
+            Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+            Map<OrderStatus, BigDecimal> amountByStatus = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : STATUSES) {
+                long count = orders.get(status.ordinal());
+                if (count != 0) {
+                    ordersByStatus.put(status, count);
+                    amountByStatus.put(status, BigDecimal.valueOf(amountCents.get(status.ordinal()), 2));
+                }
+            }
+            return new RestaurantDayOrderStats(restaurantId, date, ordersByStatus, amountByStatus,
+                pickedUpOrders.get(), pickupSeconds.get());
+        }
+    }
+
+    public RestaurantOrderStatsReadModel() {
+    }
+
+    public RestaurantOrderStatsReadModel(IOrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("oneeats.orders.stats.read-model", "result", "hit");
+        misses = meterRegistry.counter("oneeats.orders.stats.read-model", "result", "miss");
+        corrected = meterRegistry.counter("oneeats.orders.stats.read-model.corrected");
+    }
+
+    @ActivateRequestContext
+    void onStart(@Observes StartupEvent event) {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            LOG.warnf("Order stats read model not built at startup, using SQL until next reconciliation: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Statistiques en memoire si {@code date} est le jour courant et que le modele est construit
+     */
+    public Optional<RestaurantDayOrderStats> get(UUID restaurantId, LocalDate date) {
+        Day current = currentDay();
+        if (!current.loaded() || !current.date().equals(date)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        Counters counters = current.restaurants().get(restaurantId);
+        return Optional.of(counters != null
+            ? counters.snapshot(restaurantId, date)
+            : RestaurantDayOrderStats.empty(restaurantId, date));
+    }
+
+    /**
+     * Commande creee: montant et date lus sur la commande, le montant n'etant connu qu'apres l'ajout des articles
+     */
+    @Transactional
+    void onCreated(@ObservesAsync OrderCreatedEvent event) {
+        if (!idempotencyGuard.firstDelivery(event.getEventId(), CREATED_CONSUMER)) {
+            return;
+        }
+        orderRepository.findById(event.getOrderId()).ifPresent(order -> recordCreated(order.getRestaurantId(),
+            order.getCreatedAt(), order.getTotalAmount().getAmount(), OrderStatus.PENDING));
+    }
+
+    @Transactional
+    void onStatusChanged(@ObservesAsync OrderStatusChangedEvent event) {
+        if (!idempotencyGuard.firstDelivery(event.getEventId(), STATUS_CONSUMER)) {
+            return;
+        }
+        orderRepository.findById(event.getOrderId()).ifPresent(order -> recordTransition(event.getRestaurantId(),
+            order.getCreatedAt(), order.getTotalAmount().getAmount(), event.getPreviousStatus(), event.getNewStatus(),
+            order.getActualPickupTime()));
+    }
+
+    /**
+     * Nouvelle commande; dans une transaction, apres son commit
+     */
+    public void recordCreated(UUID restaurantId, LocalDateTime createdAt, BigDecimal amount, OrderStatus status) {
+        AfterCommit.run(transactionRegistry, () -> apply(restaurantId, createdAt, counters -> {
+            counters.orders.incrementAndGet(status.ordinal());
+            counters.amountCents.addAndGet(status.ordinal(), cents(amount));
+        }));
+    }
+
+    /**
+     * Changement de statut; {@code pickedUpAt} renseigne pour une commande retiree (COMPLETED)
+     */
+    public void recordTransition(UUID restaurantId, LocalDateTime createdAt, BigDecimal amount,
+                                 OrderStatus previousStatus, OrderStatus newStatus, LocalDateTime pickedUpAt) {
+        if (previousStatus == newStatus) {
+            return;
+        }
+        AfterCommit.run(transactionRegistry, () -> apply(restaurantId, createdAt, counters -> {
+            long amountCents = cents(amount);
+            counters.orders.decrementAndGet(previousStatus.ordinal());
+            counters.amountCents.addAndGet(previousStatus.ordinal(), -amountCents);
+            counters.orders.incrementAndGet(newStatus.ordinal());
+            counters.amountCents.addAndGet(newStatus.ordinal(), amountCents);
+            if (newStatus == OrderStatus.COMPLETED && pickedUpAt != null) {
+                counters.pickedUpOrders.incrementAndGet();
+                counters.pickupSeconds.addAndGet(Duration.between(createdAt, pickedUpAt).toSeconds());
+            }
+        }));
+    }
+
+    /**
+     * Reconstruit le jour courant (ou le rapproche s'il est deja construit) depuis la base
+     */
+    @Scheduled(every = "${oneeats.business.order.stats.reconcile-every:60s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void reconcile() {
+        Day current = currentDay();
+        if (!current.loaded()) {
+            build(current.date());
+            return;
+        }
+
+        Map<UUID, Long> versions = new HashMap<>();
+        current.restaurants().forEach((restaurantId, counters) -> versions.put(restaurantId, counters.version.get()));
+        for (RestaurantDayOrderStats stats : orderRepository.aggregateDailyStats(current.date())) {
+            Counters counters = current.restaurants().get(stats.restaurantId());
+            if (counters == null) {
+                // Premiere commande du restaurant passee sur un autre noeud
+                Counters loaded = new Counters();
+                loaded.set(stats);
+                if (current.restaurants().putIfAbsent(stats.restaurantId(), loaded) == null) {
+                    corrected.increment();
+                }
+                continue;
+            }
+            Long version = versions.get(stats.restaurantId());
+            if (version == null || counters.matches(stats)) {
+                continue;
+            }
+            if (counters.version.compareAndSet(version, version + 1)) {
+                counters.set(stats);
+                corrected.increment();
+            }
+        }
+    }
+
+    private void build(LocalDate date) {
+        long changesAtStart = changes.get();
+        List<RestaurantDayOrderStats> rows = orderRepository.aggregateDailyStats(date);
+        Map<UUID, Counters> restaurants = new ConcurrentHashMap<>();
+        for (RestaurantDayOrderStats stats : rows) {
+            Counters counters = new Counters();
+            counters.set(stats);
+            restaurants.put(stats.restaurantId(), counters);
+        }
+        if (changes.get() != changesAtStart) {
+            // Commande validee pendant la lecture: reessaye au prochain rapprochement
+            return;
+        }
+        day = new Day(date, restaurants, true);
+        LOG.infof("📊 Order stats read model built for %s: %d restaurant(s)", date, restaurants.size());
+    }
+
+    private Day currentDay() {
+        Day current = day;
+        LocalDate today = LocalDate.now();
+        if (!current.date().equals(today)) {
+            synchronized (this) {
+                current = day;
+                if (!current.date().equals(today)) {
+                    // Nouveau jour: aucune commande encore, sauf celles d'autres noeuds reprises au rapprochement
+                    current = new Day(today, new ConcurrentHashMap<>(), current.loaded());
+                    day = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void apply(UUID restaurantId, LocalDateTime createdAt, Consumer<Counters> change) {
+        changes.incrementAndGet();
+        Day current = currentDay();
+        if (!current.loaded() || createdAt == null || !current.date().equals(createdAt.toLocalDate())) {
+            return;
+        }
+        Counters counters = current.restaurants().computeIfAbsent(restaurantId, id -> new Counters());
+        counters.version.incrementAndGet();
+        change.accept(counters);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -1,16 +1,29 @@
 package com.oneeats.order.infrastructure.repository;
 
+import com.oneeats.order.domain.event.OrderStatusChangedEvent;
+import com.oneeats.order.domain.model.CancelledOrder;
 import com.oneeats.order.domain.model.Order;
 import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.model.RestaurantDayOrderStats;
 import com.oneeats.order.domain.repository.IOrderRepository;
 import com.oneeats.order.infrastructure.entity.OrderEntity;
 import com.oneeats.order.infrastructure.mapper.OrderInfrastructureMapper;
+import com.oneeats.shared.infrastructure.outbox.OutboxWriter;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -18,9 +31,19 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class JpaOrderRepository implements IOrderRepository {
 
+    // Commandes actives = ni COMPLETED ni CANCELLED
+    private static final List<OrderStatus> ACTIVE_STATUSES =
+        List.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.READY);
+
     @Inject
     OrderInfrastructureMapper mapper;
 
+    @Inject
+    OutboxWriter outboxWriter;
+
+    @Inject
+    EntityManager entityManager;
+
     @Override
     public Optional<Order> findById(UUID id) {
         return OrderEntity.find("id", id)
@@ -79,9 +102,104 @@ public class JpaOrderRepository implements IOrderRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Order> findAllActive() {
+        return OrderEntity.<OrderEntity>find(
+            "select distinct o from OrderEntity o left join fetch o.items where o.status in ?1", ACTIVE_STATUSES
+        ).list().stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countActiveByRestaurantId(UUID restaurantId) {
+        return OrderEntity.count("restaurantId = ?1 and status in ?2", restaurantId, ACTIVE_STATUSES);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public List<CancelledOrder> cancelActiveChunk(UUID restaurantId, String reason, int limit) {
+        // Verrou pose sur le lot seulement; une commande modifiee entre-temps est relue apres son commit
+        List<Object[]> rows = entityManager.createQuery(
+                "select o.id, o.userId, o.status from OrderEntity o " +
+                "where o.restaurantId = ?1 and o.status in ?2 order by o.createdAt", Object[].class)
+            .setParameter(1, restaurantId)
+            .setParameter(2, ACTIVE_STATUSES)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .setMaxResults(limit)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<CancelledOrder> cancelled = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            cancelled.add(new CancelledOrder((UUID) row[0], (UUID) row[1], (OrderStatus) row[2]));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        OrderEntity.update("status = ?1, cancellationReason = ?2, cancelledAt = ?3, updatedAt = ?3, version = version + 1 " +
+                "where id in ?4",
+            OrderStatus.CANCELLED, reason, now,
+            cancelled.stream().map(CancelledOrder::orderId).toList());
+
+        for (CancelledOrder order : cancelled) {
+            outboxWriter.append("Order", order.orderId(), List.of(new OrderStatusChangedEvent(
+                order.orderId(), order.userId(), restaurantId, order.previousStatus(), OrderStatus.CANCELLED)));
+        }
+        return cancelled;
+    }
+
+    @Override
+    public List<RestaurantDayOrderStats> aggregateDailyStats(LocalDate date) {
+        return aggregateDailyStats(date, null);
+    }
+
+    @Override
+    public RestaurantDayOrderStats aggregateDailyStats(UUID restaurantId, LocalDate date) {
+        return aggregateDailyStats(date, restaurantId).stream()
+            .findFirst()
+            .orElseGet(() -> RestaurantDayOrderStats.empty(restaurantId, date));
+    }
+
+    private List<RestaurantDayOrderStats> aggregateDailyStats(LocalDate date, UUID restaurantId) {
+        // Une ligne par (restaurant, statut); temps de retrait en secondes sur les commandes retirees
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "select o.restaurantId, o.status, count(o), coalesce(sum(o.totalAmount), 0), count(o.actualPickupTime), " +
+                "coalesce(sum((o.actualPickupTime - o.createdAt) by second), 0) " +
+                "from OrderEntity o where o.createdAt >= :from and o.createdAt < :to" +
+                (restaurantId != null ? " and o.restaurantId = :restaurantId" : "") +
+                " group by o.restaurantId, o.status", Object[].class)
+            .setParameter("from", date.atStartOfDay())
+            .setParameter("to", date.plusDays(1).atStartOfDay());
+        if (restaurantId != null) {
+            query.setParameter("restaurantId", restaurantId);
+        }
+
+        Map<UUID, RestaurantDayOrderStats> stats = new LinkedHashMap<>();
+        for (Object[] row : query.getResultList()) {
+            UUID id = (UUID) row[0];
+            OrderStatus status = (OrderStatus) row[1];
+            RestaurantDayOrderStats current = stats.getOrDefault(id, RestaurantDayOrderStats.empty(id, date));
+            current.ordersByStatus().put(status, ((Number) row[2]).longValue());
+            current.amountByStatus().put(status, new BigDecimal(row[3].toString()));
+            stats.put(id, new RestaurantDayOrderStats(id, date, current.ordersByStatus(), current.amountByStatus(),
+                current.pickedUpOrders() + ((Number) row[4]).longValue(),
+                current.totalPickupSeconds() + ((Number) row[5]).longValue()));
+        }
+        return new ArrayList<>(stats.values());
+    }
+
     @Override
     @Transactional
     public Order save(Order order) {
+        Order saved = persist(order);
+        // Evenements ecrits dans l'outbox, dans la meme transaction que la commande
+        outboxWriter.append("Order", saved.getId(), order.getDomainEvents());
+        order.clearDomainEvents();
+        return saved;
+    }
+
+    private Order persist(Order order) {
         if (order.getId() == null) {
             // Nouvelle entité sans ID
             OrderEntity entity = mapper.toEntity(order);
@@ -96,6 +214,8 @@ public class JpaOrderRepository implements IOrderRepository {
                 existingEntity.setUpdatedAt(order.getUpdatedAt());
                 existingEntity.setCancellationReason(order.getCancellationReason());
                 existingEntity.setCancelledAt(order.getCancelledAt());
+                existingEntity.setEstimatedPickupTime(order.getEstimatedPickupTime());
+                existingEntity.setActualPickupTime(order.getActualPickupTime());
                 return mapper.toDomain(existingEntity);
             } else {
                 // Nouvelle entité avec ID pré-assigné
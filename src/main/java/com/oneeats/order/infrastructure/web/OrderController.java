@@ -2,9 +2,12 @@ package com.oneeats.order.infrastructure.web;
 
 import com.oneeats.order.application.command.CreateOrderCommand;
 import com.oneeats.order.application.command.CreateOrderCommandHandler;
+import com.oneeats.order.application.command.CreateOrderResult;
+import com.oneeats.order.application.command.IdempotencyKeyConflictException;
 import com.oneeats.order.application.command.UpdateOrderStatusCommand;
 import com.oneeats.order.application.command.UpdateOrderStatusCommandHandler;
 import com.oneeats.order.application.dto.OrderDTO;
+import com.oneeats.order.application.dto.OrderStatsDTO;
 import com.oneeats.order.application.query.GetOrderQuery;
 import com.oneeats.order.application.query.GetOrderQueryHandler;
 import com.oneeats.order.application.query.GetOrdersByRestaurantQuery;
@@ -13,9 +16,13 @@ import com.oneeats.order.application.query.GetOrdersByUserQuery;
 import com.oneeats.order.application.query.GetOrdersByUserQueryHandler;
 import com.oneeats.order.application.query.GetAllOrdersQuery;
 import com.oneeats.order.application.query.GetAllOrdersQueryHandler;
+import com.oneeats.order.application.query.GetRestaurantOrderStatsQuery;
+import com.oneeats.order.application.query.GetRestaurantOrderStatsQueryHandler;
 import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.infrastructure.idempotency.OrderSubmissionDeduplicator;
 import com.oneeats.security.Roles;
 import com.oneeats.security.application.AuthService;
+import com.oneeats.shared.exception.ValidationExceptionMapper.ErrorResponse;
 import io.quarkus.security.Authenticated;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -23,7 +30,9 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -38,6 +47,9 @@ public class OrderController {
     @Inject
     CreateOrderCommandHandler createOrderCommandHandler;
 
+    @Inject
+    OrderSubmissionDeduplicator orderSubmissionDeduplicator;
+
     @Inject
     GetOrderQueryHandler getOrderQueryHandler;
 
@@ -53,11 +65,39 @@ public class OrderController {
     @Inject
     GetAllOrdersQueryHandler getAllOrdersQueryHandler;
 
+    @Inject
+    GetRestaurantOrderStatsQueryHandler getRestaurantOrderStatsQueryHandler;
+
     @POST
     @RolesAllowed(Roles.USER)
-    public Response createOrder(@Valid CreateOrderCommand command) {
-        OrderDTO order = createOrderCommandHandler.handle(command);
-        return Response.status(Response.Status.CREATED).entity(order).build();
+    public Response createOrder(@Valid CreateOrderCommand command,
+                                @HeaderParam("Idempotency-Key") String idempotencyKey) {
+        if (idempotencyKey == null) {
+            OrderDTO order = createOrderCommandHandler.handle(command);
+            return Response.status(Response.Status.CREATED).entity(order).build();
+        }
+        // Requete rejouee: meme reponse que l'originale, signalee par Idempotent-Replayed
+        CreateOrderResult result = orderSubmissionDeduplicator.submit(command, idempotencyKey);
+        return Response.status(Response.Status.CREATED)
+            .entity(result.order())
+            .header("Idempotent-Replayed", result.replayed())
+            .build();
+    }
+
+    /**
+     * Requete d'origine encore en cours: 409, le client rejoue plus tard avec la meme cle.
+     * Cle deja utilisee pour une autre commande: 422, le client doit generer une nouvelle cle.
+     */
+    @ServerExceptionMapper
+    public Response mapIdempotencyKeyConflict(IdempotencyKeyConflictException exception) {
+        return Response.status(exception.inFlight() ? 409 : 422)
+            .entity(new ErrorResponse(
+                exception.inFlight() ? "IDEMPOTENCY_KEY_IN_USE" : "IDEMPOTENCY_KEY_REUSED",
+                exception.getMessage(),
+                "idempotency",
+                null
+            ))
+            .build();
     }
 
     @GET
@@ -135,6 +175,22 @@ public class OrderController {
         return Response.ok(orders).build();
     }
 
+    @GET
+    @Path("/restaurant/{restaurantId}/stats")
+    @RolesAllowed({Roles.RESTAURANT, Roles.ADMIN})
+    public Response getRestaurantOrderStats(@PathParam("restaurantId") UUID restaurantId,
+                                            @QueryParam("date") LocalDate date) {
+        // Verifier acces au restaurant (sauf admin)
+        if (!authService.hasRole(Roles.ADMIN) && !authService.hasAccessToRestaurant(restaurantId)) {
+            return Response.status(Response.Status.FORBIDDEN)
+                .entity("Acces refuse a ce restaurant")
+                .build();
+        }
+        OrderStatsDTO stats = getRestaurantOrderStatsQueryHandler.handle(
+            new GetRestaurantOrderStatsQuery(restaurantId, date));
+        return Response.ok(stats).build();
+    }
+
     @PUT
     @Path("/{id}/status")
     @Authenticated
@@ -1,17 +1,17 @@
 package com.oneeats.restaurant.application.command;
 
-import com.oneeats.order.domain.model.Order;
+import com.oneeats.order.application.command.CancelRestaurantOrdersCommand;
+import com.oneeats.order.application.command.CancelRestaurantOrdersCommandHandler;
 import com.oneeats.order.domain.repository.IOrderRepository;
 import com.oneeats.restaurant.application.dto.BlockRestaurantResultDTO;
 import com.oneeats.restaurant.application.dto.RestaurantDTO;
 import com.oneeats.restaurant.application.mapper.RestaurantApplicationMapper;
 import com.oneeats.restaurant.domain.repository.IRestaurantRepository;
 import com.oneeats.restaurant.domain.model.Restaurant;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,48 +26,47 @@ public class BlockRestaurantCommandHandler {
     @Inject
     IOrderRepository orderRepository;
 
+    @Inject
+    CancelRestaurantOrdersCommandHandler cancelRestaurantOrdersCommandHandler;
+
     @Inject
     RestaurantApplicationMapper mapper;
 
-    @Transactional
+    /**
+     * Blocage valide d'abord (plus de nouvelles commandes), puis annulation par lots si demandee:
+     * aucune transaction ne couvre toutes les commandes du restaurant.
+     */
     public BlockRestaurantResultDTO handle(BlockRestaurantCommand command) {
-        Restaurant restaurant = restaurantRepository.findById(command.restaurantId())
-            .orElseThrow(() -> new IllegalArgumentException("Restaurant not found with id: " + command.restaurantId()));
+        BlockedRestaurant blocked = QuarkusTransaction.requiringNew().call(() -> {
+            Restaurant restaurant = restaurantRepository.findById(command.restaurantId())
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found with id: " + command.restaurantId()));
+
+            long activeOrders = orderRepository.countActiveByRestaurantId(command.restaurantId());
 
-        // Récupérer les commandes actives du restaurant
-        List<Order> activeOrders = orderRepository.findActiveByRestaurantId(command.restaurantId());
-        int activeOrdersCount = activeOrders.size();
+            // Bloquer le restaurant
+            restaurant.block(command.reason());
+            return new BlockedRestaurant(restaurantRepository.save(restaurant), activeOrders);
+        });
 
-        List<UUID> cancelledOrderIds = new ArrayList<>();
-        boolean hasUncancelledOrders = false;
+        List<UUID> cancelledOrderIds = List.of();
+        boolean hasUncancelledOrders = blocked.activeOrders() > 0;
 
         // Si demandé, annuler les commandes en cours
-        if (command.cancelPendingOrders() && !activeOrders.isEmpty()) {
-            for (Order order : activeOrders) {
-                try {
-                    order.cancelWithReason(BLOCKING_CANCELLATION_REASON);
-                    orderRepository.save(order);
-                    cancelledOrderIds.add(order.getId());
-                } catch (Exception e) {
-                    // Certaines commandes ne peuvent pas être annulées (déjà complétées)
-                    hasUncancelledOrders = true;
-                }
-            }
-        } else if (!activeOrders.isEmpty()) {
-            // Si pas d'annulation automatique mais commandes en cours, marquer
-            hasUncancelledOrders = true;
+        if (command.cancelPendingOrders() && hasUncancelledOrders) {
+            cancelledOrderIds = cancelRestaurantOrdersCommandHandler.handle(
+                new CancelRestaurantOrdersCommand(command.restaurantId(), BLOCKING_CANCELLATION_REASON));
+            // Lot en echec: des commandes restent actives
+            hasUncancelledOrders = orderRepository.countActiveByRestaurantId(command.restaurantId()) > 0;
         }
 
-        // Bloquer le restaurant
-        restaurant.block(command.reason());
-        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
-
         return new BlockRestaurantResultDTO(
-            mapper.toDTO(savedRestaurant),
-            activeOrdersCount,
+            mapper.toDTO(blocked.restaurant()),
+            (int) blocked.activeOrders(),
             cancelledOrderIds.size(),
             cancelledOrderIds,
             hasUncancelledOrders
         );
     }
+
+    private record BlockedRestaurant(Restaurant restaurant, long activeOrders) {}
 }
@@ -2,6 +2,7 @@ package com.oneeats.restaurant.application.command;
 
 import com.oneeats.restaurant.domain.repository.IRestaurantRepository;
 import com.oneeats.restaurant.domain.model.Restaurant;
+import com.oneeats.shared.infrastructure.service.FileStorageService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -12,11 +13,16 @@ public class DeleteRestaurantCommandHandler {
     @Inject
     IRestaurantRepository restaurantRepository;
 
+    @Inject
+    FileStorageService fileStorageService;
+
     @Transactional
     public void handle(DeleteRestaurantCommand command) {
         Restaurant restaurant = restaurantRepository.findById(command.restaurantId())
             .orElseThrow(() -> new IllegalArgumentException("Restaurant not found with id: " + command.restaurantId()));
 
+        // L'image est supprimee par le GC des images une fois sans reference
+        fileStorageService.releaseImage(restaurant.getImageUrl());
         restaurantRepository.delete(restaurant);
     }
 }
\ No newline at end of file
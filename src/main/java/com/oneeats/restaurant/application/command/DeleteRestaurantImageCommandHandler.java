@@ -27,11 +27,11 @@ public class DeleteRestaurantImageCommandHandler {
         Restaurant restaurant = restaurantRepository.findById(command.restaurantId())
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
-        // Delete old image if exists and it's a local file (not external URL)
+        // Release old image if exists and it's a local file (not external URL): files are removed by the image GC
         if (restaurant.getImageUrl() != null && 
             !restaurant.getImageUrl().startsWith("http://") && 
             !restaurant.getImageUrl().startsWith("https://")) {
-            fileStorageService.deleteFile(restaurant.getImageUrl());
+            fileStorageService.releaseImage(restaurant.getImageUrl());
         }
 
         // Remove image URL from restaurant
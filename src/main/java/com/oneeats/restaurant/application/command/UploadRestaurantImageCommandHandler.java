@@ -30,18 +30,17 @@ public class UploadRestaurantImageCommandHandler {
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
         try {
-            // Delete old image if exists and it's a local file (not external URL)
+            // Release old image if exists and it's a local file (not external URL): files are removed by the image GC
             if (restaurant.getImageUrl() != null && 
                 !restaurant.getImageUrl().startsWith("http://") && 
                 !restaurant.getImageUrl().startsWith("https://")) {
-                fileStorageService.deleteFile(restaurant.getImageUrl());
+                fileStorageService.releaseImage(restaurant.getImageUrl());
             }
 
             // Save new image
             String imageUrl = fileStorageService.saveRestaurantImage(
                 command.inputStream(),
-                command.filename(),
-                command.fileSize()
+                command.filename()
             );
 
             // Update restaurant
@@ -4,6 +4,7 @@ import com.oneeats.restaurant.domain.model.Restaurant;
 import com.oneeats.restaurant.domain.model.RestaurantStatus;
 import com.oneeats.shared.domain.vo.Email;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +12,8 @@ import java.util.UUID;
 public interface IRestaurantRepository {
     
     Optional<Restaurant> findById(UUID id);
+
+    List<Restaurant> findAllById(Collection<UUID> ids);
     
     Optional<Restaurant> findByEmail(Email email);
     
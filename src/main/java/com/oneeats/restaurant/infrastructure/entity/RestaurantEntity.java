@@ -10,7 +10,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "restaurant")
+@Table(name = "restaurant", indexes = {
+    @Index(name = "idx_restaurant_image_url", columnList = "image_url")
+})
 public class RestaurantEntity extends PanacheEntityBase {
 
     @Id
@@ -10,6 +10,7 @@ import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +29,19 @@ public class JpaRestaurantRepository implements IRestaurantRepository {
                 .map(entity -> mapper.toDomain((RestaurantEntity) entity));
     }
 
+    @Override
+    public List<Restaurant> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Une seule requete: les horaires (EAGER) sont charges par jointure et non restaurant par restaurant
+        return RestaurantEntity.<RestaurantEntity>find(
+                "select distinct r from RestaurantEntity r left join fetch r.openingHours where r.id in ?1", ids)
+                .stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Optional<Restaurant> findByEmail(Email email) {
         return RestaurantEntity.find("email", email.getValue())
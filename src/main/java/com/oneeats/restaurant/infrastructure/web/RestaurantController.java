@@ -1,5 +1,6 @@
 package com.oneeats.restaurant.infrastructure.web;
 
+import com.oneeats.order.application.command.CancelRestaurantOrdersCommandHandler;
 import com.oneeats.restaurant.application.command.CreateRestaurantCommand;
 import com.oneeats.restaurant.application.command.CreateRestaurantCommandHandler;
 import com.oneeats.restaurant.application.command.UpdateRestaurantCommand;
@@ -31,6 +32,7 @@ import com.oneeats.restaurant.application.query.GetRestaurantByOwnerQueryHandler
 import com.oneeats.restaurant.domain.model.RestaurantStatus;
 import com.oneeats.security.Roles;
 import com.oneeats.security.application.AuthService;
+import com.oneeats.shared.infrastructure.image.ImageDerivativePipeline;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -38,10 +40,11 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import java.util.List;
 import java.util.UUID;
@@ -87,6 +90,9 @@ public class RestaurantController {
     @Inject
     BlockRestaurantCommandHandler blockRestaurantCommandHandler;
 
+    @Inject
+    CancelRestaurantOrdersCommandHandler cancelRestaurantOrdersCommandHandler;
+
     @Inject
     GetActiveRestaurantsQueryHandler getActiveRestaurantsQueryHandler;
 
@@ -162,7 +168,7 @@ public class RestaurantController {
     @RolesAllowed({Roles.RESTAURANT, Roles.ADMIN})
     public Response uploadRestaurantImage(
         @PathParam("id") UUID id,
-        @FormParam("file") InputStream fileStream,
+        @RestForm("file") FileUpload file,
         @FormParam("filename") String filename
     ) {
         // Verifier l'acces au restaurant (sauf admin)
@@ -171,7 +177,7 @@ public class RestaurantController {
         }
 
         try {
-            if (fileStream == null) {
+            if (file == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
                     .entity("File is required")
                     .build();
@@ -183,34 +189,28 @@ public class RestaurantController {
                     .build();
             }
 
-            // Read file completely into memory to avoid Windows lock issues
-            byte[] fileBytes;
-            try {
-                fileBytes = fileStream.readAllBytes();
-            } catch (IOException e) {
-                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Failed to read uploaded file")
-                    .build();
-            }
-
-            if (fileBytes.length == 0) {
+            if (file.size() == 0) {
                 return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Empty file")
                     .build();
             }
 
-            // Create new stream from bytes
-            InputStream byteStream = new ByteArrayInputStream(fileBytes);
-            
-            UploadRestaurantImageCommand command = new UploadRestaurantImageCommand(
-                id,
-                byteStream,
-                filename,
-                fileBytes.length
-            );
-
-            RestaurantDTO restaurant = uploadRestaurantImageCommandHandler.handle(command);
-            return Response.ok(restaurant).build();
+            // Le fichier a ete ecrit sur disque pendant la reception: il est relu en flux, sans copie en memoire
+            RestaurantDTO restaurant;
+            try (InputStream fileStream = Files.newInputStream(file.uploadedFile())) {
+                UploadRestaurantImageCommand command = new UploadRestaurantImageCommand(
+                    id,
+                    fileStream,
+                    filename,
+                    file.size()
+                );
+                restaurant = uploadRestaurantImageCommandHandler.handle(command);
+            }
+
+            // Les tailles (large, medium, small) sont generees en arriere-plan
+            return Response.ok(restaurant)
+                .header(ImageDerivativePipeline.STATUS_HEADER, ImageDerivativePipeline.STATUS_PENDING)
+                .build();
 
         } catch (IllegalArgumentException e) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -353,6 +353,15 @@ public class RestaurantController {
         }
     }
 
+    @GET
+    @Path("/{id}/block/progress")
+    @RolesAllowed(Roles.ADMIN)
+    public Response getBlockCancellationProgress(@PathParam("id") UUID id) {
+        return cancelRestaurantOrdersCommandHandler.progress(id)
+            .map(progress -> Response.ok(progress).build())
+            .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+    }
+
     // DTO pour la requête de blocage
     public record BlockRestaurantRequest(String reason, Boolean cancelPendingOrders) {
         // Constructeur pour compatibilité
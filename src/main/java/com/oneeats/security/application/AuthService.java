@@ -1,11 +1,15 @@
 package com.oneeats.security.application;
 
+import com.oneeats.security.infrastructure.cache.PrincipalCache;
+import com.oneeats.security.infrastructure.cache.ResolvedPrincipal;
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
 import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity;
 import com.oneeats.security.infrastructure.repository.JpaRestaurantStaffRepository;
 import com.oneeats.user.infrastructure.entity.UserEntity;
 import com.oneeats.user.infrastructure.repository.JpaUserRepository;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -14,6 +18,7 @@ import org.eclipse.microprofile.jwt.JsonWebToken;
 import jakarta.ws.rs.ForbiddenException;
 import jakarta.ws.rs.NotAuthorizedException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -23,6 +28,11 @@ import java.util.stream.Collectors;
 /**
  * Service d'authentification et d'autorisation.
  * Fait le lien entre Keycloak (authentification) et la base de donnees (autorisations metier).
+ *
+ * L'utilisateur courant et ses affiliations sont resolus une fois par requete ({@link CurrentUserContext});
+ * les controles d'acces (restaurant, proprietaire) s'appuient sur une identite mise en cache quelques
+ * secondes par sujet Keycloak ({@link PrincipalCache}) et ne lisent plus la base. Pour un bearer token
+ * deja verifie, cette identite est aussi attachee au jeton ({@link VerifiedTokenCache}).
  */
 @ApplicationScoped
 public class AuthService {
@@ -39,6 +49,15 @@ public class AuthService {
     @Inject
     JpaRestaurantStaffRepository staffRepository;
 
+    @Inject
+    CurrentUserContext currentUserContext;
+
+    @Inject
+    PrincipalCache principalCache;
+
+    @Inject
+    VerifiedTokenCache tokenCache;
+
     /**
      * Recupere le JWT si disponible (OIDC active)
      */
@@ -56,16 +75,19 @@ public class AuthService {
      */
     @Transactional
     public Optional<UserEntity> getCurrentUser() {
-        if (securityIdentity.isAnonymous()) {
-            return Optional.empty();
+        CurrentUserContext context = activeContext();
+        if (context != null && context.user() != null) {
+            return context.user();
         }
-
-        Optional<JsonWebToken> jwtOpt = getJwt();
-        if (jwtOpt.isEmpty()) {
-            return Optional.empty();
+        Optional<UserEntity> user = resolveCurrentUser();
+        if (context != null) {
+            context.user(user);
         }
+        return user;
+    }
 
-        String keycloakId = jwtOpt.get().getSubject();
+    private Optional<UserEntity> resolveCurrentUser() {
+        String keycloakId = currentSubject();
         if (keycloakId == null) {
             return Optional.empty();
         }
@@ -94,6 +116,81 @@ public class AuthService {
         return user;
     }
 
+    /**
+     * Identifiant en base de l'utilisateur courant, sans lecture de la base si son identite est en cache
+     */
+    public Optional<UUID> getCurrentUserId() {
+        return currentPrincipal().map(ResolvedPrincipal::userId);
+    }
+
+    /**
+     * Identite de l'utilisateur courant (utilisateur et affiliations), resolue une fois par requete
+     * et partagee entre requetes pendant le TTL du cache.
+     */
+    private Optional<ResolvedPrincipal> currentPrincipal() {
+        CurrentUserContext context = activeContext();
+        if (context != null && context.principal() != null) {
+            return context.principal();
+        }
+        Optional<ResolvedPrincipal> principal = resolvePrincipal();
+        if (context != null) {
+            context.principal(principal);
+        }
+        return principal;
+    }
+
+    private Optional<ResolvedPrincipal> resolvePrincipal() {
+        String subject = currentSubject();
+        if (subject == null) {
+            return Optional.empty();
+        }
+        VerifiedTokenCache.VerifiedToken token = getJwt()
+            .map(JsonWebToken::getRawToken)
+            .map(tokenCache::get)
+            .orElse(null);
+        if (token != null) {
+            ResolvedPrincipal attached = tokenCache.principal(token);
+            if (attached != null) {
+                return Optional.of(attached);
+            }
+        }
+        long generation = principalCache.generation();
+        ResolvedPrincipal cached = principalCache.get(subject);
+        Optional<ResolvedPrincipal> principal;
+        if (cached != null) {
+            principal = Optional.of(cached);
+        } else {
+            principal = getCurrentUser()
+                .map(user -> ResolvedPrincipal.of(user, staffRepository.findByUserId(user.getId())));
+            principal.ifPresent(resolved -> principalCache.put(subject, resolved, generation));
+        }
+        if (token != null) {
+            principal.ifPresent(resolved -> tokenCache.attach(token, resolved, generation));
+        }
+        return principal;
+    }
+
+    /**
+     * Sujet Keycloak de l'appelant, ou null si anonyme
+     */
+    private String currentSubject() {
+        if (securityIdentity.isAnonymous()) {
+            return null;
+        }
+        return getJwt().map(JsonWebToken::getSubject).orElse(null);
+    }
+
+    /**
+     * Contexte de la requete courante, ou null hors requete (taches planifiees, WebSocket)
+     */
+    private CurrentUserContext activeContext() {
+        try {
+            return currentUserContext.active();
+        } catch (ContextNotActiveException e) {
+            return null;
+        }
+    }
+
     /**
      * Cree un nouvel utilisateur en base depuis les informations Keycloak.
      * Si l'email existe deja, lie le compte Keycloak a l'utilisateur existant.
@@ -156,8 +253,8 @@ public class AuthService {
      * Verifie si l'utilisateur courant a acces a un restaurant
      */
     public boolean hasAccessToRestaurant(UUID restaurantId) {
-        return getCurrentUser()
-            .map(user -> staffRepository.hasAccessToRestaurant(user.getId(), restaurantId))
+        return currentPrincipal()
+            .map(principal -> principal.memberships().containsKey(restaurantId))
             .orElse(false);
     }
 
@@ -198,20 +295,20 @@ public class AuthService {
             return false;
         }
 
-        Optional<UserEntity> currentUser = getCurrentUser();
+        Optional<ResolvedPrincipal> currentUser = currentPrincipal();
         if (currentUser.isEmpty()) {
             return false;
         }
 
-        UserEntity user = currentUser.get();
+        ResolvedPrincipal user = currentUser.get();
 
         // 1. Verifier si c'est l'ID de base de données
-        if (user.getId().equals(userId)) {
+        if (user.userId().equals(userId)) {
             return true;
         }
 
         // 2. Verifier si c'est le Keycloak ID (converti en UUID)
-        String keycloakId = user.getKeycloakId();
+        String keycloakId = user.keycloakId();
         if (keycloakId != null) {
             try {
                 UUID keycloakUuid = UUID.fromString(keycloakId);
@@ -237,22 +334,22 @@ public class AuthService {
             return false;
         }
 
-        Optional<UserEntity> currentUser = getCurrentUser();
+        Optional<ResolvedPrincipal> currentUser = currentPrincipal();
         if (currentUser.isEmpty()) {
             return false;
         }
 
-        UserEntity user = currentUser.get();
+        ResolvedPrincipal user = currentUser.get();
 
         // 1. Verifier si c'est le Keycloak ID
-        if (userIdentifier.equals(user.getKeycloakId())) {
+        if (userIdentifier.equals(user.keycloakId())) {
             return true;
         }
 
         // 2. Verifier si c'est l'ID de base de données (UUID)
         try {
             UUID dbId = UUID.fromString(userIdentifier);
-            return user.getId().equals(dbId);
+            return user.userId().equals(dbId);
         } catch (IllegalArgumentException e) {
             // Ce n'est pas un UUID valide, donc pas un match
             return false;
@@ -288,9 +385,9 @@ public class AuthService {
      * Recupere le role de l'utilisateur courant pour un restaurant
      */
     public Optional<RestaurantStaffEntity.StaffRole> getStaffRoleForRestaurant(UUID restaurantId) {
-        return getCurrentUser()
-            .flatMap(user -> staffRepository.findByUserIdAndRestaurantId(user.getId(), restaurantId))
-            .map(RestaurantStaffEntity::getStaffRole);
+        return currentPrincipal()
+            .map(principal -> principal.memberships().get(restaurantId))
+            .map(ResolvedPrincipal.StaffMembership::role);
     }
 
     /**
@@ -325,6 +422,7 @@ public class AuthService {
 
         RestaurantStaffEntity staff = new RestaurantStaffEntity(userId, restaurantId, role);
         staffRepository.persist(staff);
+        principalCache.invalidateUser(userId);
         return staff;
     }
 
@@ -339,7 +437,9 @@ public class AuthService {
         }
 
         UserEntity user = userOpt.get();
-        List<RestaurantStaffEntity> restaurants = staffRepository.findByUserId(user.getId());
+        Collection<ResolvedPrincipal.StaffMembership> restaurants = currentPrincipal()
+            .map(principal -> principal.memberships().values())
+            .orElse(List.of());
 
         return new CurrentUserDTO(
             user.getId().toString(),
@@ -350,9 +450,9 @@ public class AuthService {
             getCurrentUserRoles(),
             restaurants.stream()
                 .map(r -> new RestaurantAccessDTO(
-                    r.getRestaurantId().toString(),
-                    r.getStaffRole().name(),
-                    r.getPermissions()
+                    r.restaurantId().toString(),
+                    r.role().name(),
+                    r.permissions()
                 ))
                 .collect(Collectors.toList())
         );
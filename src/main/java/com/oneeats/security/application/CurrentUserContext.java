@@ -0,0 +1,42 @@
+package com.oneeats.security.application;
+
+import com.oneeats.security.infrastructure.cache.ResolvedPrincipal;
+import com.oneeats.user.infrastructure.entity.UserEntity;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.Optional;
+
+/**
+ * Resolution de l'utilisateur courant memorisee pour la duree d'une requete.
+ * Les controleurs interrogent AuthService plusieurs fois par requete: la base n'est lue qu'une fois.
+ */
+@RequestScoped
+public class CurrentUserContext {
+
+    // null tant que non resolu
+    private Optional<UserEntity> user;
+    private Optional<ResolvedPrincipal> principal;
+
+    /**
+     * Instance de la requete courante (leve ContextNotActiveException hors requete)
+     */
+    CurrentUserContext active() {
+        return this;
+    }
+
+    Optional<UserEntity> user() {
+        return user;
+    }
+
+    void user(Optional<UserEntity> user) {
+        this.user = user;
+    }
+
+    Optional<ResolvedPrincipal> principal() {
+        return principal;
+    }
+
+    void principal(Optional<ResolvedPrincipal> principal) {
+        this.principal = principal;
+    }
+}
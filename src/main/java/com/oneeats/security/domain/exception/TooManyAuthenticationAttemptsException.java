@@ -0,0 +1,13 @@
+package com.oneeats.security.domain.exception;
+
+import com.oneeats.shared.domain.exception.ValidationException;
+
+/**
+ * Trop d'echecs de connexion recents pour cet email ou cette adresse IP
+ */
+public class TooManyAuthenticationAttemptsException extends ValidationException {
+
+    public TooManyAuthenticationAttemptsException(String message) {
+        super(message);
+    }
+}
@@ -21,10 +21,14 @@ public interface IAuthenticationAttemptRepository {
     List<AuthenticationAttempt> findByIpAddress(String ipAddress);
     
     AuthenticationAttempt save(AuthenticationAttempt attempt);
+
+    void saveAll(List<AuthenticationAttempt> attempts);
     
     void delete(AuthenticationAttempt attempt);
     
     long countFailedAttemptsByEmailInLastHour(Email email);
     
     long countFailedAttemptsByIpInLastHour(String ipAddress);
+
+    List<AuthenticationAttempt> findFailedSince(LocalDateTime since, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.oneeats.security.domain.service;
+
+import com.oneeats.security.domain.model.AuthenticationAttempt;
+import com.oneeats.shared.domain.vo.Email;
+
+/**
+ * Suivi des tentatives de connexion: compteurs d'echecs recents et journal d'audit.
+ */
+public interface IAuthenticationAttemptTracker {
+
+    /**
+     * Comptabilise la tentative et la transmet au journal d'audit
+     */
+    void record(AuthenticationAttempt attempt);
+
+    long countRecentFailuresByEmail(Email email);
+
+    long countRecentFailuresByIp(String ipAddress);
+}
@@ -1,9 +1,9 @@
 package com.oneeats.security.domain.service;
 
-import com.oneeats.security.domain.repository.IAuthenticationAttemptRepository;
+import com.oneeats.security.domain.exception.TooManyAuthenticationAttemptsException;
+import com.oneeats.security.domain.model.AuthenticationAttempt;
 import com.oneeats.security.domain.repository.IUserSessionRepository;
 import com.oneeats.shared.domain.vo.Email;
-import com.oneeats.shared.domain.exception.ValidationException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -14,7 +14,7 @@ import java.util.Base64;
 public class SecurityDomainService {
 
     @Inject
-    IAuthenticationAttemptRepository authAttemptRepository;
+    IAuthenticationAttemptTracker attemptTracker;
 
     @Inject
     IUserSessionRepository sessionRepository;
@@ -30,17 +30,21 @@ public class SecurityDomainService {
     }
 
     public void validateAuthenticationAttempt(Email email, String ipAddress) {
-        long failedAttemptsForEmail = authAttemptRepository.countFailedAttemptsByEmailInLastHour(email);
+        long failedAttemptsForEmail = attemptTracker.countRecentFailuresByEmail(email);
         if (failedAttemptsForEmail >= MAX_FAILED_ATTEMPTS_PER_HOUR) {
-            throw new ValidationException("Too many failed login attempts for this email. Please try again later.");
+            throw new TooManyAuthenticationAttemptsException("Too many failed login attempts for this email. Please try again later.");
         }
 
-        long failedAttemptsForIp = authAttemptRepository.countFailedAttemptsByIpInLastHour(ipAddress);
+        long failedAttemptsForIp = attemptTracker.countRecentFailuresByIp(ipAddress);
         if (failedAttemptsForIp >= MAX_FAILED_ATTEMPTS_PER_IP_HOUR) {
-            throw new ValidationException("Too many failed login attempts from this IP address. Please try again later.");
+            throw new TooManyAuthenticationAttemptsException("Too many failed login attempts from this IP address. Please try again later.");
         }
     }
 
+    public void recordAuthenticationAttempt(AuthenticationAttempt attempt) {
+        attemptTracker.record(attempt);
+    }
+
     public boolean isSessionTokenValid(String sessionToken) {
         if (sessionToken == null || sessionToken.trim().isEmpty()) {
             return false;
@@ -0,0 +1,64 @@
+package com.oneeats.security.infrastructure;
+
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
+import io.quarkus.security.identity.IdentityProviderManager;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.security.identity.request.AuthenticationRequest;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.quarkus.vertx.http.runtime.security.ChallengeData;
+import io.quarkus.vertx.http.runtime.security.HttpAuthenticationMechanism;
+import io.smallrye.mutiny.Uni;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Set;
+
+/**
+ * Chemin rapide des bearer tokens (tenant mobile).
+ *
+ * Un jeton deja verifie par quarkus-oidc ({@link VerifiedTokenAugmentor}) et non expire est accepte
+ * depuis {@link VerifiedTokenCache}, sans nouvelle verification de signature. Sinon le mecanisme
+ * s'efface (identite nulle) et la verification OIDC habituelle s'applique, defis compris.
+ */
+@ApplicationScoped
+public class CachedBearerTokenMechanism implements HttpAuthenticationMechanism {
+
+    private static final String BEARER = "Bearer ";
+
+    @Inject
+    VerifiedTokenCache tokenCache;
+
+    @Override
+    public Uni<SecurityIdentity> authenticate(RoutingContext context, IdentityProviderManager identityProviderManager) {
+        String authorization = context.request().getHeader("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return Uni.createFrom().nullItem();
+        }
+        VerifiedTokenCache.VerifiedToken token = tokenCache.get(authorization.substring(BEARER.length()).trim());
+        if (token == null) {
+            return Uni.createFrom().nullItem();
+        }
+        // L'identite en cache reference la requete qui l'a produite: on la rattache a la requete courante
+        return Uni.createFrom().item(QuarkusSecurityIdentity.builder(token.identity())
+            .addAttribute(RoutingContext.class.getName(), context)
+            .build());
+    }
+
+    @Override
+    public Uni<ChallengeData> getChallenge(RoutingContext context) {
+        // Defi laisse au mecanisme OIDC
+        return Uni.createFrom().nullItem();
+    }
+
+    @Override
+    public Set<Class<? extends AuthenticationRequest>> getCredentialTypes() {
+        return Set.of();
+    }
+
+    @Override
+    public int getPriority() {
+        // Avant le mecanisme OIDC: un jeton en cache n'a pas a etre verifie a nouveau
+        return DEFAULT_PRIORITY + 100;
+    }
+}
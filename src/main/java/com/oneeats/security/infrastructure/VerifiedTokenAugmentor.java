@@ -0,0 +1,42 @@
+package com.oneeats.security.infrastructure;
+
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
+import io.quarkus.security.identity.AuthenticationRequestContext;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.security.identity.SecurityIdentityAugmentor;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Enregistre dans {@link VerifiedTokenCache} les bearer tokens que quarkus-oidc vient de verifier
+ * (tenant mobile), pour que {@link CachedBearerTokenMechanism} les accepte ensuite directement.
+ */
+@ApplicationScoped
+public class VerifiedTokenAugmentor implements SecurityIdentityAugmentor {
+
+    // Attribut pose par quarkus-oidc sur l'identite (OidcUtils.TENANT_ID_ATTRIBUTE)
+    private static final String TENANT_ID_ATTRIBUTE = "tenant-id";
+    private static final String MOBILE_TENANT = "mobile";
+
+    @Inject
+    VerifiedTokenCache tokenCache;
+
+    @Override
+    public Uni<SecurityIdentity> augment(SecurityIdentity identity, AuthenticationRequestContext context) {
+        if (!identity.isAnonymous()
+            && MOBILE_TENANT.equals(identity.getAttribute(TENANT_ID_ATTRIBUTE))
+            && identity.getPrincipal() instanceof JsonWebToken jwt
+            && jwt.getRawToken() != null) {
+            tokenCache.put(jwt.getRawToken(), identity, jwt.getExpirationTime());
+        }
+        return Uni.createFrom().item(identity);
+    }
+
+    @Override
+    public int priority() {
+        // Apres les autres augmentations: l'identite mise en cache est l'identite finale
+        return Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,149 @@
+package com.oneeats.security.infrastructure.cache;
+
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Cache court des identites resolues, par sujet Keycloak.
+ *
+ * Evite de relire l'utilisateur et ses affiliations a chaque requete d'un meme client.
+ * Toute modification du staff invalide les entrees concernees, immediatement puis a la fin de la
+ * transaction; une resolution commencee avant une invalidation n'est pas mise en cache (generation).
+ * Le TTL borne l'obsolescence des modifications faites par un autre noeud.
+ * Nombre d'entrees borne (LRU): une nouvelle identite evince la moins recemment utilisee, en O(1).
+ */
+@ApplicationScoped
+public class PrincipalCache {
+
+    @ConfigProperty(name = "oneeats.security.principal-cache.ttl", defaultValue = "30s")
+    Duration ttl;
+
+    @ConfigProperty(name = "oneeats.security.principal-cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    public PrincipalCache() {
+    }
+
+    public PrincipalCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("oneeats.security.principal-cache", "result", "hit");
+        misses = meterRegistry.counter("oneeats.security.principal-cache", "result", "miss");
+        meterRegistry.gauge("oneeats.security.principal-cache.size", this, PrincipalCache::size);
+    }
+
+    /**
+     * @return l'identite en cache, ou null si absente ou expiree
+     */
+    public ResolvedPrincipal get(String subject) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(subject);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(subject);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * Generation courante, a lire avant de resoudre une identite en base
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Met en cache une identite resolue, sauf si une invalidation a eu lieu depuis {@code resolvedAtGeneration}.
+     */
+    public void put(String subject, ResolvedPrincipal principal, long resolvedAtGeneration) {
+        Entry entry = new Entry(principal, System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            // Invalidation concurrente: l'identite lue peut etre anterieure a la modification
+            if (generation.get() == resolvedAtGeneration) {
+                entries.put(subject, entry);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Affiliations d'un utilisateur modifiees
+     */
+    public void invalidateUser(UUID userId) {
+        invalidate(principal -> principal.userId().equals(userId));
+    }
+
+    /**
+     * Staff d'un restaurant modifie
+     */
+    public void invalidateRestaurant(UUID restaurantId) {
+        invalidate(principal -> principal.memberships().containsKey(restaurantId));
+    }
+
+    private void invalidate(Predicate<ResolvedPrincipal> affected) {
+        evict(affected);
+        // Une requete concurrente peut relire l'etat anterieur avant le commit: on invalide a nouveau apres
+        AfterCommit.afterCompletion(transactionRegistry, () -> evict(affected));
+    }
+
+    private void evict(Predicate<ResolvedPrincipal> affected) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> affected.test(entry.principal));
+        }
+    }
+
+    private record Entry(ResolvedPrincipal principal, long expiresAt) {}
+}
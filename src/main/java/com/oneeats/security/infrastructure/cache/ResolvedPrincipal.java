@@ -0,0 +1,32 @@
+package com.oneeats.security.infrastructure.cache;
+
+import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity;
+import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity.StaffRole;
+import com.oneeats.user.infrastructure.entity.UserEntity;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Identite metier d'un sujet Keycloak: utilisateur en base et affiliations aux restaurants.
+ * Immuable, partageable entre requetes.
+ */
+public record ResolvedPrincipal(UUID userId, String keycloakId, Map<UUID, StaffMembership> memberships) {
+
+    /**
+     * Affiliation a un restaurant (copie de {@link RestaurantStaffEntity})
+     */
+    public record StaffMembership(UUID restaurantId, StaffRole role, String permissions) {}
+
+    public static ResolvedPrincipal of(UserEntity user, List<RestaurantStaffEntity> staff) {
+        Map<UUID, StaffMembership> memberships = new LinkedHashMap<>();
+        for (RestaurantStaffEntity entry : staff) {
+            memberships.putIfAbsent(entry.getRestaurantId(),
+                new StaffMembership(entry.getRestaurantId(), entry.getStaffRole(), entry.getPermissions()));
+        }
+        return new ResolvedPrincipal(user.getId(), user.getKeycloakId(), Collections.unmodifiableMap(memberships));
+    }
+}
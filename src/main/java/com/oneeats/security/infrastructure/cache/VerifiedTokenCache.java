@@ -0,0 +1,183 @@
+package com.oneeats.security.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache des bearer tokens deja verifies par quarkus-oidc, par hash SHA-256 du jeton.
+ *
+ * Une requete mobile qui represente un jeton connu recoit l'identite verifiee lors de la premiere
+ * presentation (claims, roles) sans nouvelle verification de signature; l'identite metier resolue
+ * (utilisateur, affiliations) y est attachee pour eviter la resolution par sujet.
+ *
+ * - Une entree n'est jamais servie apres l'expiration ({@code exp}) du jeton.
+ * - L'identite metier suit les invalidations de {@link PrincipalCache} (generation) et son TTL.
+ * - Seul le hash est conserve comme cle: un dump memoire ne livre pas de jeton rejouable via la cle.
+ * - Nombre d'entrees borne (LRU): un nouveau jeton evince le moins recemment presente, en O(1).
+ */
+@ApplicationScoped
+public class VerifiedTokenCache {
+
+    @ConfigProperty(name = "oneeats.security.token-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.security.token-cache.max-entries", defaultValue = "20000")
+    int maxEntries;
+
+    @Inject
+    PrincipalCache principalCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final LinkedHashMap<String, VerifiedToken> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private Counter hits;
+    private Counter misses;
+
+    public VerifiedTokenCache() {
+    }
+
+    public VerifiedTokenCache(int maxEntries, PrincipalCache principalCache, MeterRegistry meterRegistry) {
+        this.enabled = true;
+        this.maxEntries = maxEntries;
+        this.principalCache = principalCache;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        hits = meterRegistry.counter("oneeats.security.token-cache", "result", "hit");
+        misses = meterRegistry.counter("oneeats.security.token-cache", "result", "miss");
+        meterRegistry.gauge("oneeats.security.token-cache.size", this, VerifiedTokenCache::size);
+    }
+
+    /**
+     * Jeton verifie non expire, ou null
+     */
+    public VerifiedToken get(String rawToken) {
+        if (!enabled || rawToken == null) {
+            return null;
+        }
+        String key = hash(rawToken);
+        VerifiedToken token;
+        synchronized (entries) {
+            token = entries.get(key);
+            if (token != null && token.expired(nowEpochSecond())) {
+                entries.remove(key);
+                token = null;
+            }
+        }
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    /**
+     * Enregistre l'identite produite par la verification du jeton, valable jusqu'a {@code expiresAtEpochSecond}
+     */
+    public void put(String rawToken, SecurityIdentity identity, long expiresAtEpochSecond) {
+        long now = nowEpochSecond();
+        if (!enabled || rawToken == null || expiresAtEpochSecond <= now) {
+            return;
+        }
+        String key = hash(rawToken);
+        synchronized (entries) {
+            entries.putIfAbsent(key, new VerifiedToken(identity, expiresAtEpochSecond));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Identite metier attachee au jeton, si elle est toujours valide
+     */
+    public ResolvedPrincipal principal(VerifiedToken token) {
+        PrincipalSnapshot snapshot = token.principal;
+        if (snapshot == null
+            || snapshot.generation != principalCache.generation()
+            || snapshot.expiresAtNanos - System.nanoTime() <= 0) {
+            return null;
+        }
+        return snapshot.principal;
+    }
+
+    /**
+     * Attache l'identite metier resolue a la generation {@code resolvedAtGeneration}
+     */
+    public void attach(VerifiedToken token, ResolvedPrincipal principal, long resolvedAtGeneration) {
+        if (principalCache.generation() != resolvedAtGeneration) {
+            return;
+        }
+        token.principal = new PrincipalSnapshot(principal, resolvedAtGeneration,
+            System.nanoTime() + principalCache.ttl().toNanos());
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * Identite verifiee d'un jeton et identite metier attachee
+     */
+    public static final class VerifiedToken {
+        private final SecurityIdentity identity;
+        private final long expiresAtEpochSecond;
+        private volatile PrincipalSnapshot principal;
+
+        VerifiedToken(SecurityIdentity identity, long expiresAtEpochSecond) {
+            this.identity = identity;
+            this.expiresAtEpochSecond = expiresAtEpochSecond;
+        }
+
+        public SecurityIdentity identity() {
+            return identity;
+        }
+
+        public long expiresAtEpochSecond() {
+            return expiresAtEpochSecond;
+        }
+
+        boolean expired(long nowEpochSecond) {
+            return nowEpochSecond >= expiresAtEpochSecond;
+        }
+    }
+
+    private record PrincipalSnapshot(ResolvedPrincipal principal, long generation, long expiresAtNanos) {}
+}
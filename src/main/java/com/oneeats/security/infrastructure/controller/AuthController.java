@@ -4,15 +4,22 @@ import com.oneeats.security.application.AuthService;
 import com.oneeats.security.application.AuthService.CurrentUserDTO;
 import com.oneeats.security.application.dto.RegisterRequestDTO;
 import com.oneeats.security.application.dto.RegisterResponseDTO;
+import com.oneeats.security.domain.exception.TooManyAuthenticationAttemptsException;
+import com.oneeats.security.domain.model.AuthenticationAttempt;
+import com.oneeats.security.domain.service.SecurityDomainService;
 import com.oneeats.security.infrastructure.keycloak.KeycloakAdminService;
+import com.oneeats.shared.domain.exception.ValidationException;
+import com.oneeats.shared.domain.vo.Email;
 import com.oneeats.user.domain.model.UserStatus;
 import com.oneeats.user.infrastructure.entity.UserEntity;
 import com.oneeats.user.infrastructure.repository.JpaUserRepository;
 import io.quarkus.security.Authenticated;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
@@ -43,6 +50,9 @@ public class AuthController {
     @Inject
     JpaUserRepository userRepository;
 
+    @Inject
+    SecurityDomainService securityDomainService;
+
     /**
      * Inscription d'un nouvel utilisateur.
      * Cree l'utilisateur dans Keycloak et dans la base locale.
@@ -125,15 +135,33 @@ public class AuthController {
      */
     @POST
     @Path("/login")
-    public Response login(LoginRequestDTO request) {
+    public Response login(LoginRequestDTO request, @Context HttpServerRequest httpRequest) {
         LOG.info("Login attempt for: " + request.email());
 
+        // Limitation des echecs par email et par IP, avant tout appel a Keycloak
+        String ipAddress = httpRequest.remoteAddress() != null ? httpRequest.remoteAddress().hostAddress() : null;
+        String userAgent = httpRequest.getHeader("User-Agent");
+        Email email = parseEmail(request.email());
+        if (email != null) {
+            try {
+                securityDomainService.validateAuthenticationAttempt(email, ipAddress);
+            } catch (TooManyAuthenticationAttemptsException e) {
+                LOG.warnf("Login throttled for %s from %s", email.getValue(), ipAddress);
+                return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .entity(new ErrorResponse("too_many_attempts", "Trop de tentatives de connexion, reessayez plus tard"))
+                    .build();
+            }
+        }
+
         try {
             // Obtenir des tokens depuis Keycloak
             KeycloakAdminService.TokenResponse tokens = keycloakAdminService.getTokensForUser(
                 request.email(),
                 request.password()
             );
+            if (email != null) {
+                securityDomainService.recordAuthenticationAttempt(AuthenticationAttempt.successful(email, ipAddress, userAgent));
+            }
 
             // Trouver l'utilisateur en base locale
             String userId = userRepository.findEntityByEmail(request.email())
@@ -149,6 +177,10 @@ public class AuthController {
 
         } catch (WebApplicationException e) {
             if (e.getMessage().equals("invalid_credentials")) {
+                if (email != null) {
+                    securityDomainService.recordAuthenticationAttempt(
+                        AuthenticationAttempt.failed(email, ipAddress, userAgent, "invalid_credentials"));
+                }
                 return Response.status(Response.Status.UNAUTHORIZED)
                     .entity(new ErrorResponse("invalid_credentials", "Email ou mot de passe incorrect"))
                     .build();
@@ -351,6 +383,17 @@ public class AuthController {
 
     // DTOs pour les reponses
 
+    /**
+     * Email de connexion, ou null s'il est mal forme (laisse a Keycloak, non comptabilise)
+     */
+    private static Email parseEmail(String value) {
+        try {
+            return new Email(value);
+        } catch (ValidationException e) {
+            return null;
+        }
+    }
+
     public record ErrorResponse(String error, String message) {
         public ErrorResponse(String message) {
             this("error", message);
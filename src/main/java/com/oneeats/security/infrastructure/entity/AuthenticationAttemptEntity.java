@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "authentication_attempts")
+@Table(name = "authentication_attempts", indexes = {
+    @Index(name = "idx_authentication_attempts_result_created", columnList = "result, created_at")
+})
 public class AuthenticationAttemptEntity extends PanacheEntityBase {
 
     @Id
@@ -0,0 +1,325 @@
+package com.oneeats.security.infrastructure.keycloak;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.shared.infrastructure.http.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Client HTTP de Keycloak (API Admin et endpoint token).
+ *
+ * - Le jeton admin est conserve jusqu'a peu avant son expiration; un seul renouvellement est en vol
+ *   a la fois, les appels concurrents l'attendent au lieu de relancer chacun un password grant.
+ * - Appels asynchrones ({@code sendAsync}) sur un client unique (connexions reutilisees), avec timeout.
+ * - Disjoncteur: Keycloak indisponible (erreurs reseau, timeouts, 5xx) n'immobilise pas les threads
+ *   de requete; les appels echouent immediatement avec {@link KeycloakUnavailableException}.
+ * - Latence par operation: {@code oneeats.keycloak.requests}.
+ */
+@ApplicationScoped
+public class KeycloakAdminClient {
+
+    private static final Logger LOG = Logger.getLogger(KeycloakAdminClient.class);
+
+    @ConfigProperty(name = "quarkus.oidc.auth-server-url")
+    String keycloakUrl;
+
+    @ConfigProperty(name = "keycloak.admin.client-id", defaultValue = "admin-cli")
+    String adminClientId;
+
+    @ConfigProperty(name = "keycloak.admin.client-secret", defaultValue = "")
+    Optional<String> adminClientSecret;
+
+    @ConfigProperty(name = "keycloak.admin.username", defaultValue = "admin")
+    String adminUsername;
+
+    @ConfigProperty(name = "keycloak.admin.password", defaultValue = "admin")
+    String adminPassword;
+
+    @ConfigProperty(name = "keycloak.admin.request-timeout", defaultValue = "5s")
+    Duration requestTimeout;
+
+    // Marge avant expiration a laquelle le jeton est renouvele
+    @ConfigProperty(name = "keycloak.admin.token-refresh-skew", defaultValue = "30s")
+    Duration refreshSkew;
+
+    @ConfigProperty(name = "keycloak.admin.circuit-breaker.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @ConfigProperty(name = "keycloak.admin.circuit-breaker.open-duration", defaultValue = "30s")
+    Duration openDuration;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private CircuitBreaker circuitBreaker;
+    private final AtomicReference<CompletableFuture<AdminToken>> adminToken = new AtomicReference<>();
+
+    private record AdminToken(String value, long refreshAtNanos) {
+        boolean fresh() {
+            return System.nanoTime() - refreshAtNanos < 0;
+        }
+    }
+
+    public KeycloakAdminClient() {
+    }
+
+    public KeycloakAdminClient(String keycloakUrl, String adminClientId, Optional<String> adminClientSecret,
+                               String adminUsername, String adminPassword, Duration requestTimeout,
+                               Duration refreshSkew, int failureThreshold, Duration openDuration,
+                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.keycloakUrl = keycloakUrl;
+        this.adminClientId = adminClientId;
+        this.adminClientSecret = adminClientSecret;
+        this.adminUsername = adminUsername;
+        this.adminPassword = adminPassword;
+        this.requestTimeout = requestTimeout;
+        this.refreshSkew = refreshSkew;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .build();
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        meterRegistry.gauge("oneeats.keycloak.circuit.open", circuitBreaker,
+            breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    /**
+     * URL de Keycloak sans le realm (http://host:port)
+     */
+    public String baseUrl() {
+        return keycloakUrl.replaceAll("/realms/[^/]+$", "");
+    }
+
+    /**
+     * URL du realm applicatif (http://host:port/realms/oneeats)
+     */
+    public String realmUrl() {
+        return keycloakUrl;
+    }
+
+    /**
+     * Nom du realm applicatif
+     */
+    public String realm() {
+        int lastSlash = keycloakUrl.lastIndexOf("/");
+        if (lastSlash > 0 && keycloakUrl.contains("/realms/")) {
+            return keycloakUrl.substring(lastSlash + 1);
+        }
+        return "oneeats";
+    }
+
+    /**
+     * Jeton admin valide, depuis le cache ou apres un renouvellement partage par les appels concurrents
+     */
+    public CompletableFuture<String> adminToken() {
+        while (true) {
+            CompletableFuture<AdminToken> current = adminToken.get();
+            if (current != null && (!current.isDone() || (!current.isCompletedExceptionally() && current.join().fresh()))) {
+                return current.thenApply(AdminToken::value);
+            }
+            CompletableFuture<AdminToken> refresh = new CompletableFuture<>();
+            if (!adminToken.compareAndSet(current, refresh)) {
+                // Un autre appel vient de lancer le renouvellement: on l'attend
+                continue;
+            }
+            meterRegistry.counter("oneeats.keycloak.admin-token.refreshes").increment();
+            requestAdminToken().whenComplete((token, error) -> {
+                if (error != null) {
+                    // Le prochain appel retentera
+                    adminToken.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(error);
+                } else {
+                    refresh.complete(token);
+                }
+            });
+            return refresh.thenApply(AdminToken::value);
+        }
+    }
+
+    /**
+     * Oublie un jeton refuse par Keycloak (revoque, session admin fermee)
+     */
+    void invalidate(String token) {
+        CompletableFuture<AdminToken> current = adminToken.get();
+        if (current != null && current.isDone() && !current.isCompletedExceptionally()
+            && current.join().value().equals(token)) {
+            adminToken.compareAndSet(current, null);
+        }
+    }
+
+    private CompletableFuture<AdminToken> requestAdminToken() {
+        String body;
+        if (adminClientSecret.isPresent() && !adminClientSecret.get().isEmpty()) {
+            // Client credentials flow
+            body = form("grant_type", "client_credentials", "client_id", adminClientId, "client_secret", adminClientSecret.get());
+        } else {
+            // Resource owner password grant
+            body = form("grant_type", "password", "client_id", adminClientId, "username", adminUsername, "password", adminPassword);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl() + "/realms/master/protocol/openid-connect/token"))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        long requestedAt = System.nanoTime();
+        return send("admin-token", request).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                LOG.errorf("Failed to get admin token: %d - %s", response.statusCode(), response.body());
+                throw new KeycloakException("Failed to authenticate with Keycloak admin", response.statusCode());
+            }
+            JsonNode json = readJson(response.body());
+            String accessToken = json.path("access_token").asText(null);
+            if (accessToken == null) {
+                throw new KeycloakException("Keycloak admin token response without access_token", response.statusCode());
+            }
+            long lifetimeNanos = TimeUnit.SECONDS.toNanos(json.path("expires_in").asLong(60));
+            // Renouvele avant expiration, au plus tard a mi-vie pour les jetons tres courts
+            long refreshAfter = Math.max(lifetimeNanos - refreshSkew.toNanos(), lifetimeNanos / 2);
+            return new AdminToken(accessToken, requestedAt + refreshAfter);
+        });
+    }
+
+    /**
+     * Appel de l'API Admin avec le jeton courant; un 401 (jeton revoque) provoque un seul nouvel essai
+     * avec un jeton neuf.
+     */
+    public CompletableFuture<HttpResponse<String>> sendAuthorized(String operation, Function<String, HttpRequest> request) {
+        return adminToken().thenCompose(token -> send(operation, request.apply(token)).thenCompose(response -> {
+            if (response.statusCode() != 401) {
+                return CompletableFuture.completedFuture(response);
+            }
+            invalidate(token);
+            return adminToken().thenCompose(fresh -> send(operation, request.apply(fresh)));
+        }));
+    }
+
+    /**
+     * Appel Keycloak protege par le disjoncteur et mesure
+     */
+    public CompletableFuture<HttpResponse<String>> send(String operation, HttpRequest request) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("oneeats.keycloak.rejected", "operation", operation).increment();
+            return CompletableFuture.failedFuture(new KeycloakUnavailableException("Keycloak unavailable (circuit open)"));
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((response, error) -> {
+                String outcome;
+                if (error != null) {
+                    outcome = "error";
+                    circuitBreaker.onFailure();
+                } else {
+                    outcome = response.statusCode() / 100 + "xx";
+                    if (response.statusCode() >= 500) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                }
+                sample.stop(meterRegistry.timer("oneeats.keycloak.requests", "operation", operation, "outcome", outcome));
+            });
+    }
+
+    /**
+     * Timeout a poser sur les requetes construites par les appelants
+     */
+    public Duration requestTimeout() {
+        return requestTimeout;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    public JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new KeycloakException("Invalid JSON response from Keycloak", 0);
+        }
+    }
+
+    public String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot serialize Keycloak request", e);
+        }
+    }
+
+    /**
+     * Corps application/x-www-form-urlencoded (paires nom, valeur)
+     */
+    public static String form(String... pairs) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+
+    /**
+     * Reponse inattendue de Keycloak
+     */
+    public static class KeycloakException extends RuntimeException {
+        private final int status;
+
+        public KeycloakException(String message, int status) {
+            super(message);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+
+    /**
+     * Keycloak injoignable ou disjoncteur ouvert
+     */
+    public static class KeycloakUnavailableException extends RuntimeException {
+        public KeycloakUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,98 +1,54 @@
 package com.oneeats.security.infrastructure.keycloak;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.oneeats.security.application.dto.RegisterRequestDTO;
+import com.oneeats.security.infrastructure.keycloak.KeycloakAdminClient.KeycloakUnavailableException;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.net.ConnectException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
-import java.util.Optional;
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service pour interagir avec l'API Admin de Keycloak.
  * Permet de creer des utilisateurs et d'obtenir des tokens.
+ *
+ * Les appels HTTP, le cache du jeton admin et le disjoncteur sont portes par {@link KeycloakAdminClient};
+ * Keycloak indisponible se traduit par un 503 plutot qu'une attente bloquee.
  */
 @ApplicationScoped
 public class KeycloakAdminService {
 
     private static final Logger LOG = Logger.getLogger(KeycloakAdminService.class);
 
-    @ConfigProperty(name = "quarkus.oidc.auth-server-url")
-    String keycloakUrl;
-
-    @ConfigProperty(name = "keycloak.admin.client-id", defaultValue = "admin-cli")
-    String adminClientId;
-
-    @ConfigProperty(name = "keycloak.admin.client-secret", defaultValue = "")
-    Optional<String> adminClientSecret;
-
-    @ConfigProperty(name = "keycloak.admin.username", defaultValue = "admin")
-    String adminUsername;
-
-    @ConfigProperty(name = "keycloak.admin.password", defaultValue = "admin")
-    String adminPassword;
+    @Inject
+    KeycloakAdminClient client;
 
     @ConfigProperty(name = "quarkus.oidc.mobile.client-id", defaultValue = "oneeats-mobile")
     String mobileClientId;
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .connectTimeout(Duration.ofSeconds(10))
-        .build();
-
     /**
-     * Obtient un token admin pour l'API Keycloak
+     * Obtient un token admin pour l'API Keycloak (mis en cache jusqu'a peu avant son expiration)
      */
     public String getAdminToken() {
         try {
-            // Extraire le realm et la base URL de Keycloak
-            // Format attendu: http://host:port/realms/realm-name
-            String baseUrl = keycloakUrl.replaceAll("/realms/[^/]+$", "");
-
-            String tokenUrl = baseUrl + "/realms/master/protocol/openid-connect/token";
-
-            String body;
-            if (adminClientSecret.isPresent() && !adminClientSecret.get().isEmpty()) {
-                // Client credentials flow
-                body = String.format(
-                    "grant_type=client_credentials&client_id=%s&client_secret=%s",
-                    adminClientId,
-                    adminClientSecret.get()
-                );
-            } else {
-                // Resource owner password grant
-                body = String.format(
-                    "grant_type=password&client_id=%s&username=%s&password=%s",
-                    adminClientId,
-                    adminUsername,
-                    adminPassword
-                );
-            }
-
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(tokenUrl))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                LOG.error("Failed to get admin token: " + response.body());
-                throw new WebApplicationException("Failed to authenticate with Keycloak admin", Response.Status.INTERNAL_SERVER_ERROR);
-            }
-
-            // Parse JSON response to get access_token
-            String responseBody = response.body();
-            int start = responseBody.indexOf("\"access_token\":\"") + 16;
-            int end = responseBody.indexOf("\"", start);
-            return responseBody.substring(start, end);
-
+            return await(client.adminToken());
+        } catch (WebApplicationException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error("Error getting admin token", e);
             throw new WebApplicationException("Keycloak admin authentication failed", Response.Status.INTERNAL_SERVER_ERROR);
@@ -108,44 +64,26 @@ public class KeycloakAdminService {
      */
     public String createUser(RegisterRequestDTO request) {
         try {
-            String adminToken = getAdminToken();
-
-            // Extraire le realm de l'URL
-            String realm = extractRealm(keycloakUrl);
-            String baseUrl = keycloakUrl.replaceAll("/realms/[^/]+$", "");
-            String usersUrl = baseUrl + "/admin/realms/" + realm + "/users";
-
-            String userJson = String.format("""
-                {
-                    "username": "%s",
-                    "email": "%s",
-                    "firstName": "%s",
-                    "lastName": "%s",
-                    "enabled": true,
-                    "emailVerified": true,
-                    "requiredActions": [],
-                    "credentials": [{
-                        "type": "password",
-                        "value": "%s",
-                        "temporary": false
-                    }]
-                }
-                """,
-                request.email(),
-                request.email(),
-                escapeJson(request.firstName()),
-                escapeJson(request.lastName() != null ? request.lastName() : ""),
-                escapeJson(request.password())
-            );
-
-            HttpRequest httpRequest = HttpRequest.newBuilder()
+            String usersUrl = client.baseUrl() + "/admin/realms/" + client.realm() + "/users";
+
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("username", request.email());
+            user.put("email", request.email());
+            user.put("firstName", request.firstName() != null ? request.firstName() : "");
+            user.put("lastName", request.lastName() != null ? request.lastName() : "");
+            user.put("enabled", true);
+            user.put("emailVerified", true);
+            user.put("requiredActions", List.of());
+            user.put("credentials", List.of(passwordCredential(request.password())));
+            String userJson = client.writeJson(user);
+
+            HttpResponse<String> response = await(client.sendAuthorized("create-user", token -> HttpRequest.newBuilder()
                 .uri(URI.create(usersUrl))
+                .timeout(client.requestTimeout())
                 .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + adminToken)
+                .header("Authorization", "Bearer " + token)
                 .POST(HttpRequest.BodyPublishers.ofString(userJson))
-                .build();
-
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+                .build()));
 
             if (response.statusCode() == 201) {
                 // Extract user ID from Location header
@@ -153,11 +91,13 @@ public class KeycloakAdminService {
                 String userId = location.substring(location.lastIndexOf("/") + 1);
                 LOG.info("Created Keycloak user: " + userId);
 
-                // Definir le mot de passe explicitement (parfois les credentials inline ne fonctionnent pas)
-                setUserPassword(adminToken, baseUrl, realm, userId, request.password());
-
-                // Supprimer toutes les required actions de l'utilisateur
-                clearRequiredActions(adminToken, baseUrl, realm, userId);
+                // Mot de passe explicite (parfois les credentials inline ne fonctionnent pas) et suppression des
+                // required actions: independants, envoyes en parallele
+                String userUrl = usersUrl + "/" + userId;
+                CompletableFuture.allOf(
+                    setUserPassword(userUrl, userId, request.password()),
+                    clearRequiredActions(userUrl, userId)
+                ).join();
 
                 return userId;
             } else if (response.statusCode() == 409) {
@@ -185,37 +125,38 @@ public class KeycloakAdminService {
      */
     public TokenResponse getTokensForUser(String email, String password) {
         try {
-            String tokenUrl = keycloakUrl + "/protocol/openid-connect/token";
+            String tokenUrl = client.realmUrl() + "/protocol/openid-connect/token";
 
-            // Essayer d'abord avec le client mobile
-            LOG.infof("Attempting to get tokens with client: %s for user: %s", mobileClientId, email);
+            LOG.debugf("Attempting to get tokens with client: %s for user: %s", mobileClientId, email);
 
             // Utiliser le client mobile pour l'authentification (depuis config)
-            String body = String.format(
-                "grant_type=password&client_id=%s&username=%s&password=%s&scope=openid profile email",
-                mobileClientId,
-                java.net.URLEncoder.encode(email, "UTF-8"),
-                java.net.URLEncoder.encode(password, "UTF-8")
-            );
+            String body = KeycloakAdminClient.form(
+                "grant_type", "password",
+                "client_id", mobileClientId,
+                "username", email,
+                "password", password,
+                "scope", "openid profile email");
 
             HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(tokenUrl))
+                .timeout(client.requestTimeout())
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(body))
                 .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = await(client.send("user-token", request));
 
             if (response.statusCode() != 200) {
                 LOG.errorf("Failed to get user tokens for %s - Status: %d - Response: %s",
                     email, response.statusCode(), response.body());
                 if (response.statusCode() == 401 || response.statusCode() == 400) {
                     // Check if it's an invalid grant (wrong credentials or client not configured)
+                    String error = errorCode(response.body());
                     String errorBody = response.body();
-                    if (errorBody.contains("invalid_grant") || errorBody.contains("Invalid user credentials")) {
+                    if ("invalid_grant".equals(error) || errorBody.contains("Invalid user credentials")) {
                         throw new WebApplicationException("invalid_credentials", Response.Status.UNAUTHORIZED);
                     }
-                    if (errorBody.contains("unauthorized_client") || errorBody.contains("Direct grants are not allowed")) {
+                    if ("unauthorized_client".equals(error) || errorBody.contains("Direct grants are not allowed")) {
                         LOG.error("Client oneeats-mobile is not configured for Direct Access Grants in Keycloak!");
                         throw new WebApplicationException("Client configuration error: Direct Access Grants not enabled", Response.Status.INTERNAL_SERVER_ERROR);
                     }
@@ -237,141 +178,105 @@ public class KeycloakAdminService {
      * Definit le mot de passe d'un utilisateur via l'API Admin
      * Utilise l'endpoint reset-password pour s'assurer que le password est bien defini
      */
-    private void setUserPassword(String adminToken, String baseUrl, String realm, String userId, String password) {
-        try {
-            String resetPasswordUrl = baseUrl + "/admin/realms/" + realm + "/users/" + userId + "/reset-password";
-
-            String credentialJson = String.format("""
-                {
-                    "type": "password",
-                    "value": "%s",
-                    "temporary": false
-                }
-                """, escapeJson(password));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(resetPasswordUrl))
+    private CompletableFuture<Void> setUserPassword(String userUrl, String userId, String password) {
+        String credentialJson = client.writeJson(passwordCredential(password));
+        return client.sendAuthorized("reset-password", token -> HttpRequest.newBuilder()
+                .uri(URI.create(userUrl + "/reset-password"))
+                .timeout(client.requestTimeout())
                 .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + adminToken)
+                .header("Authorization", "Bearer " + token)
                 .PUT(HttpRequest.BodyPublishers.ofString(credentialJson))
-                .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 204) {
-                LOG.info("Password set successfully for user: " + userId);
-            } else {
-                LOG.errorf("Failed to set password for user %s: %d - %s",
-                    userId, response.statusCode(), response.body());
-            }
-        } catch (Exception e) {
-            LOG.error("Error setting password for user: " + userId, e);
-        }
+                .build())
+            .handle((response, error) -> {
+                if (error != null) {
+                    LOG.error("Error setting password for user: " + userId, error);
+                } else if (response.statusCode() == 204) {
+                    LOG.info("Password set successfully for user: " + userId);
+                } else {
+                    LOG.errorf("Failed to set password for user %s: %d - %s",
+                        userId, response.statusCode(), response.body());
+                }
+                return null;
+            });
     }
 
     /**
      * Supprime toutes les required actions d'un utilisateur Keycloak
      * Necessaire car les default actions du realm sont appliquees meme avec requiredActions: []
      */
-    private void clearRequiredActions(String adminToken, String baseUrl, String realm, String userId) {
-        try {
-            String userUrl = baseUrl + "/admin/realms/" + realm + "/users/" + userId;
-
-            // D'abord, recuperer l'etat actuel de l'utilisateur
-            HttpRequest getRequest = HttpRequest.newBuilder()
-                .uri(URI.create(userUrl))
-                .header("Authorization", "Bearer " + adminToken)
-                .GET()
-                .build();
-
-            HttpResponse<String> getResponse = httpClient.send(getRequest, HttpResponse.BodyHandlers.ofString());
-            LOG.infof("User state before update: %s", getResponse.body());
-
-            // Mettre a jour l'utilisateur pour supprimer les required actions
-            String updateJson = """
-                {
-                    "requiredActions": []
-                }
-                """;
-
-            HttpRequest updateRequest = HttpRequest.newBuilder()
+    private CompletableFuture<Void> clearRequiredActions(String userUrl, String userId) {
+        String updateJson = client.writeJson(Map.of("requiredActions", List.of()));
+        return client.sendAuthorized("clear-required-actions", token -> HttpRequest.newBuilder()
                 .uri(URI.create(userUrl))
+                .timeout(client.requestTimeout())
                 .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + adminToken)
+                .header("Authorization", "Bearer " + token)
                 .PUT(HttpRequest.BodyPublishers.ofString(updateJson))
-                .build();
-
-            HttpResponse<String> updateResponse = httpClient.send(updateRequest, HttpResponse.BodyHandlers.ofString());
+                .build())
+            .handle((response, error) -> {
+                // Ne pas echouer l'inscription pour ca
+                if (error != null) {
+                    LOG.warn("Error clearing required actions for user: " + userId, error);
+                } else if (response.statusCode() == 204) {
+                    LOG.info("Cleared required actions for user: " + userId);
+                } else {
+                    LOG.warnf("Failed to clear required actions for user %s: %d - %s",
+                        userId, response.statusCode(), response.body());
+                }
+                return null;
+            });
+    }
 
-            if (updateResponse.statusCode() == 204) {
-                LOG.info("Cleared required actions for user: " + userId);
+    private static Map<String, Object> passwordCredential(String password) {
+        Map<String, Object> credential = new LinkedHashMap<>();
+        credential.put("type", "password");
+        credential.put("value", password != null ? password : "");
+        credential.put("temporary", false);
+        return credential;
+    }
 
-                // Verifier l'etat apres update
-                HttpResponse<String> verifyResponse = httpClient.send(getRequest, HttpResponse.BodyHandlers.ofString());
-                LOG.infof("User state after update: %s", verifyResponse.body());
-            } else {
-                LOG.warnf("Failed to clear required actions for user %s: %d - %s",
-                    userId, updateResponse.statusCode(), updateResponse.body());
+    /**
+     * Attend le resultat d'un appel; Keycloak injoignable, lent ou disjoncteur ouvert donne un 503
+     */
+    private static <T> T await(CompletableFuture<T> call) throws Exception {
+        try {
+            return call.get();
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+                cause = cause.getCause();
             }
-        } catch (Exception e) {
-            LOG.warn("Error clearing required actions for user: " + userId, e);
-            // Ne pas echouer l'inscription pour ca
+            if (cause instanceof KeycloakUnavailableException || cause instanceof TimeoutException
+                || cause instanceof HttpTimeoutException || cause instanceof ConnectException) {
+                LOG.warnf("Keycloak unavailable: %s", cause.getMessage());
+                throw new WebApplicationException("Authentication service unavailable", Response.Status.SERVICE_UNAVAILABLE);
+            }
+            if (cause instanceof KeycloakAdminClient.KeycloakException keycloakError) {
+                throw new WebApplicationException(keycloakError.getMessage(), Response.Status.INTERNAL_SERVER_ERROR);
+            }
+            if (cause instanceof WebApplicationException webError) {
+                throw webError;
+            }
+            throw cause instanceof Exception exception ? exception : e;
         }
     }
 
-    private String extractRealm(String url) {
-        // Format: http://host:port/realms/realm-name
-        int lastSlash = url.lastIndexOf("/");
-        if (lastSlash > 0 && url.contains("/realms/")) {
-            return url.substring(lastSlash + 1);
+    private String errorCode(String body) {
+        try {
+            return client.readJson(body).path("error").asText("");
+        } catch (KeycloakAdminClient.KeycloakException e) {
+            return "";
         }
-        return "oneeats"; // default
-    }
-
-    private String escapeJson(String value) {
-        if (value == null) return "";
-        return value
-            .replace("\\", "\\\\")
-            .replace("\"", "\\\"")
-            .replace("\n", "\\n")
-            .replace("\r", "\\r")
-            .replace("\t", "\\t");
     }
 
     private TokenResponse parseTokenResponse(String json) {
-        // Simple JSON parsing without external library
-        String accessToken = extractJsonValue(json, "access_token");
-        String refreshToken = extractJsonValue(json, "refresh_token");
-        int expiresIn = Integer.parseInt(extractJsonValue(json, "expires_in"));
-        String tokenType = extractJsonValue(json, "token_type");
-
-        return new TokenResponse(accessToken, refreshToken, expiresIn, tokenType);
-    }
-
-    private String extractJsonValue(String json, String key) {
-        String pattern = "\"" + key + "\":";
-        int start = json.indexOf(pattern);
-        if (start == -1) return "";
-
-        start += pattern.length();
-        // Skip whitespace
-        while (start < json.length() && Character.isWhitespace(json.charAt(start))) {
-            start++;
-        }
-
-        if (json.charAt(start) == '"') {
-            // String value
-            start++;
-            int end = json.indexOf("\"", start);
-            return json.substring(start, end);
-        } else {
-            // Numeric value
-            int end = start;
-            while (end < json.length() && (Character.isDigit(json.charAt(end)) || json.charAt(end) == '.')) {
-                end++;
-            }
-            return json.substring(start, end);
-        }
+        JsonNode node = client.readJson(json);
+        return new TokenResponse(
+            node.path("access_token").asText(""),
+            node.path("refresh_token").asText(""),
+            node.path("expires_in").asInt(0),
+            node.path("token_type").asText("")
+        );
     }
 
     /**
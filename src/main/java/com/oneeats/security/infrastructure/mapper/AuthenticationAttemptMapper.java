@@ -11,7 +11,7 @@ public class AuthenticationAttemptMapper {
     public AuthenticationAttempt toDomain(AuthenticationAttemptEntity entity) {
         if (entity == null) return null;
         
-        return new AuthenticationAttempt(
+        AuthenticationAttempt attempt = new AuthenticationAttempt(
             entity.getId(),
             new Email(entity.getEmail()),
             entity.getResult(),
@@ -19,6 +19,9 @@ public class AuthenticationAttemptMapper {
             entity.getUserAgent(),
             entity.getFailureReason()
         );
+        attempt.setCreatedAt(entity.getCreatedAt());
+        attempt.setUpdatedAt(entity.getUpdatedAt());
+        return attempt;
     }
 
     public AuthenticationAttemptEntity toEntity(AuthenticationAttempt domain) {
@@ -65,6 +65,13 @@ public class JpaAuthenticationAttemptRepository implements IAuthenticationAttemp
         return mapper.toDomain(entity);
     }
 
+    @Override
+    public void saveAll(List<AuthenticationAttempt> attempts) {
+        // Un seul flush pour le lot
+        AuthenticationAttemptEntity.persist(attempts.stream().map(mapper::toEntity));
+        AuthenticationAttemptEntity.flush();
+    }
+
     @Override
     public void delete(AuthenticationAttempt attempt) {
         AuthenticationAttemptEntity.deleteById(attempt.getId());
@@ -87,4 +94,15 @@ public class JpaAuthenticationAttemptRepository implements IAuthenticationAttemp
             ipAddress, AuthAttemptResult.FAILED, oneHourAgo
         );
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<AuthenticationAttempt> findFailedSince(LocalDateTime since, int limit) {
+        return AuthenticationAttemptEntity.<AuthenticationAttemptEntity>find(
+                "result = ?1 and createdAt >= ?2 order by createdAt desc",
+                AuthAttemptResult.FAILED, since)
+            .page(0, limit)
+            .list().stream()
+            .map(mapper::toDomain)
+            .collect(Collectors.toList());
+    }
+}
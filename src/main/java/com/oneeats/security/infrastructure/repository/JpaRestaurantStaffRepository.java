@@ -1,8 +1,10 @@
 package com.oneeats.security.infrastructure.repository;
 
+import com.oneeats.security.infrastructure.cache.PrincipalCache;
 import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +17,9 @@ import java.util.UUID;
 @ApplicationScoped
 public class JpaRestaurantStaffRepository implements PanacheRepositoryBase<RestaurantStaffEntity, UUID> {
 
+    @Inject
+    PrincipalCache principalCache;
+
     /**
      * Trouve tous les restaurants geres par un utilisateur
      */
@@ -55,6 +60,7 @@ public class JpaRestaurantStaffRepository implements PanacheRepositoryBase<Resta
      * Supprime toutes les affiliations d'un utilisateur
      */
     public long deleteByUserId(UUID userId) {
+        principalCache.invalidateUser(userId);
         return delete("userId", userId);
     }
 
@@ -62,6 +68,7 @@ public class JpaRestaurantStaffRepository implements PanacheRepositoryBase<Resta
      * Supprime toutes les affiliations d'un restaurant
      */
     public long deleteByRestaurantId(UUID restaurantId) {
+        principalCache.invalidateRestaurant(restaurantId);
         return delete("restaurantId", restaurantId);
     }
 }
@@ -0,0 +1,171 @@
+package com.oneeats.security.infrastructure.throttle;
+
+import com.oneeats.security.domain.model.AuthenticationAttempt;
+import com.oneeats.security.domain.repository.IAuthenticationAttemptRepository;
+import com.oneeats.security.domain.service.IAuthenticationAttemptTracker;
+import com.oneeats.shared.domain.vo.Email;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Compteurs d'echecs de connexion en memoire, par email et par adresse IP, sur une fenetre glissante.
+ *
+ * La decision de limitation ne lit plus la table {@code authentication_attempts}: elle consulte
+ * {@link SlidingWindowCounter}. Les tentatives sont ecrites en differe, par lots, pour l'audit;
+ * sous attaque, la file bornee deborde (tentatives non journalisees, comptees) au lieu de saturer la base.
+ * Au demarrage, les echecs de la derniere fenetre sont relus pour qu'un redemarrage ne remette pas
+ * les compteurs a zero.
+ */
+@ApplicationScoped
+public class InMemoryAuthenticationAttemptTracker implements IAuthenticationAttemptTracker {
+
+    private static final Logger LOG = Logger.getLogger(InMemoryAuthenticationAttemptTracker.class);
+
+    @Inject
+    IAuthenticationAttemptRepository attemptRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.security.login-throttle.window", defaultValue = "1h")
+    Duration window;
+
+    @ConfigProperty(name = "oneeats.security.login-throttle.buckets", defaultValue = "60")
+    int buckets;
+
+    @ConfigProperty(name = "oneeats.security.login-throttle.max-keys", defaultValue = "200000")
+    int maxKeys;
+
+    @ConfigProperty(name = "oneeats.security.login-throttle.audit.queue-capacity", defaultValue = "50000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "oneeats.security.login-throttle.audit.batch-size", defaultValue = "500")
+    int batchSize;
+
+    private SlidingWindowCounter emailFailures;
+    private SlidingWindowCounter ipFailures;
+    private BlockingQueue<AuthenticationAttempt> pending;
+
+    private Counter dropped;
+
+    public InMemoryAuthenticationAttemptTracker() {
+    }
+
+    public InMemoryAuthenticationAttemptTracker(IAuthenticationAttemptRepository attemptRepository, Duration window,
+                                                int buckets, int maxKeys, int queueCapacity, int batchSize,
+                                                MeterRegistry meterRegistry) {
+        this.attemptRepository = attemptRepository;
+        this.window = window;
+        this.buckets = buckets;
+        this.maxKeys = maxKeys;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        emailFailures = new SlidingWindowCounter(window, buckets, maxKeys);
+        ipFailures = new SlidingWindowCounter(window, buckets, maxKeys);
+        pending = new ArrayBlockingQueue<>(queueCapacity);
+        dropped = meterRegistry.counter("oneeats.security.login-attempts.audit.dropped");
+        meterRegistry.gauge("oneeats.security.login-attempts.evicted-keys", this,
+            tracker -> tracker.emailFailures.evictions() + tracker.ipFailures.evictions());
+        meterRegistry.gauge("oneeats.security.login-attempts.untracked", this,
+            tracker -> tracker.emailFailures.untracked() + tracker.ipFailures.untracked());
+        meterRegistry.gauge("oneeats.security.login-attempts.audit.pending", pending, BlockingQueue::size);
+        meterRegistry.gauge("oneeats.security.login-attempts.tracked-keys", this,
+            tracker -> tracker.emailFailures.size() + tracker.ipFailures.size());
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(window);
+            List<AuthenticationAttempt> failures = QuarkusTransaction.requiringNew()
+                .call(() -> attemptRepository.findFailedSince(since, maxKeys));
+            ZoneId zone = ZoneId.systemDefault();
+            for (AuthenticationAttempt attempt : failures) {
+                long at = attempt.getCreatedAt().atZone(zone).toInstant().toEpochMilli();
+                countFailure(attempt, at);
+            }
+            LOG.infof("Login throttle restored %d recent failed attempts", failures.size());
+        } catch (Exception e) {
+            LOG.warnf("Failed to restore recent login failures: %s", e.getMessage());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    @Override
+    public void record(AuthenticationAttempt attempt) {
+        if (!attempt.isSuccessful()) {
+            countFailure(attempt, System.currentTimeMillis());
+        }
+        if (!pending.offer(attempt)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public long countRecentFailuresByEmail(Email email) {
+        return emailFailures.count(email.getValue(), System.currentTimeMillis());
+    }
+
+    @Override
+    public long countRecentFailuresByIp(String ipAddress) {
+        return ipAddress == null ? 0 : ipFailures.count(ipAddress, System.currentTimeMillis());
+    }
+
+    private void countFailure(AuthenticationAttempt attempt, long atMillis) {
+        emailFailures.increment(attempt.getEmail().getValue(), atMillis);
+        if (attempt.getIpAddress() != null) {
+            ipFailures.increment(attempt.getIpAddress(), atMillis);
+        }
+    }
+
+    /**
+     * Ecrit les tentatives en attente, par lots d'une transaction chacun
+     */
+    @Scheduled(every = "${oneeats.security.login-throttle.audit.flush-every:2s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        List<AuthenticationAttempt> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> attemptRepository.saveAll(batch));
+            } catch (Exception e) {
+                // Journal d'audit seulement: le lot est abandonne plutot que de bloquer les suivants
+                LOG.errorf("Failed to persist %d authentication attempts: %s", batch.size(), e.getMessage());
+                dropped.increment(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    @Scheduled(every = "${oneeats.security.login-throttle.evict-every:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        emailFailures.evictIdle(now);
+        ipFailures.evictIdle(now);
+    }
+}
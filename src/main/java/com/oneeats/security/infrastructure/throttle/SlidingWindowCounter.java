@@ -0,0 +1,184 @@
+package com.oneeats.security.infrastructure.throttle;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'evenements par cle sur une fenetre glissante.
+ *
+ * La fenetre est decoupee en {@code buckets} tranches; chaque tranche tient dans un long
+ * (numero de tranche sur 40 bits, compte sur 24 bits) et est mise a jour par CAS: une tranche
+ * perimee est recyclee par l'increment qui la rencontre, sans remise a zero separee.
+ *
+ * Les cles sont reparties sur des partitions ({@code stripes}), chacune bornee a {@code maxKeys / stripes} cles,
+ * sans verrou global: lecture et increment ne verrouillent au plus qu'une case de la table de leur partition.
+ * Partition pleine: seules ses cles sans evenement dans la fenetre sont retirees; une cle qui a encore des
+ * evenements n'est jamais evincee (sinon une rafale de cles nouvelles remettrait a zero le compteur vise).
+ * Si la partition reste pleine, la nouvelle cle n'est pas suivie ({@link #untracked()}).
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int MAX_STRIPES = 64;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int keysPerStripe;
+    private final Stripe[] stripes;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public SlidingWindowCounter(Duration window, int buckets, int maxKeys) {
+        this(window, buckets, maxKeys, Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, maxKeys / 1_000))));
+    }
+
+    /**
+     * @param stripes nombre de partitions, puissance de deux
+     */
+    public SlidingWindowCounter(Duration window, int buckets, int maxKeys, int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+        }
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.keysPerStripe = Math.max(1, maxKeys / stripes);
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Ajoute un evenement pour la cle.
+     *
+     * @return le nombre d'evenements de la cle sur la fenetre, celui-ci compris; 0 si la cle n'a pas pu etre
+     * suivie (partition pleine de cles actives)
+     */
+    public long increment(String key, long nowMillis) {
+        long bucket = nowMillis / bucketMillis;
+        Stripe stripe = stripeOf(key);
+        AtomicLongArray slots = stripe.windows.get(key);
+        if (slots == null) {
+            if (stripe.windows.size() >= keysPerStripe) {
+                sweep(stripe, bucket);
+                if (stripe.windows.size() >= keysPerStripe) {
+                    untracked.increment();
+                    return 0;
+                }
+            }
+            slots = stripe.windows.computeIfAbsent(key, k -> new AtomicLongArray(buckets));
+        }
+        int index = (int) (bucket % buckets);
+        while (true) {
+            long slot = slots.get(index);
+            long next;
+            if (slot >>> COUNT_BITS == bucket) {
+                if ((slot & COUNT_MASK) == COUNT_MASK) {
+                    break;
+                }
+                next = slot + 1;
+            } else if (slot >>> COUNT_BITS < bucket) {
+                // Tranche d'une fenetre precedente: recyclee
+                next = (bucket << COUNT_BITS) | 1;
+            } else {
+                // Horloge d'un autre thread en avance sur la notre: tranche deja recyclee
+                break;
+            }
+            if (slots.compareAndSet(index, slot, next)) {
+                break;
+            }
+        }
+        return sum(slots, bucket);
+    }
+
+    /**
+     * Nombre d'evenements de la cle sur la fenetre
+     */
+    public long count(String key, long nowMillis) {
+        AtomicLongArray slots = stripeOf(key).windows.get(key);
+        return slots == null ? 0 : sum(slots, nowMillis / bucketMillis);
+    }
+
+    /**
+     * Retire les cles sans evenement dans la fenetre, partition par partition (un increment simultane sur une cle
+     * retiree peut etre perdu: la cle etait inactive depuis toute une fenetre)
+     *
+     * @return nombre de cles retirees
+     */
+    public int evictIdle(long nowMillis) {
+        long bucket = nowMillis / bucketMillis;
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += removeIdle(stripe, bucket);
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.windows.size();
+        }
+        return size;
+    }
+
+    /**
+     * Cles inactives retirees d'une partition pleine depuis la creation
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Evenements non comptes depuis la creation: cle nouvelle dans une partition pleine de cles actives
+     */
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    private Stripe stripeOf(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Nettoyage d'une partition pleine: un seul thread a la fois, les autres n'attendent pas
+     */
+    private void sweep(Stripe stripe, long bucket) {
+        if (stripe.sweeping.compareAndSet(false, true)) {
+            try {
+                evictions.add(removeIdle(stripe, bucket));
+            } finally {
+                stripe.sweeping.set(false);
+            }
+        }
+    }
+
+    private int removeIdle(Stripe stripe, long bucket) {
+        int before = stripe.windows.size();
+        stripe.windows.values().removeIf(slots -> sum(slots, bucket) == 0);
+        return Math.max(0, before - stripe.windows.size());
+    }
+
+    private long sum(AtomicLongArray slots, long currentBucket) {
+        long oldest = currentBucket - buckets + 1;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            long slotBucket = slot >>> COUNT_BITS;
+            if (slotBucket >= oldest && slotBucket <= currentBucket) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLongArray> windows = new ConcurrentHashMap<>();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+    }
+}
@@ -1,20 +1,81 @@
 package com.oneeats.shared.domain.event;
 
+import com.oneeats.shared.infrastructure.event.DomainEventDispatcher;
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Publication des evenements domaine.
+ *
+ * Mode {@code after-commit} (par defaut): les evenements publies dans une transaction sont mis en attente
+ * et livres uniquement apres un commit reussi, sur l'executor borne de {@link DomainEventDispatcher}.
+ * Un rollback les abandonne. Hors transaction, ils sont livres immediatement de facon asynchrone.
+ * Dans une transaction qui n'est plus active (marquee pour rollback, en cours de terminaison), ils sont abandonnes.
+ *
+ * Mode {@code sync}: livraison immediate sur le thread appelant (comportement historique).
+ */
 @ApplicationScoped
 public class DomainEventPublisher {
 
+    private static final Logger LOGGER = Logger.getLogger(DomainEventPublisher.class.getName());
+
+    private static final String PENDING_EVENTS_KEY = DomainEventPublisher.class.getName() + ".pending";
+
     @Inject
-    Event<IDomainEvent> eventBus;
+    DomainEventDispatcher dispatcher;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "oneeats.events.dispatch-mode", defaultValue = "after-commit")
+    String dispatchMode;
 
     public void publish(IDomainEvent event) {
-        eventBus.fire(event);
+        if ("sync".equals(dispatchMode)) {
+            dispatcher.dispatchNow(event);
+            return;
+        }
+
+        long publishedAt = System.nanoTime();
+        int status = transactionRegistry.getTransactionStatus();
+        if (status == Status.STATUS_NO_TRANSACTION) {
+            dispatcher.dispatchAsync(event, publishedAt);
+            return;
+        }
+        if (status != Status.STATUS_ACTIVE) {
+            LOGGER.warning("Transaction not active (status " + status + "), domain event "
+                + event.getClass().getSimpleName() + " discarded");
+            return;
+        }
+        pendingEvents().add(new PendingEvent(event, publishedAt));
     }
     
     public void publishEvent(IDomainEvent event) {
         publish(event);
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private List<PendingEvent> pendingEvents() {
+        List<PendingEvent> pending = (List<PendingEvent>) transactionRegistry.getResource(PENDING_EVENTS_KEY);
+        if (pending == null) {
+            List<PendingEvent> events = new ArrayList<>();
+            transactionRegistry.putResource(PENDING_EVENTS_KEY, events);
+            AfterCommit.onCompletion(transactionRegistry,
+                () -> events.forEach(e -> dispatcher.dispatchAsync(e.event(), e.publishedAtNanos())),
+                () -> LOGGER.info("Transaction not committed, " + events.size() + " domain event(s) discarded"));
+            pending = events;
+        }
+        return pending;
+    }
+
+    private record PendingEvent(IDomainEvent event, long publishedAtNanos) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.oneeats.shared.infrastructure.backfill;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reprise de donnees deja appliquee (schema genere par Hibernate, pas d'outil de migration).
+ * {@code applied_at} sert de date de deploiement: seules les lignes anterieures sont reprises.
+ */
+@Entity
+@Table(name = "data_backfills")
+public class DataBackfillEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public DataBackfillEntity() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
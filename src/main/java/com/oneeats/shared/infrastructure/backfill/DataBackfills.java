@@ -0,0 +1,48 @@
+package com.oneeats.shared.infrastructure.backfill;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reprises de donnees executees une seule fois, au demarrage du premier noeud deploye.
+ *
+ * La reprise est enregistree ({@code ON CONFLICT DO NOTHING}) et executee dans la meme transaction: un autre
+ * noeud demarrant en meme temps attend le commit puis l'ignore; un echec annule les deux.
+ */
+@ApplicationScoped
+public class DataBackfills {
+
+    private static final Logger LOG = Logger.getLogger(DataBackfills.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Execute {@code backfill} si elle n'a jamais ete appliquee
+     *
+     * @param backfill recoit la date de deploiement, renvoie le nombre de lignes reprises
+     * @return true si la reprise a ete executee par cet appel
+     */
+    public boolean runOnce(String name, ToIntFunction<LocalDateTime> backfill) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime deployedAt = LocalDateTime.now();
+            int inserted = entityManager.createNativeQuery(
+                    "INSERT INTO data_backfills (name, applied_at) VALUES (?1, ?2) ON CONFLICT (name) DO NOTHING")
+                .setParameter(1, name)
+                .setParameter(2, deployedAt)
+                .executeUpdate();
+            if (inserted == 0) {
+                return false;
+            }
+            int rows = backfill.applyAsInt(deployedAt);
+            LOG.infof("Data backfill %s applied: %d row(s)", name, rows);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.oneeats.shared.infrastructure.event;
+
+import com.oneeats.shared.domain.event.IDomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.NotificationOptions;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Livraison asynchrone des evenements domaine sur un executor borne et instrumente.
+ *
+ * Les observateurs ({@code @ObservesAsync}) sont notifies via {@link Event#fireAsync}:
+ * l'echec d'un gestionnaire n'empeche pas les autres d'etre notifies.
+ * File pleine: l'evenement est refuse ({@code oneeats.events.rejected}) plutot que livre sur le thread appelant,
+ * qui peut etre celui de la fin de transaction ({@code afterCompletion}).
+ * Metriques: delai publication → livraison, duree de livraison, echecs et refus par type d'evenement,
+ * plus les metriques de l'executor ({@code executor.*{name=domain-events}}).
+ */
+@ApplicationScoped
+public class DomainEventDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(DomainEventDispatcher.class.getName());
+
+    @Inject
+    Event<IDomainEvent> eventBus;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.events.executor.threads", defaultValue = "4")
+    int threads;
+
+    @ConfigProperty(name = "oneeats.events.executor.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    private ThreadPoolExecutor threadPool;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        // File bornee: si elle est pleine, la tache est refusee (voir dispatchAsync)
+        threadPool = new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "domain-events-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        threadPool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "domain-events");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        threadPool.shutdown();
+        try {
+            if (!threadPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warning("Domain event executor did not drain in time, " + threadPool.getQueue().size() + " event(s) pending");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Planifie la livraison de l'evenement sur l'executor borne.
+     *
+     * @param publishedAtNanos instant ({@link System#nanoTime()}) de publication, pour mesurer le retard
+     */
+    public void dispatchAsync(IDomainEvent event, long publishedAtNanos) {
+        try {
+            executor.execute(() -> deliver(event, publishedAtNanos));
+        } catch (RejectedExecutionException e) {
+            String eventType = event.getClass().getSimpleName();
+            meterRegistry.counter("oneeats.events.rejected", "event", eventType).increment();
+            LOGGER.warning("Domain event executor saturated, " + eventType + " rejected");
+        }
+    }
+
+    /**
+     * Livre l'evenement immediatement sur le thread appelant (mode synchrone, relais de l'outbox).
+     *
+     * @return true si tous les gestionnaires ont reussi
+     */
+    public boolean dispatchNow(IDomainEvent event) {
+        return deliver(event, System.nanoTime());
+    }
+
+    private boolean deliver(IDomainEvent event, long publishedAtNanos) {
+        String eventType = event.getClass().getSimpleName();
+        meterRegistry.timer("oneeats.events.lag", "event", eventType)
+            .record(System.nanoTime() - publishedAtNanos, TimeUnit.NANOSECONDS);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Observateurs notifies sur le thread courant (deja celui de l'executor en mode asynchrone)
+            eventBus.fireAsync(event, NotificationOptions.ofExecutor(Runnable::run))
+                .toCompletableFuture()
+                .join();
+            return true;
+        } catch (CompletionException e) {
+            // Chaque gestionnaire en echec est rapporte comme exception supprimee (spec CDI, fireAsync)
+            Throwable[] handlerFailures = e.getSuppressed().length > 0 ? e.getSuppressed() : new Throwable[]{e.getCause()};
+            meterRegistry.counter("oneeats.events.failures", "event", eventType).increment(handlerFailures.length);
+            LOGGER.severe("❌ " + handlerFailures.length + " handler(s) failed for " + eventType);
+            for (Throwable failure : handlerFailures) {
+                LOGGER.severe("   ↳ " + failure);
+            }
+            return false;
+        } finally {
+            sample.stop(meterRegistry.timer("oneeats.events.delivery", "event", eventType));
+        }
+    }
+}
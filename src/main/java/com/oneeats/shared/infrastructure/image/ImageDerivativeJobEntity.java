@@ -0,0 +1,104 @@
+package com.oneeats.shared.infrastructure.image;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Travail persistant de generation des tailles (large, medium, small) d'une image televersee.
+ * Supprime une fois les tailles ecrites; les travaux en echec sont conserves pour diagnostic.
+ */
+@Entity
+@Table(name = "image_derivative_jobs", indexes = {
+    @Index(name = "idx_image_derivative_jobs_pending", columnList = "status, available_at")
+})
+public class ImageDerivativeJobEntity extends PanacheEntityBase {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "base_name", nullable = false, length = 100)
+    private String baseName;
+
+    @Column(name = "extension", nullable = false, length = 10)
+    private String extension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ImageDerivativeJobStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Prochaine prise en charge possible: reportee pendant le bail d'un worker et entre deux tentatives
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public ImageDerivativeJobEntity() {}
+
+    public ImageDerivativeJobEntity(String category, String baseName, String extension) {
+        this.id = UUID.randomUUID();
+        this.category = category;
+        this.baseName = baseName;
+        this.extension = extension;
+        this.status = ImageDerivativeJobStatus.PENDING;
+        this.attempts = 0;
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getBaseName() {
+        return baseName;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ImageDerivativeJobStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,9 @@
+package com.oneeats.shared.infrastructure.image;
+
+/**
+ * Etat d'un travail de generation des tailles d'une image.
+ */
+public enum ImageDerivativeJobStatus {
+    PENDING,    // En attente ou en cours (bail d'un worker)
+    FAILED      // Abandonne: source illisible ou nombre maximal de tentatives atteint
+}
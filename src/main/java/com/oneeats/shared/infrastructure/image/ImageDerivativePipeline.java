@@ -0,0 +1,240 @@
+package com.oneeats.shared.infrastructure.image;
+
+import com.oneeats.shared.infrastructure.service.FileStorageService;
+import com.oneeats.shared.infrastructure.service.ImageHotCache;
+import com.oneeats.shared.infrastructure.service.ImageResizingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generation en arriere-plan des tailles d'une image televersee.
+ *
+ * - Le televersement ecrit la source et un travail persistant ({@code image_derivative_jobs}) puis repond
+ *   immediatement; {@code /uploads} sert la meilleure version disponible en attendant.
+ * - Les workers (pool borne) reservent les travaux avec {@code FOR UPDATE SKIP LOCKED} et un bail:
+ *   un noeud arrete laisse ses travaux repris par un autre.
+ * - La source est decodee une seule fois depuis le disque; les tailles sont derivees en cascade
+ *   (large → medium → small) et encodees directement dans leurs fichiers, de facon atomique.
+ */
+@ApplicationScoped
+public class ImageDerivativePipeline {
+
+    private static final Logger LOG = Logger.getLogger(ImageDerivativePipeline.class);
+
+    /** En-tete des reponses de televersement: les tailles sont en cours de generation. */
+    public static final String STATUS_HEADER = "X-Image-Derivatives";
+    public static final String STATUS_PENDING = "pending";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ImageResizingService imageResizingService;
+
+    @Inject
+    ImageHotCache imageHotCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.images.derivatives.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.images.derivatives.workers", defaultValue = "2")
+    int workers;
+
+    @ConfigProperty(name = "oneeats.images.derivatives.lease", defaultValue = "2m")
+    Duration lease;
+
+    @ConfigProperty(name = "oneeats.images.derivatives.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "oneeats.images.derivatives.retry-delay", defaultValue = "10s")
+    Duration retryDelay;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ThreadPoolExecutor threadPool;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        // La reservation ne depasse jamais le nombre de workers libres: la file reste courte
+        threadPool = new ThreadPoolExecutor(
+            workers, workers, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-derivatives-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        threadPool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "image-derivatives");
+        meterRegistry.gauge("oneeats.images.derivatives.in-flight", inFlight);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Les travaux interrompus seront repris a l'expiration de leur bail
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * Enregistre la generation des tailles d'une image, dans la transaction du televersement.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(String category, String baseName, String extension) {
+        new ImageDerivativeJobEntity(category, baseName, extension).persist();
+        meterRegistry.counter("oneeats.images.derivatives.enqueued").increment();
+    }
+
+    @Scheduled(every = "${oneeats.images.derivatives.poll-every:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        int free = workers - inFlight.get();
+        if (!enabled || free <= 0) {
+            return;
+        }
+        try {
+            List<ImageDerivativeJobEntity> jobs = QuarkusTransaction.requiringNew().call(() -> claim(free));
+            for (ImageDerivativeJobEntity job : jobs) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            LOG.errorf("Image derivative polling failed: %s", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ImageDerivativeJobEntity> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageDerivativeJobEntity> jobs = entityManager.createNativeQuery(
+                "SELECT * FROM image_derivative_jobs WHERE status = 'PENDING' AND available_at <= ?1 " +
+                "ORDER BY created_at LIMIT ?2 FOR UPDATE SKIP LOCKED", ImageDerivativeJobEntity.class)
+            .setParameter(1, now)
+            .setParameter(2, limit)
+            .getResultList();
+        LocalDateTime leaseExpiry = now.plus(lease);
+        for (ImageDerivativeJobEntity job : jobs) {
+            job.setAttempts(job.getAttempts() + 1);
+            job.setAvailableAt(leaseExpiry);
+        }
+        return jobs;
+    }
+
+    private void run(ImageDerivativeJobEntity job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            generate(job.getCategory(), job.getBaseName(), job.getExtension());
+            QuarkusTransaction.requiringNew().run(() -> ImageDerivativeJobEntity.deleteById(job.getId()));
+            meterRegistry.counter("oneeats.images.derivatives.completed").increment();
+            LOG.infof("Generated derivatives for %s/%s", job.getCategory(), job.getBaseName());
+        } catch (NoSuchFileException e) {
+            // Image supprimee avant le traitement: rien a generer
+            QuarkusTransaction.requiringNew().run(() -> fail(job, "Source deleted"));
+        } catch (Exception e) {
+            LOG.warnf("Derivative generation failed for %s/%s (attempt %d): %s",
+                job.getCategory(), job.getBaseName(), job.getAttempts(), e.getMessage());
+            QuarkusTransaction.requiringNew().run(() -> retryOrFail(job, String.valueOf(e.getMessage())));
+        } finally {
+            sample.stop(meterRegistry.timer("oneeats.images.derivatives.duration"));
+        }
+    }
+
+    /**
+     * Decode la source une fois, derive les trois tailles en cascade puis supprime la source.
+     */
+    void generate(String category, String baseName, String extension) throws IOException {
+        String filename = baseName + "." + extension;
+        Path source = FileStorageService.sourcePath(category, filename);
+        // ImageIO signale un fichier absent par une IIOException generique: verifie avant le decodage
+        if (!Files.exists(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+
+        // Lecture depuis le fichier, sous-echantillonnee si la source depasse largement la plus grande taille
+        BufferedImage decoded = imageResizingService.decode(source, ImageResizingService.LARGE_SIZE, ImageResizingService.LARGE_SIZE);
+        BufferedImage large = imageResizingService.scaleToFit(decoded, ImageResizingService.LARGE_SIZE, ImageResizingService.LARGE_SIZE);
+        BufferedImage medium = imageResizingService.scaleToFit(large, ImageResizingService.MEDIUM_SIZE, ImageResizingService.MEDIUM_SIZE);
+        BufferedImage small = imageResizingService.scaleToFit(medium, ImageResizingService.THUMBNAIL_SIZE, ImageResizingService.THUMBNAIL_SIZE);
+
+        writeAtomically(FileStorageService.thumbnailPath(category, baseName, FileStorageService.SUFFIX_SMALL, extension), small, extension);
+        writeAtomically(FileStorageService.thumbnailPath(category, baseName, FileStorageService.SUFFIX_MEDIUM, extension), medium, extension);
+        writeAtomically(FileStorageService.mainPath(category, filename), large, extension);
+
+        Files.deleteIfExists(source);
+        imageHotCache.evict(source);
+    }
+
+    /**
+     * Encode directement dans un fichier temporaire puis le renomme: /uploads ne sert jamais un fichier partiel.
+     */
+    private void writeAtomically(Path target, BufferedImage image, String extension) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling("." + target.getFileName() + ".tmp");
+        try {
+            imageResizingService.encode(image, extension, temporary);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void retryOrFail(ImageDerivativeJobEntity job, String error) {
+        if (job.getAttempts() >= maxAttempts) {
+            fail(job, error);
+            return;
+        }
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(job.getAttempts() - 1, 10));
+        ImageDerivativeJobEntity.update("availableAt = ?1, lastError = ?2 where id = ?3",
+            LocalDateTime.now().plus(delay), truncate(error), job.getId());
+        meterRegistry.counter("oneeats.images.derivatives.retried").increment();
+    }
+
+    private void fail(ImageDerivativeJobEntity job, String error) {
+        ImageDerivativeJobEntity.update("status = ?1, lastError = ?2 where id = ?3",
+            ImageDerivativeJobStatus.FAILED, truncate(error), job.getId());
+        meterRegistry.counter("oneeats.images.derivatives.failed").increment();
+        LOG.errorf("Derivative generation abandoned for %s/%s: %s", job.getCategory(), job.getBaseName(), error);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
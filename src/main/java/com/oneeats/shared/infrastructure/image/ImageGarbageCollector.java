@@ -0,0 +1,346 @@
+package com.oneeats.shared.infrastructure.image;
+
+import com.oneeats.shared.infrastructure.service.FileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Ramasse-miettes des images televersees.
+ *
+ * - Les images dont le compteur de references est a zero depuis le delai de grace sont supprimees par lots,
+ *   apres verification qu'aucun restaurant ni plat ne pointe encore vers elles (verrou de ligne partage avec
+ *   le televersement: une image reutilisee pendant le balayage n'est jamais supprimee).
+ * - Les compteurs sont recalcules periodiquement depuis {@code image_url}: une suppression qui n'a pas rendu sa
+ *   reference (cascade, suppression directe en base) ne retient pas l'image indefiniment.
+ * - Les fichiers presents sur disque sans ligne {@code stored_images} (images anterieures, televersement annule,
+ *   miniatures restees seules) sont adoptes s'ils sont references, supprimes sinon; le parcours reprend ou le
+ *   precedent s'est arrete.
+ * - L'occupation disque par categorie est exportee ({@code oneeats.images.disk.*}).
+ */
+@ApplicationScoped
+public class ImageGarbageCollector {
+
+    private static final Logger LOG = Logger.getLogger(ImageGarbageCollector.class);
+
+    private static final String REFERENCES =
+        "(SELECT COUNT(*) FROM restaurant r WHERE r.image_url = %1$s) + (SELECT COUNT(*) FROM menu_item m WHERE m.image_url = %1$s)";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    FileStorageService fileStorageService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.images.gc.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.images.gc.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "oneeats.images.gc.max-batches", defaultValue = "10")
+    int maxBatches;
+
+    @ConfigProperty(name = "oneeats.images.gc.grace-period", defaultValue = "1h")
+    Duration gracePeriod;
+
+    private final Map<String, AtomicLong> diskBytes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> diskFiles = new ConcurrentHashMap<>();
+    private final Map<String, String> orphanCursors = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String category : FileStorageService.CATEGORIES) {
+            diskBytes.put(category, meterRegistry.gauge("oneeats.images.disk.bytes", Tags.of("category", category), new AtomicLong()));
+            diskFiles.put(category, meterRegistry.gauge("oneeats.images.disk.files", Tags.of("category", category), new AtomicLong()));
+        }
+    }
+
+    @Scheduled(every = "${oneeats.images.gc.every:10m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void collect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = sweepUnreferenced();
+            for (String category : FileStorageService.CATEGORIES) {
+                deleted += sweepOrphanFiles(category);
+            }
+            if (deleted > 0) {
+                LOG.infof("Image GC deleted %d unreferenced images", deleted);
+            }
+        } catch (Exception e) {
+            LOG.errorf("Image garbage collection failed: %s", e.getMessage());
+        } finally {
+            measureDiskUsage();
+        }
+    }
+
+    /**
+     * Recalcule les compteurs stables (hors delai de grace) qui ne correspondent plus aux image_url.
+     */
+    @Scheduled(every = "${oneeats.images.gc.reconcile-every:6h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String references = REFERENCES.formatted("s.url");
+            int corrected = QuarkusTransaction.requiringNew().call(() -> entityManager.createNativeQuery(
+                    "UPDATE stored_images s SET ref_count = " + references + ", updated_at = ?2 " +
+                    "WHERE s.updated_at < ?1 AND s.ref_count <> " + references)
+                .setParameter(1, now.minus(gracePeriod))
+                .setParameter(2, now)
+                .executeUpdate());
+            if (corrected > 0) {
+                LOG.infof("Image GC corrected %d reference counts", corrected);
+            }
+        } catch (Exception e) {
+            LOG.errorf("Image reference reconciliation failed: %s", e.getMessage());
+        }
+    }
+
+    private int sweepUnreferenced() {
+        int deleted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int[] result = QuarkusTransaction.requiringNew().call(this::sweepBatch);
+            deleted += result[1];
+            if (result[0] < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return {lignes examinees, images supprimees}
+     */
+    @SuppressWarnings("unchecked")
+    private int[] sweepBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StoredImageEntity> candidates = entityManager.createNativeQuery(
+                "SELECT * FROM stored_images WHERE ref_count = 0 AND updated_at < ?1 " +
+                "ORDER BY updated_at LIMIT ?2 FOR UPDATE SKIP LOCKED", StoredImageEntity.class)
+            .setParameter(1, now.minus(gracePeriod))
+            .setParameter(2, batchSize)
+            .getResultList();
+
+        int deleted = 0;
+        for (StoredImageEntity image : candidates) {
+            long references = countReferences(image.getUrl());
+            if (references > 0) {
+                // Compteur en retard sur image_url: corrige, l'image est conservee
+                image.setRefCount((int) references);
+                image.setUpdatedAt(now);
+                continue;
+            }
+            deleteImage(image.getUrl(), image.getCategory(), image.getBaseName());
+            image.delete();
+            deleted++;
+        }
+        return new int[]{candidates.size(), deleted};
+    }
+
+    /**
+     * Parcourt un lot de fichiers de la categorie (images principales, sources et miniatures) sans ligne stored_images.
+     * Une miniature est rattachee au nom de son image principale.
+     */
+    private int sweepOrphanFiles(String category) throws IOException {
+        Path directory = FileStorageService.categoryPath(category);
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        NavigableSet<String> filenames = new TreeSet<>();
+        collectFilenames(directory, filenames);
+        collectFilenames(FileStorageService.sourceDirectory(category), filenames);
+        collectThumbnailFilenames(category, filenames);
+
+        // Reprise apres le dernier fichier examine; retour au debut une fois la categorie parcourue
+        String cursor = orphanCursors.get(category);
+        NavigableSet<String> remaining = cursor == null ? filenames : filenames.tailSet(cursor, false);
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String filename : remaining) {
+            if (batch.size() == batchSize) {
+                break;
+            }
+            batch.add(filename);
+        }
+        if (batch.size() < batchSize) {
+            orphanCursors.remove(category);
+        } else {
+            orphanCursors.put(category, batch.get(batch.size() - 1));
+        }
+
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        List<String> candidates = new ArrayList<>();
+        for (String filename : batch) {
+            // Fichier recent: televersement peut-etre en cours de validation
+            if (!modifiedBefore(FileStorageService.mainPath(category, filename), cutoff)
+                || !modifiedBefore(FileStorageService.sourcePath(category, filename), cutoff)
+                || !thumbnailsModifiedBefore(category, filename, cutoff)) {
+                continue;
+            }
+            candidates.add(filename);
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        return QuarkusTransaction.requiringNew().call(() -> adoptOrDelete(category, candidates));
+    }
+
+    private int adoptOrDelete(String category, List<String> filenames) throws IOException {
+        int deleted = 0;
+        for (String filename : filenames) {
+            String imageUrl = FileStorageService.imageUrl(category, filename);
+            if (StoredImageEntity.findById(imageUrl) != null) {
+                continue;
+            }
+            int dot = filename.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            String baseName = filename.substring(0, dot);
+            long references = countReferences(imageUrl);
+            if (references > 0) {
+                // Image anterieure au stockage par contenu: suivie desormais comme les autres
+                new StoredImageEntity(imageUrl, category, baseName, filename.substring(dot + 1),
+                    null, sizeOf(category, filename), (int) references).persist();
+                meterRegistry.counter("oneeats.images.gc.adopted", "category", category).increment();
+                continue;
+            }
+            deleteImage(imageUrl, category, baseName);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private void deleteImage(String imageUrl, String category, String baseName) {
+        fileStorageService.deleteImageFiles(imageUrl);
+        // Un travail de generation encore en attente n'a plus de raison d'etre
+        ImageDerivativeJobEntity.delete("category = ?1 and baseName = ?2", category, baseName);
+        meterRegistry.counter("oneeats.images.gc.deleted", "category", category).increment();
+    }
+
+    private long countReferences(String imageUrl) {
+        return ((Number) entityManager.createNativeQuery("SELECT " + REFERENCES.formatted("?1"))
+            .setParameter(1, imageUrl)
+            .getSingleResult()).longValue();
+    }
+
+    private static void collectFilenames(Path directory, NavigableSet<String> filenames) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                // Fichiers temporaires de televersement et d'ecriture atomique
+                .filter(filename -> !filename.startsWith("."))
+                .forEach(filenames::add);
+        }
+    }
+
+    /**
+     * Nom de l'image principale de chaque miniature ({@code <base>_small.<ext>} donne {@code <base>.<ext>})
+     */
+    private static void collectThumbnailFilenames(String category, NavigableSet<String> filenames) throws IOException {
+        NavigableSet<String> thumbnails = new TreeSet<>();
+        collectFilenames(FileStorageService.thumbnailDirectory(category), thumbnails);
+        for (String thumbnail : thumbnails) {
+            int dot = thumbnail.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            String name = thumbnail.substring(0, dot);
+            for (String suffix : FileStorageService.THUMBNAIL_SUFFIXES) {
+                if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                    filenames.add(name.substring(0, name.length() - suffix.length()) + thumbnail.substring(dot));
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean thumbnailsModifiedBefore(String category, String filename, Instant cutoff) throws IOException {
+        int dot = filename.lastIndexOf('.');
+        if (dot <= 0) {
+            return true;
+        }
+        for (String suffix : FileStorageService.THUMBNAIL_SUFFIXES) {
+            Path thumbnail = FileStorageService.thumbnailPath(category, filename.substring(0, dot), suffix, filename.substring(dot + 1));
+            if (!modifiedBefore(thumbnail, cutoff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean modifiedBefore(Path path, Instant cutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    private static long sizeOf(String category, String filename) throws IOException {
+        for (Path path : List.of(FileStorageService.mainPath(category, filename), FileStorageService.sourcePath(category, filename))) {
+            if (Files.exists(path)) {
+                return Files.size(path);
+            }
+        }
+        return 0;
+    }
+
+    private void measureDiskUsage() {
+        for (String category : FileStorageService.CATEGORIES) {
+            Path directory = FileStorageService.categoryPath(category);
+            long bytes = 0;
+            long files = 0;
+            if (Files.isDirectory(directory)) {
+                try (Stream<Path> paths = Files.walk(directory)) {
+                    for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                        try {
+                            bytes += Files.size(path);
+                            files++;
+                        } catch (IOException e) {
+                            // Supprime pendant le parcours
+                        }
+                    }
+                } catch (IOException e) {
+                    LOG.warnf("Failed to measure disk usage of %s: %s", directory, e.getMessage());
+                    continue;
+                }
+            }
+            diskBytes.get(category).set(bytes);
+            diskFiles.get(category).set(files);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.oneeats.shared.infrastructure.image;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Image stockee sous le hash de son contenu, partagee par toutes les entites qui la referencent.
+ * Le compteur suit les {@code image_url} des restaurants et des plats; a zero, le GC supprime les fichiers.
+ */
+@Entity
+@Table(name = "stored_images", indexes = {
+    @Index(name = "idx_stored_images_unreferenced", columnList = "ref_count, updated_at")
+})
+public class StoredImageEntity extends PanacheEntityBase {
+
+    // URL publique (/uploads/<categorie>/<hash>.<ext>): c'est la valeur stockee dans image_url
+    @Id
+    @Column(name = "url", length = 255)
+    private String url;
+
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    @Column(name = "base_name", nullable = false, length = 100)
+    private String baseName;
+
+    @Column(name = "extension", nullable = false, length = 10)
+    private String extension;
+
+    // NULL pour une image anterieure au stockage par contenu, adoptee par le GC
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Dernier changement du compteur: point de depart du delai de grace avant suppression
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public StoredImageEntity() {}
+
+    public StoredImageEntity(String url, String category, String baseName, String extension,
+                             String contentHash, long sizeBytes, int refCount) {
+        this.url = url;
+        this.category = category;
+        this.baseName = baseName;
+        this.extension = extension;
+        this.contentHash = contentHash;
+        this.sizeBytes = sizeBytes;
+        this.refCount = refCount;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getBaseName() {
+        return baseName;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,121 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.oneeats.notification.domain.event.NotificationCreatedEvent;
+import com.oneeats.notification.domain.model.NotificationType;
+import com.oneeats.order.domain.event.OrderCreatedEvent;
+import com.oneeats.order.domain.event.OrderStatusChangedEvent;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.shared.domain.event.IDomainEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Serialisation explicite des evenements passant par l'outbox.
+ * Les evenements domaine restent sans annotation Jackson; chaque type supporte est (de)serialise ici.
+ */
+@ApplicationScoped
+public class OutboxEventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public OutboxEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean supports(IDomainEvent event) {
+        return event instanceof OrderCreatedEvent
+            || event instanceof OrderStatusChangedEvent
+            || event instanceof NotificationCreatedEvent;
+    }
+
+    public String eventType(IDomainEvent event) {
+        return event.getClass().getSimpleName();
+    }
+
+    public UUID eventId(IDomainEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            return created.getEventId();
+        }
+        if (event instanceof OrderStatusChangedEvent changed) {
+            return changed.getEventId();
+        }
+        if (event instanceof NotificationCreatedEvent notification) {
+            return notification.getEventId();
+        }
+        throw new IllegalArgumentException("Unsupported outbox event: " + event.getClass().getName());
+    }
+
+    public String encode(IDomainEvent event) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("occurredOn", event.occurredOn().toString());
+        if (event instanceof OrderCreatedEvent created) {
+            node.put("orderId", created.getOrderId().toString());
+            node.put("orderNumber", created.getOrderNumber());
+            node.put("userId", created.getUserId().toString());
+            node.put("restaurantId", created.getRestaurantId().toString());
+        } else if (event instanceof OrderStatusChangedEvent changed) {
+            node.put("orderId", changed.getOrderId().toString());
+            node.put("userId", changed.getUserId().toString());
+            node.put("restaurantId", changed.getRestaurantId().toString());
+            node.put("previousStatus", changed.getPreviousStatus().name());
+            node.put("newStatus", changed.getNewStatus().name());
+        } else if (event instanceof NotificationCreatedEvent notification) {
+            node.put("notificationId", notification.getNotificationId().toString());
+            node.put("recipientId", notification.getRecipientId().toString());
+            node.put("type", notification.getType().name());
+        } else {
+            throw new IllegalArgumentException("Unsupported outbox event: " + event.getClass().getName());
+        }
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode outbox event " + eventType(event), e);
+        }
+    }
+
+    public IDomainEvent decode(UUID eventId, String eventType, String payload) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted outbox payload for event " + eventId, e);
+        }
+        LocalDateTime occurredOn = LocalDateTime.parse(node.get("occurredOn").asText());
+        return switch (eventType) {
+            case "OrderCreatedEvent" -> new OrderCreatedEvent(
+                eventId,
+                uuid(node, "orderId"),
+                node.get("orderNumber").asText(),
+                uuid(node, "userId"),
+                uuid(node, "restaurantId"),
+                occurredOn);
+            case "OrderStatusChangedEvent" -> new OrderStatusChangedEvent(
+                eventId,
+                uuid(node, "orderId"),
+                uuid(node, "userId"),
+                uuid(node, "restaurantId"),
+                OrderStatus.valueOf(node.get("previousStatus").asText()),
+                OrderStatus.valueOf(node.get("newStatus").asText()),
+                occurredOn);
+            case "NotificationCreatedEvent" -> new NotificationCreatedEvent(
+                eventId,
+                uuid(node, "notificationId"),
+                uuid(node, "recipientId"),
+                NotificationType.valueOf(node.get("type").asText()),
+                occurredOn);
+            default -> throw new IllegalArgumentException("Unknown outbox event type: " + eventType);
+        };
+    }
+
+    private static UUID uuid(JsonNode node, String field) {
+        return UUID.fromString(node.get(field).asText());
+    }
+}
@@ -0,0 +1,42 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Deduplication des livraisons de l'outbox (livraison au moins une fois).
+ * Un gestionnaire appelle {@link #firstDelivery} au debut de sa transaction et ignore l'evenement si false.
+ * La trace est persistee sans ecriture immediate: elle part dans le lot JDBC de la transaction, avec les
+ * lignes ecrites par le gestionnaire (relais de l'outbox par lots).
+ */
+@ApplicationScoped
+public class OutboxIdempotencyGuard {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Enregistre le traitement de l'evenement par ce consommateur.
+     * Deux livraisons simultanees du meme evenement (bail expire): la seconde echoue au commit sur la cle
+     * primaire, puis est ignoree a la tentative suivante.
+     *
+     * @return true si c'est la premiere livraison, false si l'evenement a deja ete traite
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public boolean firstDelivery(UUID eventId, String consumer) {
+        if (eventId == null) {
+            return true;
+        }
+        // Contexte de persistance puis base, sans flush des ecritures en attente
+        if (entityManager.find(ProcessedOutboxEventEntity.class, new ProcessedOutboxEventEntity.Key(eventId, consumer)) != null) {
+            return false;
+        }
+        entityManager.persist(new ProcessedOutboxEventEntity(eventId, consumer, LocalDateTime.now()));
+        return true;
+    }
+}
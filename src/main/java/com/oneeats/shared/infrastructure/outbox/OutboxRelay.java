@@ -0,0 +1,244 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+import com.oneeats.shared.domain.event.IDomainEvent;
+import com.oneeats.shared.infrastructure.event.DomainEventDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Relais de l'outbox: livre les evenements commites aux gestionnaires, au moins une fois.
+ *
+ * - Reservation par lots avec {@code FOR UPDATE SKIP LOCKED}: plusieurs noeuds peuvent relayer en parallele
+ *   sans se bloquer ni livrer deux fois le meme lot. La reservation repousse {@code available_at} d'un bail;
+ *   un noeud arrete en cours de livraison laisse donc ses evenements repris a l'expiration du bail.
+ * - Lot livre dans une seule transaction, marquage PROCESSED compris: traces d'idempotence et lignes ecrites
+ *   par les gestionnaires (historique des notifications...) partent en lots JDBC, un commit par lot.
+ * - Un gestionnaire en echec annule la transaction du lot: le lot est alors relivre evenement par evenement,
+ *   chacun dans sa transaction, puis marque PROCESSED (ou nouvelle tentative avec backoff exponentiel).
+ * - Metriques: {@code oneeats.outbox.dispatched/retried/dead} et {@code oneeats.outbox.lag} par type
+ *   d'evenement, {@code oneeats.outbox.pending} pour l'arriere, {@code oneeats.outbox.batches{mode=batch|single}}.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOGGER = Logger.getLogger(OutboxRelay.class.getName());
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    OutboxEventCodec codec;
+
+    @Inject
+    DomainEventDispatcher dispatcher;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.outbox.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "oneeats.outbox.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "oneeats.outbox.lease", defaultValue = "60s")
+    Duration lease;
+
+    @ConfigProperty(name = "oneeats.outbox.max-attempts", defaultValue = "10")
+    int maxAttempts;
+
+    @ConfigProperty(name = "oneeats.outbox.retry-delay", defaultValue = "5s")
+    Duration retryDelay;
+
+    @ConfigProperty(name = "oneeats.outbox.retention", defaultValue = "168h")
+    Duration retention;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("oneeats.outbox.pending", pending);
+    }
+
+    @Scheduled(every = "${oneeats.outbox.poll-every:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Un lot plein indique un arriere: on enchaine sans attendre le prochain declenchement
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed == batchSize);
+            pending.set(QuarkusTransaction.requiringNew().call(() -> OutboxEventEntity.count("status", OutboxStatus.PENDING)));
+        } catch (Exception e) {
+            LOGGER.severe("Outbox relay failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reserve, livre et acquitte un lot d'evenements.
+     *
+     * @return taille du lot reserve
+     */
+    int relayBatch() {
+        List<OutboxEventEntity> batch = QuarkusTransaction.requiringNew().call(this::claimBatch);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (!relayInOneTransaction(batch)) {
+            relayOneByOne(batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Livre le lot et le marque PROCESSED dans une seule transaction.
+     *
+     * @return false si la transaction a ete annulee (rien n'est ecrit, le lot reste a livrer)
+     */
+    private boolean relayInOneTransaction(List<OutboxEventEntity> batch) {
+        List<IDomainEvent> events = new ArrayList<>(batch.size());
+        try {
+            for (OutboxEventEntity entry : batch) {
+                events.add(codec.decode(entry.getId(), entry.getEventType(), entry.getPayload()));
+            }
+            QuarkusTransaction.requiringNew().run(() -> {
+                for (IDomainEvent event : events) {
+                    if (!dispatcher.dispatchNow(event)) {
+                        throw new IllegalStateException("handler failure for " + event.getClass().getSimpleName());
+                    }
+                }
+                // Exception absorbee par un gestionnaire apres avoir condamne la transaction
+                if (QuarkusTransaction.isRollbackOnly()) {
+                    throw new IllegalStateException("transaction marked for rollback by a handler");
+                }
+                OutboxEventEntity.update("status = ?1, processedAt = ?2, lastError = null where id in ?3",
+                    OutboxStatus.PROCESSED, LocalDateTime.now(), batch.stream().map(OutboxEventEntity::getId).toList());
+            });
+        } catch (RuntimeException e) {
+            // Charge utile illisible ou gestionnaire en echec: isole par la livraison evenement par evenement
+            LOGGER.warning("Outbox batch of " + batch.size() + " event(s) rolled back, relaying one by one: " + e.getMessage());
+            return false;
+        }
+        meterRegistry.counter("oneeats.outbox.batches", "mode", "batch").increment();
+        for (OutboxEventEntity entry : batch) {
+            recordDispatched(entry);
+        }
+        return true;
+    }
+
+    private void relayOneByOne(List<OutboxEventEntity> batch) {
+        meterRegistry.counter("oneeats.outbox.batches", "mode", "single").increment();
+        List<UUID> processed = new ArrayList<>(batch.size());
+        for (OutboxEventEntity entry : batch) {
+            String eventType = entry.getEventType();
+            try {
+                IDomainEvent event = codec.decode(entry.getId(), eventType, entry.getPayload());
+                if (dispatcher.dispatchNow(event)) {
+                    processed.add(entry.getId());
+                    recordDispatched(entry);
+                } else {
+                    QuarkusTransaction.requiringNew().run(() -> scheduleRetry(entry, "handler failure"));
+                }
+            } catch (RuntimeException e) {
+                // Charge utile illisible ou type inconnu: inutile de reessayer
+                LOGGER.severe("Undeliverable outbox event " + entry.getId() + " (" + eventType + "): " + e.getMessage());
+                QuarkusTransaction.requiringNew().run(() -> markFailed(entry.getId(), e.getMessage()));
+                meterRegistry.counter("oneeats.outbox.dead", "event", eventType).increment();
+            }
+        }
+
+        if (!processed.isEmpty()) {
+            QuarkusTransaction.requiringNew().run(() -> OutboxEventEntity.update(
+                "status = ?1, processedAt = ?2, lastError = null where id in ?3",
+                OutboxStatus.PROCESSED, LocalDateTime.now(), processed));
+        }
+    }
+
+    private void recordDispatched(OutboxEventEntity entry) {
+        String eventType = entry.getEventType();
+        meterRegistry.counter("oneeats.outbox.dispatched", "event", eventType).increment();
+        meterRegistry.timer("oneeats.outbox.lag", "event", eventType)
+            .record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxEventEntity> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventEntity> batch = entityManager.createNativeQuery(
+                "SELECT * FROM outbox_events WHERE status = 'PENDING' AND available_at <= ?1 " +
+                "ORDER BY created_at LIMIT ?2 FOR UPDATE SKIP LOCKED", OutboxEventEntity.class)
+            .setParameter(1, now)
+            .setParameter(2, batchSize)
+            .getResultList();
+        LocalDateTime leaseExpiry = now.plus(lease);
+        for (OutboxEventEntity entry : batch) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setAvailableAt(leaseExpiry);
+        }
+        return batch;
+    }
+
+    private void scheduleRetry(OutboxEventEntity entry, String error) {
+        String eventType = entry.getEventType();
+        if (entry.getAttempts() >= maxAttempts) {
+            LOGGER.severe("Outbox event " + entry.getId() + " (" + eventType + ") abandoned after " + entry.getAttempts() + " attempts");
+            markFailed(entry.getId(), error);
+            meterRegistry.counter("oneeats.outbox.dead", "event", eventType).increment();
+            return;
+        }
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 16));
+        if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+            delay = MAX_RETRY_DELAY;
+        }
+        OutboxEventEntity.update("availableAt = ?1, lastError = ?2 where id = ?3",
+            LocalDateTime.now().plus(delay), error, entry.getId());
+        meterRegistry.counter("oneeats.outbox.retried", "event", eventType).increment();
+    }
+
+    private void markFailed(UUID id, String error) {
+        OutboxEventEntity.update("status = ?1, lastError = ?2 where id = ?3",
+            OutboxStatus.FAILED, truncate(error), id);
+    }
+
+    /**
+     * Purge des evenements livres et des traces d'idempotence au-dela de la retention.
+     */
+    @Scheduled(every = "${oneeats.outbox.cleanup-every:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void cleanup() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        long events = OutboxEventEntity.delete("status = ?1 and processedAt < ?2", OutboxStatus.PROCESSED, threshold);
+        long traces = ProcessedOutboxEventEntity.delete("processedAt < ?1", threshold);
+        if (events > 0 || traces > 0) {
+            LOGGER.info("🧹 Outbox cleanup: " + events + " event(s), " + traces + " idempotency record(s) removed");
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,10 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+/**
+ * Etat d'un evenement de l'outbox.
+ */
+public enum OutboxStatus {
+    PENDING,     // En attente de livraison (ou de nouvelle tentative)
+    PROCESSED,   // Livre a tous les gestionnaires
+    FAILED       // Abandonne apres le nombre maximal de tentatives
+}
@@ -0,0 +1,43 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+import com.oneeats.shared.domain.event.IDomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Ecriture des evenements d'un agregat dans l'outbox.
+ * Doit etre appele dans la transaction qui persiste l'agregat: evenements et donnees sont commites ensemble.
+ */
+@ApplicationScoped
+public class OutboxWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(OutboxWriter.class.getName());
+
+    @Inject
+    OutboxEventCodec codec;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(String aggregateType, UUID aggregateId, List<IDomainEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (IDomainEvent event : events) {
+            if (!codec.supports(event)) {
+                LOGGER.warning("Event " + event.getClass().getSimpleName() + " is not supported by the outbox, ignored");
+                continue;
+            }
+            String eventType = codec.eventType(event);
+            new OutboxEventEntity(codec.eventId(event), aggregateType, aggregateId, eventType, codec.encode(event), now)
+                .persist();
+            meterRegistry.counter("oneeats.outbox.appended", "event", eventType).increment();
+        }
+    }
+}
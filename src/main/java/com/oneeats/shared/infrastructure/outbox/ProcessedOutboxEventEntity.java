@@ -0,0 +1,74 @@
+package com.oneeats.shared.infrastructure.outbox;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Trace des evenements deja traites par un gestionnaire (cle d'idempotence + nom du consommateur).
+ * Inseree dans la transaction du gestionnaire: un rollback permet une nouvelle livraison.
+ */
+@Entity
+@Table(name = "outbox_processed_events")
+@IdClass(ProcessedOutboxEventEntity.Key.class)
+public class ProcessedOutboxEventEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Id
+    @Column(name = "consumer", length = 100)
+    private String consumer;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public ProcessedOutboxEventEntity() {}
+
+    public ProcessedOutboxEventEntity(UUID eventId, String consumer, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.consumer = consumer;
+        this.processedAt = processedAt;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public static class Key implements Serializable {
+        private UUID eventId;
+        private String consumer;
+
+        public Key() {}
+
+        public Key(UUID eventId, String consumer) {
+            this.eventId = eventId;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(eventId, key.eventId) && Objects.equals(consumer, key.consumer);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, consumer);
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.oneeats.shared.infrastructure.service;
 
+import com.oneeats.shared.infrastructure.image.ImageDerivativePipeline;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,21 +33,50 @@ public class FileStorageService {
     private static final Logger LOG = Logger.getLogger(FileStorageService.class);
 
     @Inject
-    ImageResizingService imageResizingService;
+    ImageDerivativePipeline derivativePipeline;
+
+    @Inject
+    ImageHotCache imageHotCache;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    MeterRegistry meterRegistry;
 
     private static final String UPLOAD_DIR = "uploads";
     private static final String RESTAURANTS_DIR = "restaurants";
     private static final String MENU_ITEMS_DIR = "menu-items";
+    public static final List<String> CATEGORIES = List.of(RESTAURANTS_DIR, MENU_ITEMS_DIR);
     private static final String THUMBNAILS_DIR = "thumbnails";
+    private static final String SOURCES_DIR = "sources";
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "webp");
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final long SPOOL_CHUNK_SIZE = 64 * 1024;
+    private static final int ACQUIRE_ATTEMPTS = 3;
 
     // Suffixes pour les differentes tailles
     public static final String SUFFIX_SMALL = "_small";   // 150x150
     public static final String SUFFIX_MEDIUM = "_medium"; // 400x400
     public static final String SUFFIX_LARGE = "_large";   // 800x800
+    public static final List<String> THUMBNAIL_SUFFIXES = List.of(SUFFIX_SMALL, SUFFIX_MEDIUM);
 
-    public String saveRestaurantImage(InputStream inputStream, String originalFilename, long estimatedFileSize) throws IOException {
+    public String saveRestaurantImage(InputStream inputStream, String originalFilename) throws IOException {
+        return saveImage(RESTAURANTS_DIR, inputStream, originalFilename);
+    }
+
+    public String saveMenuItemImage(InputStream inputStream, String originalFilename) throws IOException {
+        return saveImage(MENU_ITEMS_DIR, inputStream, originalFilename);
+    }
+
+    /**
+     * Store the uploaded source under the hash of its content and take a reference on it.
+     * A file already stored (same content, same category) is reused as is, derivatives included;
+     * otherwise the generation of its sizes (large, medium, small) is scheduled and /uploads serves
+     * the source until they are written.
+     * Must be called inside the upload transaction (the reference and the derivative job are persisted with it).
+     */
+    private String saveImage(String category, InputStream inputStream, String originalFilename) throws IOException {
         // Basic filename validation first
         if (originalFilename == null || originalFilename.trim().isEmpty()) {
             throw new IllegalArgumentException("Filename cannot be empty");
@@ -47,73 +88,190 @@ public class FileStorageService {
         }
 
         // Create directories if they don't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR, RESTAURANTS_DIR);
-        Path thumbnailPath = Paths.get(UPLOAD_DIR, RESTAURANTS_DIR, THUMBNAILS_DIR);
-        Files.createDirectories(uploadPath);
-        Files.createDirectories(thumbnailPath);
+        Files.createDirectories(Paths.get(UPLOAD_DIR, category, SOURCES_DIR));
+        Files.createDirectories(Paths.get(UPLOAD_DIR, category, THUMBNAILS_DIR));
 
-        // Generate unique base filename (without extension)
-        String uniqueBaseFilename = UUID.randomUUID().toString();
-        String uniqueFilename = uniqueBaseFilename + "." + extension;
+        // The final name is only known once the content is hashed: spool under a temporary hidden name
+        Path upload = Paths.get(UPLOAD_DIR, category, SOURCES_DIR, "." + UUID.randomUUID() + ".upload");
+        try {
+            MessageDigest digest = sha256();
+            long size = spool(new DigestInputStream(inputStream, digest), upload, MAX_FILE_SIZE);
+            if (size == 0) {
+                throw new IllegalArgumentException("Empty file");
+            }
+
+            String baseFilename = HexFormat.of().formatHex(digest.digest());
+            String filename = baseFilename + "." + extension;
+            String imageUrl = imageUrl(category, filename);
+
+            if (acquire(imageUrl, category, baseFilename, extension, size)) {
+                Files.move(upload, sourcePath(category, filename), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                derivativePipeline.enqueue(category, baseFilename, extension);
+                LOG.infof("Stored image source %s (%d bytes), derivatives pending", imageUrl, size);
+            } else {
+                meterRegistry.counter("oneeats.images.store.deduplicated", "category", category).increment();
+                LOG.infof("Image %s already stored, reusing it", imageUrl);
+            }
+            return imageUrl;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
 
-        // Read the original image into memory for multiple resizing operations
-        byte[] originalBytes = inputStream.readAllBytes();
+    /**
+     * Take a reference on a stored image, creating its row when the content is new.
+     * The row lock taken here serialises with the garbage collector, which deletes files under the same lock.
+     *
+     * @return true if the image was not stored yet (its files must be written)
+     */
+    private boolean acquire(String imageUrl, String category, String baseFilename, String extension, long size) {
+        for (int attempt = 0; attempt < ACQUIRE_ATTEMPTS; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            int updated = entityManager.createNativeQuery(
+                    "UPDATE stored_images SET ref_count = ref_count + 1, updated_at = ?2 WHERE url = ?1")
+                .setParameter(1, imageUrl)
+                .setParameter(2, now)
+                .executeUpdate();
+            if (updated > 0) {
+                return false;
+            }
+            int inserted = entityManager.createNativeQuery(
+                    "INSERT INTO stored_images (url, category, base_name, extension, content_hash, size_bytes, ref_count, created_at, updated_at) " +
+                    "VALUES (?1, ?2, ?3, ?4, ?3, ?5, 1, ?6, ?6) ON CONFLICT (url) DO NOTHING")
+                .setParameter(1, imageUrl)
+                .setParameter(2, category)
+                .setParameter(3, baseFilename)
+                .setParameter(4, extension)
+                .setParameter(5, size)
+                .setParameter(6, now)
+                .executeUpdate();
+            if (inserted > 0) {
+                return true;
+            }
+            // Same content uploaded concurrently and committed first: take a reference on its row
+        }
+        throw new IllegalStateException("Could not store image " + imageUrl);
+    }
 
-        // Validate file size before processing
-        if (originalBytes.length > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size exceeds maximum limit of 5MB");
+    /**
+     * Release the reference an entity holds on a stored image (image replaced, removed or entity deleted).
+     * Files are not deleted here: the garbage collector removes them once nothing points to them anymore.
+     * External URLs and images stored before content addressing are ignored.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void releaseImage(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith("/" + UPLOAD_DIR + "/")) {
+            return;
         }
+        entityManager.createNativeQuery(
+                "UPDATE stored_images SET ref_count = GREATEST(ref_count - 1, 0), updated_at = ?2 WHERE url = ?1")
+            .setParameter(1, imageUrl)
+            .setParameter(2, LocalDateTime.now())
+            .executeUpdate();
+    }
 
-        if (originalBytes.length == 0) {
-            throw new IllegalArgumentException("Empty file");
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
+    }
 
-        // Save optimized large version (800x800 max) as the main image
-        Path mainFilePath = uploadPath.resolve(uniqueFilename);
-        InputStream largeImage = imageResizingService.optimizeForWeb(
-            new ByteArrayInputStream(originalBytes), extension);
-        Files.copy(largeImage, mainFilePath, StandardCopyOption.REPLACE_EXISTING);
-        LOG.infof("Saved large image: %s", mainFilePath);
+    /**
+     * Copy an upload to disk through NIO channels in fixed-size chunks, without buffering it in heap.
+     * The size cap is enforced while streaming: an oversized upload is aborted as soon as it exceeds the limit.
+     *
+     * @return number of bytes written
+     */
+    static long spool(InputStream inputStream, Path target, long maxBytes) throws IOException {
+        Path partial = target.resolveSibling("." + target.getFileName() + ".part");
+        try {
+            long total = 0;
+            try (ReadableByteChannel source = Channels.newChannel(inputStream);
+                 FileChannel destination = FileChannel.open(partial,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = destination.transferFrom(source, total, SPOOL_CHUNK_SIZE)) > 0) {
+                    total += transferred;
+                    if (total > maxBytes) {
+                        throw new IllegalArgumentException("File size exceeds maximum limit of 5MB");
+                    }
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return total;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
 
-        // Generate and save thumbnails asynchronously in background
-        generateThumbnails(originalBytes, extension, uniqueBaseFilename, thumbnailPath);
+    /**
+     * Public URL of an image, as stored in image_url
+     */
+    public static String imageUrl(String category, String filename) {
+        return "/" + UPLOAD_DIR + "/" + category + "/" + filename;
+    }
 
-        // Return relative path for URL (main image)
-        return "/" + UPLOAD_DIR + "/" + RESTAURANTS_DIR + "/" + uniqueFilename;
+    /**
+     * Folder of a category (main images, with sources/ and thumbnails/ below)
+     */
+    public static Path categoryPath(String category) {
+        return Paths.get(UPLOAD_DIR, category);
     }
 
     /**
-     * Generate thumbnails in multiple sizes (small, medium)
+     * Folder of the uploaded sources of a category
      */
-    private void generateThumbnails(byte[] originalBytes, String extension, String baseFilename, Path thumbnailPath) {
-        try {
-            // Generate small thumbnail (150x150)
-            String smallFilename = baseFilename + SUFFIX_SMALL + "." + extension;
-            InputStream smallImage = imageResizingService.createThumbnail(
-                new ByteArrayInputStream(originalBytes), extension);
-            Files.copy(smallImage, thumbnailPath.resolve(smallFilename), StandardCopyOption.REPLACE_EXISTING);
-            LOG.infof("Generated small thumbnail: %s", smallFilename);
-
-            // Generate medium thumbnail (400x400)
-            String mediumFilename = baseFilename + SUFFIX_MEDIUM + "." + extension;
-            InputStream mediumImage = imageResizingService.createMediumImage(
-                new ByteArrayInputStream(originalBytes), extension);
-            Files.copy(mediumImage, thumbnailPath.resolve(mediumFilename), StandardCopyOption.REPLACE_EXISTING);
-            LOG.infof("Generated medium thumbnail: %s", mediumFilename);
+    public static Path sourceDirectory(String category) {
+        return Paths.get(UPLOAD_DIR, category, SOURCES_DIR);
+    }
 
-        } catch (IOException e) {
-            LOG.warnf("Failed to generate thumbnails for %s: %s", baseFilename, e.getMessage());
-            // Don't fail the main upload if thumbnail generation fails
-        }
+    /**
+     * Uploaded source, kept until its derivatives are generated
+     */
+    public static Path sourcePath(String category, String filename) {
+        return Paths.get(UPLOAD_DIR, category, SOURCES_DIR, filename);
     }
-    
-    public void deleteFile(String filePath) {
+
+    /**
+     * Main image (800px max)
+     */
+    public static Path mainPath(String category, String filename) {
+        return Paths.get(UPLOAD_DIR, category, filename);
+    }
+
+    /**
+     * Folder of the thumbnails of a category
+     */
+    public static Path thumbnailDirectory(String category) {
+        return Paths.get(UPLOAD_DIR, category, THUMBNAILS_DIR);
+    }
+
+    /**
+     * Thumbnail of a main image for the given size suffix
+     */
+    public static Path thumbnailPath(String category, String baseFilename, String suffix, String extension) {
+        return Paths.get(UPLOAD_DIR, category, THUMBNAILS_DIR, baseFilename + suffix + "." + extension);
+    }
+
+    /**
+     * Delete every file of an image (main, pending source, thumbnails).
+     * Only the garbage collector calls this: entities release their image with {@link #releaseImage(String)}.
+     */
+    public void deleteImageFiles(String filePath) {
         if (filePath != null && !filePath.isEmpty()) {
             try {
                 // Remove leading slash if present
                 String cleanPath = filePath.startsWith("/") ? filePath.substring(1) : filePath;
                 Path path = Paths.get(cleanPath);
                 Files.deleteIfExists(path);
+                imageHotCache.evict(path);
+
+                // Source still waiting for its derivatives
+                Path source = path.resolveSibling(SOURCES_DIR).resolve(path.getFileName());
+                Files.deleteIfExists(source);
+                imageHotCache.evict(source);
 
                 // Also delete associated thumbnails
                 deleteThumbnails(cleanPath);
@@ -143,8 +301,11 @@ public class FileStorageService {
             // Delete thumbnails in the thumbnails subdirectory
             Path thumbnailDir = Paths.get(parentDir, THUMBNAILS_DIR);
             if (Files.exists(thumbnailDir)) {
-                Files.deleteIfExists(thumbnailDir.resolve(baseFilename + SUFFIX_SMALL + extension));
-                Files.deleteIfExists(thumbnailDir.resolve(baseFilename + SUFFIX_MEDIUM + extension));
+                for (String suffix : THUMBNAIL_SUFFIXES) {
+                    Path thumbnail = thumbnailDir.resolve(baseFilename + suffix + extension);
+                    Files.deleteIfExists(thumbnail);
+                    imageHotCache.evict(thumbnail);
+                }
                 LOG.infof("Deleted thumbnails for: %s", baseFilename);
             }
         } catch (IOException e) {
@@ -152,68 +313,6 @@ public class FileStorageService {
         }
     }
 
-    public String saveMenuItemImage(InputStream inputStream, String originalFilename, long estimatedFileSize) throws IOException {
-        // Basic filename validation first
-        if (originalFilename == null || originalFilename.trim().isEmpty()) {
-            throw new IllegalArgumentException("Filename cannot be empty");
-        }
-
-        String extension = getFileExtension(originalFilename).toLowerCase();
-        if (!ALLOWED_EXTENSIONS.contains(extension)) {
-            throw new IllegalArgumentException("Only JPG, PNG, and WebP files are allowed");
-        }
-
-        // Create directories if they don't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR, MENU_ITEMS_DIR);
-        Path thumbnailPath = Paths.get(UPLOAD_DIR, MENU_ITEMS_DIR, THUMBNAILS_DIR);
-        Files.createDirectories(uploadPath);
-        Files.createDirectories(thumbnailPath);
-
-        // Generate unique base filename (without extension)
-        String uniqueBaseFilename = UUID.randomUUID().toString();
-        String uniqueFilename = uniqueBaseFilename + "." + extension;
-
-        // Read the original image into memory for multiple resizing operations
-        byte[] originalBytes = inputStream.readAllBytes();
-
-        // Validate file size before processing
-        if (originalBytes.length > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size exceeds maximum limit of 5MB");
-        }
-
-        if (originalBytes.length == 0) {
-            throw new IllegalArgumentException("Empty file");
-        }
-
-        // Save optimized large version (800x800 max) as the main image
-        Path mainFilePath = uploadPath.resolve(uniqueFilename);
-        InputStream largeImage = imageResizingService.optimizeForWeb(
-            new ByteArrayInputStream(originalBytes), extension);
-        Files.copy(largeImage, mainFilePath, StandardCopyOption.REPLACE_EXISTING);
-        LOG.infof("Saved large menu item image: %s", mainFilePath);
-
-        // Generate and save thumbnails
-        generateThumbnails(originalBytes, extension, uniqueBaseFilename, thumbnailPath);
-
-        // Return relative path for URL (main image)
-        return "/" + UPLOAD_DIR + "/" + MENU_ITEMS_DIR + "/" + uniqueFilename;
-    }
-
-    private void validateFile(String filename, long fileSize) {
-        if (filename == null || filename.trim().isEmpty()) {
-            throw new IllegalArgumentException("Filename cannot be empty");
-        }
-        
-        if (fileSize > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size exceeds maximum limit of 5MB");
-        }
-        
-        String extension = getFileExtension(filename).toLowerCase();
-        if (!ALLOWED_EXTENSIONS.contains(extension)) {
-            throw new IllegalArgumentException("Only JPG, PNG, and WebP files are allowed");
-        }
-    }
-    
     private String getFileExtension(String filename) {
         int lastDotIndex = filename.lastIndexOf('.');
         if (lastDotIndex == -1 || lastDotIndex == filename.length() - 1) {
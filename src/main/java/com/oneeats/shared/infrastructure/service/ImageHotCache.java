@@ -0,0 +1,200 @@
+package com.oneeats.shared.infrastructure.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache des images servies par {@code /uploads}.
+ *
+ * - Metadonnees (taille, date, ETag) de chaque fichier servi: un seul appel systeme au premier acces,
+ *   aucun ensuite jusqu'a expiration.
+ * - Contenu en memoire pour les petits fichiers les plus demandes (vignettes), admis apres plusieurs
+ *   acces et evinces en LRU dans un budget d'octets. Les autres fichiers sont envoyes en zero-copie.
+ *
+ * Les fichiers sont immuables (nom unique par televersement): l'ETag fort derive du nom et de la taille.
+ * Les suppressions locales evincent l'entree; l'expiration couvre celles faites par un autre noeud.
+ */
+@ApplicationScoped
+public class ImageHotCache {
+
+    /**
+     * Image a servir. {@code etag} est la valeur sans guillemets; {@code bytes} est non null lorsque
+     * le contenu est en memoire.
+     */
+    public record CachedImage(Path path, long length, long lastModifiedMillis, String etag, byte[] bytes) {
+        public boolean inMemory() {
+            return bytes != null;
+        }
+    }
+
+    @ConfigProperty(name = "oneeats.images.hot-cache.max-bytes", defaultValue = "33554432")
+    long maxBytes;
+
+    @ConfigProperty(name = "oneeats.images.hot-cache.max-entry-bytes", defaultValue = "65536")
+    int maxEntryBytes;
+
+    @ConfigProperty(name = "oneeats.images.hot-cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "oneeats.images.hot-cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    @ConfigProperty(name = "oneeats.images.hot-cache.admit-after-hits", defaultValue = "2")
+    int admitAfterHits;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // Ordre d'acces: le premier element est le moins recemment servi
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    private Counter memoryHits;
+    private Counter fileHits;
+    private Counter metadataMisses;
+
+    public ImageHotCache() {
+    }
+
+    public ImageHotCache(long maxBytes, int maxEntryBytes, int maxEntries, Duration ttl, int admitAfterHits, MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.admitAfterHits = admitAfterHits;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        memoryHits = meterRegistry.counter("oneeats.images.served", "source", "memory");
+        fileHits = meterRegistry.counter("oneeats.images.served", "source", "file");
+        metadataMisses = meterRegistry.counter("oneeats.images.metadata.misses");
+        meterRegistry.gauge("oneeats.images.hot-cache.bytes", this, cache -> cache.cachedBytes());
+    }
+
+    /**
+     * Resout l'image a servir.
+     *
+     * @throws java.nio.file.NoSuchFileException si le fichier n'existe pas
+     */
+    public CachedImage lookup(Path path) throws IOException {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        boolean admit;
+        synchronized (entries) {
+            entry = entries.get(path);
+            if (entry != null && now - entry.loadedAt > ttl.toMillis()) {
+                remove(path);
+                entry = null;
+            }
+            if (entry != null) {
+                entry.hits++;
+            }
+            admit = entry != null && entry.bytes == null && entry.hits >= admitAfterHits && entry.length <= maxEntryBytes;
+        }
+
+        if (entry == null) {
+            metadataMisses.increment();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            entry = new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                etag(path, attributes.size()), now);
+            synchronized (entries) {
+                Entry previous = entries.put(path, entry);
+                if (previous != null && previous.bytes != null) {
+                    cachedBytes -= previous.bytes.length;
+                }
+                trim();
+            }
+        } else if (admit) {
+            byte[] content = Files.readAllBytes(path);
+            synchronized (entries) {
+                // Le fichier peut avoir ete evince ou remplace pendant la lecture
+                if (entries.get(path) == entry && entry.bytes == null && content.length == entry.length) {
+                    entry.bytes = content;
+                    cachedBytes += content.length;
+                    trim();
+                }
+            }
+        }
+
+        byte[] bytes = entry.bytes;
+        (bytes != null ? memoryHits : fileHits).increment();
+        return new CachedImage(path, entry.length, entry.lastModified, entry.etag, bytes);
+    }
+
+    public void evict(Path path) {
+        synchronized (entries) {
+            remove(path);
+        }
+    }
+
+    public long cachedBytes() {
+        synchronized (entries) {
+            return cachedBytes;
+        }
+    }
+
+    static String etag(Path path, long length) {
+        String filename = path.getFileName().toString();
+        int dotIndex = filename.lastIndexOf('.');
+        String baseName = dotIndex > 0 ? filename.substring(0, dotIndex) : filename;
+        return baseName + "-" + Long.toHexString(length);
+    }
+
+    private void remove(Path path) {
+        Entry removed = entries.remove(path);
+        if (removed != null && removed.bytes != null) {
+            cachedBytes -= removed.bytes.length;
+        }
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || cachedBytes > maxBytes)) {
+            Entry candidate = eldest.next().getValue();
+            if (entries.size() > maxEntries) {
+                eldest.remove();
+                if (candidate.bytes != null) {
+                    cachedBytes -= candidate.bytes.length;
+                }
+            } else if (candidate.bytes != null) {
+                // Budget memoire depasse: on garde les metadonnees, seul le contenu est libere
+                cachedBytes -= candidate.bytes.length;
+                candidate.bytes = null;
+                candidate.hits = 0;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final long loadedAt;
+        private int hits;
+        private volatile byte[] bytes;
+
+        private Entry(long length, long lastModified, String etag, long loadedAt) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.loadedAt = loadedAt;
+            this.hits = 1;
+        }
+    }
+}
@@ -0,0 +1,603 @@
+package com.oneeats.shared.infrastructure.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cache disque des images externes servies par {@code /api/proxy/image}.
+ *
+ * - Contenu sur disque, index (taille, type, validateurs, fraicheur) en memoire, eviction LRU dans un budget d'octets.
+ *   L'index est reconstruit au demarrage depuis les fichiers de metadonnees.
+ * - Les demandes simultanees d'une meme URL absente ou perimee partagent un seul appel a l'origine.
+ * - Appel asynchrone, corps ecrit sur disque au fil de l'eau et interrompu au-dela de {@code max-entry-bytes}.
+ * - Une entree perimee est revalidee (If-None-Match / If-Modified-Since); un 304 prolonge sa fraicheur sans
+ *   retelecharger, une origine en erreur laisse servir la copie perimee.
+ * - Redirections non suivies: seule l'URL validee par l'appelant est contactee.
+ * - Un fichier par version du contenu, ouvert sous le verrou de l'index avant d'etre rendu: une eviction ou un
+ *   nouveau telechargement ne supprime ni ne remplace un contenu en cours d'envoi.
+ * - Metriques: {@code oneeats.images.proxy.requests{result}} (hit, miss, revalidated, coalesced, stale, error).
+ */
+@ApplicationScoped
+public class ImageProxyCache {
+
+    private static final Logger LOG = Logger.getLogger(ImageProxyCache.class);
+
+    private static final Duration MAX_FRESHNESS = Duration.ofHours(24);
+
+    /**
+     * Image a servir depuis le cache. {@code content} est ouvert pour cet appelant, qui doit le fermer;
+     * {@code etag} est la valeur sans guillemets, propre a ce contenu.
+     */
+    public record ProxiedImage(InputStream content, String contentType, long length, String etag, long freshForSeconds) {}
+
+    /**
+     * Refus de l'origine ou contenu inacceptable; {@code status} est le statut a renvoyer au client.
+     */
+    public static class ImageProxyException extends RuntimeException {
+        private final int status;
+
+        public ImageProxyException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+
+    @ConfigProperty(name = "oneeats.images.proxy.directory", defaultValue = "cache/image-proxy")
+    String directoryName;
+
+    @ConfigProperty(name = "oneeats.images.proxy.max-bytes", defaultValue = "268435456")
+    long maxBytes;
+
+    @ConfigProperty(name = "oneeats.images.proxy.max-entry-bytes", defaultValue = "5242880")
+    long maxEntryBytes;
+
+    @ConfigProperty(name = "oneeats.images.proxy.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    // Fraicheur quand l'origine ne donne pas de max-age
+    @ConfigProperty(name = "oneeats.images.proxy.default-ttl", defaultValue = "1h")
+    Duration defaultTtl;
+
+    @ConfigProperty(name = "oneeats.images.proxy.request-timeout", defaultValue = "10s")
+    Duration requestTimeout;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private Path directory;
+    private HttpClient httpClient;
+
+    // Ordre d'acces: le premier element est le moins recemment servi
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter revalidated;
+    private Counter coalesced;
+    private Counter stale;
+    private Counter errors;
+
+    public ImageProxyCache() {
+    }
+
+    public ImageProxyCache(Path directory, long maxBytes, long maxEntryBytes, int maxEntries, Duration defaultTtl,
+                           Duration requestTimeout, MeterRegistry meterRegistry) {
+        this.directoryName = directory.toString();
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.requestTimeout = requestTimeout;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        directory = Paths.get(directoryName);
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        hits = meterRegistry.counter("oneeats.images.proxy.requests", "result", "hit");
+        misses = meterRegistry.counter("oneeats.images.proxy.requests", "result", "miss");
+        revalidated = meterRegistry.counter("oneeats.images.proxy.requests", "result", "revalidated");
+        coalesced = meterRegistry.counter("oneeats.images.proxy.requests", "result", "coalesced");
+        stale = meterRegistry.counter("oneeats.images.proxy.requests", "result", "stale");
+        errors = meterRegistry.counter("oneeats.images.proxy.requests", "result", "error");
+        meterRegistry.gauge("oneeats.images.proxy.bytes", this, cache -> cache.cachedBytes());
+        meterRegistry.gauge("oneeats.images.proxy.entries", this, cache -> cache.size());
+        try {
+            Files.createDirectories(directory);
+            loadIndex();
+        } catch (IOException e) {
+            LOG.warnf("Image proxy cache unavailable at %s: %s", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Image de l'URL, depuis le cache ou l'origine
+     */
+    public CompletableFuture<ProxiedImage> fetch(URI uri) {
+        return resolve(uri).thenCompose(entry -> {
+            ProxiedImage image = open(entry);
+            if (image != null) {
+                return CompletableFuture.completedFuture(image);
+            }
+            // Entree evincee avant l'ouverture (cache sature): un seul nouvel essai
+            return resolve(uri).thenApply(retry -> {
+                ProxiedImage retried = open(retry);
+                if (retried == null) {
+                    throw new ImageProxyException(503, "Image cache is saturated, retry later");
+                }
+                return retried;
+            });
+        });
+    }
+
+    private CompletableFuture<Entry> resolve(URI uri) {
+        String key = key(uri);
+        Entry entry = lookup(key);
+        if (entry != null && entry.fresh()) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+        // Un chargement a pu se terminer entre la lecture de l'index et l'inscription
+        entry = lookup(key);
+        if (entry != null && entry.fresh()) {
+            inFlight.remove(key, load);
+            hits.increment();
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        (entry == null ? misses : revalidated).increment();
+        load(uri, key, entry).whenComplete((image, error) -> {
+            inFlight.remove(key, load);
+            if (error != null) {
+                load.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                load.complete(image);
+            }
+        });
+        return load;
+    }
+
+    private CompletableFuture<Entry> load(URI uri, String key, Entry cached) {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(uri)
+            .timeout(requestTimeout)
+            .header("User-Agent", "OneEats/1.0")
+            .GET();
+        if (cached != null && cached.originEtag != null) {
+            request.header("If-None-Match", cached.originEtag);
+        }
+        if (cached != null && cached.originLastModified != null) {
+            request.header("If-Modified-Since", cached.originLastModified);
+        }
+
+        Path download = directory.resolve("." + key + "." + UUID.randomUUID() + ".tmp");
+        return httpClient.sendAsync(request.build(), info -> bodyHandler(info, download))
+            .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((response, error) -> {
+                try {
+                    if (error != null) {
+                        throw error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    }
+                    return complete(uri, key, cached, response, download);
+                } catch (Throwable failure) {
+                    deleteQuietly(download);
+                    // Origine indisponible: la copie perimee reste preferable a une erreur
+                    if (cached != null && !(failure instanceof ImageProxyException proxyError && proxyError.status() < 500)) {
+                        stale.increment();
+                        LOG.debugf("Serving stale proxied image %s: %s", uri, failure.getMessage());
+                        return cached;
+                    }
+                    errors.increment();
+                    throw failure instanceof RuntimeException runtime ? runtime : new CompletionException(failure);
+                }
+            });
+    }
+
+    private Entry complete(URI uri, String key, Entry cached, HttpResponse<Long> response, Path download) throws IOException {
+        int status = response.statusCode();
+        HttpHeaders headers = response.headers();
+        long now = System.currentTimeMillis();
+
+        if (status == 304 && cached != null) {
+            Entry refreshed = cached.revalidated(now + freshness(headers).toMillis(),
+                headers.firstValue("ETag").orElse(cached.originEtag),
+                headers.firstValue("Last-Modified").orElse(cached.originLastModified));
+            writeMetadata(refreshed);
+            store(refreshed);
+            return refreshed;
+        }
+        // Redirection comprise: la cible n'a pas ete validee
+        if (status != 200) {
+            throw new ImageProxyException(status >= 500 ? 502 : 404, "Image not found");
+        }
+        String contentType = headers.firstValue("Content-Type").orElse("application/octet-stream");
+        if (!contentType.startsWith("image/")) {
+            throw new ImageProxyException(400, "URL does not point to an image");
+        }
+        Long length = response.body();
+        if (length == null) {
+            throw new ImageProxyException(413, "Image too large");
+        }
+
+        Entry entry = new Entry(key, uri.toString(), contentType, length, now, now + freshness(headers).toMillis(),
+            headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null));
+        Files.move(download, contentPath(entry), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeMetadata(entry);
+        store(entry);
+        return entry;
+    }
+
+    /**
+     * Corps ecrit dans {@code download} pour un 200 image de taille acceptable; ignore sinon (corps null)
+     */
+    private HttpResponse.BodySubscriber<Long> bodyHandler(HttpResponse.ResponseInfo info, Path download) {
+        if (info.statusCode() != 200
+            || !info.headers().firstValue("Content-Type").orElse("").startsWith("image/")
+            || info.headers().firstValueAsLong("Content-Length").orElse(0) > maxEntryBytes) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        return new BoundedFileSubscriber(download, maxEntryBytes);
+    }
+
+    /**
+     * Fraicheur annoncee par l'origine (max-age, no-cache / no-store), bornee a 24 h
+     */
+    private Duration freshness(HttpHeaders headers) {
+        String cacheControl = headers.firstValue("Cache-Control").orElse("").toLowerCase();
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")) {
+            return Duration.ZERO;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    Duration maxAge = Duration.ofSeconds(Long.parseLong(trimmed.substring("max-age=".length())));
+                    return maxAge.compareTo(MAX_FRESHNESS) > 0 ? MAX_FRESHNESS : maxAge;
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        return defaultTtl;
+    }
+
+    private Entry lookup(String key) {
+        synchronized (index) {
+            return index.get(key);
+        }
+    }
+
+    /**
+     * Ouvre le contenu de la version courante de l'entree, ou null si elle a ete evincee ou remplacee.
+     * Sous le verrou de l'index: un fichier n'est supprime qu'apres avoir quitte l'index, donc jamais avant
+     * d'etre ouvert ici; une fois ouvert, sa lecture n'est plus affectee par la suppression.
+     */
+    private ProxiedImage open(Entry entry) {
+        synchronized (index) {
+            Entry current = index.get(entry.key);
+            if (current == null || current.fetchedAt != entry.fetchedAt) {
+                return null;
+            }
+            try {
+                return current.image(Files.newInputStream(contentPath(current)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void store(Entry entry) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (index) {
+            Entry previous = index.put(entry.key, entry);
+            if (previous != null) {
+                cachedBytes -= previous.length;
+                // Nouveau telechargement: l'ancienne version n'est plus servie
+                if (previous.fetchedAt != entry.fetchedAt) {
+                    evicted.add(previous);
+                }
+            }
+            cachedBytes += entry.length;
+            Iterator<Entry> eldest = index.values().iterator();
+            while ((cachedBytes > maxBytes || index.size() > maxEntries) && eldest.hasNext()) {
+                Entry victim = eldest.next();
+                if (victim == entry) {
+                    continue;
+                }
+                eldest.remove();
+                cachedBytes -= victim.length;
+                evicted.add(victim);
+            }
+        }
+        for (Entry victim : evicted) {
+            deleteQuietly(contentPath(victim));
+            // Metadonnees partagees par les versions d'une URL: conservees si elle est de nouveau en cache
+            if (!contains(victim.key)) {
+                deleteQuietly(metadataPath(victim.key));
+            }
+        }
+    }
+
+    private boolean contains(String key) {
+        synchronized (index) {
+            return index.containsKey(key);
+        }
+    }
+
+    public long cachedBytes() {
+        synchronized (index) {
+            return cachedBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        List<Path> contents = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Telechargement interrompu par un arret
+                    deleteQuietly(file);
+                } else if (name.endsWith(".bin")) {
+                    contents.add(file);
+                } else if (name.endsWith(".meta")) {
+                    Entry entry = readMetadata(file);
+                    if (entry != null && Files.exists(contentPath(entry))) {
+                        entries.add(entry);
+                    } else {
+                        deleteQuietly(file);
+                    }
+                }
+            }
+        }
+        // Les plus anciens en tete de l'ordre LRU
+        entries.sort(Comparator.comparingLong(entry -> entry.fetchedAt));
+        for (Entry entry : entries) {
+            store(entry);
+        }
+        // Versions dont la suppression a echoue (fichier encore ouvert par un envoi lors de l'arret)
+        Set<Path> indexed = new HashSet<>();
+        synchronized (index) {
+            index.values().forEach(entry -> indexed.add(contentPath(entry)));
+        }
+        contents.stream().filter(file -> !indexed.contains(file)).forEach(ImageProxyCache::deleteQuietly);
+    }
+
+    private Entry readMetadata(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            return new Entry(
+                properties.getProperty("key"),
+                properties.getProperty("url"),
+                properties.getProperty("contentType"),
+                Long.parseLong(properties.getProperty("length")),
+                Long.parseLong(properties.getProperty("fetchedAt")),
+                Long.parseLong(properties.getProperty("expiresAt")),
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void writeMetadata(Entry entry) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("key", entry.key);
+        properties.setProperty("url", entry.url);
+        properties.setProperty("contentType", entry.contentType);
+        properties.setProperty("length", Long.toString(entry.length));
+        properties.setProperty("fetchedAt", Long.toString(entry.fetchedAt));
+        properties.setProperty("expiresAt", Long.toString(entry.expiresAt));
+        if (entry.originEtag != null) {
+            properties.setProperty("etag", entry.originEtag);
+        }
+        if (entry.originLastModified != null) {
+            properties.setProperty("lastModified", entry.originLastModified);
+        }
+        Path temporary = directory.resolve("." + entry.key + "." + UUID.randomUUID() + ".meta.tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            properties.store(out, null);
+        }
+        Files.move(temporary, metadataPath(entry.key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path contentPath(Entry entry) {
+        return directory.resolve(entry.key + "-" + Long.toHexString(entry.fetchedAt) + ".bin");
+    }
+
+    private Path metadataPath(String key) {
+        return directory.resolve(key + ".meta");
+    }
+
+    private static String key(URI uri) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(uri.toString().getBytes(StandardCharsets.UTF_8)), 0, 20);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.debugf("Failed to delete %s: %s", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Entree de l'index. Immuable: une revalidation produit une nouvelle entree.
+     */
+    private record Entry(String key, String url, String contentType, long length, long fetchedAt, long expiresAt,
+                         String originEtag, String originLastModified) {
+
+        boolean fresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        Entry revalidated(long newExpiresAt, String etag, String lastModified) {
+            return new Entry(key, url, contentType, length, fetchedAt, newExpiresAt, etag, lastModified);
+        }
+
+        ProxiedImage image(InputStream content) {
+            long freshFor = Math.max(0, (expiresAt - System.currentTimeMillis()) / 1000);
+            // Version du contenu: inchangee par une revalidation
+            return new ProxiedImage(content, contentType, length,
+                key.substring(0, 16) + "-" + Long.toHexString(fetchedAt), freshFor);
+        }
+    }
+
+    /**
+     * Ecrit le corps dans un fichier au fil de la reception et abandonne au-dela de {@code limit} octets
+     * (corps null).
+     */
+    private static final class BoundedFileSubscriber implements HttpResponse.BodySubscriber<Long> {
+
+        private final Path target;
+        private final long limit;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private FileChannel channel;
+        private Flow.Subscription subscription;
+        private long written;
+
+        BoundedFileSubscriber(Path target, long limit) {
+            this.target = target;
+            this.limit = limit;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    written += buffer.remaining();
+                    if (written > limit) {
+                        subscription.cancel();
+                        close();
+                        result.complete(null);
+                        return;
+                    }
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                close();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+            result.complete(written);
+        }
+
+        @Override
+        public CompletionStage<Long> getBody() {
+            return result;
+        }
+
+        private void close() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                // Fichier temporaire supprime par l'appelant
+            }
+        }
+    }
+}
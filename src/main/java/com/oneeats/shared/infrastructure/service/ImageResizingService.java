@@ -2,13 +2,26 @@ package com.oneeats.shared.infrastructure.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 
 @ApplicationScoped
 public class ImageResizingService {
@@ -19,28 +32,138 @@ public class ImageResizingService {
     public static final int LARGE_SIZE = 800;
 
     public static final float JPEG_QUALITY = 0.85f;
-    public static final float WEBP_QUALITY = 0.8f;
+
+    // Reduction maximale par passe: au-dela, une interpolation bilineaire saute des pixels source (aliasing)
+    private static final int MAX_STEP_RATIO = 2;
+
+    // Les tampons intermediaires sont conserves par thread jusqu'a cette taille (1 Mpx = 4 Mo en INT_RGB)
+    private static final int MAX_POOLED_PIXELS = 1024 * 1024;
+
+    private final ThreadLocal<BufferedImage[]> scratchBuffers = ThreadLocal.withInitial(() -> new BufferedImage[2]);
 
     /**
      * Resize image to specified dimensions while maintaining aspect ratio
      */
     public InputStream resizeImage(InputStream inputStream, String originalFormat, int targetWidth, int targetHeight) throws IOException {
-        BufferedImage originalImage = ImageIO.read(inputStream);
-        if (originalImage == null) {
+        BufferedImage originalImage = decode(inputStream, targetWidth, targetHeight);
+        BufferedImage resizedImage = scaleToFit(originalImage, targetWidth, targetHeight);
+        return new ByteArrayInputStream(encode(resizedImage, originalFormat));
+    }
+
+    /**
+     * Decode an image once so that several sizes can be derived from the same raster
+     */
+    public BufferedImage decode(InputStream inputStream) throws IOException {
+        BufferedImage image = ImageIO.read(inputStream);
+        if (image == null) {
+            throw new IOException("Unable to read image");
+        }
+        return image;
+    }
+
+    /**
+     * Decode an image for a given output box, subsampling rows and columns while decoding.
+     * The full-resolution raster of a large photo is never materialised: decoding stops at no less
+     * than twice the box, so that the last downscaling passes still average neighbouring pixels.
+     */
+    public BufferedImage decode(InputStream inputStream, int maxWidth, int maxHeight) throws IOException {
+        // Tampon memoire explicite: ImageIO.createImageInputStream passerait par un fichier de cache temporaire
+        try (ImageInputStream input = new MemoryCacheImageInputStream(inputStream)) {
+            return decode(input, maxWidth, maxHeight);
+        }
+    }
+
+    /**
+     * Decode an image file for a given output box (see {@link #decode(InputStream, int, int)})
+     */
+    public BufferedImage decode(Path source, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            return decode(input, maxWidth, maxHeight);
+        }
+    }
+
+    private BufferedImage decode(ImageInputStream input, int maxWidth, int maxHeight) throws IOException {
+        if (input == null) {
+            throw new IOException("Unable to read image");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
             throw new IOException("Unable to read image");
         }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+
+            ImageReadParam param = reader.getDefaultReadParam();
+            int subsampling = subsamplingFactor(width, height, maxWidth, maxHeight);
+            if (subsampling > 1) {
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            }
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private int subsamplingFactor(int width, int height, int maxWidth, int maxHeight) {
+        Dimension target = calculateDimensions(width, height, maxWidth, maxHeight);
+        int ratio = Math.min(width / target.width, height / target.height);
+        return Math.max(1, ratio / MAX_STEP_RATIO);
+    }
 
+    /**
+     * Scale a decoded image to fit in the given box (aspect ratio kept, never upscaled).
+     * Large reductions are done by successive halvings, each one bilinear, so that every source pixel
+     * contributes to the result; intermediate steps reuse per-thread buffers.
+     */
+    public BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
         // Calculate new dimensions maintaining aspect ratio
-        Dimension newDimensions = calculateDimensions(originalImage.getWidth(), originalImage.getHeight(), targetWidth, targetHeight);
+        Dimension target = calculateDimensions(source.getWidth(), source.getHeight(), maxWidth, maxHeight);
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        BufferedImage[] buffers = scratchBuffers.get();
+        int next = 0;
+
+        // Divisions par deux tant que la derniere passe resterait au-dela du ratio maximal
+        while (currentWidth / MAX_STEP_RATIO > target.width && currentHeight / MAX_STEP_RATIO > target.height) {
+            int stepWidth = currentWidth / MAX_STEP_RATIO;
+            int stepHeight = currentHeight / MAX_STEP_RATIO;
+            BufferedImage buffer = scratchBuffer(buffers, next, stepWidth, stepHeight);
+            draw(current, currentWidth, currentHeight, buffer, stepWidth, stepHeight);
+            current = buffer;
+            currentWidth = stepWidth;
+            currentHeight = stepHeight;
+            next ^= 1;
+        }
 
-        // Create resized image
-        BufferedImage resizedImage = new BufferedImage(
-            newDimensions.width,
-            newDimensions.height,
-            BufferedImage.TYPE_INT_RGB
-        );
+        // La derniere passe ecrit dans une image dediee: les tampons ne sortent jamais du service
+        BufferedImage resizedImage = new BufferedImage(target.width, target.height, BufferedImage.TYPE_INT_RGB);
+        draw(current, currentWidth, currentHeight, resizedImage, target.width, target.height);
+        return resizedImage;
+    }
 
-        Graphics2D g2d = resizedImage.createGraphics();
+    private BufferedImage scratchBuffer(BufferedImage[] buffers, int index, int width, int height) {
+        BufferedImage buffer = buffers[index];
+        if (buffer != null && buffer.getWidth() >= width && buffer.getHeight() >= height) {
+            return buffer;
+        }
+        buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        if ((long) width * height <= MAX_POOLED_PIXELS) {
+            buffers[index] = buffer;
+        }
+        return buffer;
+    }
+
+    /**
+     * Draw the top-left region of a source into the top-left region of a destination
+     */
+    private void draw(BufferedImage source, int sourceWidth, int sourceHeight,
+                      BufferedImage destination, int width, int height) {
+        Graphics2D g2d = destination.createGraphics();
         try {
             // Set high quality rendering hints
             g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
@@ -49,20 +172,58 @@ public class ImageResizingService {
 
             // Fill background with white for non-transparent images
             g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, newDimensions.width, newDimensions.height);
+            g2d.fillRect(0, 0, width, height);
 
             // Draw the resized image
-            g2d.drawImage(originalImage, 0, 0, newDimensions.width, newDimensions.height, null);
+            g2d.drawImage(source, 0, 0, width, height, 0, 0, sourceWidth, sourceHeight, null);
         } finally {
             g2d.dispose();
         }
+    }
 
-        // Convert back to InputStream
+    /**
+     * Encode a raster in the output format matching the original extension
+     */
+    public byte[] encode(BufferedImage image, String originalFormat) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        String format = getImageFormat(originalFormat);
-        ImageIO.write(resizedImage, format, baos);
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(baos)) {
+            write(image, originalFormat, output);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Encode a raster straight to a file, without an intermediate byte array
+     */
+    public void encode(BufferedImage image, String originalFormat, Path target) throws IOException {
+        // FileImageOutputStream ne tronque pas un fichier existant
+        Files.deleteIfExists(target);
+        try (ImageOutputStream output = new FileImageOutputStream(target.toFile())) {
+            write(image, originalFormat, output);
+        }
+    }
 
-        return new ByteArrayInputStream(baos.toByteArray());
+    /**
+     * Write with an explicit JPEG quality (the ImageIO default is 0.75)
+     */
+    private void write(BufferedImage image, String originalFormat, ImageOutputStream output) throws IOException {
+        String format = getImageFormat(originalFormat);
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for format " + format);
+        }
+        ImageWriter writer = writers.next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
     }
 
     /**
@@ -109,7 +270,8 @@ public class ImageResizingService {
             newWidth = (int) (newHeight * aspectRatio);
         }
 
-        return new Dimension(newWidth, newHeight);
+        // Formats extremes (panoramas): jamais de dimension nulle
+        return new Dimension(Math.max(1, newWidth), Math.max(1, newHeight));
     }
 
     /**
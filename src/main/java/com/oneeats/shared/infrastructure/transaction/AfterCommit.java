@@ -0,0 +1,65 @@
+package com.oneeats.shared.infrastructure.transaction;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Actions differees a la fin de la transaction courante (caches, modeles de lecture, envois).
+ *
+ * Les actions s'executent sur le thread qui termine la transaction, dans {@code afterCompletion}:
+ * elles doivent rester courtes et ne pas ouvrir de transaction.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Execute {@code action} apres le commit de la transaction active, immediatement hors transaction
+     * ({@code registry} absent compris). Abandonnee si la transaction est annulee ou n'est plus active
+     * (marquee pour rollback).
+     */
+    public static void run(TransactionSynchronizationRegistry registry, Runnable action) {
+        int status = registry == null ? Status.STATUS_NO_TRANSACTION : registry.getTransactionStatus();
+        if (status == Status.STATUS_NO_TRANSACTION) {
+            action.run();
+        } else if (status == Status.STATUS_ACTIVE) {
+            onCompletion(registry, action, null);
+        }
+    }
+
+    /**
+     * Execute {@code action} a la fin de la transaction active, quelle qu'en soit l'issue
+     * (invalidation de cache repetee apres le commit).
+     *
+     * @return false s'il n'y a pas de transaction active
+     */
+    public static boolean afterCompletion(TransactionSynchronizationRegistry registry, Runnable action) {
+        if (registry == null || registry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return false;
+        }
+        onCompletion(registry, action, action);
+        return true;
+    }
+
+    /**
+     * Enregistre {@code onCommit} et {@code onRollback} (optionnel) aupres de la transaction active
+     */
+    public static void onCompletion(TransactionSynchronizationRegistry registry, Runnable onCommit, Runnable onRollback) {
+        registry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    onCommit.run();
+                } else if (onRollback != null) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.oneeats.shared.infrastructure.web;
+
+/**
+ * Plage d'octets demandee par un en-tete {@code Range} (bornes incluses).
+ * Seules les plages uniques sont servies: une demande multi-plages recoit la ressource complete.
+ */
+public record ByteRange(long start, long end) {
+
+    /** Plage hors de la ressource: reponse 416. */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT_PREFIX = "bytes=";
+
+    public boolean satisfiable() {
+        return start >= 0;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long total) {
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+
+    /**
+     * Interprete un en-tete Range pour une ressource de {@code total} octets.
+     *
+     * @return la plage demandee, {@link #UNSATISFIABLE}, ou null si l'en-tete est absent, invalide
+     *         ou multi-plages (la ressource complete doit alors etre servie)
+     */
+    public static ByteRange parse(String header, long total) {
+        if (header == null || !header.regionMatches(true, 0, UNIT_PREFIX, 0, UNIT_PREFIX.length())) {
+            return null;
+        }
+        String spec = header.substring(UNIT_PREFIX.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffixe: les N derniers octets
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || total == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, total - suffixLength), total - 1);
+            }
+            long start = Long.parseLong(first);
+            if (start >= total) {
+                return UNSATISFIABLE;
+            }
+            long end = last.isEmpty() ? total - 1 : Math.min(Long.parseLong(last), total - 1);
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,24 +1,43 @@
 package com.oneeats.shared.infrastructure.web;
 
 import com.oneeats.shared.infrastructure.service.FileStorageService;
+import com.oneeats.shared.infrastructure.service.ImageHotCache;
+import com.oneeats.shared.infrastructure.service.ImageHotCache.CachedImage;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.core.StreamingOutput;
+import org.jboss.resteasy.reactive.PathPart;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 @Path("/uploads")
 public class FileController {
 
     private static final String THUMBNAILS_DIR = "thumbnails";
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable"; // Cache for 1 year
+    private static final String FALLBACK_CACHE_CONTROL = "public, max-age=30";
+
+    @Inject
+    ImageHotCache hotCache;
 
     /**
      * Serve image files with optional size parameter for thumbnails
      *
+     * Files are sent zero-copy (sendfile) unless they are hot thumbnails held in memory.
+     * Supports conditional requests (ETag / Last-Modified, 304) and single byte ranges (206).
+     *
      * @param category Category folder (restaurants, menu-items)
      * @param filename The image filename
      * @param size Optional size parameter: "small" (150px), "medium" (400px), or null for original (800px)
@@ -34,7 +53,10 @@ public class FileController {
     public Response getFile(
             @PathParam("category") String category,
             @PathParam("filename") String filename,
-            @QueryParam("size") String size) {
+            @QueryParam("size") String size,
+            @HeaderParam("Range") String range,
+            @HeaderParam("If-Range") String ifRange,
+            @Context Request request) {
 
         try {
             // Validate category to prevent directory traversal
@@ -54,43 +76,60 @@ public class FileController {
             // Determine which file to serve based on size parameter
             java.nio.file.Path filePath = resolveFilePath(category, filename, size);
 
-            // Check if file exists
-            if (!Files.exists(filePath)) {
-                // If thumbnail doesn't exist, fall back to original
-                if (size != null && !size.isEmpty()) {
-                    filePath = Paths.get("uploads", category, filename);
-                    if (!Files.exists(filePath)) {
-                        return Response.status(Response.Status.NOT_FOUND)
-                            .entity("File not found")
-                            .build();
-                    }
-                } else {
-                    return Response.status(Response.Status.NOT_FOUND)
-                        .entity("File not found")
-                        .build();
+            // Derivatives are generated in background after an upload: serve the best version available
+            // (thumbnail -> main image -> uploaded source) until they are written
+            CachedImage image = null;
+            for (java.nio.file.Path candidate : new LinkedHashSet<>(List.of(
+                    filePath,
+                    FileStorageService.mainPath(category, filename),
+                    FileStorageService.sourcePath(category, filename)))) {
+                try {
+                    image = hotCache.lookup(candidate);
+                    break;
+                } catch (NoSuchFileException e) {
+                    // Try the next fallback
                 }
             }
+            if (image == null) {
+                return notFound();
+            }
+            // A fallback must not be cached for a year: the requested size will exist shortly
+            String cacheControl = image.path().equals(filePath) ? CACHE_CONTROL : FALLBACK_CACHE_CONTROL;
+
+            EntityTag entityTag = new EntityTag(image.etag());
+            Date lastModified = new Date(image.lastModifiedMillis());
+
+            // Conditional GET: If-None-Match / If-Modified-Since
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+            if (notModified != null) {
+                return withCacheHeaders(notModified, entityTag, lastModified, cacheControl).build();
+            }
 
-            // Get content type based on file extension
             String contentType = getContentType(filename);
+            ByteRange byteRange = rangeApplies(ifRange, entityTag, image.lastModifiedMillis())
+                ? ByteRange.parse(range, image.length())
+                : null;
 
-            // Create streaming response
-            final java.nio.file.Path finalPath = filePath;
-            StreamingOutput stream = output -> {
-                try (InputStream input = Files.newInputStream(finalPath)) {
-                    byte[] buffer = new byte[8192];
-                    int bytesRead;
-                    while ((bytesRead = input.read(buffer)) != -1) {
-                        output.write(buffer, 0, bytesRead);
-                    }
-                    output.flush();
-                }
-            };
+            if (byteRange == null) {
+                Object body = image.inMemory() ? image.bytes() : image.path();
+                return withCacheHeaders(Response.ok(body), entityTag, lastModified, cacheControl)
+                    .type(contentType)
+                    .build();
+            }
+
+            if (!byteRange.satisfiable()) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + image.length())
+                    .header("Accept-Ranges", "bytes")
+                    .build();
+            }
 
-            return Response.ok(stream)
+            Object partial = image.inMemory()
+                ? Arrays.copyOfRange(image.bytes(), (int) byteRange.start(), (int) byteRange.end() + 1)
+                : new PathPart(image.path(), byteRange.start(), byteRange.length());
+            return withCacheHeaders(Response.status(Response.Status.PARTIAL_CONTENT).entity(partial), entityTag, lastModified, cacheControl)
                 .type(contentType)
-                .header("Cache-Control", "public, max-age=31536000") // Cache for 1 year
-                .header("Vary", "Accept") // Vary by Accept header for content negotiation
+                .header("Content-Range", byteRange.contentRange(image.length()))
                 .build();
 
         } catch (Exception e) {
@@ -100,6 +139,40 @@ public class FileController {
         }
     }
 
+    private Response.ResponseBuilder withCacheHeaders(Response.ResponseBuilder builder, EntityTag entityTag, Date lastModified, String cacheControl) {
+        return builder
+            .tag(entityTag)
+            .lastModified(lastModified)
+            .header("Cache-Control", cacheControl)
+            .header("Accept-Ranges", "bytes")
+            .header("Vary", "Accept"); // Vary by Accept header for content negotiation
+    }
+
+    private Response notFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity("File not found")
+            .build();
+    }
+
+    /**
+     * If-Range: the range is honoured only if the client's copy is still current (strong ETag or exact date)
+     */
+    private boolean rangeApplies(String ifRange, EntityTag entityTag, long lastModifiedMillis) {
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("\"")) {
+            return validator.equals("\"" + entityTag.getValue() + "\"");
+        }
+        try {
+            long since = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return since / 1000 == lastModifiedMillis / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     /**
      * Resolve the file path based on size parameter
      */
@@ -1,77 +1,100 @@
 package com.oneeats.shared.infrastructure.web;
 
+import com.oneeats.shared.infrastructure.service.ImageProxyCache;
+import com.oneeats.shared.infrastructure.service.ImageProxyCache.ImageProxyException;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
 
 @Path("/api/proxy/image")
 public class ImageProxyController {
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .connectTimeout(Duration.ofSeconds(10))
-        .build();
+    @Inject
+    ImageProxyCache imageProxyCache;
 
     @GET
-    public Response proxyImage(@QueryParam("url") String imageUrl) {
+    public CompletionStage<Response> proxyImage(@QueryParam("url") String imageUrl, @Context Request request) {
         if (imageUrl == null || imageUrl.trim().isEmpty()) {
-            return Response.status(Response.Status.BAD_REQUEST)
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
                 .entity("Image URL is required")
-                .build();
+                .build());
         }
 
+        URI uri;
         try {
             // Validate URL
-            URI uri = URI.create(imageUrl);
-            if (!uri.getScheme().equals("https") && !uri.getScheme().equals("http")) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("Only HTTP and HTTPS URLs are allowed")
-                    .build();
-            }
-
-            // Make request to external image
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(uri)
-                .timeout(Duration.ofSeconds(30))
-                .header("User-Agent", "OneEats/1.0")
-                .GET()
-                .build();
-
-            HttpResponse<InputStream> response = httpClient.send(request, 
-                HttpResponse.BodyHandlers.ofInputStream());
+            uri = URI.create(imageUrl);
+        } catch (IllegalArgumentException e) {
+            uri = null;
+        }
+        if (uri == null || uri.getScheme() == null || uri.getHost() == null
+            || !uri.getScheme().equals("https") && !uri.getScheme().equals("http")) {
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                .entity("Only HTTP and HTTPS URLs are allowed")
+                .build());
+        }
 
-            if (response.statusCode() != 200) {
-                return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Image not found")
-                    .build();
+        // Cache disque partage; l'appel a l'origine ne bloque pas le thread d'E/S
+        return imageProxyCache.fetch(uri).handle((image, error) -> {
+            if (error != null) {
+                return failure(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
             }
 
-            // Determine content type
-            String contentType = response.headers().firstValue("content-type")
-                .orElse("application/octet-stream");
-
-            // Only allow image content types
-            if (!contentType.startsWith("image/")) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("URL does not point to an image")
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.setPrivate(false);
+            cacheControl.setMaxAge((int) Math.min(Integer.MAX_VALUE, image.freshForSeconds()));
+            EntityTag entityTag = new EntityTag(image.etag());
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+            if (notModified != null) {
+                closeQuietly(image.content());
+                return notModified
+                    .cacheControl(cacheControl)
+                    .header("Access-Control-Allow-Origin", "*")
                     .build();
             }
 
-            return Response.ok(response.body(), contentType)
-                .header("Cache-Control", "public, max-age=3600") // 1 hour cache
+            // Flux ouvert par le cache: lisible jusqu'au bout meme si l'image est evincee pendant l'envoi
+            return Response.ok(image.content(), image.contentType())
+                .tag(entityTag)
+                .cacheControl(cacheControl)
+                .header("Content-Length", image.length())
                 .header("Access-Control-Allow-Origin", "*")
                 .build();
+        });
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            // Rien a liberer de plus
+        }
+    }
 
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity("Failed to fetch image: " + e.getMessage())
+    private Response failure(Throwable error) {
+        if (error instanceof ImageProxyException proxyError) {
+            return Response.status(proxyError.status())
+                .entity(proxyError.getMessage())
+                .build();
+        }
+        if (error instanceof TimeoutException) {
+            return Response.status(Response.Status.GATEWAY_TIMEOUT)
+                .entity("Image origin timed out")
                 .build();
         }
+        return Response.status(Response.Status.BAD_GATEWAY)
+            .entity("Failed to fetch image: " + error.getMessage())
+            .build();
     }
-}
\ No newline at end of file
+}
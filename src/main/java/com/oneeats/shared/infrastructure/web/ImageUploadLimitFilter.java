@@ -0,0 +1,51 @@
+package com.oneeats.shared.infrastructure.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Taille maximale des televersements d'images (restaurants, plats), sans relever la limite globale des requetes.
+ *
+ * - Corps annonce au-dela de {@code max-body-bytes} (en-tete Content-Length): 413 avant toute reception.
+ * - Corps sans Content-Length (chunked): borne globale {@code quarkus.http.limits.max-body-size}, puis copie
+ *   du fichier interrompue a 5 Mo par {@code FileStorageService}.
+ */
+@ApplicationScoped
+public class ImageUploadLimitFilter {
+
+    private static final Logger LOG = Logger.getLogger(ImageUploadLimitFilter.class);
+
+    private static final String UPLOAD_ROUTES = "/api/(restaurants|menu-items)/[^/]+/image";
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "oneeats.images.upload.max-body-bytes", defaultValue = "6291456")
+    long maxBodyBytes;
+
+    public void init(@Observes Router router) {
+        // Avant la lecture du corps multipart par le point d'entree REST
+        router.postWithRegex(UPLOAD_ROUTES).order(-100).handler(ctx -> {
+            String contentLength = ctx.request().getHeader(HttpHeaders.CONTENT_LENGTH);
+            long length;
+            try {
+                length = contentLength == null ? -1 : Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                length = -1;
+            }
+            if (length > maxBodyBytes) {
+                meterRegistry.counter("oneeats.images.upload.rejected", "reason", "too-large").increment();
+                LOG.debugf("Image upload of %d bytes rejected on %s", length, ctx.request().path());
+                ctx.response().setStatusCode(413).putHeader(HttpHeaders.CONNECTION, "close").end();
+                return;
+            }
+            ctx.next();
+        });
+    }
+}
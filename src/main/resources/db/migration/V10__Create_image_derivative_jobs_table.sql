@@ -0,0 +1,20 @@
+-- V10: File persistante de generation des tailles d'images (large, medium, small)
+-- Les workers reservent les travaux avec FOR UPDATE SKIP LOCKED; un travail reussi est supprime
+
+CREATE TABLE IF NOT EXISTS image_derivative_jobs (
+    id UUID PRIMARY KEY,
+    category VARCHAR(50) NOT NULL,
+    base_name VARCHAR(100) NOT NULL,
+    extension VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000)
+);
+
+-- Reservation des travaux a traiter
+CREATE INDEX IF NOT EXISTS idx_image_derivative_jobs_pending ON image_derivative_jobs(status, available_at);
+
+COMMENT ON TABLE image_derivative_jobs IS 'Images televersees en attente de generation de leurs tailles';
+COMMENT ON COLUMN image_derivative_jobs.available_at IS 'Prochaine prise en charge possible (bail du worker ou backoff entre deux tentatives)';
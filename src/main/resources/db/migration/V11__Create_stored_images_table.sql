@@ -0,0 +1,25 @@
+-- V11: Images stockees par contenu (nom = SHA-256) avec compteur de references
+-- Un meme fichier televerse plusieurs fois n'est stocke qu'une fois; le GC supprime les images sans reference
+
+CREATE TABLE IF NOT EXISTS stored_images (
+    url VARCHAR(255) PRIMARY KEY,
+    category VARCHAR(50) NOT NULL,
+    base_name VARCHAR(100) NOT NULL,
+    extension VARCHAR(10) NOT NULL,
+    content_hash VARCHAR(64),
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Candidats du GC: images sans reference depuis plus que le delai de grace
+CREATE INDEX IF NOT EXISTS idx_stored_images_unreferenced ON stored_images(ref_count, updated_at);
+
+-- Verification des references avant suppression
+CREATE INDEX IF NOT EXISTS idx_restaurant_image_url ON restaurant(image_url);
+CREATE INDEX IF NOT EXISTS idx_menu_item_image_url ON menu_item(image_url);
+
+COMMENT ON TABLE stored_images IS 'Images televersees, adressees par leur contenu';
+COMMENT ON COLUMN stored_images.ref_count IS 'Nombre de restaurants et de plats dont image_url pointe vers cette image';
+COMMENT ON COLUMN stored_images.content_hash IS 'SHA-256 du fichier televerse (NULL pour les images anterieures, adoptees par le GC)';
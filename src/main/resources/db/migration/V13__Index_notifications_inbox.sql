@@ -0,0 +1,6 @@
+-- V13: Boite de reception paginee (curseur created_at, id) et compteur des non lues par utilisateur
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_inbox ON notifications(recipient_id, status, created_at);
+
+-- Purge de retention par lots sur created_at
+CREATE INDEX IF NOT EXISTS idx_notifications_created_at ON notifications(created_at);
@@ -0,0 +1,3 @@
+-- V14: Commandes actives d'un restaurant (comptage et annulation par lots au blocage)
+
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_status ON orders(restaurant_id, status, created_at);
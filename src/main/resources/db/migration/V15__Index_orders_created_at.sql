@@ -0,0 +1,7 @@
+-- V15: Statistiques journalieres des commandes (agregation par jour de prise de commande)
+
+-- Construction du modele de lecture: commandes du jour, tous restaurants
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
+
+-- Jours precedents d'un restaurant
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_created_at ON orders(restaurant_id, created_at);
@@ -0,0 +1,13 @@
+-- V16: Cles d'idempotence des prises de commande (en-tete Idempotency-Key, requetes rejouees par les mobiles)
+
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    user_id UUID NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id UUID REFERENCES orders(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+-- Purge des cles expirees
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_keys_created_at ON order_idempotency_keys(created_at);
@@ -0,0 +1,16 @@
+-- V8: Presence des sessions WebSocket par noeud (livraison inter-noeuds via LISTEN/NOTIFY)
+-- Utilisee uniquement avec oneeats.notification.cluster.transport=postgres
+
+CREATE TABLE IF NOT EXISTS websocket_node_presence (
+    node_id VARCHAR(36) NOT NULL,
+    recipient_type VARCHAR(20) NOT NULL,
+    recipient_id UUID NOT NULL,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (node_id, recipient_type, recipient_id)
+);
+
+-- Recherche des noeuds detenant des sessions pour un destinataire
+CREATE INDEX IF NOT EXISTS idx_websocket_presence_recipient ON websocket_node_presence(recipient_type, recipient_id);
+
+COMMENT ON TABLE websocket_node_presence IS 'Noeuds backend detenant des sessions WebSocket ouvertes pour un utilisateur ou un restaurant';
+COMMENT ON COLUMN websocket_node_presence.refreshed_at IS 'Rafraichi periodiquement par le noeud; les lignes expirees sont purgees';
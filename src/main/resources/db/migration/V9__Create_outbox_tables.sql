@@ -0,0 +1,31 @@
+-- V9: Outbox transactionnelle des evenements domaine (commandes, notifications)
+-- Les evenements sont ecrits dans la transaction de l'agregat puis relayes (FOR UPDATE SKIP LOCKED)
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id UUID PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
+-- Reservation des lots a livrer
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events(status, available_at);
+
+-- Idempotence des gestionnaires: un evenement n'est traite qu'une fois par consommateur
+CREATE TABLE IF NOT EXISTS outbox_processed_events (
+    event_id UUID NOT NULL,
+    consumer VARCHAR(100) NOT NULL,
+    processed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (event_id, consumer)
+);
+
+COMMENT ON TABLE outbox_events IS 'Evenements domaine en attente de livraison, ecrits dans la transaction de l''agregat';
+COMMENT ON COLUMN outbox_events.available_at IS 'Prochaine livraison possible (bail du relais ou backoff entre deux tentatives)';
+COMMENT ON TABLE outbox_processed_events IS 'Evenements deja traites par chaque gestionnaire (deduplication des relivraisons)';
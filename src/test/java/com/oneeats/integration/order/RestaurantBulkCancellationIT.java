@@ -0,0 +1,200 @@
+package com.oneeats.integration.order;
+
+import com.oneeats.integration.IntegrationTestProfile;
+import com.oneeats.order.application.command.CancelRestaurantOrdersCommand;
+import com.oneeats.order.application.command.CancelRestaurantOrdersCommandHandler;
+import com.oneeats.order.application.dto.OrderCancellationProgressDTO;
+import com.oneeats.order.domain.model.CancelledOrder;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import com.oneeats.order.infrastructure.entity.OrderEntity;
+import com.oneeats.shared.infrastructure.outbox.OutboxEventEntity;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'integration de l'annulation groupee des commandes d'un restaurant
+ * Lots de 2 commandes (plusieurs transactions), evenements outbox, commandes terminees ignorees
+ * et commandes modifiees entre deux lots
+ */
+@QuarkusTest
+@TestProfile(RestaurantBulkCancellationIT.SmallChunksProfile.class)
+@DisplayName("Restaurant Bulk Cancellation Integration Tests")
+class RestaurantBulkCancellationIT {
+
+    private static final String REASON = "Fermeture exceptionnelle";
+
+    /**
+     * Lots de 2 commandes; relais outbox arrete pour compter les evenements ecrits
+     */
+    public static class SmallChunksProfile extends IntegrationTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+            overrides.put("oneeats.business.order.bulk-cancel.chunk-size", "2");
+            overrides.put("oneeats.outbox.enabled", "false");
+            return overrides;
+        }
+    }
+
+    @Inject
+    CancelRestaurantOrdersCommandHandler handler;
+
+    @Inject
+    IOrderRepository orderRepository;
+
+    private UUID restaurantId;
+    private final UUID userId = UUID.fromString("f47ac10b-58cc-4372-a567-0e02b2c3d479");
+    private LocalDateTime createdAt;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        restaurantId = UUID.randomUUID();
+        createdAt = LocalDateTime.now().minusHours(1);
+    }
+
+    private UUID order(OrderStatus status) {
+        UUID id = UUID.randomUUID();
+        // Dates croissantes: les lots prennent les commandes dans l'ordre de creation
+        LocalDateTime at = createdAt.plusSeconds(++sequence);
+        QuarkusTransaction.requiringNew().run(() -> new OrderEntity(id, "BULK-" + id, userId, restaurantId, status,
+            new BigDecimal("12.50"), null, null, null, at, at).persist());
+        return id;
+    }
+
+    private OrderEntity reload(UUID orderId) {
+        return QuarkusTransaction.requiringNew().call(() -> OrderEntity.<OrderEntity>findById(orderId));
+    }
+
+    private void changeStatus(UUID orderId, OrderStatus status) {
+        QuarkusTransaction.requiringNew().run(() -> OrderEntity.<OrderEntity>findById(orderId).setStatus(status));
+    }
+
+    private List<OutboxEventEntity> outboxEvents(UUID orderId) {
+        return QuarkusTransaction.requiringNew().call(() -> OutboxEventEntity.<OutboxEventEntity>list(
+            "aggregateType = ?1 and aggregateId = ?2", "Order", orderId));
+    }
+
+    @Test
+    @DisplayName("Should cancel every active order across several chunks")
+    void shouldCancelAcrossChunks() {
+        // Given - 5 commandes actives: 3 lots de 2
+        List<UUID> active = List.of(order(OrderStatus.PENDING), order(OrderStatus.CONFIRMED),
+            order(OrderStatus.PREPARING), order(OrderStatus.READY), order(OrderStatus.PENDING));
+
+        // When
+        List<UUID> cancelled = handler.handle(new CancelRestaurantOrdersCommand(restaurantId, REASON));
+
+        // Then
+        assertEquals(active.size(), cancelled.size());
+        assertTrue(cancelled.containsAll(active));
+        for (UUID orderId : active) {
+            OrderEntity order = reload(orderId);
+            assertEquals(OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(REASON, order.getCancellationReason());
+            assertNotNull(order.getCancelledAt());
+        }
+        assertEquals(0, orderRepository.countActiveByRestaurantId(restaurantId));
+        OrderCancellationProgressDTO progress = handler.progress(restaurantId).orElseThrow();
+        assertEquals(5, progress.cancelledCount());
+        assertEquals(3, progress.chunks());
+        assertTrue(progress.finished());
+        assertFalse(progress.failed());
+    }
+
+    @Test
+    @DisplayName("Should append exactly one outbox event per cancelled order")
+    void shouldAppendOneOutboxEventPerOrder() {
+        // Given
+        UUID pending = order(OrderStatus.PENDING);
+        UUID preparing = order(OrderStatus.PREPARING);
+        UUID ready = order(OrderStatus.READY);
+
+        // When
+        handler.handle(new CancelRestaurantOrdersCommand(restaurantId, REASON));
+
+        // Then
+        Map<UUID, OrderStatus> previous = Map.of(pending, OrderStatus.PENDING,
+            preparing, OrderStatus.PREPARING, ready, OrderStatus.READY);
+        previous.forEach((orderId, status) -> {
+            List<OutboxEventEntity> events = outboxEvents(orderId);
+            assertEquals(1, events.size());
+            assertEquals("OrderStatusChangedEvent", events.get(0).getEventType());
+            assertTrue(events.get(0).getPayload().contains("\"previousStatus\":\"" + status.name() + "\""));
+            assertTrue(events.get(0).getPayload().contains("\"newStatus\":\"CANCELLED\""));
+        });
+    }
+
+    @Test
+    @DisplayName("Should leave completed and cancelled orders untouched")
+    void shouldLeaveFinishedOrdersUntouched() {
+        // Given
+        UUID completed = order(OrderStatus.COMPLETED);
+        UUID alreadyCancelled = order(OrderStatus.CANCELLED);
+        UUID pending = order(OrderStatus.PENDING);
+        Integer completedVersion = reload(completed).getVersion();
+        Integer cancelledVersion = reload(alreadyCancelled).getVersion();
+
+        // When
+        List<UUID> cancelled = handler.handle(new CancelRestaurantOrdersCommand(restaurantId, REASON));
+
+        // Then
+        assertEquals(List.of(pending), cancelled);
+        OrderEntity completedOrder = reload(completed);
+        assertEquals(OrderStatus.COMPLETED, completedOrder.getStatus());
+        assertEquals(completedVersion, completedOrder.getVersion());
+        assertNull(completedOrder.getCancellationReason());
+        OrderEntity cancelledOrder = reload(alreadyCancelled);
+        assertEquals(cancelledVersion, cancelledOrder.getVersion());
+        assertNull(cancelledOrder.getCancellationReason());
+        assertTrue(outboxEvents(completed).isEmpty());
+        assertTrue(outboxEvents(alreadyCancelled).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should pick up the latest status of an order changed between chunks")
+    void shouldHandleStatusChangeBetweenChunks() {
+        // Given - premier lot valide, puis une commande retiree et une autre confirmee avant les lots suivants
+        UUID first = order(OrderStatus.PENDING);
+        UUID second = order(OrderStatus.PENDING);
+        UUID pickedUp = order(OrderStatus.READY);
+        UUID confirmed = order(OrderStatus.PENDING);
+        UUID last = order(OrderStatus.PREPARING);
+        List<CancelledOrder> firstChunk = QuarkusTransaction.requiringNew().call(
+            () -> orderRepository.cancelActiveChunk(restaurantId, REASON, 2));
+        assertEquals(List.of(first, second), firstChunk.stream().map(CancelledOrder::orderId).toList());
+
+        changeStatus(pickedUp, OrderStatus.COMPLETED);
+        changeStatus(confirmed, OrderStatus.CONFIRMED);
+
+        // When
+        List<UUID> cancelled = handler.handle(new CancelRestaurantOrdersCommand(restaurantId, REASON));
+
+        // Then
+        assertEquals(List.of(confirmed, last), cancelled);
+        assertEquals(OrderStatus.COMPLETED, reload(pickedUp).getStatus());
+        assertTrue(outboxEvents(pickedUp).isEmpty());
+        List<OutboxEventEntity> confirmedEvents = outboxEvents(confirmed);
+        assertEquals(1, confirmedEvents.size());
+        assertTrue(confirmedEvents.get(0).getPayload().contains("\"previousStatus\":\"CONFIRMED\""));
+        for (UUID orderId : List.of(first, second, confirmed, last)) {
+            assertEquals(OrderStatus.CANCELLED, reload(orderId).getStatus());
+            assertEquals(1, outboxEvents(orderId).size());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.oneeats.unit.favorite.application;
+
+import com.oneeats.favorite.application.dto.UserFavoriteDTO;
+import com.oneeats.favorite.application.mapper.UserFavoriteApplicationMapper;
+import com.oneeats.favorite.domain.model.UserFavorite;
+import com.oneeats.restaurant.domain.model.Restaurant;
+import com.oneeats.restaurant.domain.model.RestaurantStatus;
+import com.oneeats.restaurant.domain.repository.IRestaurantRepository;
+import com.oneeats.shared.domain.vo.Email;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour UserFavoriteApplicationMapper
+ * Liste de favoris resolue avec une seule lecture des restaurants
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserFavoriteApplicationMapper Unit Tests")
+class UserFavoriteApplicationMapperTest {
+
+    @Mock
+    private IRestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private UserFavoriteApplicationMapper mapper;
+
+    private Restaurant restaurant(UUID id, String name) {
+        return new Restaurant(id, name, "description", "address", "0123456789",
+            new Email(name.toLowerCase() + "@restaurant.fr"), "PIZZA", RestaurantStatus.APPROVED);
+    }
+
+    @Test
+    @DisplayName("Should load all favorite restaurants in a single lookup")
+    void shouldLoadRestaurantsInSingleLookup() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(restaurantRepository.findAllById(Set.of(first, second)))
+            .thenReturn(List.of(restaurant(second, "Second"), restaurant(first, "First")));
+
+        // When
+        List<UserFavoriteDTO> dtos = mapper.toDTOs(List.of(
+            UserFavorite.create(userId, first),
+            UserFavorite.create(userId, second)));
+
+        // Then - ordre des favoris conserve
+        assertEquals(List.of("First", "Second"), dtos.stream().map(UserFavoriteDTO::restaurantName).toList());
+        verify(restaurantRepository, times(1)).findAllById(any());
+        verify(restaurantRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should keep favorites of deleted restaurants with a placeholder")
+    void shouldKeepFavoritesOfDeletedRestaurants() {
+        // Given
+        UUID restaurantId = UUID.randomUUID();
+        when(restaurantRepository.findAllById(Set.of(restaurantId))).thenReturn(List.of());
+
+        // When
+        List<UserFavoriteDTO> dtos = mapper.toDTOs(List.of(UserFavorite.create(UUID.randomUUID(), restaurantId)));
+
+        // Then
+        assertEquals(1, dtos.size());
+        assertEquals("Restaurant supprimé", dtos.get(0).restaurantName());
+        assertFalse(dtos.get(0).restaurantIsOpen());
+    }
+
+    @Test
+    @DisplayName("Should not query restaurants for an empty list")
+    void shouldNotQueryForEmptyList() {
+        // When
+        List<UserFavoriteDTO> dtos = mapper.toDTOs(List.of());
+
+        // Then
+        assertTrue(dtos.isEmpty());
+        verifyNoInteractions(restaurantRepository);
+    }
+}
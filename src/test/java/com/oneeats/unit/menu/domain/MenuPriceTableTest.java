@@ -0,0 +1,136 @@
+package com.oneeats.unit.menu.domain;
+
+import com.oneeats.menu.domain.model.MenuItem;
+import com.oneeats.menu.domain.model.MenuItemChoice;
+import com.oneeats.menu.domain.model.MenuItemOption;
+import com.oneeats.menu.domain.model.MenuItemOptionType;
+import com.oneeats.menu.domain.model.MenuPriceTable;
+import com.oneeats.menu.domain.model.MenuPriceTable.PricedItem;
+import com.oneeats.menu.domain.vo.Price;
+import com.oneeats.shared.domain.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de la grille tarifaire compilee
+ * Prix de base + supplements, validation des choix, options obligatoires et disponibilite
+ */
+@DisplayName("MenuPriceTable Unit Tests")
+class MenuPriceTableTest {
+
+    private UUID restaurantId;
+    private MenuItem pizza;
+    private MenuItem salad;
+    private MenuItemChoice medium;
+    private MenuItemChoice large;
+    private MenuItemChoice cheese;
+    private MenuItemChoice olives;
+    private MenuItemChoice saladDressing;
+
+    @BeforeEach
+    void setUp() {
+        restaurantId = UUID.randomUUID();
+
+        pizza = MenuItem.create(restaurantId, "Margherita", "Tomate, mozzarella", Price.of(new BigDecimal("10.00")), "PIZZA");
+        MenuItemOption size = new MenuItemOption("Taille", null, MenuItemOptionType.CHOICE, true, 1, 0);
+        medium = choice("Moyenne", "0.00");
+        large = choice("Grande", "3.50");
+        size.addChoice(medium);
+        size.addChoice(large);
+        MenuItemOption extras = new MenuItemOption("Supplements", null, MenuItemOptionType.EXTRA, false, 2, 1);
+        cheese = choice("Fromage", "1.20");
+        olives = choice("Olives", "0.80");
+        extras.addChoice(cheese);
+        extras.addChoice(olives);
+        extras.addChoice(choice("Anchois", "1.00"));
+        pizza.updateOptions(List.of(size, extras));
+
+        salad = MenuItem.create(restaurantId, "Cesar", null, Price.of(new BigDecimal("8.50")), "SALADE");
+        MenuItemOption dressing = new MenuItemOption("Sauce", null, MenuItemOptionType.SAUCE, false, 0, 0);
+        saladDressing = choice("Vinaigrette", "0.50");
+        dressing.addChoice(saladDressing);
+        salad.updateOptions(List.of(dressing));
+    }
+
+    private static MenuItemChoice choice(String name, String price) {
+        MenuItemChoice choice = MenuItemChoice.create(name, Price.of(new BigDecimal(price)));
+        choice.setId(UUID.randomUUID());
+        return choice;
+    }
+
+    private MenuPriceTable table() {
+        return MenuPriceTable.compile(restaurantId, List.of(pizza, salad));
+    }
+
+    @Test
+    @DisplayName("Should add choice surcharges to the base price")
+    void shouldPriceWithSurcharges() {
+        // When
+        PricedItem priced = table().price(pizza.getId(), List.of(large.getId(), cheese.getId(), olives.getId()));
+
+        // Then
+        assertEquals(new BigDecimal("15.50"), priced.unitPrice());
+        assertEquals("Margherita", priced.name());
+        assertEquals(pizza.calculateTotalPrice(List.of(large.getId().toString(), cheese.getId().toString(),
+            olives.getId().toString())).getAmount(), priced.unitPrice());
+    }
+
+    @Test
+    @DisplayName("Should require mandatory options")
+    void shouldRequireMandatoryOptions() {
+        // When / Then
+        ValidationException error = assertThrows(ValidationException.class,
+            () -> table().price(pizza.getId(), List.of(cheese.getId())));
+        assertTrue(error.getMessage().contains("Taille"));
+        assertDoesNotThrow(() -> table().price(salad.getId(), null));
+    }
+
+    @Test
+    @DisplayName("Should enforce the maximum number of choices per option")
+    void shouldEnforceMaxChoices() {
+        // When / Then - une seule taille
+        assertThrows(ValidationException.class,
+            () -> table().price(pizza.getId(), List.of(medium.getId(), large.getId())));
+    }
+
+    @Test
+    @DisplayName("Should reject a choice belonging to another item")
+    void shouldRejectForeignChoice() {
+        // When / Then
+        assertThrows(ValidationException.class,
+            () -> table().price(pizza.getId(), List.of(medium.getId(), saladDressing.getId())));
+        assertThrows(ValidationException.class,
+            () -> table().price(pizza.getId(), List.of(medium.getId(), UUID.randomUUID())));
+    }
+
+    @Test
+    @DisplayName("Should reject unavailable items and choices")
+    void shouldRejectUnavailable() {
+        // Given
+        olives.makeUnavailable();
+        salad.makeUnavailable();
+        MenuPriceTable table = table();
+
+        // When / Then
+        assertThrows(ValidationException.class,
+            () -> table.price(pizza.getId(), List.of(medium.getId(), olives.getId())));
+        assertThrows(ValidationException.class, () -> table.price(salad.getId(), List.of()));
+    }
+
+    @Test
+    @DisplayName("Should reject items of another restaurant")
+    void shouldRejectUnknownItem() {
+        // Given
+        MenuItem other = MenuItem.create(UUID.randomUUID(), "Burger", null, Price.of(new BigDecimal("9.00")), "BURGER");
+
+        // When / Then
+        assertThrows(ValidationException.class, () -> table().price(other.getId(), List.of()));
+    }
+}
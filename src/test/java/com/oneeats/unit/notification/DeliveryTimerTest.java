@@ -0,0 +1,109 @@
+package com.oneeats.unit.notification;
+
+import com.oneeats.notification.infrastructure.delivery.DeliveryTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires des echeances d'envoi en memoire
+ * Reveil a l'echeance, regroupement des echeances atteintes, file bornee
+ */
+@DisplayName("DeliveryTimer Unit Tests")
+class DeliveryTimerTest {
+
+    private final List<Long> fired = new CopyOnWriteArrayList<>();
+    private DeliveryTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fire at the due time and not before")
+    void shouldFireAtDueTime() throws Exception {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        timer = new DeliveryTimer(100, reached -> {
+            fired.add(System.currentTimeMillis());
+            latch.countDown();
+        });
+        timer.start("test-delivery");
+        long dueAt = System.currentTimeMillis() + 200;
+
+        // When
+        timer.schedule(dueAt);
+
+        // Then
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(fired.get(0) >= dueAt);
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    @DisplayName("Should wake earlier when an earlier due time is added")
+    void shouldWakeForEarlierDueTime() throws Exception {
+        // Given - thread endormi jusqu'a une echeance lointaine
+        CountDownLatch latch = new CountDownLatch(1);
+        timer = new DeliveryTimer(100, reached -> {
+            fired.add(reached);
+            latch.countDown();
+        });
+        timer.start("test-delivery");
+        long late = System.currentTimeMillis() + 60_000;
+        timer.schedule(late);
+        Thread.sleep(50);
+
+        // When
+        long soon = System.currentTimeMillis() + 100;
+        timer.schedule(soon);
+
+        // Then
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(soon), fired);
+        assertEquals(1, timer.size());
+    }
+
+    @Test
+    @DisplayName("Should coalesce due times reached together into one wake-up")
+    void shouldCoalesceReachedDueTimes() throws Exception {
+        // Given - echeances deja passees, planifiees avant le demarrage du thread
+        timer = new DeliveryTimer(100, fired::add);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            timer.schedule(now - i);
+        }
+
+        // When
+        timer.start("test-delivery");
+        Thread.sleep(200);
+
+        // Then
+        assertEquals(List.of(now), fired);
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    @DisplayName("Should refuse due times beyond capacity")
+    void shouldRefuseBeyondCapacity() {
+        // Given
+        timer = new DeliveryTimer(2, fired::add);
+        long later = System.currentTimeMillis() + 60_000;
+
+        // When / Then
+        assertTrue(timer.schedule(later));
+        assertTrue(timer.schedule(later + 1));
+        assertFalse(timer.schedule(later + 2));
+        assertEquals(2, timer.size());
+    }
+}
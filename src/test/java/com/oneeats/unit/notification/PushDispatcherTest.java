@@ -0,0 +1,249 @@
+package com.oneeats.unit.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.infrastructure.push.ExpoPushProvider;
+import com.oneeats.notification.infrastructure.push.PushDispatcher;
+import com.oneeats.notification.infrastructure.push.PushTokenRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de l'envoi push par lots contre un serveur Expo local
+ * Taille des lots, nouveaux essais avec backoff, purge des tokens invalides
+ */
+@DisplayName("PushDispatcher Unit Tests")
+class PushDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<String> unregistered = ConcurrentHashMap.newKeySet();
+    private volatile int throttledResponses = 0;
+    private volatile String authorization;
+    private SimpleMeterRegistry meterRegistry;
+    private PushTokenRepository tokenRepository;
+    private final Map<UUID, String> tokens = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/--/api/v2/push/send", exchange -> {
+            requests.incrementAndGet();
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (throttledResponses > 0) {
+                throttledResponses--;
+                respond(exchange, 429, "{\"errors\":[{\"code\":\"TOO_MANY_REQUESTS\"}]}");
+                return;
+            }
+            JsonNode messages = objectMapper.readTree(exchange.getRequestBody());
+            synchronized (batchSizes) {
+                batchSizes.add(messages.size());
+            }
+            StringBuilder tickets = new StringBuilder("{\"data\":[");
+            for (int i = 0; i < messages.size(); i++) {
+                String to = messages.get(i).path("to").asText();
+                tickets.append(i == 0 ? "" : ",").append(unregistered.contains(to)
+                    ? "{\"status\":\"error\",\"message\":\"not registered\",\"details\":{\"error\":\"DeviceNotRegistered\"}}"
+                    : "{\"status\":\"ok\",\"id\":\"" + UUID.randomUUID() + "\"}");
+            }
+            respond(exchange, 200, tickets.append("]}").toString());
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRepository = mock(PushTokenRepository.class);
+        when(tokenRepository.findTokens(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            Map<UUID, String> found = new HashMap<>();
+            ids.forEach(id -> {
+                if (tokens.containsKey(id)) {
+                    found.put(id, tokens.get(id));
+                }
+            });
+            return found;
+        });
+        when(tokenRepository.clearTokens(anyCollection())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private PushDispatcher dispatcher(Duration retryDelay) {
+        ExpoPushProvider provider = new ExpoPushProvider(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/--/api/v2/push/send",
+            Optional.of("expo-secret"), Duration.ofSeconds(5), 5, Duration.ofSeconds(30), objectMapper, meterRegistry);
+        return new PushDispatcher(provider, tokenRepository, 1_000, 2_000, 3, retryDelay, meterRegistry);
+    }
+
+    private UUID userWithToken(String token) {
+        UUID userId = UUID.randomUUID();
+        tokens.put(userId, token);
+        return userId;
+    }
+
+    private double messages(String result) {
+        return meterRegistry.get("oneeats.push.messages").tag("result", result).counter().count();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    @DisplayName("Should send queued notifications in provider-sized batches")
+    void shouldSendInBatches() throws Exception {
+        // Given
+        PushDispatcher dispatcher = dispatcher(Duration.ofSeconds(1));
+        for (int i = 0; i < 250; i++) {
+            dispatcher.enqueue(userWithToken("ExponentPushToken[user-" + i + "]"), "Commande prete", "A recuperer", Map.of("orderId", "o-" + i));
+        }
+
+        // When
+        dispatcher.flush();
+
+        // Then - une seule lecture des tokens, trois appels de 100 messages au plus
+        verify(tokenRepository, times(1)).findTokens(anyCollection());
+        assertEquals(3, requests.get());
+        assertEquals(250, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertEquals(250.0, messages("delivered"));
+        assertEquals("Bearer expo-secret", authorization);
+        assertEquals(0, dispatcher.pending());
+    }
+
+    @Test
+    @DisplayName("Should skip users without a push token")
+    void shouldSkipUsersWithoutToken() throws Exception {
+        // Given
+        PushDispatcher dispatcher = dispatcher(Duration.ofSeconds(1));
+        dispatcher.enqueue(UUID.randomUUID(), "Titre", "Message", Map.of());
+
+        // When
+        dispatcher.flush();
+
+        // Then
+        assertEquals(0, requests.get());
+        assertEquals(1.0, messages("no_token"));
+    }
+
+    @Test
+    @DisplayName("Should retry a throttled batch with backoff")
+    void shouldRetryThrottledBatch() throws Exception {
+        // Given - premier appel refuse (429)
+        PushDispatcher dispatcher = dispatcher(Duration.ofMillis(200));
+        throttledResponses = 1;
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue(userWithToken("ExponentPushToken[retry-" + i + "]"), "Titre", "Message", Map.of());
+        }
+
+        // When
+        dispatcher.flush();
+        dispatcher.flush();
+        int beforeBackoff = requests.get();
+        Thread.sleep(300);
+        dispatcher.flush();
+
+        // Then - pas de nouvel essai avant le delai, puis livraison sans relire les tokens
+        assertEquals(1, beforeBackoff);
+        assertEquals(2, requests.get());
+        assertEquals(10.0, messages("retried"));
+        assertEquals(10.0, messages("delivered"));
+        verify(tokenRepository, times(1)).findTokens(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void shouldGiveUpAfterMaxAttempts() throws Exception {
+        // Given
+        PushDispatcher dispatcher = dispatcher(Duration.ofMillis(1));
+        throttledResponses = 10;
+        dispatcher.enqueue(userWithToken("ExponentPushToken[busy]"), "Titre", "Message", Map.of());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            dispatcher.flush();
+            Thread.sleep(20);
+        }
+
+        // Then - 3 tentatives au total
+        assertEquals(3, requests.get());
+        assertEquals(1.0, messages("failed"));
+        assertEquals(0, dispatcher.pending());
+    }
+
+    @Test
+    @DisplayName("Should prune unregistered and malformed tokens in one call")
+    void shouldPruneInvalidTokens() throws Exception {
+        // Given
+        PushDispatcher dispatcher = dispatcher(Duration.ofSeconds(1));
+        unregistered.add("ExponentPushToken[gone-1]");
+        unregistered.add("ExponentPushToken[gone-2]");
+        dispatcher.enqueue(userWithToken("ExponentPushToken[gone-1]"), "Titre", "Message", Map.of());
+        dispatcher.enqueue(userWithToken("ExponentPushToken[gone-2]"), "Titre", "Message", Map.of());
+        dispatcher.enqueue(userWithToken("not-an-expo-token"), "Titre", "Message", Map.of());
+        dispatcher.enqueue(userWithToken("ExponentPushToken[alive]"), "Titre", "Message", Map.of());
+
+        // When
+        dispatcher.flush();
+
+        // Then - le token mal forme n'est pas envoye
+        assertEquals(List.of(3), batchSizes);
+        verify(tokenRepository, times(1)).clearTokens(argThat(pruned -> pruned.size() == 3
+            && pruned.containsAll(Set.of("ExponentPushToken[gone-1]", "ExponentPushToken[gone-2]", "not-an-expo-token"))));
+        assertEquals(1.0, messages("delivered"));
+        assertEquals(3.0, messages("invalid_token"));
+        assertEquals(3.0, meterRegistry.get("oneeats.push.tokens.pruned").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop notifications when the queue is full")
+    void shouldDropWhenQueueFull() {
+        // Given
+        ExpoPushProvider provider = new ExpoPushProvider("http://127.0.0.1:1/unused", Optional.empty(),
+            Duration.ofSeconds(1), 5, Duration.ofSeconds(30), objectMapper, meterRegistry);
+        PushDispatcher dispatcher = new PushDispatcher(provider, tokenRepository, 2, 100, 3, Duration.ofSeconds(1), meterRegistry);
+
+        // When
+        boolean first = dispatcher.enqueue(UUID.randomUUID(), "a", "a", Map.of());
+        boolean second = dispatcher.enqueue(UUID.randomUUID(), "b", "b", Map.of());
+        boolean third = dispatcher.enqueue(UUID.randomUUID(), "c", "c", Map.of());
+
+        // Then
+        assertTrue(first && second);
+        assertFalse(third);
+        assertEquals(1.0, messages("dropped"));
+        verify(tokenRepository, never()).findTokens(any());
+    }
+}
@@ -0,0 +1,169 @@
+package com.oneeats.unit.notification;
+
+import com.oneeats.notification.domain.repository.INotificationRepository;
+import com.oneeats.notification.infrastructure.cache.UnreadNotificationCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du compteur de notifications non lues en memoire
+ * Chargement unique, ajustements locaux, rapprochement avec la base
+ */
+@DisplayName("UnreadNotificationCounter Unit Tests")
+class UnreadNotificationCounterTest {
+
+    private final Map<UUID, Long> database = new HashMap<>();
+    private INotificationRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(INotificationRepository.class);
+        when(repository.countUnreadByRecipientId(any()))
+            .thenAnswer(invocation -> database.getOrDefault(invocation.<UUID>getArgument(0), 0L));
+        when(repository.countUnreadByRecipientIds(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, Long> counts = new HashMap<>();
+            invocation.<Collection<UUID>>getArgument(0).forEach(id -> {
+                if (database.containsKey(id)) {
+                    counts.put(id, database.get(id));
+                }
+            });
+            return counts;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new UnreadNotificationCounter(repository, 100, Duration.ofMinutes(30), 2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should count once then serve from memory")
+    void shouldCountOnce() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        database.put(userId, 4L);
+
+        // When
+        long first = counter.get(userId);
+        long second = counter.get(userId);
+
+        // Then
+        assertEquals(4, first);
+        assertEquals(4, second);
+        verify(repository, times(1)).countUnreadByRecipientId(userId);
+        assertEquals(1.0, meterRegistry.get("oneeats.notifications.unread-counter").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should apply local deliveries and reads without querying")
+    void shouldApplyLocalAdjustments() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        database.put(userId, 2L);
+        counter.get(userId);
+
+        // When
+        counter.adjust(userId, 3);
+        counter.adjust(userId, -1);
+
+        // Then
+        assertEquals(4, counter.get(userId));
+        verify(repository, times(1)).countUnreadByRecipientId(userId);
+    }
+
+    @Test
+    @DisplayName("Should correct drift from other nodes on reconciliation")
+    void shouldReconcileDrift() {
+        // Given - 5 utilisateurs en cache, lus sur un autre noeud pour deux d'entre eux
+        Map<UUID, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            UUID userId = UUID.randomUUID();
+            database.put(userId, 3L);
+            counter.get(userId);
+            expected.put(userId, 3L);
+        }
+        UUID[] users = expected.keySet().toArray(UUID[]::new);
+        database.put(users[0], 0L);
+        database.remove(users[1]);
+        expected.put(users[0], 0L);
+        expected.put(users[1], 0L);
+
+        // When
+        counter.reconcile();
+
+        // Then - une requete groupee par lot de 2 utilisateurs
+        expected.forEach((userId, count) -> assertEquals(count.longValue(), counter.get(userId)));
+        verify(repository, times(3)).countUnreadByRecipientIds(anyCollection());
+        assertEquals(2.0, meterRegistry.get("oneeats.notifications.unread-counter.corrected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reload from the database after invalidation")
+    void shouldReloadAfterInvalidation() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        database.put(userId, 6L);
+        counter.get(userId);
+        database.put(userId, 1L);
+
+        // When
+        counter.invalidate(userId);
+
+        // Then
+        assertEquals(1, counter.get(userId));
+        verify(repository, times(2)).countUnreadByRecipientId(userId);
+    }
+
+    @Test
+    @DisplayName("Should drop idle users on reconciliation")
+    void shouldDropIdleUsers() throws Exception {
+        // Given
+        counter = new UnreadNotificationCounter(repository, 100, Duration.ofMillis(20), 100, meterRegistry);
+        counter.get(UUID.randomUUID());
+        Thread.sleep(50);
+
+        // When
+        counter.reconcile();
+
+        // Then
+        assertEquals(0, counter.size());
+        verify(repository, never()).countUnreadByRecipientIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used user when full")
+    void shouldEvictLeastRecentlyUsedUser() {
+        // Given - "first" lu apres "second"
+        counter = new UnreadNotificationCounter(repository, 2, Duration.ofMinutes(30), 100, meterRegistry);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        counter.get(first);
+        counter.get(second);
+        counter.get(first);
+
+        // When - un nouvel utilisateur est toujours mis en cache
+        UUID third = UUID.randomUUID();
+        counter.get(third);
+        counter.get(third);
+        counter.get(first);
+
+        // Then
+        assertEquals(2, counter.size());
+        verify(repository, times(1)).countUnreadByRecipientId(first);
+        verify(repository, times(1)).countUnreadByRecipientId(third);
+        counter.get(second);
+        verify(repository, times(2)).countUnreadByRecipientId(second);
+    }
+}
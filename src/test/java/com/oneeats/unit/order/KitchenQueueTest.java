@@ -0,0 +1,181 @@
+package com.oneeats.unit.order;
+
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.infrastructure.eta.KitchenQueue;
+import com.oneeats.order.infrastructure.eta.KitchenQueue.Eta;
+import com.oneeats.order.infrastructure.eta.KitchenQueue.Snapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de la file de cuisine (estimation de l'heure de retrait)
+ * Postes en parallele, apprentissage des durees, recalcul sur changement de statut
+ */
+@DisplayName("KitchenQueue Unit Tests")
+class KitchenQueueTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+    private static UUID queued(KitchenQueue queue, LocalDateTime at, int minutes) {
+        UUID orderId = UUID.randomUUID();
+        queue.add(orderId, UUID.randomUUID(), at, minutes, OrderStatus.PENDING, null);
+        return orderId;
+    }
+
+    @Test
+    @DisplayName("Should estimate the menu time when the kitchen is idle")
+    void shouldEstimateIdleKitchen() {
+        // Given
+        KitchenQueue queue = new KitchenQueue(2, 0.2);
+
+        // When / Then
+        assertEquals(now.plusMinutes(15), queue.estimate(15, now));
+    }
+
+    @Test
+    @DisplayName("Should wait for a free station once all stations are busy")
+    void shouldQueueBehindBusyStations() {
+        // Given - 2 postes occupes 10 et 20 minutes
+        KitchenQueue queue = new KitchenQueue(2, 0.2);
+        queued(queue, now.minusMinutes(2), 10);
+        queued(queue, now.minusMinutes(1), 20);
+
+        // When
+        LocalDateTime eta = queue.estimate(15, now);
+
+        // Then - premier poste libre a +10, puis 15 minutes
+        assertEquals(now.plusMinutes(25), eta);
+    }
+
+    @Test
+    @DisplayName("Should learn a slower kitchen from measured preparation times")
+    void shouldLearnFromPreparationTimes() {
+        // Given
+        KitchenQueue queue = new KitchenQueue(1, 0.5);
+        UUID orderId = queued(queue, now.minusMinutes(30), 10);
+
+        // When - 20 minutes au lieu de 10
+        queue.transition(orderId, OrderStatus.PREPARING, now.minusMinutes(20));
+        queue.transition(orderId, OrderStatus.READY, now);
+
+        // Then - facteur 0.5 x 2 + 0.5 x 1
+        assertEquals(1.5, queue.factor(), 1e-9);
+        assertEquals(now.plusMinutes(15), queue.estimate(10, now));
+    }
+
+    @Test
+    @DisplayName("Should report orders moved earlier when an order ahead is cancelled")
+    void shouldReportChangedEstimates() {
+        // Given
+        KitchenQueue queue = new KitchenQueue(1, 0.2);
+        UUID first = queued(queue, now.minusMinutes(3), 20);
+        UUID second = queued(queue, now.minusMinutes(2), 10);
+        queue.recompute(now, Duration.ofMinutes(2));
+
+        // When
+        queue.transition(first, OrderStatus.CANCELLED, now);
+        List<Eta> changed = queue.recompute(now, Duration.ofMinutes(2));
+
+        // Then - la seconde passe de +30 a +10
+        assertEquals(1, queue.size());
+        assertEquals(1, changed.size());
+        assertEquals(second, changed.get(0).orderId());
+        assertEquals(now.plusMinutes(10), changed.get(0).estimatedReadyAt());
+    }
+
+    @Test
+    @DisplayName("Should keep the published estimates as baseline across a reconciliation")
+    void shouldKeepPublishedBaselineAcrossReconciliation() {
+        // Given - estimation communiquee a +10
+        KitchenQueue queue = new KitchenQueue(1, 0.2);
+        UUID orderId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        queue.add(orderId, userId, now.minusMinutes(1), 10, OrderStatus.PENDING, null);
+        queue.recompute(now, Duration.ofMinutes(2));
+
+        // When - rapprochement une minute plus tard (estimation +11, non envoyee)
+        long since = queue.mutations();
+        queue.reconcile(List.of(new Snapshot(orderId, userId, now.minusMinutes(1), 10, OrderStatus.PENDING, null)), since);
+        queue.refresh(now.plusMinutes(1));
+        List<Eta> changed = queue.recompute(now.plusMinutes(2), Duration.ofMinutes(2));
+
+        // Then - glissement de 2 minutes depuis la derniere estimation envoyee
+        assertEquals(1, changed.size());
+        assertEquals(now.plusMinutes(12), changed.get(0).estimatedReadyAt());
+    }
+
+    @Test
+    @DisplayName("Should keep local changes made after the database snapshot")
+    void shouldKeepChangesAfterSnapshot() {
+        // Given - deux commandes connues, puis lecture de la base
+        KitchenQueue queue = new KitchenQueue(1, 0.5);
+        UUID done = queued(queue, now.minusMinutes(30), 10);
+        UUID started = queued(queue, now.minusMinutes(20), 10);
+        long since = queue.mutations();
+        List<Snapshot> snapshot = List.of(
+            new Snapshot(done, UUID.randomUUID(), now.minusMinutes(30), 10, OrderStatus.PENDING, null),
+            new Snapshot(started, UUID.randomUUID(), now.minusMinutes(20), 10, OrderStatus.PENDING, null));
+
+        // When - avant la fusion: une commande terminee, une autre preparee, une nouvelle ajoutee
+        queue.transition(done, OrderStatus.PREPARING, now.minusMinutes(20));
+        queue.transition(done, OrderStatus.READY, now);
+        queue.transition(done, OrderStatus.COMPLETED, now);
+        queue.transition(started, OrderStatus.PREPARING, now);
+        UUID added = queued(queue, now, 5);
+        queue.reconcile(snapshot, since);
+
+        // Then - rien n'est perdu ni ressuscite, le facteur appris (20 min pour 10) est conserve
+        assertFalse(queue.contains(done));
+        assertTrue(queue.contains(started));
+        assertTrue(queue.contains(added));
+        assertEquals(2, queue.size());
+        assertEquals(1.5, queue.factor(), 1e-9);
+        queue.refresh(now);
+        assertEquals(now.plusMinutes(15), queue.recompute(now, Duration.ofMinutes(2)).stream()
+            .filter(eta -> eta.orderId().equals(started)).findFirst().orElseThrow().estimatedReadyAt());
+    }
+
+    @Test
+    @DisplayName("Should apply the database state to orders not changed locally")
+    void shouldApplyDatabaseStateToUnchangedOrders() {
+        // Given - une commande terminee sur un autre noeud, une autre inconnue de ce noeud
+        KitchenQueue queue = new KitchenQueue(1, 0.2);
+        UUID completedElsewhere = queued(queue, now.minusMinutes(10), 10);
+        UUID confirmed = queued(queue, now.minusMinutes(5), 10);
+        UUID unknown = UUID.randomUUID();
+        long since = queue.mutations();
+
+        // When
+        queue.reconcile(List.of(
+            new Snapshot(confirmed, UUID.randomUUID(), now.minusMinutes(5), 10, OrderStatus.PREPARING, null),
+            new Snapshot(unknown, UUID.randomUUID(), now.minusMinutes(1), 10, OrderStatus.PENDING, null)), since);
+
+        // Then
+        assertFalse(queue.contains(completedElsewhere));
+        assertTrue(queue.contains(confirmed));
+        assertTrue(queue.contains(unknown));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    @DisplayName("Should not report changes below the threshold")
+    void shouldIgnoreSmallChanges() {
+        // Given
+        KitchenQueue queue = new KitchenQueue(1, 0.2);
+        queued(queue, now.minusMinutes(1), 10);
+        queue.recompute(now, Duration.ofMinutes(2));
+
+        // When - une minute plus tard, estimation inchangee
+        List<Eta> changed = queue.recompute(now.plusMinutes(1), Duration.ofMinutes(2));
+
+        // Then
+        assertTrue(changed.isEmpty());
+    }
+}
@@ -0,0 +1,154 @@
+package com.oneeats.unit.order;
+
+import com.oneeats.order.application.command.CreateOrderCommand;
+import com.oneeats.order.application.command.CreateOrderResult;
+import com.oneeats.order.application.command.IdempotencyKeyConflictException;
+import com.oneeats.order.application.dto.OrderDTO;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.infrastructure.idempotency.OrderSubmissionDeduplicator;
+import com.oneeats.shared.domain.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires du dedoublonnage des prises de commande (en-tete Idempotency-Key)
+ * Requetes simultanees regroupees, reponses rejouees depuis le cache, cle reutilisee pour une autre commande
+ */
+@DisplayName("OrderSubmissionDeduplicator Unit Tests")
+class OrderSubmissionDeduplicatorTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID restaurantId = UUID.randomUUID();
+    private final AtomicInteger intakes = new AtomicInteger();
+
+    private CreateOrderCommand command(String instructions) {
+        return new CreateOrderCommand(userId, restaurantId, null, instructions, List.of());
+    }
+
+    private CreateOrderResult intake(CreateOrderCommand command) {
+        intakes.incrementAndGet();
+        OrderDTO order = new OrderDTO(UUID.randomUUID(), "ORD-" + intakes.get(), command.userId(), command.restaurantId(),
+            OrderStatus.PENDING, new BigDecimal("12.50"), command.specialInstructions(), null, null, List.of(),
+            LocalDateTime.now(), LocalDateTime.now(), null, null, null, null);
+        return new CreateOrderResult(order, false);
+    }
+
+    private OrderSubmissionDeduplicator deduplicator(OrderSubmissionDeduplicator.Intake intake) {
+        return new OrderSubmissionDeduplicator(intake, 100, Duration.ofHours(1), Duration.ofSeconds(5),
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should take concurrent identical submissions only once")
+    void shouldCoalesceConcurrentSubmissions() throws Exception {
+        // Given - la premiere prise de commande est bloquee jusqu'a l'arrivee de toutes les requetes
+        int threads = 16;
+        CountDownLatch started = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderSubmissionDeduplicator deduplicator = deduplicator((command, key, hash) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return intake(command);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<CreateOrderResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return deduplicator.submit(command("sans oignons"), "retry-1");
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+
+            // Then
+            UUID orderId = null;
+            int replayed = 0;
+            for (Future<CreateOrderResult> result : results) {
+                CreateOrderResult submission = result.get(5, TimeUnit.SECONDS);
+                orderId = orderId == null ? submission.order().id() : orderId;
+                assertEquals(orderId, submission.order().id());
+                replayed += submission.replayed() ? 1 : 0;
+            }
+            assertEquals(1, intakes.get());
+            assertEquals(threads - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay a completed submission from the cache")
+    void shouldReplayFromCache() {
+        // Given
+        OrderSubmissionDeduplicator deduplicator = deduplicator((command, key, hash) -> intake(command));
+        CreateOrderResult first = deduplicator.submit(command("sans oignons"), "retry-1");
+
+        // When
+        CreateOrderResult retry = deduplicator.submit(command("sans oignons"), "retry-1");
+
+        // Then
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.order(), retry.order());
+        assertEquals(1, intakes.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different order")
+    void shouldRejectKeyReuse() {
+        // Given
+        OrderSubmissionDeduplicator deduplicator = deduplicator((command, key, hash) -> intake(command));
+        deduplicator.submit(command("sans oignons"), "retry-1");
+
+        // When / Then
+        IdempotencyKeyConflictException conflict = assertThrows(IdempotencyKeyConflictException.class,
+            () -> deduplicator.submit(command("avec oignons"), "retry-1"));
+        assertFalse(conflict.inFlight());
+        assertEquals(1, intakes.get());
+    }
+
+    @Test
+    @DisplayName("Should let a retry through after a failed submission")
+    void shouldRetryAfterFailure() {
+        // Given - premiere tentative en echec (restaurant momentanement indisponible)
+        AtomicInteger attempts = new AtomicInteger();
+        OrderSubmissionDeduplicator deduplicator = deduplicator((command, key, hash) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ValidationException("Restaurant is not accepting orders");
+            }
+            return intake(command);
+        });
+        assertThrows(ValidationException.class, () -> deduplicator.submit(command("sans oignons"), "retry-1"));
+
+        // When
+        CreateOrderResult retry = deduplicator.submit(command("sans oignons"), "retry-1");
+
+        // Then
+        assertFalse(retry.replayed());
+        assertEquals(1, intakes.get());
+    }
+}
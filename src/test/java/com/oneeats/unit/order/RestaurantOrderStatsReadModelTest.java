@@ -0,0 +1,134 @@
+package com.oneeats.unit.order;
+
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.order.domain.model.RestaurantDayOrderStats;
+import com.oneeats.order.domain.repository.IOrderRepository;
+import com.oneeats.order.infrastructure.readmodel.RestaurantOrderStatsReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du modele de lecture des statistiques de commandes du jour
+ * Construction depuis la base, mises a jour locales, rapprochement, jours precedents
+ */
+@DisplayName("RestaurantOrderStatsReadModel Unit Tests")
+class RestaurantOrderStatsReadModelTest {
+
+    private final List<RestaurantDayOrderStats> database = new ArrayList<>();
+    private final UUID restaurantId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+    private IOrderRepository repository;
+    private RestaurantOrderStatsReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IOrderRepository.class);
+        when(repository.aggregateDailyStats(any(LocalDate.class))).thenAnswer(invocation -> List.copyOf(database));
+        readModel = new RestaurantOrderStatsReadModel(repository, new SimpleMeterRegistry());
+    }
+
+    private RestaurantDayOrderStats stats(long pending, String pendingAmount) {
+        RestaurantDayOrderStats stats = RestaurantDayOrderStats.empty(restaurantId, today);
+        stats.ordersByStatus().put(OrderStatus.PENDING, pending);
+        stats.amountByStatus().put(OrderStatus.PENDING, new BigDecimal(pendingAmount));
+        return stats;
+    }
+
+    @Test
+    @DisplayName("Should not answer before the first build")
+    void shouldMissBeforeBuild() {
+        // When / Then - l'appelant agrege en SQL
+        assertTrue(readModel.get(restaurantId, today).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should build today's stats from the database then apply local changes")
+    void shouldBuildThenApplyLocalChanges() {
+        // Given
+        database.add(stats(2, "30.00"));
+        readModel.reconcile();
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(20);
+
+        // When - une nouvelle commande, puis retrait d'une commande existante
+        readModel.recordCreated(restaurantId, createdAt, new BigDecimal("12.50"), OrderStatus.PENDING);
+        readModel.recordTransition(restaurantId, createdAt, new BigDecimal("15.00"),
+            OrderStatus.PENDING, OrderStatus.COMPLETED, createdAt.plusMinutes(18));
+
+        // Then
+        RestaurantDayOrderStats stats = readModel.get(restaurantId, today).orElseThrow();
+        assertEquals(3, stats.totalOrders());
+        assertEquals(2, stats.orders(OrderStatus.PENDING));
+        assertEquals(1, stats.orders(OrderStatus.COMPLETED));
+        assertEquals(0, new BigDecimal("42.50").compareTo(stats.revenue()));
+        assertEquals(1, stats.pickedUpOrders());
+        assertEquals(18 * 60, stats.totalPickupSeconds());
+        verify(repository, times(1)).aggregateDailyStats(today);
+    }
+
+    @Test
+    @DisplayName("Should exclude cancelled orders from revenue")
+    void shouldExcludeCancelledRevenue() {
+        // Given
+        database.add(stats(2, "30.00"));
+        readModel.reconcile();
+
+        // When
+        readModel.recordTransition(restaurantId, LocalDateTime.now(), new BigDecimal("10.00"),
+            OrderStatus.PENDING, OrderStatus.CANCELLED, null);
+
+        // Then
+        RestaurantDayOrderStats stats = readModel.get(restaurantId, today).orElseThrow();
+        assertEquals(1, stats.orders(OrderStatus.CANCELLED));
+        assertEquals(0, new BigDecimal("20.00").compareTo(stats.revenue()));
+    }
+
+    @Test
+    @DisplayName("Should ignore changes to orders placed on a previous day")
+    void shouldIgnorePreviousDayOrders() {
+        // Given
+        readModel.reconcile();
+
+        // When - commande d'hier retiree aujourd'hui
+        readModel.recordTransition(restaurantId, LocalDateTime.now().minusDays(1), new BigDecimal("9.00"),
+            OrderStatus.READY, OrderStatus.COMPLETED, LocalDateTime.now());
+
+        // Then
+        assertEquals(0, readModel.get(restaurantId, today).orElseThrow().totalOrders());
+        assertTrue(readModel.get(restaurantId, today.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should pick up orders handled by another node on reconciliation")
+    void shouldReconcileOtherNodes() {
+        // Given
+        database.add(stats(1, "10.00"));
+        readModel.reconcile();
+        UUID otherRestaurant = UUID.randomUUID();
+        database.clear();
+        database.add(stats(4, "55.00"));
+        RestaurantDayOrderStats other = RestaurantDayOrderStats.empty(otherRestaurant, today);
+        other.ordersByStatus().put(OrderStatus.CONFIRMED, 1L);
+        other.amountByStatus().put(OrderStatus.CONFIRMED, new BigDecimal("8.00"));
+        database.add(other);
+
+        // When
+        readModel.reconcile();
+
+        // Then
+        assertEquals(4, readModel.get(restaurantId, today).orElseThrow().orders(OrderStatus.PENDING));
+        assertEquals(1, readModel.get(otherRestaurant, today).orElseThrow().orders(OrderStatus.CONFIRMED));
+    }
+}
@@ -1,12 +1,16 @@
 package com.oneeats.unit.security;
 
 import com.oneeats.security.application.AuthService;
+import com.oneeats.security.application.CurrentUserContext;
+import com.oneeats.security.infrastructure.cache.PrincipalCache;
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
 import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity;
 import com.oneeats.security.infrastructure.entity.RestaurantStaffEntity.StaffRole;
 import com.oneeats.security.infrastructure.repository.JpaRestaurantStaffRepository;
 import com.oneeats.user.domain.model.UserStatus;
 import com.oneeats.user.infrastructure.entity.UserEntity;
 import com.oneeats.user.infrastructure.repository.JpaUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.inject.Instance;
 import org.eclipse.microprofile.jwt.JsonWebToken;
@@ -14,6 +18,7 @@ import org.junit.jupiter.api.*;
 import org.mockito.*;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +48,9 @@ class AuthServiceTest {
 
     private AuthService authService;
 
+    private PrincipalCache principalCache;
+    private VerifiedTokenCache tokenCache;
+
     private AutoCloseable mocks;
 
     private static final String KEYCLOAK_ID = "keycloak-123-abc";
@@ -58,11 +66,21 @@ class AuthServiceTest {
         when(jwtInstance.get()).thenReturn(jwt);
 
         // Creer AuthService et injecter les mocks via reflexion
-        authService = new AuthService();
-        injectField(authService, "securityIdentity", securityIdentity);
-        injectField(authService, "jwtInstance", jwtInstance);
-        injectField(authService, "userRepository", userRepository);
-        injectField(authService, "staffRepository", staffRepository);
+        principalCache = new PrincipalCache(Duration.ofSeconds(30), 100, new SimpleMeterRegistry());
+        tokenCache = new VerifiedTokenCache(100, principalCache, new SimpleMeterRegistry());
+        authService = newAuthService(new CurrentUserContext());
+    }
+
+    private AuthService newAuthService(CurrentUserContext requestContext) throws Exception {
+        AuthService service = new AuthService();
+        injectField(service, "securityIdentity", securityIdentity);
+        injectField(service, "jwtInstance", jwtInstance);
+        injectField(service, "userRepository", userRepository);
+        injectField(service, "staffRepository", staffRepository);
+        injectField(service, "currentUserContext", requestContext);
+        injectField(service, "principalCache", principalCache);
+        injectField(service, "tokenCache", tokenCache);
+        return service;
     }
 
     private void injectField(Object target, String fieldName, Object value) throws Exception {
@@ -227,18 +245,20 @@ class AuthServiceTest {
     class RestaurantAccess {
 
         @Test
-        @DisplayName("Should check restaurant access via staff repository")
-        void shouldCheckRestaurantAccessViaStaffRepository() {
+        @DisplayName("Should check restaurant access from staff memberships")
+        void shouldCheckRestaurantAccessFromStaffMemberships() {
             // Given
             setupAuthenticatedUser();
-            when(staffRepository.hasAccessToRestaurant(USER_ID, RESTAURANT_ID)).thenReturn(true);
+            when(staffRepository.findByUserId(USER_ID))
+                .thenReturn(List.of(new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.STAFF)));
 
             // When
             boolean result = authService.hasAccessToRestaurant(RESTAURANT_ID);
 
             // Then
             assertTrue(result);
-            verify(staffRepository).hasAccessToRestaurant(USER_ID, RESTAURANT_ID);
+            assertFalse(authService.hasAccessToRestaurant(UUID.randomUUID()));
+            verify(staffRepository).findByUserId(USER_ID);
         }
 
         @Test
@@ -261,8 +281,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.MANAGER);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             Optional<StaffRole> result = authService.getStaffRoleForRestaurant(RESTAURANT_ID);
@@ -277,8 +296,7 @@ class AuthServiceTest {
         void shouldReturnEmptyWhenNoStaffRoleForRestaurant() {
             // Given
             setupAuthenticatedUser();
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.empty());
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of());
 
             // When
             Optional<StaffRole> result = authService.getStaffRoleForRestaurant(RESTAURANT_ID);
@@ -298,8 +316,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.OWNER);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageMenu(RESTAURANT_ID);
@@ -314,8 +331,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.MANAGER);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageMenu(RESTAURANT_ID);
@@ -330,8 +346,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.STAFF);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageMenu(RESTAURANT_ID);
@@ -345,8 +360,7 @@ class AuthServiceTest {
         void shouldDenyMenuManagementWhenNotStaff() {
             // Given
             setupAuthenticatedUser();
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.empty());
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of());
 
             // When
             boolean result = authService.canManageMenu(RESTAURANT_ID);
@@ -366,8 +380,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.OWNER);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageStaff(RESTAURANT_ID);
@@ -382,8 +395,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.MANAGER);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageStaff(RESTAURANT_ID);
@@ -398,8 +410,7 @@ class AuthServiceTest {
             // Given
             setupAuthenticatedUser();
             RestaurantStaffEntity staffEntity = new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.STAFF);
-            when(staffRepository.findByUserIdAndRestaurantId(USER_ID, RESTAURANT_ID))
-                .thenReturn(Optional.of(staffEntity));
+            when(staffRepository.findByUserId(USER_ID)).thenReturn(List.of(staffEntity));
 
             // When
             boolean result = authService.canManageStaff(RESTAURANT_ID);
@@ -583,6 +594,80 @@ class AuthServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Resolution Caching")
+    class ResolutionCaching {
+
+        @Test
+        @DisplayName("Should resolve user and memberships once per request")
+        void shouldResolveOncePerRequest() {
+            // Given
+            setupAuthenticatedUser();
+            when(staffRepository.findByUserId(USER_ID))
+                .thenReturn(List.of(new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.MANAGER)));
+
+            // When - sequence typique d'un controleur
+            authService.isCurrentUser(USER_ID);
+            authService.hasAccessToRestaurant(RESTAURANT_ID);
+            authService.canManageMenu(RESTAURANT_ID);
+            authService.getCurrentUser();
+
+            // Then
+            verify(userRepository, times(1)).findByKeycloakId(KEYCLOAK_ID);
+            verify(staffRepository, times(1)).findByUserId(USER_ID);
+        }
+
+        @Test
+        @DisplayName("Should reuse the cached identity in the next request")
+        void shouldReuseCachedIdentityAcrossRequests() throws Exception {
+            // Given
+            setupAuthenticatedUser();
+            authService.hasAccessToRestaurant(RESTAURANT_ID);
+
+            // When - nouvelle requete, meme sujet Keycloak
+            AuthService nextRequest = newAuthService(new CurrentUserContext());
+            Optional<UUID> userId = nextRequest.getCurrentUserId();
+
+            // Then
+            assertEquals(Optional.of(USER_ID), userId);
+            verify(userRepository, times(1)).findByKeycloakId(KEYCLOAK_ID);
+            verify(staffRepository, times(1)).findByUserId(USER_ID);
+        }
+
+        @Test
+        @DisplayName("Should reload memberships after a staff change")
+        void shouldReloadMembershipsAfterStaffChange() throws Exception {
+            // Given
+            setupAuthenticatedUser();
+            assertFalse(authService.hasAccessToRestaurant(RESTAURANT_ID));
+
+            // When
+            authService.addStaffMember(USER_ID, RESTAURANT_ID, StaffRole.STAFF);
+            when(staffRepository.findByUserId(USER_ID))
+                .thenReturn(List.of(new RestaurantStaffEntity(USER_ID, RESTAURANT_ID, StaffRole.STAFF)));
+
+            // Then
+            assertTrue(newAuthService(new CurrentUserContext()).hasAccessToRestaurant(RESTAURANT_ID));
+        }
+
+        @Test
+        @DisplayName("Should attach the resolved identity to a verified bearer token")
+        void shouldAttachIdentityToVerifiedToken() {
+            // Given - jeton deja verifie par OIDC
+            setupAuthenticatedUser();
+            when(jwt.getRawToken()).thenReturn("header.payload.signature");
+            tokenCache.put("header.payload.signature", securityIdentity, System.currentTimeMillis() / 1000 + 300);
+
+            // When
+            authService.getCurrentUserId();
+
+            // Then
+            VerifiedTokenCache.VerifiedToken token = tokenCache.get("header.payload.signature");
+            assertNotNull(token);
+            assertEquals(USER_ID, tokenCache.principal(token).userId());
+        }
+    }
+
     // Helper methods
 
     private void setupAuthenticatedUser() {
@@ -0,0 +1,244 @@
+package com.oneeats.unit.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.security.infrastructure.keycloak.KeycloakAdminClient;
+import com.oneeats.security.infrastructure.keycloak.KeycloakAdminClient.KeycloakUnavailableException;
+import com.oneeats.shared.infrastructure.http.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour KeycloakAdminClient contre un serveur HTTP local
+ * Cache du jeton admin, renouvellement unique, nouvel essai sur 401 et disjoncteur
+ */
+@DisplayName("KeycloakAdminClient Unit Tests")
+class KeycloakAdminClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger userRequests = new AtomicInteger();
+    private final List<String> authorizations = new ArrayList<>();
+    private volatile long expiresIn = 300;
+    private volatile long tokenDelayMillis = 0;
+    private volatile int usersStatus = 200;
+    private volatile int unauthorizedResponses = 0;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/realms/master/protocol/openid-connect/token", exchange -> {
+            int n = tokenRequests.incrementAndGet();
+            sleep(tokenDelayMillis);
+            respond(exchange, 200, "{\"access_token\":\"token-" + n + "\",\"expires_in\":" + expiresIn + ",\"token_type\":\"Bearer\"}");
+        });
+        server.createContext("/admin/realms/oneeats/users", exchange -> {
+            userRequests.incrementAndGet();
+            synchronized (authorizations) {
+                authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            }
+            if (unauthorizedResponses > 0) {
+                unauthorizedResponses--;
+                respond(exchange, 401, "");
+                return;
+            }
+            respond(exchange, usersStatus, "[]");
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private KeycloakAdminClient client(Duration refreshSkew, int failureThreshold) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/realms/oneeats";
+        return new KeycloakAdminClient(url, "admin-cli", Optional.empty(), "admin", "p@ss&word",
+            Duration.ofSeconds(2), refreshSkew, failureThreshold, Duration.ofMinutes(1),
+            new ObjectMapper(), meterRegistry);
+    }
+
+    private CompletableFuture<HttpResponse<String>> listUsers(KeycloakAdminClient client) {
+        return client.sendAuthorized("list-users", token -> HttpRequest.newBuilder()
+            .uri(URI.create(client.baseUrl() + "/admin/realms/" + client.realm() + "/users"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the admin token across calls")
+    void shouldReuseAdminToken() {
+        // Given
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 5);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, listUsers(client).join().statusCode());
+        }
+
+        // Then
+        assertEquals(1, tokenRequests.get());
+        assertEquals(5, userRequests.get());
+        assertTrue(authorizations.stream().allMatch("Bearer token-1"::equals));
+    }
+
+    @Test
+    @DisplayName("Should issue a single refresh for concurrent callers")
+    void shouldRefreshOnceForConcurrentCallers() throws Exception {
+        // Given - renouvellement lent: tous les appels arrivent pendant qu'il est en vol
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 5);
+        tokenDelayMillis = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<String>> tokens = new ArrayList<>();
+
+        // When
+        var pool = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<CompletableFuture<String>>> submitted = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                submitted.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return client.adminToken();
+                }, pool));
+            }
+            start.countDown();
+            for (CompletableFuture<CompletableFuture<String>> future : submitted) {
+                tokens.add(future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Then
+        for (CompletableFuture<String> token : tokens) {
+            assertEquals("token-1", token.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, tokenRequests.get());
+    }
+
+    @Test
+    @DisplayName("Should refresh the admin token before it expires")
+    void shouldRefreshBeforeExpiry() throws Exception {
+        // Given - jeton d'une seconde, renouvele a mi-vie
+        expiresIn = 1;
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 5);
+        assertEquals("token-1", client.adminToken().join());
+
+        // When
+        Thread.sleep(600);
+        String refreshed = client.adminToken().join();
+
+        // Then
+        assertEquals("token-2", refreshed);
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @Test
+    @DisplayName("Should retry once with a fresh token after a 401")
+    void shouldRetryOnceAfterUnauthorized() {
+        // Given - jeton revoque cote Keycloak
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 5);
+        client.adminToken().join();
+        unauthorizedResponses = 1;
+
+        // When
+        HttpResponse<String> response = listUsers(client).join();
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertEquals(2, tokenRequests.get());
+        assertEquals(List.of("Bearer token-1", "Bearer token-2"), authorizations);
+    }
+
+    @Test
+    @DisplayName("Should not retry more than once on repeated 401")
+    void shouldNotLoopOnRepeatedUnauthorized() {
+        // Given
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 5);
+        unauthorizedResponses = 10;
+
+        // When
+        HttpResponse<String> response = listUsers(client).join();
+
+        // Then
+        assertEquals(401, response.statusCode());
+        assertEquals(2, userRequests.get());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after consecutive server errors")
+    void shouldOpenCircuitAfterServerErrors() {
+        // Given
+        KeycloakAdminClient client = client(Duration.ofSeconds(30), 3);
+        client.adminToken().join();
+        usersStatus = 503;
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertEquals(503, listUsers(client).join().statusCode());
+        }
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> listUsers(client).get());
+
+        // Then - le quatrieme appel n'atteint pas Keycloak
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        assertInstanceOf(KeycloakUnavailableException.class, rejected.getCause());
+        assertEquals(3, userRequests.get());
+        assertEquals(1.0, meterRegistry.get("oneeats.keycloak.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should URL-encode form parameters")
+    void shouldEncodeFormParameters() {
+        // When
+        String body = KeycloakAdminClient.form("username", "a+b@oneeats.fr", "password", "p@ss&word=1");
+
+        // Then
+        assertEquals("username=a%2Bb%40oneeats.fr&password=p%40ss%26word%3D1", body);
+    }
+}
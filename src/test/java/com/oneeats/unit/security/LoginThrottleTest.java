@@ -0,0 +1,254 @@
+package com.oneeats.unit.security;
+
+import com.oneeats.security.domain.exception.TooManyAuthenticationAttemptsException;
+import com.oneeats.security.domain.model.AuthenticationAttempt;
+import com.oneeats.security.domain.repository.IAuthenticationAttemptRepository;
+import com.oneeats.security.domain.service.SecurityDomainService;
+import com.oneeats.security.infrastructure.throttle.InMemoryAuthenticationAttemptTracker;
+import com.oneeats.security.infrastructure.throttle.SlidingWindowCounter;
+import com.oneeats.shared.domain.vo.Email;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la limitation des connexions
+ * Fenetre glissante sans verrou, decisions par email et par IP
+ * (debit et latence des decisions: LoginThrottleBenchmark, profil jmh)
+ */
+@DisplayName("Login Throttle Unit Tests")
+class LoginThrottleTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Nested
+    @DisplayName("Sliding Window Counter")
+    class SlidingWindow {
+
+        @Test
+        @DisplayName("Should forget events once they leave the window")
+        void shouldSlide() {
+            // Given - fenetre d'une heure en tranches d'une minute
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 100);
+            long start = 1_000 * MINUTE;
+            counter.increment("ip", start);
+            counter.increment("ip", start + 30 * MINUTE);
+
+            // When / Then
+            assertEquals(2, counter.count("ip", start + 59 * MINUTE));
+            assertEquals(1, counter.count("ip", start + 60 * MINUTE));
+            assertEquals(0, counter.count("ip", start + 90 * MINUTE));
+        }
+
+        @Test
+        @DisplayName("Should recycle a stale bucket instead of adding to it")
+        void shouldRecycleStaleBucket() {
+            // Given - meme tranche, une heure plus tard
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 100);
+            long start = 1_000 * MINUTE;
+            counter.increment("ip", start);
+            counter.increment("ip", start);
+
+            // When
+            long count = counter.increment("ip", start + 60 * MINUTE);
+
+            // Then
+            assertEquals(1, count);
+        }
+
+        @Test
+        @DisplayName("Should not lose increments under contention")
+        void shouldCountExactlyUnderContention() throws Exception {
+            // Given
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 100);
+            long now = 1_000 * MINUTE;
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        counter.increment("shared", now);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            // Then
+            assertEquals(80_000, counter.count("shared", now));
+        }
+
+        @Test
+        @DisplayName("Should never evict a key that still has failures when full")
+        void shouldKeepActiveKeysWhenFull() {
+            // Given - partition pleine de cles actives
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 2, 1);
+            long now = 1_000 * MINUTE;
+            counter.increment("target", now);
+            counter.increment("target", now);
+            counter.increment("b", now);
+
+            // When - rafale de cles nouvelles
+            for (int i = 0; i < 100; i++) {
+                counter.increment("spray-" + i, now);
+            }
+
+            // Then - le compteur vise n'est pas remis a zero
+            assertEquals(2, counter.count("target", now));
+            assertEquals(2, counter.size());
+            assertEquals(100, counter.untracked());
+            assertEquals(0, counter.evictions());
+        }
+
+        @Test
+        @DisplayName("Should reclaim idle keys when a new key arrives in a full stripe")
+        void shouldReclaimIdleKeysWhenFull() {
+            // Given - "old" sans evenement depuis plus d'une fenetre
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 2, 1);
+            long now = 1_000 * MINUTE;
+            counter.increment("old", now - 61 * MINUTE);
+            counter.increment("active", now);
+
+            // When
+            long count = counter.increment("new", now);
+
+            // Then
+            assertEquals(1, count);
+            assertEquals(2, counter.size());
+            assertEquals(1, counter.evictions());
+            assertEquals(0, counter.untracked());
+            assertEquals(1, counter.count("active", now));
+            assertEquals(1, counter.count("new", now));
+        }
+
+        @Test
+        @DisplayName("Should bound each stripe separately")
+        void shouldBoundEachStripe() {
+            // Given
+            SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofHours(1), 60, 64, 4);
+            long now = 1_000 * MINUTE;
+
+            // When
+            for (int i = 0; i < 1_000; i++) {
+                counter.increment("key-" + i, now);
+            }
+
+            // Then - 4 partitions de 16 cles
+            assertEquals(64, counter.size());
+            assertEquals(1_000 - 64, counter.untracked());
+        }
+    }
+
+    @Nested
+    @DisplayName("Throttling Decisions")
+    class Decisions {
+
+        private IAuthenticationAttemptRepository repository;
+        private InMemoryAuthenticationAttemptTracker tracker;
+        private SecurityDomainService service;
+        private SimpleMeterRegistry meterRegistry;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            repository = mock(IAuthenticationAttemptRepository.class);
+            meterRegistry = new SimpleMeterRegistry();
+            tracker = new InMemoryAuthenticationAttemptTracker(repository, Duration.ofHours(1), 60, 100_000, 1_000, 500, meterRegistry);
+            service = new SecurityDomainService();
+            Field field = SecurityDomainService.class.getDeclaredField("attemptTracker");
+            field.setAccessible(true);
+            field.set(service, tracker);
+        }
+
+        @Test
+        @DisplayName("Should block an email after five failures without querying the database")
+        void shouldBlockEmailAfterFiveFailures() {
+            // Given
+            Email email = new Email("victim@oneeats.fr");
+            for (int i = 0; i < 5; i++) {
+                service.validateAuthenticationAttempt(email, "10.0.0." + i);
+                service.recordAuthenticationAttempt(AuthenticationAttempt.failed(email, "10.0.0." + i, "test", "invalid_credentials"));
+            }
+
+            // When / Then
+            assertThrows(TooManyAuthenticationAttemptsException.class,
+                () -> service.validateAuthenticationAttempt(email, "10.0.0.99"));
+            verify(repository, never()).countFailedAttemptsByEmailInLastHour(any());
+            verify(repository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should not count successful logins as failures")
+        void shouldIgnoreSuccesses() {
+            // Given
+            Email email = new Email("user@oneeats.fr");
+            for (int i = 0; i < 10; i++) {
+                service.recordAuthenticationAttempt(AuthenticationAttempt.successful(email, "10.0.0.1", "test"));
+            }
+
+            // When / Then
+            assertDoesNotThrow(() -> service.validateAuthenticationAttempt(email, "10.0.0.1"));
+        }
+
+        @Test
+        @DisplayName("Should stop credential stuffing at the IP threshold without blocking legitimate users")
+        void shouldThrottleStuffingOnly() {
+            // Given - une tentative sur deux vient d'un attaquant (une IP, emails aleatoires)
+            long attackerAccepted = 0;
+            long attackerRejected = 0;
+            long legitimateRejected = 0;
+            int attempts = 4_000;
+
+            // When
+            for (int count = 0; count < attempts; count++) {
+                boolean attacker = count % 2 == 0;
+                Email email = new Email((attacker ? "stuffed-" + count : "user" + (count % 500)) + "@oneeats.fr");
+                String ip = attacker ? "203.0.113.7" : "10.1.0." + (count % 250);
+                try {
+                    service.validateAuthenticationAttempt(email, ip);
+                    if (attacker) {
+                        attackerAccepted++;
+                        service.recordAuthenticationAttempt(AuthenticationAttempt.failed(email, ip, "bot", "invalid_credentials"));
+                    } else {
+                        service.recordAuthenticationAttempt(AuthenticationAttempt.successful(email, ip, "app"));
+                    }
+                } catch (TooManyAuthenticationAttemptsException e) {
+                    if (attacker) {
+                        attackerRejected++;
+                    } else {
+                        legitimateRejected++;
+                    }
+                }
+            }
+
+            // Then - attaquant arrete au seuil IP, utilisateurs legitimes jamais bloques
+            assertEquals(20, attackerAccepted);
+            assertEquals(attempts / 2 - 20, attackerRejected);
+            assertEquals(0, legitimateRejected);
+
+            // Journal d'audit borne (1 000): le surplus est compte, jamais bloquant
+            double dropped = meterRegistry.get("oneeats.security.login-attempts.audit.dropped").counter().count();
+            assertEquals(attackerAccepted + attempts / 2 - 1_000, dropped);
+            verifyNoInteractions(repository);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.oneeats.unit.security;
+
+import com.oneeats.security.infrastructure.cache.PrincipalCache;
+import com.oneeats.security.infrastructure.cache.ResolvedPrincipal;
+import com.oneeats.security.infrastructure.cache.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.security.identity.SecurityIdentity;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitaires pour VerifiedTokenCache
+ * Expiration des jetons, borne du cache et invalidation de l'identite metier attachee
+ */
+@DisplayName("VerifiedTokenCache Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private static final UUID USER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+    private PrincipalCache principalCache;
+    private VerifiedTokenCache tokenCache;
+    private SecurityIdentity identity;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(Duration.ofSeconds(30), 100, new SimpleMeterRegistry());
+        tokenCache = new VerifiedTokenCache(2, principalCache, new SimpleMeterRegistry());
+        identity = mock(SecurityIdentity.class);
+    }
+
+    private static long inSeconds(long seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+
+    @Test
+    @DisplayName("Should return the verified identity for the same token only")
+    void shouldMatchExactToken() {
+        // Given
+        tokenCache.put("a.b.c", identity, inSeconds(300));
+
+        // When / Then
+        assertSame(identity, tokenCache.get("a.b.c").identity());
+        assertNull(tokenCache.get("a.b.d"));
+    }
+
+    @Test
+    @DisplayName("Should never serve an expired token")
+    void shouldNotServeExpiredToken() {
+        // Given
+        tokenCache.put("expired", identity, inSeconds(-1));
+        tokenCache.put("expiring", identity, inSeconds(0));
+
+        // When / Then
+        assertNull(tokenCache.get("expired"));
+        assertNull(tokenCache.get("expiring"));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently presented token when full")
+    void shouldEvictLeastRecentlyUsed() {
+        // Given - "first" presente a nouveau apres "second"
+        tokenCache.put("first", identity, inSeconds(300));
+        tokenCache.put("second", identity, inSeconds(300));
+        tokenCache.get("first");
+
+        // When
+        tokenCache.put("third", identity, inSeconds(300));
+
+        // Then - "second" sera de nouveau verifie par OIDC
+        assertEquals(2, tokenCache.size());
+        assertNotNull(tokenCache.get("first"));
+        assertNull(tokenCache.get("second"));
+        assertNotNull(tokenCache.get("third"));
+    }
+
+    @Test
+    @DisplayName("Should drop the attached identity after a staff change")
+    void shouldDropAttachedIdentityOnInvalidation() {
+        // Given
+        tokenCache.put("a.b.c", identity, inSeconds(300));
+        VerifiedTokenCache.VerifiedToken token = tokenCache.get("a.b.c");
+        ResolvedPrincipal principal = new ResolvedPrincipal(USER_ID, "kc-1", Map.of());
+        tokenCache.attach(token, principal, principalCache.generation());
+        assertSame(principal, tokenCache.principal(token));
+
+        // When
+        principalCache.invalidateUser(USER_ID);
+
+        // Then - le jeton reste verifie, l'identite metier sera relue
+        assertNull(tokenCache.principal(token));
+        assertNotNull(tokenCache.get("a.b.c"));
+    }
+
+    @Test
+    @DisplayName("Should not attach an identity resolved before an invalidation")
+    void shouldNotAttachStaleIdentity() {
+        // Given
+        tokenCache.put("a.b.c", identity, inSeconds(300));
+        VerifiedTokenCache.VerifiedToken token = tokenCache.get("a.b.c");
+        long generation = principalCache.generation();
+
+        // When - invalidation pendant la resolution
+        principalCache.invalidateUser(USER_ID);
+        tokenCache.attach(token, new ResolvedPrincipal(USER_ID, "kc-1", Map.of()), generation);
+
+        // Then
+        assertNull(tokenCache.principal(token));
+    }
+}
@@ -0,0 +1,95 @@
+package com.oneeats.unit.shared;
+
+import com.oneeats.shared.infrastructure.transaction.AfterCommit;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des actions differees a la fin de la transaction
+ */
+@DisplayName("AfterCommit Unit Tests")
+class AfterCommitTest {
+
+    private TransactionSynchronizationRegistry registry;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        registry = mock(TransactionSynchronizationRegistry.class);
+    }
+
+    private Synchronization registered() {
+        ArgumentCaptor<Synchronization> captor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(registry).registerInterposedSynchronization(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Should run right away outside a transaction")
+    void shouldRunWithoutTransaction() {
+        // Given
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        // When
+        AfterCommit.run(registry, runs::incrementAndGet);
+        AfterCommit.run(null, runs::incrementAndGet);
+
+        // Then
+        assertEquals(2, runs.get());
+        verify(registry, never()).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    @DisplayName("Should run only once the transaction commits")
+    void shouldRunOnCommitOnly() {
+        // Given
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        AfterCommit.run(registry, runs::incrementAndGet);
+        Synchronization synchronization = registered();
+        assertEquals(0, runs.get());
+
+        // When / Then
+        synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertEquals(0, runs.get());
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should drop the action of a transaction marked for rollback")
+    void shouldDropWhenMarkedRollback() {
+        // Given
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+
+        // When
+        AfterCommit.run(registry, runs::incrementAndGet);
+
+        // Then
+        assertEquals(0, runs.get());
+        verify(registry, never()).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    @DisplayName("Should run after completion whatever the outcome")
+    void shouldRunAfterCompletion() {
+        // Given
+        when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+        // When
+        assertTrue(AfterCommit.afterCompletion(registry, runs::incrementAndGet));
+        registered().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        // Then
+        assertEquals(1, runs.get());
+    }
+}
@@ -0,0 +1,116 @@
+package com.oneeats.unit.shared;
+
+import com.oneeats.shared.domain.event.DomainEventPublisher;
+import com.oneeats.shared.domain.event.IDomainEvent;
+import com.oneeats.shared.infrastructure.event.DomainEventDispatcher;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour DomainEventPublisher
+ * Verifie que les evenements ne sont livres qu'apres un commit reussi
+ */
+@DisplayName("DomainEventPublisher Unit Tests")
+class DomainEventPublisherTest {
+
+    @InjectMocks
+    private DomainEventPublisher publisher;
+
+    @Mock
+    private DomainEventDispatcher dispatcher;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @Captor
+    private ArgumentCaptor<Synchronization> synchronizationCaptor;
+
+    private AutoCloseable mocks;
+
+    private final Map<Object, Object> transactionResources = new HashMap<>();
+
+    private final IDomainEvent event = () -> LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(transactionRegistry.getResource(any())).thenAnswer(invocation -> transactionResources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> transactionResources.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(transactionRegistry).putResource(any(), any());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    @DisplayName("Should defer delivery until the transaction commits")
+    void shouldDeferDeliveryUntilCommit() {
+        // Given
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+        // When
+        publisher.publish(event);
+        publisher.publish(event);
+
+        // Then - rien n'est livre avant le commit, une seule synchronisation est enregistree
+        verify(dispatcher, never()).dispatchAsync(any(), anyLong());
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(synchronizationCaptor.capture());
+
+        synchronizationCaptor.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(dispatcher, times(2)).dispatchAsync(eq(event), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should discard events when the transaction rolls back")
+    void shouldDiscardEventsOnRollback() {
+        // Given
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        publisher.publish(event);
+        verify(transactionRegistry).registerInterposedSynchronization(synchronizationCaptor.capture());
+
+        // When
+        synchronizationCaptor.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        // Then
+        verify(dispatcher, never()).dispatchAsync(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should discard events published in a transaction marked for rollback")
+    void shouldDiscardEventsWhenMarkedRollback() {
+        // Given
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+
+        // When
+        publisher.publish(event);
+
+        // Then
+        verify(dispatcher, never()).dispatchAsync(any(), anyLong());
+        verify(transactionRegistry, never()).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    @DisplayName("Should dispatch asynchronously right away outside a transaction")
+    void shouldDispatchImmediatelyWithoutTransaction() {
+        // Given
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        // When
+        publisher.publish(event);
+
+        // Then
+        verify(dispatcher).dispatchAsync(eq(event), anyLong());
+        verify(transactionRegistry, never()).registerInterposedSynchronization(any());
+    }
+}
@@ -0,0 +1,160 @@
+package com.oneeats.unit.shared;
+
+import com.oneeats.shared.infrastructure.service.ImageHotCache;
+import com.oneeats.shared.infrastructure.service.ImageHotCache.CachedImage;
+import com.oneeats.shared.infrastructure.web.ByteRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour le service des images (/uploads)
+ * Cache chaud des vignettes et interpretation des en-tetes Range
+ */
+@DisplayName("Image serving Unit Tests")
+class ImageHotCacheTest {
+
+    @TempDir
+    Path uploads;
+
+    private ImageHotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // 2 Ko en memoire, 1 Ko max par fichier, admission au 2e acces
+        cache = new ImageHotCache(2048, 1024, 100, Duration.ofMinutes(10), 2, new SimpleMeterRegistry());
+    }
+
+    private Path image(String name, int size) throws Exception {
+        Path file = uploads.resolve(name);
+        Files.write(file, new byte[size]);
+        return file;
+    }
+
+    @Nested
+    @DisplayName("Hot cache")
+    class HotCache {
+
+        @Test
+        @DisplayName("Should admit a small file in memory on its second request")
+        void shouldAdmitSmallFileOnSecondRequest() throws Exception {
+            // Given
+            Path thumbnail = image("abc_small.jpg", 512);
+
+            // When
+            CachedImage first = cache.lookup(thumbnail);
+            CachedImage second = cache.lookup(thumbnail);
+
+            // Then
+            assertFalse(first.inMemory());
+            assertTrue(second.inMemory());
+            assertEquals(512, second.bytes().length);
+            assertEquals(512, cache.cachedBytes());
+        }
+
+        @Test
+        @DisplayName("Should keep large files on disk")
+        void shouldKeepLargeFilesOnDisk() throws Exception {
+            // Given
+            Path original = image("abc.jpg", 4096);
+
+            // When
+            cache.lookup(original);
+            CachedImage second = cache.lookup(original);
+
+            // Then
+            assertFalse(second.inMemory());
+            assertEquals(4096, second.length());
+            assertEquals(0, cache.cachedBytes());
+        }
+
+        @Test
+        @DisplayName("Should derive a stable ETag from the file name and size")
+        void shouldDeriveEtagFromFilename() throws Exception {
+            // Given
+            Path thumbnail = image("abc_small.jpg", 512);
+
+            // When
+            CachedImage image = cache.lookup(thumbnail);
+
+            // Then
+            assertEquals("abc_small-200", image.etag());
+            assertEquals(image.etag(), cache.lookup(thumbnail).etag());
+        }
+
+        @Test
+        @DisplayName("Should release memory of least recently used files over budget")
+        void shouldStayWithinByteBudget() throws Exception {
+            // Given - 3 vignettes de 1 Ko pour un budget de 2 Ko
+            Path a = image("a_small.jpg", 1024);
+            Path b = image("b_small.jpg", 1024);
+            Path c = image("c_small.jpg", 1024);
+
+            // When
+            for (Path thumbnail : new Path[]{a, a, b, b, c, c}) {
+                cache.lookup(thumbnail);
+            }
+
+            // Then
+            assertEquals(2048, cache.cachedBytes());
+            assertFalse(cache.lookup(a).inMemory());
+        }
+
+        @Test
+        @DisplayName("Should report missing files and forget evicted ones")
+        void shouldReportMissingAndEvictedFiles() throws Exception {
+            // Given
+            Path thumbnail = image("abc_small.jpg", 512);
+            cache.lookup(thumbnail);
+            cache.lookup(thumbnail);
+
+            // When
+            Files.delete(thumbnail);
+            cache.evict(thumbnail);
+
+            // Then
+            assertEquals(0, cache.cachedBytes());
+            assertThrows(NoSuchFileException.class, () -> cache.lookup(thumbnail));
+        }
+    }
+
+    @Nested
+    @DisplayName("Range header")
+    class RangeHeader {
+
+        @Test
+        @DisplayName("Should parse bounded, open and suffix ranges")
+        void shouldParseSingleRanges() {
+            assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1000));
+            assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000));
+            assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000));
+            assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-5000", 1000));
+            assertEquals(100, ByteRange.parse("bytes=0-99", 1000).length());
+            assertEquals("bytes 0-99/1000", ByteRange.parse("bytes=0-99", 1000).contentRange(1000));
+        }
+
+        @Test
+        @DisplayName("Should flag ranges outside the file as unsatisfiable")
+        void shouldFlagUnsatisfiableRanges() {
+            assertFalse(ByteRange.parse("bytes=1000-", 1000).satisfiable());
+            assertFalse(ByteRange.parse("bytes=-0", 1000).satisfiable());
+        }
+
+        @Test
+        @DisplayName("Should ignore missing, invalid and multi-range headers")
+        void shouldIgnoreUnsupportedHeaders() {
+            assertNull(ByteRange.parse(null, 1000));
+            assertNull(ByteRange.parse("items=0-1", 1000));
+            assertNull(ByteRange.parse("bytes=abc-", 1000));
+            assertNull(ByteRange.parse("bytes=50-10", 1000));
+            assertNull(ByteRange.parse("bytes=0-1,5-9", 1000));
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.oneeats.unit.shared;
+
+import com.oneeats.shared.infrastructure.service.ImageProxyCache;
+import com.oneeats.shared.infrastructure.service.ImageProxyCache.ImageProxyException;
+import com.oneeats.shared.infrastructure.service.ImageProxyCache.ProxiedImage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour ImageProxyCache contre un serveur HTTP local
+ * Hit/miss, coalescence des appels, revalidation conditionnelle, taille maximale, eviction LRU et redirections
+ */
+@DisplayName("ImageProxyCache Unit Tests")
+class ImageProxyCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private final AtomicInteger originRequests = new AtomicInteger();
+    private final List<String> ifNoneMatch = new ArrayList<>();
+    private volatile long originDelayMillis = 0;
+    private volatile String cacheControl = null;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        // /img/<taille>: image PNG factice de la taille demandee, ETag stable
+        server.createContext("/img/", exchange -> {
+            originRequests.incrementAndGet();
+            sleep(originDelayMillis);
+            String conditional = exchange.getRequestHeaders().getFirst("If-None-Match");
+            synchronized (ifNoneMatch) {
+                ifNoneMatch.add(conditional);
+            }
+            String path = exchange.getRequestURI().getPath();
+            int size = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            exchange.getResponseHeaders().add("ETag", "\"v" + size + "\"");
+            if (cacheControl != null) {
+                exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            }
+            if (("\"v" + size + "\"").equals(conditional)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            respond(exchange, 200, new byte[size]);
+        });
+        server.createContext("/text", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            respond(exchange, 200, "<html></html>".getBytes());
+        });
+        // Taille non annoncee: seule la lecture du flux peut l'arreter
+        server.createContext("/chunked", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, 0);
+            try (var out = exchange.getResponseBody()) {
+                for (int i = 0; i < 64; i++) {
+                    out.write(new byte[1024]);
+                }
+            } catch (IOException e) {
+                // Client parti apres le depassement
+            }
+        });
+        // Redirection vers une image du meme serveur: jamais suivie
+        server.createContext("/redirect", exchange -> {
+            originRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Location", "/img/100");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private ImageProxyCache cache(long maxBytes, Duration ttl) {
+        return new ImageProxyCache(directory, maxBytes, 16 * 1024, 100, ttl, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private URI url(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("oneeats.images.proxy.requests").tag("result", result).counter().count();
+    }
+
+    private static int read(ProxiedImage image) throws IOException {
+        try (var content = image.content()) {
+            return content.readAllBytes().length;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve the second request from disk")
+    void shouldServeHitFromDisk() throws Exception {
+        // Given
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+
+        // When
+        ProxiedImage first = cache.fetch(url("/img/2048")).get(5, TimeUnit.SECONDS);
+        ProxiedImage second = cache.fetch(url("/img/2048")).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, originRequests.get());
+        assertEquals("image/png", second.contentType());
+        assertEquals(2048, read(second));
+        assertEquals(2048, read(first));
+        assertEquals(first.etag(), second.etag());
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses into one origin request")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+        originDelayMillis = 300;
+
+        // When
+        List<CompletableFuture<ProxiedImage>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(cache.fetch(url("/img/4096")));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, originRequests.get());
+        assertEquals(19.0, requests("coalesced"));
+        for (CompletableFuture<ProxiedImage> future : futures) {
+            assertEquals(4096, read(future.join()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should revalidate a stale entry with If-None-Match")
+    void shouldRevalidateStaleEntry() throws Exception {
+        // Given - reponse immediatement perimee
+        cacheControl = "max-age=0";
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+        ProxiedImage first = cache.fetch(url("/img/1024")).get(5, TimeUnit.SECONDS);
+        read(first);
+
+        // When
+        cacheControl = "max-age=600";
+        ProxiedImage revalidated = cache.fetch(url("/img/1024")).get(5, TimeUnit.SECONDS);
+        read(cache.fetch(url("/img/1024")).get(5, TimeUnit.SECONDS));
+
+        // Then - 304 de l'origine, meme contenu, fraicheur prolongee
+        assertEquals(2, originRequests.get());
+        assertEquals(Arrays.asList(null, "\"v1024\""), ifNoneMatch);
+        assertEquals(first.etag(), revalidated.etag());
+        assertTrue(revalidated.freshForSeconds() > 500);
+        assertEquals(1024, read(revalidated));
+        assertEquals(1.0, requests("revalidated"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    @DisplayName("Should reject images above the entry size limit")
+    void shouldRejectOversizedImages() {
+        // Given
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+
+        // When / Then - taille annoncee et taille lue en flux
+        for (String path : List.of("/img/20000", "/chunked")) {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                () -> cache.fetch(url(path)).get(5, TimeUnit.SECONDS));
+            assertEquals(413, ((ImageProxyException) error.getCause()).status());
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.cachedBytes());
+    }
+
+    @Test
+    @DisplayName("Should reject non image content")
+    void shouldRejectNonImageContent() {
+        // Given
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+
+        // When
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> cache.fetch(url("/text")).get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(400, ((ImageProxyException) error.getCause()).status());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used images to stay under the byte cap")
+    void shouldEvictLeastRecentlyUsed() throws Exception {
+        // Given - budget de 10 Ko
+        ImageProxyCache cache = cache(10_000, Duration.ofHours(1));
+        read(cache.fetch(url("/img/4000")).get(5, TimeUnit.SECONDS));
+        read(cache.fetch(url("/img/4001")).get(5, TimeUnit.SECONDS));
+        read(cache.fetch(url("/img/4000")).get(5, TimeUnit.SECONDS));
+
+        // When
+        read(cache.fetch(url("/img/4002")).get(5, TimeUnit.SECONDS));
+
+        // Then - 4001 evince (le moins recemment servi), fichiers supprimes
+        assertEquals(2, cache.size());
+        assertEquals(8002, cache.cachedBytes());
+        read(cache.fetch(url("/img/4001")).get(5, TimeUnit.SECONDS));
+        assertEquals(4, originRequests.get());
+        try (var files = Files.list(directory)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep serving an image evicted before it is read")
+    void shouldServeEvictedImageBeingRead() throws Exception {
+        // Given - image rendue mais pas encore envoyee
+        ImageProxyCache cache = cache(10_000, Duration.ofHours(1));
+        ProxiedImage pending = cache.fetch(url("/img/4000")).get(5, TimeUnit.SECONDS);
+
+        // When - evincee par deux autres images
+        read(cache.fetch(url("/img/4001")).get(5, TimeUnit.SECONDS));
+        read(cache.fetch(url("/img/4002")).get(5, TimeUnit.SECONDS));
+
+        // Then - contenu complet malgre la suppression du fichier
+        assertEquals(2, cache.size());
+        assertEquals(8003, cache.cachedBytes());
+        assertEquals(4000, read(pending));
+    }
+
+    @Test
+    @DisplayName("Should not follow redirects to unvalidated targets")
+    void shouldNotFollowRedirects() {
+        // Given
+        ImageProxyCache cache = cache(1024 * 1024, Duration.ofHours(1));
+
+        // When
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> cache.fetch(url("/redirect")).get(5, TimeUnit.SECONDS));
+
+        // Then - cible jamais contactee
+        assertEquals(404, ((ImageProxyException) error.getCause()).status());
+        assertEquals(1, originRequests.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from disk on startup")
+    void shouldRebuildIndexOnStartup() throws Exception {
+        // Given
+        read(cache(1024 * 1024, Duration.ofHours(1)).fetch(url("/img/3000")).get(5, TimeUnit.SECONDS));
+
+        // When
+        ImageProxyCache restarted = cache(1024 * 1024, Duration.ofHours(1));
+        ProxiedImage image = restarted.fetch(url("/img/3000")).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, originRequests.get());
+        assertEquals(3000, image.length());
+        assertEquals(3000, read(image));
+        assertEquals(3000, restarted.cachedBytes());
+    }
+}
@@ -0,0 +1,134 @@
+package com.oneeats.unit.shared;
+
+import com.oneeats.shared.infrastructure.service.ImageResizingService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour ImageResizingService
+ * Decodage sous-echantillonne, reduction en plusieurs passes et qualite JPEG explicite
+ */
+@DisplayName("ImageResizingService Unit Tests")
+class ImageResizingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageResizingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageResizingService();
+    }
+
+    private BufferedImage filled(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    private BufferedImage noise(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        return image;
+    }
+
+    @Test
+    @DisplayName("Should reach the exact target size on large reductions")
+    void shouldReachTargetSizeOnLargeReductions() {
+        // Given
+        BufferedImage photo = filled(2000, 1000, Color.RED);
+
+        // When
+        BufferedImage thumbnail = service.scaleToFit(photo, ImageResizingService.THUMBNAIL_SIZE, ImageResizingService.THUMBNAIL_SIZE);
+
+        // Then
+        assertEquals(150, thumbnail.getWidth());
+        assertEquals(75, thumbnail.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should never upscale small images")
+    void shouldNeverUpscale() {
+        // Given
+        BufferedImage icon = filled(100, 50, Color.RED);
+
+        // When
+        BufferedImage result = service.scaleToFit(icon, ImageResizingService.LARGE_SIZE, ImageResizingService.LARGE_SIZE);
+
+        // Then
+        assertEquals(100, result.getWidth());
+        assertEquals(50, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should not leak reused buffers between successive resizes")
+    void shouldNotShareBuffersBetweenResults() {
+        // Given
+        BufferedImage red = filled(1600, 1200, Color.RED);
+        BufferedImage blue = filled(1600, 1200, Color.BLUE);
+
+        // When
+        BufferedImage first = service.scaleToFit(red, ImageResizingService.THUMBNAIL_SIZE, ImageResizingService.THUMBNAIL_SIZE);
+        BufferedImage second = service.scaleToFit(blue, ImageResizingService.THUMBNAIL_SIZE, ImageResizingService.THUMBNAIL_SIZE);
+
+        // Then
+        assertEquals(Color.RED.getRGB(), first.getRGB(first.getWidth() / 2, first.getHeight() / 2));
+        assertEquals(Color.BLUE.getRGB(), second.getRGB(second.getWidth() / 2, second.getHeight() / 2));
+    }
+
+    @Test
+    @DisplayName("Should subsample large sources while decoding")
+    void shouldSubsampleWhileDecoding() throws Exception {
+        // Given - 3200x1600 pour une boite de 400: 8x plus grand
+        Path source = directory.resolve("photo.png");
+        ImageIO.write(filled(3200, 1600, Color.RED), "png", source.toFile());
+
+        // When
+        BufferedImage decoded = service.decode(source, ImageResizingService.MEDIUM_SIZE, ImageResizingService.MEDIUM_SIZE);
+
+        // Then - jamais la pleine resolution, jamais moins de deux fois la boite
+        assertEquals(800, decoded.getWidth());
+        assertEquals(400, decoded.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should encode JPEG with the configured quality")
+    void shouldEncodeJpegWithConfiguredQuality() throws Exception {
+        // Given
+        BufferedImage image = noise(200, 200);
+        ByteArrayOutputStream defaultQuality = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", defaultQuality);
+
+        // When
+        byte[] encoded = service.encode(image, "jpg");
+        Path file = directory.resolve("photo.jpg");
+        Files.write(file, new byte[encoded.length * 2]);
+        service.encode(image, "jpg", file);
+
+        // Then - 0.85 au lieu du 0.75 par defaut d'ImageIO; un fichier existant est remplace, pas recouvert
+        assertTrue(encoded.length > defaultQuality.size());
+        assertEquals(encoded.length, Files.size(file));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded));
+        assertEquals(200, decoded.getWidth());
+    }
+}
@@ -0,0 +1,102 @@
+package com.oneeats.unit.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.domain.event.NotificationCreatedEvent;
+import com.oneeats.notification.domain.model.NotificationType;
+import com.oneeats.order.domain.event.OrderCreatedEvent;
+import com.oneeats.order.domain.event.OrderStatusChangedEvent;
+import com.oneeats.order.domain.model.OrderStatus;
+import com.oneeats.shared.domain.event.IDomainEvent;
+import com.oneeats.shared.infrastructure.outbox.OutboxEventCodec;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour OutboxEventCodec
+ * Un evenement relu depuis l'outbox doit conserver son identifiant (cle d'idempotence) et ses donnees
+ */
+@DisplayName("OutboxEventCodec Unit Tests")
+class OutboxEventCodecTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("770e8400-e29b-41d4-a716-446655440001");
+    private static final UUID USER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final UUID RESTAURANT_ID = UUID.fromString("660e8400-e29b-41d4-a716-446655440001");
+
+    private OutboxEventCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new OutboxEventCodec(new ObjectMapper());
+    }
+
+    private IDomainEvent roundTrip(IDomainEvent event) {
+        return codec.decode(codec.eventId(event), codec.eventType(event), codec.encode(event));
+    }
+
+    @Test
+    @DisplayName("Should round-trip OrderCreatedEvent")
+    void shouldRoundTripOrderCreatedEvent() {
+        // Given
+        OrderCreatedEvent event = new OrderCreatedEvent(ORDER_ID, "CMD-001", USER_ID, RESTAURANT_ID);
+
+        // When
+        OrderCreatedEvent decoded = (OrderCreatedEvent) roundTrip(event);
+
+        // Then
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(ORDER_ID, decoded.getOrderId());
+        assertEquals("CMD-001", decoded.getOrderNumber());
+        assertEquals(USER_ID, decoded.getUserId());
+        assertEquals(RESTAURANT_ID, decoded.getRestaurantId());
+        assertEquals(event.occurredOn(), decoded.occurredOn());
+    }
+
+    @Test
+    @DisplayName("Should round-trip OrderStatusChangedEvent")
+    void shouldRoundTripOrderStatusChangedEvent() {
+        // Given
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+            ORDER_ID, USER_ID, RESTAURANT_ID, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+
+        // When
+        OrderStatusChangedEvent decoded = (OrderStatusChangedEvent) roundTrip(event);
+
+        // Then
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(OrderStatus.PENDING, decoded.getPreviousStatus());
+        assertEquals(OrderStatus.CONFIRMED, decoded.getNewStatus());
+        assertEquals(RESTAURANT_ID, decoded.getRestaurantId());
+    }
+
+    @Test
+    @DisplayName("Should round-trip NotificationCreatedEvent")
+    void shouldRoundTripNotificationCreatedEvent() {
+        // Given
+        UUID notificationId = UUID.randomUUID();
+        NotificationCreatedEvent event = new NotificationCreatedEvent(notificationId, USER_ID, NotificationType.ORDER_CANCELLED);
+
+        // When
+        NotificationCreatedEvent decoded = (NotificationCreatedEvent) roundTrip(event);
+
+        // Then
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(notificationId, decoded.getNotificationId());
+        assertEquals(NotificationType.ORDER_CANCELLED, decoded.getType());
+    }
+
+    @Test
+    @DisplayName("Should reject events the outbox does not know")
+    void shouldRejectUnsupportedEvents() {
+        // Given
+        IDomainEvent unsupported = LocalDateTime::now;
+
+        // Then
+        assertFalse(codec.supports(unsupported));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(unsupported));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(UUID.randomUUID(), "UnknownEvent", "{\"occurredOn\":\"2025-01-01T10:00\"}"));
+    }
+}
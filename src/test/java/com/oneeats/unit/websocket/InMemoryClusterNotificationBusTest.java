@@ -0,0 +1,106 @@
+package com.oneeats.unit.websocket;
+
+import com.oneeats.notification.infrastructure.cluster.ClusterNotification;
+import com.oneeats.notification.infrastructure.cluster.InMemoryClusterNotificationBus;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour InMemoryClusterNotificationBus
+ * Simule plusieurs noeuds partageant un meme hub pour verifier le routage par presence
+ */
+@DisplayName("InMemoryClusterNotificationBus Unit Tests")
+class InMemoryClusterNotificationBusTest {
+
+    private static final UUID RESTAURANT_ID = UUID.fromString("660e8400-e29b-41d4-a716-446655440001");
+
+    private InMemoryClusterNotificationBus nodeA;
+    private InMemoryClusterNotificationBus nodeB;
+    private InMemoryClusterNotificationBus nodeC;
+    private List<ClusterNotification> receivedByA;
+    private List<ClusterNotification> receivedByB;
+    private List<ClusterNotification> receivedByC;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryClusterNotificationBus.Hub hub = new InMemoryClusterNotificationBus.Hub();
+        nodeA = new InMemoryClusterNotificationBus(hub, "node-a");
+        nodeB = new InMemoryClusterNotificationBus(hub, "node-b");
+        nodeC = new InMemoryClusterNotificationBus(hub, "node-c");
+        receivedByA = new CopyOnWriteArrayList<>();
+        receivedByB = new CopyOnWriteArrayList<>();
+        receivedByC = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(receivedByA::add);
+        nodeB.subscribe(receivedByB::add);
+        nodeC.subscribe(receivedByC::add);
+    }
+
+    private ClusterNotification notificationFrom(InMemoryClusterNotificationBus origin) {
+        return new ClusterNotification(RecipientType.RESTAURANT, RESTAURANT_ID, origin.nodeId(), 1L, "new_order",
+            "{\"seq\":1,\"type\":\"new_order\"}");
+    }
+
+    @Test
+    @DisplayName("Should route only to nodes holding sessions for the target")
+    void shouldRouteOnlyToNodesHoldingSessions() {
+        // Given - la tablette du restaurant est connectee au noeud B
+        nodeB.recipientConnected(RecipientType.RESTAURANT, RESTAURANT_ID);
+
+        // When - la commande est confirmee sur le noeud A
+        nodeA.publish(notificationFrom(nodeA));
+
+        // Then
+        assertEquals(1, receivedByB.size());
+        assertEquals("{\"type\":\"new_order\"}", receivedByB.get(0).text());
+        assertTrue(receivedByA.isEmpty());
+        assertTrue(receivedByC.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not loop back to the publishing node")
+    void shouldNotLoopBackToPublisher() {
+        // Given - sessions sur A (local) et B
+        nodeA.recipientConnected(RecipientType.RESTAURANT, RESTAURANT_ID);
+        nodeB.recipientConnected(RecipientType.RESTAURANT, RESTAURANT_ID);
+
+        // When
+        nodeA.publish(notificationFrom(nodeA));
+
+        // Then
+        assertTrue(receivedByA.isEmpty());
+        assertEquals(1, receivedByB.size());
+    }
+
+    @Test
+    @DisplayName("Should stop routing once the last session disconnects")
+    void shouldStopRoutingAfterDisconnect() {
+        // Given
+        nodeB.recipientConnected(RecipientType.RESTAURANT, RESTAURANT_ID);
+        nodeB.recipientDisconnected(RecipientType.RESTAURANT, RESTAURANT_ID);
+
+        // When
+        nodeA.publish(notificationFrom(nodeA));
+
+        // Then
+        assertTrue(receivedByB.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not confuse users and restaurants with the same id")
+    void shouldSeparateRecipientTypes() {
+        // Given
+        nodeB.recipientConnected(RecipientType.USER, RESTAURANT_ID);
+
+        // When
+        nodeA.publish(notificationFrom(nodeA));
+
+        // Then
+        assertTrue(receivedByB.isEmpty());
+    }
+}
@@ -0,0 +1,208 @@
+package com.oneeats.unit.websocket;
+
+import com.oneeats.notification.infrastructure.websocket.NotificationFrame;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.RecipientType;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.Replay;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer.SequencedFrame;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour NotificationReplayBuffer
+ * Teste la numerotation, le rejeu depuis une sequence et les limites memoire
+ */
+@DisplayName("NotificationReplayBuffer Unit Tests")
+class NotificationReplayBufferTest {
+
+    private static final UUID USER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID OTHER_USER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440009");
+    private static final UUID RESTAURANT_ID = UUID.fromString("660e8400-e29b-41d4-a716-446655440001");
+
+    private NotificationReplayBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new NotificationReplayBuffer(3, 2, Duration.ofMinutes(30), new SimpleMeterRegistry());
+    }
+
+    private NotificationFrame frame(String type) {
+        return new NotificationFrame(type, "{\"type\":\"" + type + "\"}");
+    }
+
+    @Nested
+    @DisplayName("Sequencing")
+    class Sequencing {
+
+        @Test
+        @DisplayName("Should assign strictly increasing sequence ids and embed them in the frame")
+        void shouldAssignIncreasingSequenceIds() {
+            // When
+            SequencedFrame first = buffer.append(RecipientType.USER, USER_ID, frame("a"));
+            SequencedFrame second = buffer.append(RecipientType.USER, USER_ID, frame("b"));
+
+            // Then
+            assertTrue(second.seq() > first.seq());
+            assertEquals("{\"seq\":" + second.seq() + ",\"type\":\"b\"}", second.frame().text());
+        }
+
+        @Test
+        @DisplayName("Should keep users and restaurants in separate buffers")
+        void shouldSeparateRecipientTypes() {
+            // Given
+            SequencedFrame userFrame = buffer.append(RecipientType.USER, USER_ID, frame("user"));
+            buffer.append(RecipientType.RESTAURANT, USER_ID, frame("restaurant"));
+
+            // When
+            Replay replay = buffer.replaySince(RecipientType.USER, USER_ID, userFrame.seq() - 1);
+
+            // Then
+            assertEquals(1, replay.frames().size());
+            assertEquals("user", replay.frames().get(0).frame().type());
+        }
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class ReplaySince {
+
+        @Test
+        @DisplayName("Should replay only the frames after the given sequence")
+        void shouldReplayOnlyTheGap() {
+            // Given
+            SequencedFrame first = buffer.append(RecipientType.RESTAURANT, RESTAURANT_ID, frame("a"));
+            buffer.append(RecipientType.RESTAURANT, RESTAURANT_ID, frame("b"));
+            buffer.append(RecipientType.RESTAURANT, RESTAURANT_ID, frame("c"));
+
+            // When
+            Replay replay = buffer.replaySince(RecipientType.RESTAURANT, RESTAURANT_ID, first.seq());
+
+            // Then
+            assertFalse(replay.gap());
+            assertEquals(2, replay.frames().size());
+            assertEquals("b", replay.frames().get(0).frame().type());
+            assertEquals("c", replay.frames().get(1).frame().type());
+        }
+
+        @Test
+        @DisplayName("Should report a gap when missed frames were evicted by capacity")
+        void shouldReportGapAfterCapacityEviction() {
+            // Given - capacite de 3 trames
+            SequencedFrame first = buffer.append(RecipientType.USER, USER_ID, frame("a"));
+            for (int i = 0; i < 4; i++) {
+                buffer.append(RecipientType.USER, USER_ID, frame("n" + i));
+            }
+
+            // When
+            Replay replay = buffer.replaySince(RecipientType.USER, USER_ID, first.seq());
+
+            // Then
+            assertTrue(replay.gap());
+            assertEquals(3, replay.frames().size());
+            assertEquals(2, buffer.stats().evictedByCapacity());
+            assertEquals(3, buffer.stats().bufferedFrames());
+        }
+
+        @Test
+        @DisplayName("Should report a gap when the recipient was evicted")
+        void shouldReportGapAfterRecipientEviction() {
+            // Given - 2 destinataires maximum
+            SequencedFrame first = buffer.append(RecipientType.USER, USER_ID, frame("a"));
+            buffer.append(RecipientType.USER, OTHER_USER_ID, frame("b"));
+            buffer.append(RecipientType.RESTAURANT, RESTAURANT_ID, frame("c"));
+
+            // When
+            Replay replay = buffer.replaySince(RecipientType.USER, USER_ID, first.seq() - 1);
+
+            // Then
+            assertTrue(replay.gap());
+            assertTrue(replay.frames().isEmpty());
+            assertEquals(2, buffer.stats().recipients());
+            assertEquals(1, buffer.stats().evictedByRecipientLimit());
+        }
+
+        @Test
+        @DisplayName("Should expire frames older than the maximum age")
+        void shouldExpireOldFrames() {
+            // Given
+            NotificationReplayBuffer shortLived = new NotificationReplayBuffer(3, 2, Duration.ofMillis(-1), new SimpleMeterRegistry());
+            SequencedFrame first = shortLived.append(RecipientType.USER, USER_ID, frame("a"));
+
+            // When
+            shortLived.expire();
+            Replay replay = shortLived.replaySince(RecipientType.USER, USER_ID, first.seq() - 1);
+
+            // Then
+            assertTrue(replay.gap());
+            assertTrue(replay.frames().isEmpty());
+            assertEquals(1, shortLived.stats().evictedByAge());
+        }
+
+        @Test
+        @DisplayName("Should send gap marker then missed frames to the reconnecting session")
+        void shouldSendMissedFramesToSession() {
+            // Given
+            Session session = mock(Session.class);
+            RemoteEndpoint.Async asyncRemote = mock(RemoteEndpoint.Async.class);
+            when(session.getAsyncRemote()).thenReturn(asyncRemote);
+            SequencedFrame first = buffer.append(RecipientType.USER, USER_ID, frame("a"));
+            SequencedFrame second = buffer.append(RecipientType.USER, USER_ID, frame("b"));
+
+            // When
+            buffer.replayTo(session, RecipientType.USER, USER_ID, first.seq());
+
+            // Then
+            verify(asyncRemote).sendText(second.frame().text());
+            verify(asyncRemote, never()).sendText(contains("replay_gap"));
+        }
+    }
+    @Nested
+    @DisplayName("Cluster")
+    class Cluster {
+
+        @Test
+        @DisplayName("Should buffer a frame from another node with its original sequence")
+        void shouldBufferReplicatedFrame() {
+            // Given - trame sequencee par un autre noeud, en avance sur l'horloge locale
+            SequencedFrame local = buffer.append(RecipientType.USER, USER_ID, frame("local"));
+            long remoteSeq = local.seq() + 1_000;
+            NotificationFrame remote = frame("remote").withSequence(remoteSeq);
+
+            // When
+            boolean buffered = buffer.appendReplicated(RecipientType.USER, USER_ID, remoteSeq, remote);
+            SequencedFrame next = buffer.append(RecipientType.USER, USER_ID, frame("next"));
+
+            // Then - rejouee telle quelle, et les trames locales suivantes restent posterieures
+            assertTrue(buffered);
+            Replay replay = buffer.replaySince(RecipientType.USER, USER_ID, local.seq());
+            assertEquals(2, replay.frames().size());
+            assertEquals(remoteSeq, replay.frames().get(0).seq());
+            assertEquals(remote.text(), replay.frames().get(0).frame().text());
+            assertTrue(next.seq() > remoteSeq);
+            assertFalse(replay.gap());
+        }
+
+        @Test
+        @DisplayName("Should not buffer a replicated frame older than the last one")
+        void shouldSkipOutOfOrderReplicatedFrame() {
+            // Given
+            SequencedFrame local = buffer.append(RecipientType.USER, USER_ID, frame("local"));
+
+            // When
+            boolean buffered = buffer.appendReplicated(RecipientType.USER, USER_ID, local.seq() - 1,
+                frame("late").withSequence(local.seq() - 1));
+
+            // Then
+            assertFalse(buffered);
+            assertEquals(1, buffer.replaySince(RecipientType.USER, USER_ID, local.seq() - 2).frames().size());
+        }
+    }
+}
@@ -225,6 +225,20 @@ class RestaurantWebSocketTest {
             verify(asyncRemote).sendText(contains("\"type\":\"echo\""));
         }
 
+        @Test
+        @DisplayName("Should escape echoed messages")
+        void shouldEscapeEchoedMessages() {
+            // Given
+            webSocket.onOpen(session, VALID_RESTAURANT_ID_STRING);
+            reset(asyncRemote);
+
+            // When - tentative d'injection de champs JSON
+            webSocket.onMessage("\",\"type\":\"new_order", VALID_RESTAURANT_ID_STRING, session);
+
+            // Then
+            verify(asyncRemote).sendText("{\"type\":\"echo\",\"message\":\"\\\",\\\"type\\\":\\\"new_order\"}");
+        }
+
         @Test
         @DisplayName("Should not send to closed session")
         void shouldNotSendToClosedSession() {
@@ -2,19 +2,25 @@ package com.oneeats.unit.websocket;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneeats.notification.infrastructure.cluster.ClusterNotificationBus;
+import com.oneeats.notification.infrastructure.websocket.NotificationFrameEncoder;
+import com.oneeats.notification.infrastructure.websocket.NotificationReplayBuffer;
 import com.oneeats.notification.infrastructure.websocket.NotificationWebSocket;
 import com.oneeats.notification.infrastructure.websocket.RestaurantWebSocket;
 import com.oneeats.notification.infrastructure.websocket.WebSocketNotificationService;
 import jakarta.websocket.RemoteEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.websocket.Session;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,6 +42,9 @@ class WebSocketNotificationServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ClusterNotificationBus clusterBus;
+
     @Mock
     private Session session;
 
@@ -44,6 +53,8 @@ class WebSocketNotificationServiceTest {
 
     private AutoCloseable mocks;
 
+    private NotificationReplayBuffer replayBuffer;
+
     private static final UUID USER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
     private static final UUID RESTAURANT_ID = UUID.fromString("660e8400-e29b-41d4-a716-446655440001");
     private static final UUID ORDER_ID = UUID.fromString("770e8400-e29b-41d4-a716-446655440002");
@@ -51,6 +62,7 @@ class WebSocketNotificationServiceTest {
     @BeforeEach
     void setUp() throws Exception {
         mocks = MockitoAnnotations.openMocks(this);
+        injectFrameEncoder();
 
         when(session.getAsyncRemote()).thenReturn(asyncRemote);
         when(session.getId()).thenReturn("test-session-id");
@@ -68,6 +80,27 @@ class WebSocketNotificationServiceTest {
         mocks.close();
     }
 
+    /**
+     * L'encodeur de trames enveloppe l'ObjectMapper mocke: chaque envoi doit le serialiser une seule fois
+     */
+    private void injectFrameEncoder() throws Exception {
+        Field encoderField = WebSocketNotificationService.class.getDeclaredField("frameEncoder");
+        encoderField.setAccessible(true);
+        encoderField.set(notificationService, new NotificationFrameEncoder(objectMapper));
+
+        replayBuffer = new NotificationReplayBuffer(100, 1000, Duration.ofMinutes(30), new SimpleMeterRegistry());
+        Field bufferField = WebSocketNotificationService.class.getDeclaredField("replayBuffer");
+        bufferField.setAccessible(true);
+        bufferField.set(notificationService, replayBuffer);
+    }
+
+    /**
+     * Trame envoyee = JSON serialise avec le numero de sequence insere en tete
+     */
+    private static String sequenced(String json) {
+        return argThat(text -> text.startsWith("{\"seq\":") && text.endsWith("," + json.substring(1)));
+    }
+
     @SuppressWarnings("unchecked")
     private void clearNotificationSessions() throws Exception {
         Field sessionsField = NotificationWebSocket.class.getDeclaredField("sessions");
@@ -119,13 +152,14 @@ class WebSocketNotificationServiceTest {
 
             // Then
             verify(objectMapper).writeValueAsString(any(WebSocketNotificationService.OrderStatusNotification.class));
-            verify(asyncRemote).sendText(jsonNotification);
+            verify(asyncRemote).sendText(sequenced(jsonNotification));
         }
 
         @Test
-        @DisplayName("Should skip order status notification when user is disconnected")
-        void shouldSkipOrderStatusNotificationWhenUserDisconnected() throws Exception {
+        @DisplayName("Should buffer order status notification when user is disconnected")
+        void shouldBufferOrderStatusNotificationWhenUserDisconnected() throws Exception {
             // Given - User not connected
+            when(objectMapper.writeValueAsString(any())).thenReturn("{\"type\":\"order_status_update\"}");
 
             // When
             notificationService.sendOrderStatusNotification(
@@ -133,8 +167,9 @@ class WebSocketNotificationServiceTest {
             );
 
             // Then
-            verify(objectMapper, never()).writeValueAsString(any());
+            verify(objectMapper, times(1)).writeValueAsString(any());
             verify(asyncRemote, never()).sendText(anyString());
+            assertEquals(1, replayBuffer.stats().bufferedFrames());
         }
 
         @Test
@@ -170,19 +205,22 @@ class WebSocketNotificationServiceTest {
 
             // Then
             verify(objectMapper).writeValueAsString(any(WebSocketNotificationService.GeneralNotification.class));
-            verify(asyncRemote).sendText(jsonNotification);
+            verify(asyncRemote).sendText(sequenced(jsonNotification));
         }
 
         @Test
-        @DisplayName("Should skip general notification when user is disconnected")
-        void shouldSkipGeneralNotificationWhenUserDisconnected() throws Exception {
+        @DisplayName("Should buffer general notification when user is disconnected")
+        void shouldBufferGeneralNotificationWhenUserDisconnected() throws Exception {
             // Given - User not connected
+            when(objectMapper.writeValueAsString(any())).thenReturn("{\"type\":\"promotion\"}");
 
             // When
             notificationService.sendNotification(USER_ID, "promotion", "Promo", "50% de reduction");
 
             // Then
-            verify(objectMapper, never()).writeValueAsString(any());
+            verify(objectMapper, times(1)).writeValueAsString(any());
+            verify(asyncRemote, never()).sendText(anyString());
+            assertEquals(1, replayBuffer.stats().bufferedFrames());
         }
     }
 
@@ -205,13 +243,43 @@ class WebSocketNotificationServiceTest {
 
             // Then
             verify(objectMapper).writeValueAsString(any(WebSocketNotificationService.NewOrderNotification.class));
-            verify(asyncRemote).sendText(jsonNotification);
+            verify(asyncRemote).sendText(sequenced(jsonNotification));
+        }
+
+        @Test
+        @DisplayName("Should serialize new order once for all restaurant sessions")
+        void shouldSerializeNewOrderOnceForAllRestaurantSessions() throws Exception {
+            // Given - deux tablettes connectees pour le meme restaurant
+            connectRestaurant(RESTAURANT_ID);
+            Session secondSession = mock(Session.class);
+            RemoteEndpoint.Async secondRemote = mock(RemoteEndpoint.Async.class);
+            when(secondSession.getAsyncRemote()).thenReturn(secondRemote);
+            when(secondSession.isOpen()).thenReturn(true);
+            Field sessionsField = RestaurantWebSocket.class.getDeclaredField("restaurantSessions");
+            sessionsField.setAccessible(true);
+            @SuppressWarnings("unchecked")
+            Map<UUID, Set<Session>> sessions = (Map<UUID, Set<Session>>) sessionsField.get(null);
+            sessions.get(RESTAURANT_ID).add(secondSession);
+
+            String jsonNotification = "{\"type\":\"new_order\",\"orderId\":\"" + ORDER_ID + "\"}";
+            when(objectMapper.writeValueAsString(any())).thenReturn(jsonNotification);
+
+            // When
+            notificationService.sendNewOrderToRestaurant(
+                RESTAURANT_ID, ORDER_ID, "ORD-001", "John Doe", 25.50
+            );
+
+            // Then
+            verify(objectMapper, times(1)).writeValueAsString(any());
+            verify(asyncRemote).sendText(sequenced(jsonNotification));
+            verify(secondRemote).sendText(sequenced(jsonNotification));
         }
 
         @Test
-        @DisplayName("Should skip new order notification for disconnected restaurant")
-        void shouldSkipNewOrderNotificationForDisconnectedRestaurant() throws Exception {
+        @DisplayName("Should buffer new order notification for disconnected restaurant")
+        void shouldBufferNewOrderNotificationForDisconnectedRestaurant() throws Exception {
             // Given - Restaurant not connected
+            when(objectMapper.writeValueAsString(any())).thenReturn("{\"type\":\"new_order\"}");
 
             // When
             notificationService.sendNewOrderToRestaurant(
@@ -219,7 +287,9 @@ class WebSocketNotificationServiceTest {
             );
 
             // Then
-            verify(objectMapper, never()).writeValueAsString(any());
+            verify(objectMapper, times(1)).writeValueAsString(any());
+            verify(asyncRemote, never()).sendText(anyString());
+            assertEquals(1, replayBuffer.stats().bufferedFrames());
         }
 
         @Test
@@ -257,13 +327,14 @@ class WebSocketNotificationServiceTest {
 
             // Then
             verify(objectMapper).writeValueAsString(any(WebSocketNotificationService.RestaurantOrderStatusNotification.class));
-            verify(asyncRemote).sendText(jsonNotification);
+            verify(asyncRemote).sendText(sequenced(jsonNotification));
         }
 
         @Test
-        @DisplayName("Should skip order status notification for disconnected restaurant")
-        void shouldSkipOrderStatusNotificationForDisconnectedRestaurant() throws Exception {
+        @DisplayName("Should buffer order status notification for disconnected restaurant")
+        void shouldBufferOrderStatusNotificationForDisconnectedRestaurant() throws Exception {
             // Given - Restaurant not connected
+            when(objectMapper.writeValueAsString(any())).thenReturn("{\"type\":\"order_status_changed\"}");
 
             // When
             notificationService.sendOrderStatusToRestaurant(
@@ -271,7 +342,9 @@ class WebSocketNotificationServiceTest {
             );
 
             // Then
-            verify(objectMapper, never()).writeValueAsString(any());
+            verify(objectMapper, times(1)).writeValueAsString(any());
+            verify(asyncRemote, never()).sendText(anyString());
+            assertEquals(1, replayBuffer.stats().bufferedFrames());
         }
 
         @Test